@@ -17,15 +17,24 @@ import javax.lang.model.type.TypeKind;
 import javax.lang.model.util.Elements;
 import javax.lang.model.util.Types;
 import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.Writer;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.TreeSet;
 
 /**
  * Processor class for DessieLib annotations
  *
  * By utilizing the annotationProcessor, errors and warnings will
  * be thrown in some cases to help with catching development errors at compile time.
+ *
+ * A StorageDecomposer is also generated for every class with storage annotations, so they don't need to be decomposed
+ * with reflection at runtime. The generated decomposers are listed in the {@link DessieLibProcessor#INDEX} resource.
  */
 @SupportedAnnotationTypes(
         {"me.dessie.dessielib.annotations.storageapi.Stored",
@@ -35,9 +44,23 @@ import java.util.Set;
 @SupportedSourceVersion(SourceVersion.RELEASE_17)
 public class DessieLibProcessor extends AbstractProcessor {
 
+    /**
+     * The resource that lists every generated StorageDecomposer, one binary name per line.
+     */
+    public static final String INDEX = "META-INF/dessielib/storage-decomposers";
+
+    //Every decomposer generated during this compilation, written to the index once processing is over.
+    private final Set<String> generated = new TreeSet<>();
+
     @Override
     public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if(roundEnv.processingOver()) {
+            this.writeIndex();
+            return false;
+        }
+
         if(!this.claim(annotations)) return false;
+        boolean errored = false;
         Types typeUtil = processingEnv.getTypeUtils();
         Elements elementUtil = processingEnv.getElementUtils();
 
@@ -48,12 +71,14 @@ public class DessieLibProcessor extends AbstractProcessor {
         for (Element element : storedElements) {
             if(element.asType().getKind() == TypeKind.ARRAY || typeUtil.isAssignable(typeUtil.erasure(element.asType()), elementUtil.getTypeElement("java.util.Collection").asType())) {
                 processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Array or Collection implementation field annotated with Stored! Should be annotated with (StoredList.java:18)", element);
+                errored = true;
             }
         }
 
         for (Element element : storedListElements) {
             if(element.asType().getKind() != TypeKind.ARRAY && !typeUtil.isAssignable(typeUtil.erasure(element.asType()), elementUtil.getTypeElement("java.util.Collection").asType())) {
                 processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Non-array or Collection field annotated with StoredList! Should be annotated with (Stored.java:22)", element);
+                errored = true;
             }
         }
 
@@ -77,13 +102,58 @@ public class DessieLibProcessor extends AbstractProcessor {
                 List<String> params = executableElement.getParameters().stream().map(e -> e.asType().toString()).toList();
                 if(!annotationTypes.equals(params)) {
                     processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "RecomposeConstructor parameters do not match @Stored and @StoredList fields. Make sure there are equal amounts, and the order is similar.", element);
+                    errored = true;
                 }
             } else return true;
         }
 
+        //Nothing is generated if the compilation is going to fail anyway.
+        if(!errored) {
+            this.generate(storedElements, storedListElements, recomposeConstructElements);
+        }
+
         return true;
     }
 
+    private void generate(Set<? extends Element> storedElements, Set<? extends Element> storedListElements, Set<? extends Element> recomposeConstructElements) {
+        Set<TypeElement> types = new LinkedHashSet<>();
+        for(Set<? extends Element> elements : List.of(storedElements, storedListElements, recomposeConstructElements)) {
+            for(Element element : elements) {
+                if(element.getEnclosingElement() instanceof TypeElement type) {
+                    types.add(type);
+                }
+            }
+        }
+
+        StorageDecomposerGenerator generator = new StorageDecomposerGenerator(processingEnv);
+        for(TypeElement type : types) {
+            try {
+                String name = generator.generate(type);
+                if(name != null) {
+                    this.generated.add(name);
+                }
+            } catch (IOException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, "Unable to generate a StorageDecomposer, reflection will be used instead: " + e.getMessage(), type);
+            }
+        }
+    }
+
+    private void writeIndex() {
+        if(this.generated.isEmpty()) return;
+
+        try {
+            FileObject index = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", INDEX);
+            try(Writer writer = index.openWriter()) {
+                for(String name : this.generated) {
+                    writer.write(name);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, "Unable to write the StorageDecomposer index: " + e.getMessage());
+        }
+    }
+
     private boolean claim(Set<? extends TypeElement> annotations) {
         for(TypeElement element : annotations) {
             if(this.getSupportedAnnotationTypes().contains(element.getQualifiedName().toString())) {
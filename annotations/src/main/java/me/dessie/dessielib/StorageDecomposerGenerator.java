@@ -0,0 +1,286 @@
+package me.dessie.dessielib;
+
+import me.dessie.dessielib.annotations.storageapi.RecomposeConstructor;
+import me.dessie.dessielib.annotations.storageapi.Stored;
+import me.dessie.dessielib.annotations.storageapi.StoredList;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.MirroredTypeException;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Generates the source of a StorageDecomposer for a class with {@link Stored}, {@link StoredList} and {@link RecomposeConstructor} annotations.
+ *
+ * The generated decomposer behaves the same as one registered by reflection with StorageAPI#registerAnnotatedDecomposer,
+ * but reads the fields and calls the constructor directly.
+ * Private members use a VarHandle or MethodHandle instead, which are looked up once.
+ * Every local variable in the generated code starts with a "$", so it can never shadow a package name.
+ *
+ * Classes that can't be referenced from their own package, such as private or local classes, are skipped
+ * and will keep using reflection.
+ */
+class StorageDecomposerGenerator {
+
+    static final String SUFFIX = "$$StorageDecomposer";
+
+    private static final String STORAGE = "me.dessie.dessielib.storageapi";
+
+    private final ProcessingEnvironment processingEnv;
+
+    StorageDecomposerGenerator(ProcessingEnvironment processingEnv) {
+        this.processingEnv = processingEnv;
+    }
+
+    /**
+     * Generates the decomposer for a class.
+     *
+     * @param type The annotated class.
+     * @return The binary name of the generated decomposer, or null if the class can't have one generated.
+     * @throws IOException If the source file couldn't be written.
+     */
+    String generate(TypeElement type) throws IOException {
+        if(!this.isAccessible(type)) return null;
+
+        //Same as the fields that reflection would find with getDeclaredFields.
+        List<VariableElement> fields = new ArrayList<>();
+        List<VariableElement> recomposeFields = new ArrayList<>();
+        for(VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+            Stored stored = field.getAnnotation(Stored.class);
+            StoredList storedList = field.getAnnotation(StoredList.class);
+            if(stored == null && storedList == null) continue;
+
+            fields.add(field);
+            if((stored != null && stored.recompose()) || (storedList != null && storedList.recompose())) {
+                recomposeFields.add(field);
+            }
+        }
+
+        ExecutableElement constructor = ElementFilter.constructorsIn(type.getEnclosedElements()).stream()
+                .filter(c -> c.getAnnotation(RecomposeConstructor.class) != null).findFirst().orElse(null);
+
+        if(fields.isEmpty() && constructor == null) return null;
+
+        //Leave mismatched constructors to reflection, which reports them when recomposing.
+        if(constructor != null && constructor.getParameters().size() != recomposeFields.size()) return null;
+
+        Elements elements = this.processingEnv.getElementUtils();
+        String packageName = elements.getPackageOf(type).getQualifiedName().toString();
+        String binaryName = elements.getBinaryName(type).toString();
+        String generatedName = binaryName + SUFFIX;
+        String simpleName = packageName.isEmpty() ? generatedName : generatedName.substring(packageName.length() + 1);
+        String owner = type.getQualifiedName().toString();
+
+        StringBuilder source = new StringBuilder();
+        if(!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+
+        source.append("/**\n")
+                .append(" * Generated by DessieLibProcessor for {@link ").append(owner).append("}. Do not edit.\n")
+                .append(" */\n")
+                .append("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n")
+                .append("public final class ").append(simpleName).append(" extends ").append(STORAGE).append(".decomposition.StorageDecomposer<").append(owner).append("> {\n\n");
+
+        //Handles for the members that can't be accessed directly.
+        List<String> accessors = new ArrayList<>();
+        for(VariableElement field : fields) {
+            String accessor = this.getAccessor(field);
+            if(accessor == null) {
+                String handle = "FIELD_" + field.getSimpleName();
+                source.append("    private static final java.lang.invoke.VarHandle ").append(handle)
+                        .append(" = ").append(STORAGE).append(".decomposition.GeneratedDecomposer.field(")
+                        .append(owner).append(".class, \"").append(field.getSimpleName()).append("\", ")
+                        .append(this.getClassLiteral(field.asType())).append(");\n");
+                accessor = handle + ".get($object)";
+            }
+            accessors.add(accessor);
+        }
+
+        boolean directConstructor = constructor == null || !constructor.getModifiers().contains(Modifier.PRIVATE);
+        if(!directConstructor) {
+            source.append("    private static final java.lang.invoke.MethodHandle CONSTRUCTOR = ")
+                    .append(STORAGE).append(".decomposition.GeneratedDecomposer.constructor(").append(owner).append(".class");
+            for(VariableElement parameter : constructor.getParameters()) {
+                source.append(", ").append(this.getClassLiteral(parameter.asType()));
+            }
+            source.append(");\n");
+        }
+
+        if(constructor != null) {
+            source.append("    private static final String[] PATHS = {");
+            for(int i = 0; i < recomposeFields.size(); i++) {
+                source.append(i == 0 ? "" : ", ").append(quote(getPath(recomposeFields.get(i))));
+            }
+            source.append("};\n");
+
+            source.append("    private static final Class<?>[] PARAMETERS = {");
+            for(int i = 0; i < constructor.getParameters().size(); i++) {
+                source.append(i == 0 ? "" : ", ").append(this.getWrapperLiteral(constructor.getParameters().get(i).asType()));
+            }
+            source.append("};\n");
+        }
+
+        //Constructor
+        source.append("\n    public ").append(simpleName).append("() {\n")
+                .append("        super(").append(owner).append(".class, ").append(simpleName).append("::decompose")
+                .append(constructor != null ? ", " + simpleName + "::recompose" : "").append(");\n")
+                .append("    }\n\n");
+
+        //Decompose
+        source.append("    private static ").append(STORAGE).append(".decomposition.DecomposedObject decompose(")
+                .append(owner).append(" $object, ").append(STORAGE).append(".decomposition.DecomposedObject $decomposed) {\n");
+        for(int i = 0; i < fields.size(); i++) {
+            source.append("        $decomposed.addDecomposedKey(").append(quote(getPath(fields.get(i)))).append(", ").append(accessors.get(i)).append(");\n");
+        }
+        source.append("        return $decomposed;\n    }\n");
+
+        //Recompose
+        if(constructor != null) {
+            RecomposeConstructor annotation = constructor.getAnnotation(RecomposeConstructor.class);
+
+            source.append("\n    private static java.util.concurrent.CompletableFuture<").append(owner).append("> recompose(")
+                    .append(STORAGE).append(".container.StorageContainer $container, ")
+                    .append(STORAGE).append(".decomposition.RecomposedObject<").append(owner).append("> $recompose) {\n");
+
+            for(VariableElement field : recomposeFields) {
+                String path = quote(getPath(field));
+                if(field.getAnnotation(Stored.class) != null) {
+                    source.append("        $recompose.addRecomposeKey(").append(path).append(", ").append(this.getClassLiteral(field.asType()))
+                            .append(", $path -> (java.util.concurrent.CompletableFuture<Object>) (java.util.concurrent.CompletableFuture<?>) $container.retrieveAsync(")
+                            .append(this.getClassLiteral(field.asType())).append(", $path));\n");
+                } else {
+                    String listType = this.getClassLiteral(getListType(field.getAnnotation(StoredList.class)));
+                    source.append("        if ($container instanceof ").append(STORAGE).append(".container.ArrayContainer<?> $arrayContainer) {\n")
+                            .append("            $recompose.addRecomposeKey(").append(path).append(", ").append(listType)
+                            .append(", $path -> (java.util.concurrent.CompletableFuture<Object>) (java.util.concurrent.CompletableFuture<?>) $arrayContainer.retrieveListAsync(")
+                            .append(listType).append(", $path));\n")
+                            .append("        }\n");
+                }
+            }
+
+            source.append("\n        return $recompose.onComplete($completed -> {\n")
+                    .append("            Object[] $args = ").append(STORAGE).append(".decomposition.GeneratedDecomposer.arguments($completed, ")
+                    .append(owner).append(".class, PATHS, PARAMETERS, ").append(annotation.allowNull()).append(", ").append(annotation.throwError()).append(");\n")
+                    .append("            if ($args == null) return null;\n\n");
+
+            List<String> arguments = new ArrayList<>();
+            for(int i = 0; i < constructor.getParameters().size(); i++) {
+                arguments.add(directConstructor ? "(" + this.getWrapperName(constructor.getParameters().get(i).asType()) + ") $args[" + i + "]" : "$args[" + i + "]");
+            }
+
+            if(directConstructor) {
+                source.append("            return new ").append(owner).append("(").append(String.join(", ", arguments)).append(");\n");
+            } else {
+                source.append("            try {\n")
+                        .append("                return (").append(owner).append(") CONSTRUCTOR.invoke(").append(String.join(", ", arguments)).append(");\n")
+                        .append("            } catch (Throwable $e) {\n")
+                        .append("                $e.printStackTrace();\n")
+                        .append("                return null;\n")
+                        .append("            }\n");
+            }
+
+            source.append("        });\n    }\n");
+        }
+
+        source.append("}\n");
+
+        JavaFileObject file = this.processingEnv.getFiler().createSourceFile(generatedName, type);
+        try(Writer writer = file.openWriter()) {
+            writer.write(source.toString());
+        }
+
+        return generatedName;
+    }
+
+    /**
+     * Returns if the class can be referenced and constructed from a class in the same package.
+     */
+    private boolean isAccessible(TypeElement type) {
+        if(type.getKind() != ElementKind.CLASS && type.getKind() != ElementKind.RECORD) return false;
+        if(type.getModifiers().contains(Modifier.ABSTRACT)) return false;
+
+        TypeElement current = type;
+        while(true) {
+            if(current.getModifiers().contains(Modifier.PRIVATE)) return false;
+            if(current.getNestingKind() == NestingKind.TOP_LEVEL) return true;
+            if(current.getNestingKind() != NestingKind.MEMBER || !current.getModifiers().contains(Modifier.STATIC) && current.getKind() == ElementKind.CLASS) return false;
+            if(!(current.getEnclosingElement() instanceof TypeElement enclosing)) return false;
+
+            current = enclosing;
+        }
+    }
+
+    /**
+     * Returns the expression that reads a field directly, or null if it needs a VarHandle.
+     * Private fields are never read through a getter, since a getter may return something other than the field.
+     */
+    private String getAccessor(VariableElement field) {
+        if(field.getModifiers().contains(Modifier.PRIVATE)) return null;
+        return "$object." + field.getSimpleName();
+    }
+
+    private String getClassLiteral(TypeMirror type) {
+        return this.processingEnv.getTypeUtils().erasure(type).toString() + ".class";
+    }
+
+    private String getWrapperName(TypeMirror type) {
+        Types types = this.processingEnv.getTypeUtils();
+        if(type.getKind().isPrimitive()) {
+            return types.boxedClass(types.getPrimitiveType(type.getKind())).getQualifiedName().toString();
+        }
+        return types.erasure(type).toString();
+    }
+
+    private String getWrapperLiteral(TypeMirror type) {
+        return this.getWrapperName(type) + ".class";
+    }
+
+    private static TypeMirror getListType(StoredList storedList) {
+        try {
+            storedList.type();
+            throw new IllegalStateException("StoredList type should not be accessible at compile time");
+        } catch (MirroredTypeException e) {
+            return e.getTypeMirror();
+        }
+    }
+
+    private static String getPath(VariableElement field) {
+        Stored stored = field.getAnnotation(Stored.class);
+        if(stored != null && !stored.storeAs().equals("")) return stored.storeAs();
+
+        StoredList storedList = field.getAnnotation(StoredList.class);
+        if(storedList != null && !storedList.storeAs().equals("")) return storedList.storeAs();
+
+        return field.getSimpleName().toString();
+    }
+
+    private static String quote(String string) {
+        StringBuilder builder = new StringBuilder("\"");
+        for(char c : string.toCharArray()) {
+            switch (c) {
+                case '"' -> builder.append("\\\"");
+                case '\\' -> builder.append("\\\\");
+                case '\n' -> builder.append("\\n");
+                case '\r' -> builder.append("\\r");
+                case '\t' -> builder.append("\\t");
+                default -> builder.append(c);
+            }
+        }
+        return builder.append('"').toString();
+    }
+}
@@ -0,0 +1,110 @@
+package me.dessie.dessielib.storageapi.benchmarks;
+
+import me.dessie.dessielib.storageapi.ContainerTest;
+import me.dessie.dessielib.storageapi.CoreStorageAPI;
+import me.dessie.dessielib.storageapi.api.IStorageAPI;
+import me.dessie.dessielib.storageapi.container.RetrieveArrayContainer;
+import me.dessie.dessielib.storageapi.data.*;
+import me.dessie.dessielib.storageapi.format.flatfile.JSONContainer;
+import me.dessie.dessielib.storageapi.settings.JSONSettings;
+import me.dessie.dessielib.storageapi.settings.StorageSettings;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Creates the containers and test-core data objects that the benchmarks use.
+ */
+final class BenchmarkContainers {
+
+    private BenchmarkContainers() {}
+
+    /**
+     * Registers a StorageAPI with every test-core decomposer, the same way {@link ContainerTest} does.
+     *
+     * @return The StorageAPI.
+     */
+    static IStorageAPI createAPI() {
+        IStorageAPI api = CoreStorageAPI.register();
+        api.registerAnnotatedDecomposer(BasicObject.class);
+        api.registerAnnotatedDecomposer(BasicArrayObject.class);
+        api.registerAnnotatedDecomposer(ComplexObject.class);
+        api.registerAnnotatedDecomposer(ComplexArrayObject.class);
+        api.registerAnnotatedDecomposer(NestedComplexObject.class);
+        api.registerAnnotatedDecomposer(NestedComplexArrayObject.class);
+        return api;
+    }
+
+    /**
+     * Creates a container of a format in a new temporary directory.
+     * The container is never flushed automatically, so flushes only happen when a benchmark flushes.
+     *
+     * @param type The format of the container.
+     * @param api The StorageAPI.
+     * @param useCache If the container should cache objects.
+     * @return The container.
+     */
+    static RetrieveArrayContainer<?, ?> create(ContainerTest.ContainerType type, IStorageAPI api, boolean useCache) {
+        File file = new File(createDirectory(), "benchmark." + type.getType());
+
+        return switch (type) {
+            case JSON -> new JSONContainer(api, file, new JSONSettings().setUsesCache(useCache).setFlushRate(0));
+            case YAML -> new YAMLStandInContainer(api, file, new StorageSettings().setUsesCache(useCache).setFlushRate(0));
+        };
+    }
+
+    /**
+     * Closes a container and deletes its temporary directory.
+     *
+     * @param container The container that was created with {@link #create(ContainerTest.ContainerType, IStorageAPI, boolean)}.
+     */
+    static void destroy(RetrieveArrayContainer<?, ?> container) {
+        container.close();
+
+        File file = container instanceof JSONContainer json ? json.getJson() : ((YAMLStandInContainer) container).getYaml();
+        try (Stream<File> files = Files.walk(file.getParentFile().toPath()).sorted(Comparator.reverseOrder()).map(Path::toFile)) {
+            files.forEach(File::delete);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    static ComplexObject complexObject(int seed) {
+        return new ComplexObject(new BasicObject(seed, "Basic " + seed), seed * 1.5);
+    }
+
+    /**
+     * Creates the deepest test-core object, which has lists of decomposed objects that contain decomposed objects.
+     *
+     * @param seed Changes the values of the object.
+     * @param width How many objects are in each of its lists.
+     * @return The NestedComplexArrayObject.
+     */
+    static NestedComplexArrayObject nestedComplexArrayObject(int seed, int width) {
+        List<NestedComplexObject> nested = new ArrayList<>();
+        List<ComplexArrayObject> arrays = new ArrayList<>();
+
+        for(int i = 0; i < width; i++) {
+            nested.add(new NestedComplexObject(complexObject(seed + i), new BasicObject(-i, "Nested " + i), i % 2 == 0));
+            arrays.add(new ComplexArrayObject(Arrays.asList(complexObject(seed * i), complexObject(seed - i)), "Array " + i));
+        }
+
+        return new NestedComplexArrayObject(nested, arrays, "Root " + seed);
+    }
+
+    private static File createDirectory() {
+        try {
+            return Files.createTempDirectory("storage-benchmark").toFile();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package me.dessie.dessielib.storageapi.benchmarks;
+
+import me.dessie.dessielib.storageapi.ContainerTest;
+import me.dessie.dessielib.storageapi.api.IStorageAPI;
+import me.dessie.dessielib.storageapi.container.RetrieveArrayContainer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how long it takes to flush a large set of pending writes.
+ *
+ * The write buffer is filled before every invocation, so only the flush itself is measured.
+ * Half of the writes are primitives, and the other half are decomposed objects.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class FlushBenchmark {
+
+    @Param({"JSON", "YAML"})
+    public ContainerTest.ContainerType format;
+
+    @Param({"1000", "10000"})
+    public int dirty;
+
+    private IStorageAPI api;
+    private RetrieveArrayContainer<?, ?> container;
+    private int generation;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        this.api = BenchmarkContainers.createAPI();
+        this.container = BenchmarkContainers.create(this.format, this.api, true);
+    }
+
+    @Setup(Level.Invocation)
+    public void fill() {
+        //The values change every invocation, so every flush has to write the whole set.
+        this.generation++;
+
+        for(int i = 0; i < this.dirty; i++) {
+            if(i % 2 == 0) {
+                this.container.set("dirty.number" + i, i + this.generation);
+            } else this.container.set("dirty.object" + i, BenchmarkContainers.complexObject(i + this.generation));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkContainers.destroy(this.container);
+    }
+
+    @Benchmark
+    public void flush() {
+        this.container.flush().join();
+    }
+}
@@ -0,0 +1,69 @@
+package me.dessie.dessielib.storageapi.benchmarks;
+
+import me.dessie.dessielib.storageapi.ContainerTest;
+import me.dessie.dessielib.storageapi.api.IStorageAPI;
+import me.dessie.dessielib.storageapi.container.RetrieveArrayContainer;
+import me.dessie.dessielib.storageapi.data.NestedComplexArrayObject;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures recomposing the deepest test-core object, a {@link NestedComplexArrayObject},
+ * which has lists of decomposed objects that contain more decomposed objects.
+ *
+ * Caching is disabled, so every benchmark recomposes from the container's structure.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class RecomposeBenchmark {
+
+    private static final int OBJECTS = 50;
+
+    @Param({"JSON", "YAML"})
+    public ContainerTest.ContainerType format;
+
+    //How many objects are in each of the object's lists.
+    @Param({"2", "16"})
+    public int width;
+
+    private IStorageAPI api;
+    private RetrieveArrayContainer<?, ?> container;
+    private List<String> paths;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        this.api = BenchmarkContainers.createAPI();
+        this.container = BenchmarkContainers.create(this.format, this.api, false);
+
+        this.paths = new ArrayList<>();
+        for(int i = 0; i < OBJECTS; i++) {
+            String path = "nested.object" + i;
+            this.container.set(path, BenchmarkContainers.nestedComplexArrayObject(i, this.width));
+            this.paths.add(path);
+        }
+        this.container.flush().join();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkContainers.destroy(this.container);
+    }
+
+    @Benchmark
+    public NestedComplexArrayObject recompose() {
+        this.next = (this.next + 1) % OBJECTS;
+        return this.container.retrieve(NestedComplexArrayObject.class, this.paths.get(this.next));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OBJECTS)
+    public Map<String, NestedComplexArrayObject> recomposeAll() {
+        return this.container.retrieveAll(NestedComplexArrayObject.class, this.paths).join();
+    }
+}
@@ -0,0 +1,76 @@
+package me.dessie.dessielib.storageapi.benchmarks;
+
+import me.dessie.dessielib.storageapi.ContainerTest;
+import me.dessie.dessielib.storageapi.api.IStorageAPI;
+import me.dessie.dessielib.storageapi.container.RetrieveArrayContainer;
+import me.dessie.dessielib.storageapi.data.ComplexObject;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures retrieves with a cold and a warm cache.
+ *
+ * A cold cache has caching disabled, so every retrieve goes to the container's structure,
+ * and decomposed objects are recomposed every time. A warm cache has every path cached before the benchmark starts.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class RetrieveBenchmark {
+
+    private static final int OBJECTS = 1000;
+
+    public enum Cache {
+        COLD, WARM
+    }
+
+    @Param({"JSON", "YAML"})
+    public ContainerTest.ContainerType format;
+
+    @Param({"COLD", "WARM"})
+    public Cache cache;
+
+    private IStorageAPI api;
+    private RetrieveArrayContainer<?, ?> container;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        this.api = BenchmarkContainers.createAPI();
+        this.container = BenchmarkContainers.create(this.format, this.api, this.cache == Cache.WARM);
+
+        for(int i = 0; i < OBJECTS; i++) {
+            this.container.set("objects.object" + i, BenchmarkContainers.complexObject(i));
+            this.container.set("numbers.number" + i, i);
+        }
+        this.container.flush().join();
+
+        if(this.cache == Cache.WARM) {
+            for(int i = 0; i < OBJECTS; i++) {
+                this.container.retrieve(ComplexObject.class, "objects.object" + i);
+                this.container.retrieve("numbers.number" + i);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkContainers.destroy(this.container);
+    }
+
+    @Benchmark
+    public Object retrievePrimitive() {
+        return this.container.retrieve("numbers.number" + this.nextIndex());
+    }
+
+    @Benchmark
+    public ComplexObject retrieveObject() {
+        return this.container.retrieve(ComplexObject.class, "objects.object" + this.nextIndex());
+    }
+
+    private int nextIndex() {
+        this.next = (this.next + 1) % OBJECTS;
+        return this.next;
+    }
+}
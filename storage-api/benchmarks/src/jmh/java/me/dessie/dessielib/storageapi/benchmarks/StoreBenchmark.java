@@ -0,0 +1,74 @@
+package me.dessie.dessielib.storageapi.benchmarks;
+
+import me.dessie.dessielib.storageapi.ContainerTest;
+import me.dessie.dessielib.storageapi.api.IStorageAPI;
+import me.dessie.dessielib.storageapi.container.RetrieveArrayContainer;
+import me.dessie.dessielib.storageapi.data.ComplexObject;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how many decomposed objects can be stored per second.
+ *
+ * A single store sets one object and flushes it, so every object pays for a completion of the container.
+ * A batched store sets {@link #BATCH} objects and flushes them together, which is how the write buffer is meant to be used.
+ * A direct store bypasses the write buffer.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class StoreBenchmark {
+
+    private static final int BATCH = 100;
+
+    @Param({"JSON", "YAML"})
+    public ContainerTest.ContainerType format;
+
+    private IStorageAPI api;
+    private RetrieveArrayContainer<?, ?> container;
+    private ComplexObject[] objects;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        this.api = BenchmarkContainers.createAPI();
+        this.container = BenchmarkContainers.create(this.format, this.api, true);
+
+        this.objects = new ComplexObject[BATCH];
+        for(int i = 0; i < BATCH; i++) {
+            this.objects[i] = BenchmarkContainers.complexObject(i);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkContainers.destroy(this.container);
+    }
+
+    @Benchmark
+    public void singleStore() {
+        this.container.set(this.nextPath(), this.objects[this.next % BATCH]);
+        this.container.flush().join();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void batchedStore() {
+        for(ComplexObject object : this.objects) {
+            this.container.set(this.nextPath(), object);
+        }
+        this.container.flush().join();
+    }
+
+    @Benchmark
+    public void directStore() {
+        this.container.store(this.nextPath(), this.objects[this.next % BATCH]).join();
+    }
+
+    //The same paths are reused, so the document doesn't grow for the length of the benchmark.
+    private String nextPath() {
+        this.next = (this.next + 1) % (BATCH * 10);
+        return "objects.object" + this.next;
+    }
+}
@@ -0,0 +1,237 @@
+package me.dessie.dessielib.storageapi.benchmarks;
+
+import me.dessie.dessielib.storageapi.api.IStorageAPI;
+import me.dessie.dessielib.storageapi.container.RetrieveArrayContainer;
+import me.dessie.dessielib.storageapi.container.hooks.CompleteHook;
+import me.dessie.dessielib.storageapi.container.hooks.DeleteHook;
+import me.dessie.dessielib.storageapi.container.hooks.RetrieveHook;
+import me.dessie.dessielib.storageapi.container.hooks.StoreHook;
+import me.dessie.dessielib.storageapi.settings.StorageSettings;
+import me.dessie.dessielib.storageapi.util.Pair;
+import me.dessie.dessielib.storageapi.util.StoragePath;
+import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.Yaml;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+
+/**
+ * Stands in for the YAMLContainer from the spigot module, which needs a Bukkit server for its YamlConfiguration.
+ *
+ * YamlConfiguration keeps its sections as maps, and loads and saves them with SnakeYAML,
+ * so this container does the same with the same structure, and the same options that YamlConfiguration saves with.
+ * Sections are synchronized on the document, since stores are made from many Threads while flushing.
+ */
+public class YAMLStandInContainer extends RetrieveArrayContainer<List<Object>, Map<String, Object>> {
+
+    private final File yaml;
+    private final Yaml parser;
+    private final Map<String, Object> document = new LinkedHashMap<>();
+
+    /**
+     * @param api The IStorageAPI instance.
+     * @param yamlFile The YAML file that will be used for this Container.
+     * @param settings The StorageSettings for this Container.
+     */
+    @SuppressWarnings("unchecked")
+    public YAMLStandInContainer(IStorageAPI api, File yamlFile, StorageSettings settings) {
+        super(api, settings);
+        this.yaml = yamlFile;
+
+        DumperOptions options = new DumperOptions();
+        options.setIndent(2);
+        options.setDefaultFlowStyle(DumperOptions.FlowStyle.BLOCK);
+        this.parser = new Yaml(options);
+
+        if(this.getYaml().exists()) {
+            try (Reader reader = new FileReader(this.getYaml(), StandardCharsets.UTF_8)) {
+                Object loaded = this.parser.load(reader);
+                if(loaded instanceof Map<?, ?> map) {
+                    this.document.putAll((Map<String, Object>) map);
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * @return The YAML {@link File} that is being used for the container.
+     */
+    public File getYaml() {
+        return yaml;
+    }
+
+    @Override
+    protected StoreHook storeHook() {
+        return new StoreHook((path, data) -> {
+            synchronized (this.document) {
+                setPath(this.document, path, data);
+            }
+        });
+    }
+
+    @Override
+    protected DeleteHook deleteHook() {
+        return new DeleteHook(path -> {
+            synchronized (this.document) {
+                setPath(this.document, path, null);
+            }
+        });
+    }
+
+    @Override
+    protected RetrieveHook retrieveHook() {
+        return new RetrieveHook(path -> {
+            synchronized (this.document) {
+                return this.getPath(path);
+            }
+        });
+    }
+
+    @Override
+    protected CompleteHook completeHook() {
+        return new CompleteHook().onComplete(() -> {
+            try (Writer writer = new FileWriter(this.getYaml(), StandardCharsets.UTF_8)) {
+                synchronized (this.document) {
+                    this.parser.dump(this.document, writer);
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+
+            return CompletableFuture.completedFuture(null);
+        });
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected Set<String> retrieveKeys(String path) {
+        synchronized (this.document) {
+            Object section = path.isEmpty() ? this.document : this.getPath(path);
+            return section instanceof Map<?, ?> map ? new HashSet<>((Set<String>) map.keySet()) : new HashSet<>();
+        }
+    }
+
+    @Override
+    protected List<Object> getStoreListHandler() {
+        return new ArrayList<>();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected List<Object> getRetrieveListHandler(String path) {
+        synchronized (this.document) {
+            Object list = this.getPath(path);
+            if(list != null && !(list instanceof List<?>)) {
+                throw new IllegalArgumentException("List not found at path " + path);
+            }
+
+            return list != null ? new ArrayList<>((List<Object>) list) : new ArrayList<>();
+        }
+    }
+
+    @Override
+    protected BiConsumer<List<Object>, List<Pair<String, Object>>> handleListObject() {
+        return ((handler, list) -> {
+            Map<String, Object> section = new LinkedHashMap<>();
+
+            for(Pair<String, Object> pair : list) {
+                if(pair.getKey() == null) {
+                    handler.add(pair.getValue());
+                } else {
+                    setPath(section, pair.getKey(), pair.getValue());
+                }
+            }
+
+            if(!section.isEmpty()) {
+                handler.add(section);
+            }
+        });
+    }
+
+    @Override
+    protected BiConsumer<List<Object>, Map<String, Object>> add() {
+        return List::add;
+    }
+
+    @Override
+    protected Stream<Object> getHandlerStream(List<Object> handler) {
+        return handler.stream();
+    }
+
+    @Override
+    protected Stream<String> getNestedKeys(Map<String, Object> nested) {
+        return nested.keySet().stream();
+    }
+
+    @Override
+    protected boolean isHandler(Object object) {
+        return object instanceof List<?>;
+    }
+
+    @Override
+    protected boolean isNested(Object object) {
+        return object instanceof Map<?, ?>;
+    }
+
+    @Override
+    protected Object getObjectFromNested(Map<String, Object> nested, String key) {
+        return nested.get(key);
+    }
+
+    @Override
+    protected Object getPrimitive(Object object) {
+        return object;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isListSupported(Class<?> clazz) {
+        return super.isListSupported(clazz) || this.getAPI().resolveDecomposer(clazz) != null;
+    }
+
+    //Like YamlConfiguration, sections are created for the path, and a null value removes the path.
+    @SuppressWarnings("unchecked")
+    private static void setPath(Map<String, Object> section, String path, Object value) {
+        StoragePath storagePath = StoragePath.of(path);
+
+        Map<String, Object> current = section;
+        for(int i = 0; i < storagePath.size() - 1; i++) {
+            Object child = current.get(storagePath.getSegment(i));
+            if(!(child instanceof Map<?, ?>)) {
+                if(value == null) return;
+
+                child = new LinkedHashMap<String, Object>();
+                current.put(storagePath.getSegment(i), child);
+            }
+            current = (Map<String, Object>) child;
+        }
+
+        if(value == null) {
+            current.remove(storagePath.getName());
+        } else current.put(storagePath.getName(), value);
+    }
+
+    private Object getPath(String path) {
+        StoragePath storagePath = StoragePath.of(path);
+
+        Object current = this.document;
+        for(int i = 0; i < storagePath.size(); i++) {
+            if(!(current instanceof Map<?, ?> map)) return null;
+            current = map.get(storagePath.getSegment(i));
+        }
+        return current;
+    }
+}
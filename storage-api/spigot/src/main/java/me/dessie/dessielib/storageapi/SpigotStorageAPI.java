@@ -81,7 +81,7 @@ public class SpigotStorageAPI extends StorageAPI {
      */
     public void registerAnnotatedDecomposers(String pack) {
         ClassUtil.getClasses(Object.class, this.getPlugin(), pack)
-                .stream().filter(clazz -> this.getDecomposer(clazz) == null)
+                .stream().filter(clazz -> this.getDecomposerRegistry().getRegistered(clazz) == null)
                 .forEach(this::registerAnnotatedDecomposer);
     }
 }
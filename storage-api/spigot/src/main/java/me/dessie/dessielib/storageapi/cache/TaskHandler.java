@@ -3,17 +3,19 @@ package me.dessie.dessielib.storageapi.cache;
 import me.dessie.dessielib.storageapi.SpigotStorageAPI;
 import me.dessie.dessielib.storageapi.api.ITaskHandler;
 import org.bukkit.Bukkit;
-import org.bukkit.scheduler.BukkitTask;
+import org.bukkit.scheduler.BukkitRunnable;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 /**
  * TaskHandler implementation for a spigot version of StorageAPI.
  */
 public class TaskHandler implements ITaskHandler {
 
-    private static final Map<Runnable, BukkitTask> tasks = new HashMap<>();
+    //Tasks can be scheduled from any thread, such as a debounced completion.
+    private static final Map<Runnable, BukkitRunnable> tasks = new ConcurrentHashMap<>();
     private final SpigotStorageAPI api;
 
     /**
@@ -30,17 +32,32 @@ public class TaskHandler implements ITaskHandler {
 
     @Override
     public void runTaskLater(Runnable runnable, long delay) {
-        getTasks().put(runnable, Bukkit.getScheduler().runTaskLater(this.getAPI().getPlugin(), runnable, delay * 20));
+        this.later(runnable).runTaskLater(this.getAPI().getPlugin(), delay * 20);
+    }
+
+    @Override
+    public void runTaskLater(Runnable runnable, long delay, TimeUnit unit) {
+        //A tick is 50 milliseconds, so round up to the next tick.
+        long ticks = (unit.toMillis(delay) + 49) / 50;
+        this.later(runnable).runTaskLater(this.getAPI().getPlugin(), ticks);
     }
 
     @Override
     public void runTaskTimer(Runnable runnable, long delay, long period) {
-        getTasks().put(runnable, Bukkit.getScheduler().runTaskTimer(this.getAPI().getPlugin(), runnable, delay * 20, period * 20));
+        BukkitRunnable task = new BukkitRunnable() {
+            @Override
+            public void run() {
+                runnable.run();
+            }
+        };
+
+        getTasks().put(runnable, task);
+        task.runTaskTimer(this.getAPI().getPlugin(), delay * 20, period * 20);
     }
 
     @Override
     public void cancel(Runnable runnable) {
-        BukkitTask task = getTasks().get(runnable);
+        BukkitRunnable task = getTasks().remove(runnable);
         if(task != null) {
             task.cancel();
         }
@@ -55,7 +72,22 @@ public class TaskHandler implements ITaskHandler {
         return api;
     }
 
-    private static Map<Runnable, BukkitTask> getTasks() {
+    //Delayed tasks only run once, so they forget themselves when they run instead of staying in the map forever.
+    //The task is registered before it's scheduled, so it can't run before it's in the map.
+    private BukkitRunnable later(Runnable runnable) {
+        BukkitRunnable task = new BukkitRunnable() {
+            @Override
+            public void run() {
+                getTasks().remove(runnable, this);
+                runnable.run();
+            }
+        };
+
+        getTasks().put(runnable, task);
+        return task;
+    }
+
+    private static Map<Runnable, BukkitRunnable> getTasks() {
         return tasks;
     }
 }
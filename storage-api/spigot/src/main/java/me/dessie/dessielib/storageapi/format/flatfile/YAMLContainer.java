@@ -121,7 +121,7 @@ public class YAMLContainer extends RetrieveArrayContainer<List<Object>, Configur
     }
 
     @Override
-    public Set<String> getKeys(String path) {
+    protected Set<String> retrieveKeys(String path) {
         ConfigurationSection section = this.getConfiguration().getConfigurationSection(path);
         return section != null ? section.getKeys(false) : new HashSet<>();
     }
@@ -200,7 +200,7 @@ public class YAMLContainer extends RetrieveArrayContainer<List<Object>, Configur
      */
     @Override
     public boolean isListSupported(Class<?> clazz) {
-        return super.isListSupported(clazz) || this.getAPI().getDecomposer(clazz) != null;
+        return super.isListSupported(clazz) || this.getAPI().resolveDecomposer(clazz) != null;
     }
 
     /**
@@ -148,14 +148,14 @@ public abstract class PDContainer extends StorageContainer {
     }
 
     @Override
-    public Set<String> getKeys(String path) {
+    protected Set<String> retrieveKeys(String path) {
         return new HashSet<>();
     }
 
     @Override
     public boolean isSupported(Class<?> clazz) {
         if(tagTypes.containsValue(clazz)) return true;
-        if(this.getAPI().getDecomposer(clazz) != null) return true;
+        if(this.getAPI().resolveDecomposer(clazz) != null) return true;
 
         return false;
     }
@@ -1,5 +1,8 @@
 package me.dessie.dessielib.storageapi.api;
 
+import me.dessie.dessielib.storageapi.cache.CacheBudget;
+import me.dessie.dessielib.storageapi.cache.ExpiryWheel;
+import me.dessie.dessielib.storageapi.decomposition.GeneratedDecomposer;
 import me.dessie.dessielib.storageapi.decomposition.StorageDecomposer;
 
 import java.util.List;
@@ -14,11 +17,21 @@ public interface IStorageAPI {
      * Registers a provided class to generate a {@link StorageDecomposer} from it's Annotations.
      * If this method is not called, annotated classes will not be generated as StorageDecomposers.
      *
+     * If the annotation processor generated a decomposer for the class, it is used instead of reflection.
+     *
      * @param <T> The type of class
      * @param clazz The class that you wish to register with annotations.
      */
     <T> void registerAnnotatedDecomposer(Class<T> clazz);
 
+    /**
+     * Registers every {@link StorageDecomposer} that the annotation processor generated,
+     * as listed by the {@link GeneratedDecomposer#INDEX} resources of the ClassLoader.
+     *
+     * @param loader The ClassLoader that loaded the annotated classes.
+     */
+    void registerGeneratedDecomposers(ClassLoader loader);
+
     /**
      * Adds a {@link StorageDecomposer} that can be accessed through all StorageContainer instances.
      * These only need to be added once, and a class can only have 1 StorageDecomposer.
@@ -44,19 +57,84 @@ public interface IStorageAPI {
     ITaskHandler getTaskHandler();
 
     /**
-     * @return All registered {@link StorageDecomposer}s
+     * Returns the {@link ExpiryWheel} that expires cached objects for every container created with this API.
+     *
+     * @return The ExpiryWheel instance to use.
+     */
+    ExpiryWheel getExpiryWheel();
+
+    /**
+     * Returns the {@link StorageExecutor} that runs the asynchronous retrieves of every container created with this API.
+     *
+     * @return The StorageExecutor instance to use.
+     */
+    StorageExecutor getExecutor();
+
+    /**
+     * Replaces the {@link StorageExecutor}, for example to change how many threads or queued tasks it allows.
+     * The previous executor is shut down, but still runs the tasks that were already submitted to it.
+     *
+     * @param executor The StorageExecutor to use.
+     */
+    void setExecutor(StorageExecutor executor);
+
+    /**
+     * Stops the {@link ExpiryWheel} and shuts down the {@link StorageExecutor}, so that the API no longer runs any tasks.
+     * Every container created with this API should be closed first.
+     *
+     * Tasks that were already submitted to the executor will still be run.
+     */
+    void shutdown();
+
+    /**
+     * Sets a weight budget that is shared by the caches of every container created with this API afterwards.
+     * Once the combined weight of those caches exceeds the budget, objects are evicted from the heaviest cache.
+     *
+     * This should be set before any containers are created, since existing containers will not use the new budget.
+     *
+     * @see me.dessie.dessielib.storageapi.settings.StorageSettings#setWeigher(me.dessie.dessielib.storageapi.cache.eviction.Weigher)
+     *
+     * @param maxWeight The maximum combined weight, or -1 to remove the budget.
+     */
+    void setCacheBudget(long maxWeight);
+
+    /**
+     * Returns the {@link CacheBudget} shared by this API's containers.
+     *
+     * @return The CacheBudget, or null if there is no budget.
+     */
+    CacheBudget getCacheBudget();
+
+    /**
+     * Returns all registered {@link StorageDecomposer}s.
+     * Adding a decomposer to the list registers it, and removing one unregisters it.
+     *
+     * @return The list of registered StorageDecomposers
      */
     List<StorageDecomposer<?>> getStorageDecomposers();
 
     /**
-     * Returns a {@link StorageDecomposer} from the class instance.
+     * Returns the {@link StorageDecomposer} that was registered for the class.
+     *
+     * @see IStorageAPI#resolveDecomposer(Class) for finding the decomposer that decomposes a subclass.
      *
      * @param clazz The class to get the decomposer for.
      * @param <T> The Class type to get the decomposer for.
-     * @return The registered StorageDecomposer for the provided class, or null if it doesn't exist.
+     * @return The StorageDecomposer for the provided class, or null if it doesn't exist.
      */
     <T> StorageDecomposer<T> getDecomposer(Class<T> clazz);
 
+    /**
+     * Returns the {@link StorageDecomposer} that decomposes instances of the class.
+     * If no decomposer was registered for the class itself, the decomposer of its closest superclass or interface is returned,
+     * which can decompose the class, but only recomposes the type it was registered for.
+     *
+     * @param clazz The class to get the decomposer for.
+     * @param <T> The Class type to get the decomposer for.
+     * @return The StorageDecomposer that decomposes the provided class, or null if it doesn't exist.
+     */
+    <T> StorageDecomposer<? super T> resolveDecomposer(Class<T> clazz);
+
     /**
      * Returns the map of primitive classes to their respected Wrapped classes
      *
@@ -1,5 +1,7 @@
 package me.dessie.dessielib.storageapi.api;
 
+import java.util.concurrent.TimeUnit;
+
 /**
  * This class is used for running specific tasks asynchronously and on timers.
  *
@@ -22,6 +24,21 @@ public interface ITaskHandler {
      */
     void runTaskLater(Runnable runnable, long delay);
 
+    /**
+     * Runs a {@link Runnable} after a specified delay, in any unit.
+     *
+     * By default, the delay is rounded up to the nearest second.
+     * Implementations that can schedule more precisely should override this.
+     *
+     * @param runnable The Runnable to execute
+     * @param delay How long to wait before the task is executed.
+     * @param unit The unit of the delay.
+     */
+    default void runTaskLater(Runnable runnable, long delay, TimeUnit unit) {
+        long millis = unit.toMillis(delay);
+        this.runTaskLater(runnable, (millis + 999) / 1000);
+    }
+
     /**
      * Runs a {@link Runnable} after a specified delay, and repeats it infinitely until cancelled at the specified period.
      * @param runnable The Runnable to execute
@@ -3,8 +3,12 @@ package me.dessie.dessielib.storageapi.api;
 import me.dessie.dessielib.annotations.storageapi.RecomposeConstructor;
 import me.dessie.dessielib.annotations.storageapi.Stored;
 import me.dessie.dessielib.annotations.storageapi.StoredList;
+import me.dessie.dessielib.storageapi.cache.CacheBudget;
+import me.dessie.dessielib.storageapi.cache.ExpiryWheel;
 import me.dessie.dessielib.storageapi.container.ArrayContainer;
 import me.dessie.dessielib.storageapi.decomposition.DecomposedObject;
+import me.dessie.dessielib.storageapi.decomposition.DecomposerRegistry;
+import me.dessie.dessielib.storageapi.decomposition.GeneratedDecomposer;
 import me.dessie.dessielib.storageapi.decomposition.StorageDecomposer;
 
 import java.lang.reflect.Constructor;
@@ -46,27 +50,109 @@ public abstract class StorageAPI implements IStorageAPI {
         put(Short.class, 0);
     }};
 
-    private final List<StorageDecomposer<?>> storageDecomposers = new ArrayList<>();
+    private final DecomposerRegistry decomposerRegistry = new DecomposerRegistry();
+
+    //Created lazily, since the task handler is provided by the implementation.
+    private volatile ExpiryWheel expiryWheel;
+    private volatile StorageExecutor executor;
+    private CacheBudget cacheBudget;
+
+    @Override
+    public ExpiryWheel getExpiryWheel() {
+        if(this.expiryWheel == null) {
+            synchronized (this) {
+                if(this.expiryWheel == null) {
+                    this.expiryWheel = new ExpiryWheel(this.getTaskHandler());
+                }
+            }
+        }
+
+        return this.expiryWheel;
+    }
+
+    @Override
+    public StorageExecutor getExecutor() {
+        if(this.executor == null) {
+            synchronized (this) {
+                if(this.executor == null) {
+                    this.executor = new StorageExecutor();
+                }
+            }
+        }
+
+        return this.executor;
+    }
+
+    @Override
+    public void setExecutor(StorageExecutor executor) {
+        Objects.requireNonNull(executor, "Executor cannot be null!");
+
+        StorageExecutor previous;
+        synchronized (this) {
+            previous = this.executor;
+            this.executor = executor;
+        }
+
+        if(previous != null && previous != executor) {
+            previous.shutdown();
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        ExpiryWheel expiryWheel;
+        StorageExecutor executor;
+        synchronized (this) {
+            expiryWheel = this.expiryWheel;
+            executor = this.executor;
+        }
+
+        if(expiryWheel != null) {
+            expiryWheel.stop();
+        }
+
+        if(executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    @Override
+    public void setCacheBudget(long maxWeight) {
+        this.cacheBudget = maxWeight > 0 ? new CacheBudget(maxWeight) : null;
+    }
+
+    @Override
+    public CacheBudget getCacheBudget() {
+        return this.cacheBudget;
+    }
 
     @Override
     public List<StorageDecomposer<?>> getStorageDecomposers() {
-        return storageDecomposers;
+        return this.getDecomposerRegistry().getDecomposers();
     }
 
     @Override
-    @SuppressWarnings("unchecked")
     public <T> StorageDecomposer<T> getDecomposer(Class<T> clazz) {
-        if(clazz == null) return null;
-        return this.getStorageDecomposers().stream()
-                .filter(decomposer -> decomposer.getType() == clazz)
-                .map(composer -> (StorageDecomposer<T>) composer)
-                .findFirst().orElse(null);
+        return this.getDecomposerRegistry().get(clazz);
+    }
+
+    @Override
+    public <T> StorageDecomposer<? super T> resolveDecomposer(Class<T> clazz) {
+        return this.getDecomposerRegistry().resolve(clazz);
     }
 
     @Override
     public void addStorageDecomposer(StorageDecomposer<?> decomposer) {
-        getStorageDecomposers().removeIf(decomp -> decomp.getType() == decomposer.getType());
-        getStorageDecomposers().add(decomposer);
+        this.getDecomposerRegistry().register(decomposer);
+    }
+
+    /**
+     * Returns the {@link DecomposerRegistry} that holds this API's {@link StorageDecomposer}s.
+     *
+     * @return The DecomposerRegistry.
+     */
+    public DecomposerRegistry getDecomposerRegistry() {
+        return decomposerRegistry;
     }
 
     @Override
@@ -85,6 +171,13 @@ public abstract class StorageAPI implements IStorageAPI {
     @Override
     @SuppressWarnings("unchecked")
     public <T> void registerAnnotatedDecomposer(Class<T> clazz) {
+        //Prefer the decomposer generated by the annotation processor, since it doesn't use reflection.
+        StorageDecomposer<T> generated = GeneratedDecomposer.load(clazz);
+        if (generated != null) {
+            this.addStorageDecomposer(generated);
+            return;
+        }
+
         //Grab all the fields that have either Stored or StoredList annotations.
         List<Field> decomposeFields = Arrays.stream(clazz.getDeclaredFields()).filter(f -> f.isAnnotationPresent(Stored.class) || f.isAnnotationPresent(StoredList.class)).toList();
         List<Field> recomposeFields = Arrays.stream(clazz.getDeclaredFields()).filter(f -> (f.isAnnotationPresent(Stored.class) && f.getAnnotation(Stored.class).recompose()) || (f.isAnnotationPresent(StoredList.class) && f.getAnnotation(StoredList.class).recompose())).toList();
@@ -162,6 +255,11 @@ public abstract class StorageAPI implements IStorageAPI {
         }
     }
 
+    @Override
+    public void registerGeneratedDecomposers(ClassLoader loader) {
+        GeneratedDecomposer.loadIndex(loader).forEach(this::addStorageDecomposer);
+    }
+
     @Override
     public Map<Class<?>, Class<?>> getWrappers() {
         return wrappers;
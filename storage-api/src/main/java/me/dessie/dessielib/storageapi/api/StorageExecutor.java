@@ -0,0 +1,188 @@
+package me.dessie.dessielib.storageapi.api;
+
+import me.dessie.dessielib.storageapi.container.StorageContainer;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * A bounded {@link Executor} that runs the asynchronous retrieves of every {@link StorageContainer} created with an {@link IStorageAPI}.
+ *
+ * The executor has a fixed amount of threads and a fixed size queue, so a burst of retrieves can't create unlimited threads or tasks.
+ * Once the queue is full, a task is rejected and instead runs on the Thread that submitted it,
+ * which slows down whatever is submitting the retrieves until the queue has room again.
+ *
+ * Threads are daemon threads, and are stopped after being idle for a while.
+ *
+ * Anything that a storage Thread supplies to a StorageExecutor is run on that Thread instead of being queued.
+ * A storage Thread that blocks on a nested retrieve would otherwise wait for another storage Thread,
+ * which never comes once every Thread is waiting.
+ *
+ * @see IStorageAPI#setExecutor(StorageExecutor)
+ */
+public class StorageExecutor implements Executor {
+
+    private static final AtomicInteger POOL_ID = new AtomicInteger();
+
+    //Set on every Thread that a StorageExecutor creates.
+    private static final ThreadLocal<Boolean> STORAGE_THREAD = ThreadLocal.withInitial(() -> false);
+
+    private final ThreadPoolExecutor executor;
+    private final int queueCapacity;
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * Creates a StorageExecutor with a thread for every processor, and a queue of 1024 tasks.
+     */
+    public StorageExecutor() {
+        this(Math.max(2, Runtime.getRuntime().availableProcessors()), 1024);
+    }
+
+    /**
+     * Creates a StorageExecutor.
+     *
+     * @param threads The maximum amount of threads.
+     * @param queueCapacity The maximum amount of tasks that can wait for a thread.
+     * @throws IllegalArgumentException If threads or queueCapacity is less than 1.
+     */
+    public StorageExecutor(int threads, int queueCapacity) {
+        if(threads < 1) throw new IllegalArgumentException("StorageExecutor must have at least 1 thread!");
+        if(queueCapacity < 1) throw new IllegalArgumentException("StorageExecutor queue capacity must be at least 1!");
+
+        this.queueCapacity = queueCapacity;
+        this.executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), createThreadFactory(), this.createRejectionHandler());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        this.executor.execute(command);
+    }
+
+    /**
+     * Supplies a value asynchronously on this executor.
+     * If the current Thread is a storage Thread, the value is supplied on the current Thread instead.
+     *
+     * @param supplier Supplies the value.
+     * @param <T> The type of the value.
+     * @return A future that is completed with the value.
+     */
+    public <T> CompletableFuture<T> supply(Supplier<T> supplier) {
+        if(!isStorageThread()) {
+            return CompletableFuture.supplyAsync(supplier, this);
+        }
+
+        try {
+            return CompletableFuture.completedFuture(supplier.get());
+        } catch (Throwable throwable) {
+            return CompletableFuture.failedFuture(throwable);
+        }
+    }
+
+    /**
+     * @return If the current Thread was created by a StorageExecutor.
+     */
+    public static boolean isStorageThread() {
+        return STORAGE_THREAD.get();
+    }
+
+    /**
+     * Stops accepting tasks. Tasks that were already submitted will still be run.
+     */
+    public void shutdown() {
+        this.executor.shutdown();
+    }
+
+    /**
+     * @return If this executor has been shut down.
+     */
+    public boolean isShutdown() {
+        return this.executor.isShutdown();
+    }
+
+    /**
+     * @return The amount of tasks that are waiting for a thread.
+     */
+    public int getQueueDepth() {
+        return this.executor.getQueue().size();
+    }
+
+    /**
+     * @return The maximum amount of tasks that can wait for a thread.
+     */
+    public int getQueueCapacity() {
+        return this.queueCapacity;
+    }
+
+    /**
+     * @return How many tasks were rejected because the queue was full, and ran on the submitting Thread instead.
+     */
+    public long getRejectedCount() {
+        return this.rejected.sum();
+    }
+
+    /**
+     * @return The approximate amount of threads that are running a task.
+     */
+    public int getActiveCount() {
+        return this.executor.getActiveCount();
+    }
+
+    /**
+     * @return The amount of threads that currently exist.
+     */
+    public int getPoolSize() {
+        return this.executor.getPoolSize();
+    }
+
+    /**
+     * @return The maximum amount of threads.
+     */
+    public int getMaximumPoolSize() {
+        return this.executor.getMaximumPoolSize();
+    }
+
+    /**
+     * @return The approximate amount of tasks that have finished running.
+     */
+    public long getCompletedTaskCount() {
+        return this.executor.getCompletedTaskCount();
+    }
+
+    private RejectedExecutionHandler createRejectionHandler() {
+        return (runnable, executor) -> {
+            this.rejected.increment();
+
+            if(executor.isShutdown()) {
+                throw new RejectedExecutionException("StorageExecutor has been shut down!");
+            }
+
+            //Run on the submitting thread, so nothing is lost and the submitter is slowed down.
+            runnable.run();
+        };
+    }
+
+    private static ThreadFactory createThreadFactory() {
+        int pool = POOL_ID.incrementAndGet();
+        AtomicInteger threadId = new AtomicInteger();
+
+        return runnable -> {
+            Thread thread = new Thread(() -> {
+                STORAGE_THREAD.set(true);
+                runnable.run();
+            }, "DessieLib-Storage-" + pool + "-" + threadId.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
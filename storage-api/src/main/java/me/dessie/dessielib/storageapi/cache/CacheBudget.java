@@ -0,0 +1,99 @@
+package me.dessie.dessielib.storageapi.cache;
+
+import me.dessie.dessielib.storageapi.api.IStorageAPI;
+import me.dessie.dessielib.storageapi.cache.eviction.Weigher;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A weight budget that is shared by every {@link StorageCache} created through the same {@link IStorageAPI}.
+ *
+ * Each cache charges the weight of the objects it holds to the budget, as measured by its {@link Weigher}.
+ * Once the combined weight exceeds the budget, objects are evicted from whichever cache is currently the heaviest,
+ * so many small containers can't collectively exhaust memory.
+ *
+ * @see IStorageAPI#setCacheBudget(long)
+ */
+public class CacheBudget {
+
+    private final long maxWeight;
+    private final AtomicLong weight = new AtomicLong();
+    private final Set<StorageCache> caches = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
+    /**
+     * @param maxWeight The maximum combined weight of every cache using this budget.
+     */
+    public CacheBudget(long maxWeight) {
+        if(maxWeight <= 0) {
+            throw new IllegalArgumentException("Cache budget must be positive!");
+        }
+
+        this.maxWeight = maxWeight;
+    }
+
+    /**
+     * @return The maximum combined weight of every cache using this budget.
+     */
+    public long getMaxWeight() {
+        return maxWeight;
+    }
+
+    /**
+     * @return The combined weight that is currently charged to this budget.
+     */
+    public long getWeight() {
+        return weight.get();
+    }
+
+    /**
+     * @return If the combined weight is currently over the budget.
+     */
+    public boolean isExceeded() {
+        return this.getWeight() > this.getMaxWeight();
+    }
+
+    void register(StorageCache cache) {
+        this.caches.add(cache);
+    }
+
+    /**
+     * Stops evicting from a cache to reclaim this budget, for example because its container was closed.
+     * The cache should be cleared first, so none of its weight is left charged to the budget.
+     *
+     * @param cache The StorageCache to unregister.
+     */
+    public void unregister(StorageCache cache) {
+        this.caches.remove(cache);
+    }
+
+    void charge(long weight) {
+        this.weight.addAndGet(weight);
+    }
+
+    /**
+     * Evicts objects from the heaviest caches until the combined weight is back within the budget.
+     */
+    void reclaim() {
+        while(this.isExceeded()) {
+            List<StorageCache> caches;
+            synchronized (this.caches) {
+                caches = new ArrayList<>(this.caches);
+            }
+
+            StorageCache heaviest = null;
+            for(StorageCache cache : caches) {
+                if(heaviest == null || cache.getWeightedSize() > heaviest.getWeightedSize()) {
+                    heaviest = cache;
+                }
+            }
+
+            //Nothing is left to evict.
+            if(heaviest == null || !heaviest.evictOne()) return;
+        }
+    }
+}
@@ -1,34 +1,41 @@
 package me.dessie.dessielib.storageapi.cache;
 
-import me.dessie.dessielib.storageapi.api.ITaskHandler;
-
 /**
  * Represents an object that has been cached from a StorageContainer
  *
  * This object will only be cached for a certain amount of time before it automatically expires itself.
+ * The expiry is driven by the {@link ExpiryWheel} of the StorageContainer's API, and is reset whenever the object is accessed.
  */
 public class CachedObject {
 
     private final StorageCache cache;
+    private final String path;
     private final Object object;
     private final int duration;
+    private final int weight;
 
-    private final Runnable runnable;
+    private final ExpiryWheel.Timeout timeout;
+    private volatile long lastAccess;
 
     /**
      * @param cache The {@link StorageCache} that cached this object.
+     * @param path The path that the object is cached at.
      * @param object The object to cache
      * @param duration The duration to cache in seconds.
+     * @param weight The weight of the object, as measured by the cache's {@link me.dessie.dessielib.storageapi.cache.eviction.Weigher}.
      */
-    CachedObject(StorageCache cache, Object object, int duration) {
+    CachedObject(StorageCache cache, String path, Object object, int duration, int weight) {
         this.cache = cache;
+        this.path = path;
         this.object = object;
         this.duration = duration;
+        this.weight = weight;
 
         if(duration > 0) {
-            this.runnable = () -> this.getCache().remove(this);
-            this.getCache().getContainer().getAPI().getTaskHandler().runTaskLater(runnable, duration);
-        } else this.runnable = null;
+            ExpiryWheel wheel = this.getCache().getContainer().getAPI().getExpiryWheel();
+            this.lastAccess = wheel.getTick();
+            this.timeout = wheel.schedule(this::expire, duration);
+        } else this.timeout = null;
     }
 
     /**
@@ -40,13 +47,21 @@ public class CachedObject {
     }
 
     /**
-     * Returns the {@link Runnable} that will be executed when the Timer expires.
-     * This runnable can be used to cancel the task by calling {@link ITaskHandler#cancel(Runnable)}
+     * Returns the path that this object is cached at.
+     * @return The path
+     */
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * Returns the {@link ExpiryWheel.Timeout} that will remove this object from the cache once it expires.
+     * This will be null if the object is cached forever.
      *
-     * @return The Runnable
+     * @return The Timeout
      */
-    public Runnable getRunnable() {
-        return runnable;
+    public ExpiryWheel.Timeout getTimeout() {
+        return timeout;
     }
 
     /**
@@ -57,6 +72,14 @@ public class CachedObject {
         return duration;
     }
 
+    /**
+     * Returns the weight of this object. This is always 0 if the cache is unbounded.
+     * @return The weight
+     */
+    public int getWeight() {
+        return weight;
+    }
+
     /**
      * Returns the cached object.
      *
@@ -65,4 +88,37 @@ public class CachedObject {
     public Object getObject() {
         return object;
     }
+
+    /**
+     * Marks this object as accessed, which resets its expiry.
+     *
+     * This only records the current tick, the {@link ExpiryWheel.Timeout} is moved lazily once it's due.
+     */
+    void touch() {
+        if(this.getTimeout() != null) {
+            this.lastAccess = this.getTimeout().getWheel().getTick();
+        }
+    }
+
+    /**
+     * Cancels the expiry of this object.
+     */
+    void cancel() {
+        if(this.getTimeout() != null) {
+            this.getTimeout().cancel();
+        }
+    }
+
+    private void expire() {
+        ExpiryWheel wheel = this.getTimeout().getWheel();
+        long idle = wheel.getTick() - this.lastAccess;
+
+        //Accessed since the timeout was scheduled, so only wait out the remainder.
+        if(idle < this.getDuration()) {
+            wheel.reschedule(this.getTimeout(), (int) (this.getDuration() - idle));
+            return;
+        }
+
+        this.getCache().expire(this);
+    }
 }
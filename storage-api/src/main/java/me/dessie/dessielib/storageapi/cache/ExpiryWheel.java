@@ -0,0 +1,302 @@
+package me.dessie.dessielib.storageapi.cache;
+
+import me.dessie.dessielib.storageapi.api.IStorageAPI;
+import me.dessie.dessielib.storageapi.api.ITaskHandler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A hashed timing wheel that drives the expiry of every {@link CachedObject} created through the same {@link IStorageAPI}.
+ *
+ * Instead of scheduling one task per cached object, the wheel is advanced by a single repeating task
+ * once per second, and each tick only visits the bucket that belongs to it.
+ * Scheduling, rescheduling and cancelling a {@link Timeout} are all O(1).
+ *
+ * The repeating task is only started once the first Timeout has been scheduled,
+ * and is stopped once the last container is closed or the API is shut down.
+ *
+ * @see IStorageAPI#getExpiryWheel()
+ */
+public class ExpiryWheel implements Runnable {
+
+    private final ITaskHandler taskHandler;
+    private final Timeout[] buckets;
+    private final int mask;
+
+    private volatile long tick;
+    private int size;
+    private boolean running;
+
+    /**
+     * Creates an ExpiryWheel with 512 buckets.
+     *
+     * @param taskHandler The {@link ITaskHandler} that will advance the wheel.
+     */
+    public ExpiryWheel(ITaskHandler taskHandler) {
+        this(taskHandler, 512);
+    }
+
+    /**
+     * Creates an ExpiryWheel with the provided amount of buckets.
+     * The amount of buckets will be rounded up to the next power of two.
+     *
+     * Timeouts that are longer than the amount of buckets are still supported, they will just be visited
+     * once per revolution until they are due.
+     *
+     * @param taskHandler The {@link ITaskHandler} that will advance the wheel.
+     * @param wheelSize The amount of buckets, in seconds, that make up one revolution of the wheel.
+     */
+    public ExpiryWheel(ITaskHandler taskHandler, int wheelSize) {
+        Objects.requireNonNull(taskHandler, "Task handler cannot be null!");
+        if(wheelSize <= 0) {
+            throw new IllegalArgumentException("Wheel size must be positive!");
+        }
+
+        int buckets = 1;
+        while(buckets < wheelSize) {
+            buckets <<= 1;
+        }
+
+        this.taskHandler = taskHandler;
+        this.buckets = new Timeout[buckets];
+        this.mask = this.buckets.length - 1;
+
+        //Each bucket is a circular list with a sentinel head, so linking and unlinking never needs a null check.
+        for(int i = 0; i < this.buckets.length; i++) {
+            this.buckets[i] = new Timeout(this, null);
+        }
+    }
+
+    /**
+     * Schedules a task to be executed after the provided delay.
+     *
+     * @param task The task to run once the Timeout expires.
+     * @param delay How long to wait, in seconds, before the task is executed.
+     * @return The {@link Timeout} that can be used to reschedule or cancel the task.
+     */
+    public Timeout schedule(Runnable task, int delay) {
+        Objects.requireNonNull(task, "Task cannot be null!");
+
+        Timeout timeout = new Timeout(this, task);
+        this.reschedule(timeout, delay);
+        return timeout;
+    }
+
+    /**
+     * Moves a {@link Timeout} so that it expires after the provided delay.
+     * A Timeout that has already expired or been cancelled will be scheduled again.
+     *
+     * @param timeout The Timeout to reschedule.
+     * @param delay How long to wait, in seconds, before the task is executed.
+     */
+    public synchronized void reschedule(Timeout timeout, int delay) {
+        if(timeout.getWheel() != this) {
+            throw new IllegalArgumentException("Timeout does not belong to this wheel!");
+        }
+
+        if(timeout.isLinked()) {
+            this.unlink(timeout);
+        }
+
+        timeout.deadline = this.tick + Math.max(1, delay);
+        timeout.state = Timeout.PENDING;
+        this.link(timeout, this.buckets[(int) (timeout.deadline & this.mask)]);
+
+        if(!this.running) {
+            this.taskHandler.runTaskTimer(this, 1, 1);
+            this.running = true;
+        }
+    }
+
+    /**
+     * Cancels a {@link Timeout}, so that its task is never executed.
+     *
+     * @param timeout The Timeout to cancel.
+     * @return True if the Timeout was pending and is now cancelled.
+     */
+    public synchronized boolean cancel(Timeout timeout) {
+        if(timeout.state != Timeout.PENDING) return false;
+
+        this.unlink(timeout);
+        timeout.state = Timeout.CANCELLED;
+        return true;
+    }
+
+    /**
+     * Stops the task that is advancing this wheel.
+     * Pending Timeouts are kept, and the wheel will be started again on the next schedule.
+     */
+    public synchronized void stop() {
+        if(this.running) {
+            this.taskHandler.cancel(this);
+            this.running = false;
+        }
+    }
+
+    /**
+     * Stops the task that is advancing this wheel, but only if no Timeouts are pending.
+     *
+     * @return True if the wheel is no longer running.
+     */
+    public synchronized boolean stopIfEmpty() {
+        if(this.size == 0) {
+            this.stop();
+        }
+
+        return !this.running;
+    }
+
+    /**
+     * @return If the task that is advancing this wheel is running.
+     */
+    public synchronized boolean isRunning() {
+        return this.running;
+    }
+
+    /**
+     * Returns the amount of ticks, in seconds, that this wheel has been advanced.
+     *
+     * @return The current tick.
+     */
+    public long getTick() {
+        return this.tick;
+    }
+
+    /**
+     * Returns the amount of Timeouts that are currently pending.
+     *
+     * @return The pending Timeout count.
+     */
+    public synchronized int size() {
+        return this.size;
+    }
+
+    /**
+     * Advances the wheel by one tick, and runs all tasks that have expired.
+     * This is executed by the {@link ITaskHandler} once per second.
+     */
+    @Override
+    public void run() {
+        List<Timeout> expired = new ArrayList<>();
+
+        synchronized (this) {
+            long current = ++this.tick;
+            Timeout head = this.buckets[(int) (current & this.mask)];
+
+            //Anything in this bucket with a later deadline is due in a future revolution.
+            for(Timeout timeout = head.next; timeout != head;) {
+                Timeout next = timeout.next;
+                if(timeout.deadline <= current) {
+                    this.unlink(timeout);
+                    timeout.state = Timeout.EXPIRED;
+                    expired.add(timeout);
+                }
+                timeout = next;
+            }
+        }
+
+        //Run the tasks outside the lock, they're allowed to reschedule themselves.
+        for(Timeout timeout : expired) {
+            try {
+                timeout.getTask().run();
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private void link(Timeout timeout, Timeout head) {
+        timeout.prev = head.prev;
+        timeout.next = head;
+        head.prev.next = timeout;
+        head.prev = timeout;
+        this.size++;
+    }
+
+    private void unlink(Timeout timeout) {
+        timeout.prev.next = timeout.next;
+        timeout.next.prev = timeout.prev;
+        timeout.prev = null;
+        timeout.next = null;
+        this.size--;
+    }
+
+    /**
+     * A handle to a task that has been scheduled in an {@link ExpiryWheel}.
+     */
+    public static class Timeout {
+        private static final int PENDING = 0;
+        private static final int EXPIRED = 1;
+        private static final int CANCELLED = 2;
+
+        private final ExpiryWheel wheel;
+        private final Runnable task;
+
+        private Timeout prev;
+        private Timeout next;
+        private long deadline;
+        private int state;
+
+        private Timeout(ExpiryWheel wheel, Runnable task) {
+            this.wheel = wheel;
+            this.task = task;
+
+            //Sentinel heads point at themselves.
+            if(task == null) {
+                this.prev = this;
+                this.next = this;
+            }
+        }
+
+        /**
+         * @return The {@link ExpiryWheel} that this Timeout was scheduled in.
+         */
+        public ExpiryWheel getWheel() {
+            return wheel;
+        }
+
+        /**
+         * @return The task that is executed when this Timeout expires.
+         */
+        public Runnable getTask() {
+            return task;
+        }
+
+        /**
+         * @return The tick of the {@link ExpiryWheel} that this Timeout will expire at.
+         */
+        public long getDeadline() {
+            return deadline;
+        }
+
+        /**
+         * @return If this Timeout has expired and its task has been executed.
+         */
+        public boolean isExpired() {
+            return state == EXPIRED;
+        }
+
+        /**
+         * @return If this Timeout has been cancelled.
+         */
+        public boolean isCancelled() {
+            return state == CANCELLED;
+        }
+
+        /**
+         * Cancels this Timeout.
+         *
+         * @see ExpiryWheel#cancel(Timeout)
+         * @return True if the Timeout was pending and is now cancelled.
+         */
+        public boolean cancel() {
+            return this.getWheel().cancel(this);
+        }
+
+        private boolean isLinked() {
+            return this.next != null;
+        }
+    }
+}
@@ -29,17 +29,27 @@ public class FlushTask implements Runnable {
 
     /**
      * Resets the FlushTask's scheduler to it's initial starting value.
+     * If the flush rate is 0 or less, the container is never flushed automatically.
      * @see FlushTask#getFlushRate()
      */
     public void reset() {
-        if(this.isRunning()) {
-            this.getContainer().getAPI().getTaskHandler().cancel(this);
-        }
+        this.cancel();
+        if(this.getFlushRate() <= 0) return;
 
         this.getContainer().getAPI().getTaskHandler().runTaskTimer(this, this.getFlushRate(), this.getFlushRate());
         this.running = true;
     }
 
+    /**
+     * Stops the FlushTask, so the container is no longer flushed automatically.
+     */
+    public void cancel() {
+        if(this.isRunning()) {
+            this.getContainer().getAPI().getTaskHandler().cancel(this);
+            this.running = false;
+        }
+    }
+
     /**
      * Returns the {@link StorageContainer} that is using this task.
      *
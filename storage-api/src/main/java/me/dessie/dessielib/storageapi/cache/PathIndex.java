@@ -0,0 +1,265 @@
+package me.dessie.dessielib.storageapi.cache;
+
+import me.dessie.dessielib.storageapi.container.StorageContainer;
+import me.dessie.dessielib.storageapi.settings.StorageSettings;
+import me.dessie.dessielib.storageapi.util.StoragePath;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A tree of every path in a {@link StorageCache}, split on each ".".
+ *
+ * The tree tracks which paths have a cached object, so everything cached under a path can be found
+ * or invalidated by walking down to the path instead of scanning the whole cache.
+ *
+ * It also remembers the keys that {@link StorageContainer#getKeys(String)} returned for a path,
+ * and keeps them up to date as paths are stored and deleted, so the data structure only has to be asked once.
+ *
+ * @see StorageSettings#setPathIndex(boolean)
+ */
+public class PathIndex {
+
+    private final Node root = new Node(null, "");
+
+    //Incremented whenever keys change, so keys that were retrieved during a change are never remembered.
+    private long modifications;
+
+    /**
+     * Marks a path as cached.
+     *
+     * @param path The path that was cached.
+     */
+    public synchronized void add(String path) {
+        this.getOrCreate(StoragePath.of(path)).cached = true;
+    }
+
+    /**
+     * Marks a path as no longer cached.
+     *
+     * @param path The path that was removed from the cache.
+     */
+    public synchronized void remove(String path) {
+        Node node = this.find(StoragePath.of(path));
+        if(node == null) return;
+
+        node.cached = false;
+        this.prune(node);
+    }
+
+    /**
+     * Returns every cached path that is, or is nested within, the prefix.
+     *
+     * @param prefix The path to search under. An empty String returns every cached path.
+     * @return The cached paths.
+     */
+    public synchronized List<String> getPaths(String prefix) {
+        List<String> paths = new ArrayList<>();
+
+        StoragePath path = StoragePath.of(prefix);
+        Node node = this.find(path);
+        if(node != null) {
+            collect(node, path.toString(), paths);
+        }
+
+        return paths;
+    }
+
+    /**
+     * Returns the keys that are directly under a path, if they're known.
+     *
+     * @param path The path to get the keys for.
+     * @return The keys, or null if they have to be retrieved from the data structure.
+     */
+    public synchronized Set<String> getKeys(String path) {
+        Node node = this.find(StoragePath.of(path));
+        if(node == null || node.keys == null) return null;
+
+        return Collections.unmodifiableSet(new HashSet<>(node.keys));
+    }
+
+    /**
+     * Remembers the keys that were retrieved from the data structure for a path.
+     * The keys are ignored if anything was stored or deleted since the modifications were read.
+     *
+     * @param path The path that the keys were retrieved for.
+     * @param keys The keys that are directly under the path.
+     * @param modifications The value of {@link PathIndex#getModifications()} from before the keys were retrieved.
+     */
+    public synchronized void setKeys(String path, Set<String> keys, long modifications) {
+        if(modifications != this.modifications) return;
+
+        this.getOrCreate(StoragePath.of(path)).keys = new HashSet<>(keys);
+    }
+
+    /**
+     * Updates the known keys after a path has been stored to the data structure.
+     * Every parent now has the path as a key, and anything known under the path is forgotten, since it was replaced.
+     *
+     * @param path The path that was stored.
+     */
+    public synchronized void stored(String path) {
+        this.modifications++;
+
+        StoragePath storagePath = StoragePath.of(path);
+        Node node = this.root;
+        for(int i = 0; i < storagePath.size() && node != null; i++) {
+            if(node.keys != null) {
+                node.keys.add(storagePath.getSegment(i));
+            }
+            node = node.children == null ? null : node.children.get(storagePath.getSegment(i));
+        }
+
+        if(node != null) {
+            forget(node);
+            this.prune(node);
+        }
+    }
+
+    /**
+     * Updates the known keys after a path has been deleted from the data structure.
+     *
+     * @param path The path that was deleted.
+     */
+    public synchronized void deleted(String path) {
+        this.modifications++;
+
+        StoragePath storagePath = StoragePath.of(path);
+        if(storagePath.isRoot()) {
+            forget(this.root);
+            return;
+        }
+
+        Node parent = this.find(storagePath.parent());
+        if(parent != null && parent.keys != null) {
+            parent.keys.remove(storagePath.getName());
+        }
+
+        Node node = this.find(storagePath);
+        if(node != null) {
+            forget(node);
+            this.prune(node);
+        }
+    }
+
+    /**
+     * Forgets the known keys of a path and everything under it, so they're retrieved from the data structure again.
+     *
+     * @param prefix The path to forget.
+     */
+    public synchronized void invalidateKeys(String prefix) {
+        this.modifications++;
+
+        Node node = this.find(StoragePath.of(prefix));
+        if(node != null) {
+            forget(node);
+            this.prune(node);
+        }
+    }
+
+    /**
+     * @return How many times the known keys have been changed.
+     */
+    public synchronized long getModifications() {
+        return this.modifications;
+    }
+
+    /**
+     * Clears the entire index.
+     */
+    public synchronized void clear() {
+        this.modifications++;
+        this.root.children = null;
+        this.root.cached = false;
+        this.root.keys = null;
+    }
+
+    private Node find(StoragePath path) {
+        Node node = this.root;
+        for(int i = 0; i < path.size(); i++) {
+            if(node.children == null) return null;
+
+            node = node.children.get(path.getSegment(i));
+            if(node == null) return null;
+        }
+        return node;
+    }
+
+    private Node getOrCreate(StoragePath path) {
+        Node node = this.root;
+        for(int i = 0; i < path.size(); i++) {
+            String segment = path.getSegment(i);
+            if(node.children == null) {
+                node.children = new HashMap<>();
+            }
+
+            Node parent = node;
+            node = node.children.computeIfAbsent(segment, key -> new Node(parent, key));
+        }
+        return node;
+    }
+
+    //Removes nodes that no longer hold anything, starting at the node and working up.
+    private void prune(Node node) {
+        while(node.parent != null && node.isEmpty()) {
+            node.parent.children.remove(node.segment);
+            if(node.parent.children.isEmpty()) {
+                node.parent.children = null;
+            }
+            node = node.parent;
+        }
+    }
+
+    private static void forget(Node node) {
+        node.keys = null;
+        if(node.children == null) return;
+
+        for(Node child : new ArrayList<>(node.children.values())) {
+            forget(child);
+            if(child.isEmpty()) {
+                node.children.remove(child.segment);
+            }
+        }
+
+        if(node.children.isEmpty()) {
+            node.children = null;
+        }
+    }
+
+    private static void collect(Node node, String path, List<String> paths) {
+        if(node.cached) {
+            paths.add(path);
+        }
+
+        if(node.children == null) return;
+        for(Node child : node.children.values()) {
+            collect(child, path.isEmpty() ? child.segment : path + "." + child.segment, paths);
+        }
+    }
+
+    private static class Node {
+        private final Node parent;
+        private final String segment;
+        private Map<String, Node> children;
+
+        //If the path has a cached object.
+        private boolean cached;
+
+        //The keys directly under the path, or null if they aren't known.
+        private Set<String> keys;
+
+        private Node(Node parent, String segment) {
+            this.parent = parent;
+            this.segment = segment;
+        }
+
+        private boolean isEmpty() {
+            return !this.cached && this.keys == null && (this.children == null || this.children.isEmpty());
+        }
+    }
+}
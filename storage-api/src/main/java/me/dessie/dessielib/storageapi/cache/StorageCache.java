@@ -1,30 +1,54 @@
 package me.dessie.dessielib.storageapi.cache;
 
+import me.dessie.dessielib.storageapi.cache.eviction.EvictionPolicy;
+import me.dessie.dessielib.storageapi.cache.eviction.Weigher;
 import me.dessie.dessielib.storageapi.container.StorageContainer;
+import me.dessie.dessielib.storageapi.decomposition.DecomposedObject;
+import me.dessie.dessielib.storageapi.settings.StorageSettings;
+import me.dessie.dessielib.storageapi.util.StoragePath;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Caches all data into paths that have been retrieved from {@link StorageContainer}s.
  * 
  * This cache will be checked first before attempting to retrieve data from a StorageContainer again.
- * Data in this cache will expire, and can be changed by using {@link me.dessie.dessielib.storageapi.settings.StorageSettings#setCacheDuration(int)}
+ * Data in this cache will expire, and can be changed by using {@link StorageSettings#setCacheDuration(int)}
+ * Expiry is handled by the API's {@link ExpiryWheel}, so the cache never schedules a task per object.
+ *
+ * If {@link StorageSettings#getMaxEntries()}, {@link StorageSettings#getMaxWeight()} or a {@link CacheBudget} is set,
+ * the cache is bounded, and objects are evicted by the settings' {@link EvictionPolicy}.
+ * Eviction only affects cached objects, data that is still waiting to be flushed is never evicted.
+ *
+ * Data that has been set or removed is held in the {@link WriteBuffer} until it's flushed.
+ *
+ * If {@link StorageSettings#isPathIndex()} is enabled, every cached path is also tracked by a {@link PathIndex},
+ * so the paths under a prefix can be found without scanning the whole cache.
  */
 public class StorageCache {
-    private final Map<String, CachedObject> cache = new HashMap<>();
+    private final Map<String, CachedObject> cache = new ConcurrentHashMap<>();
     private final int cacheDuration;
     private final StorageContainer container;
     private final FlushTask flushTask;
 
-    //Temporarily stores all things that were changed and will need to be pushed to the data source.
-    private final Map<String, Object> setCache = new HashMap<>();
+    //Only used if the cache is bounded.
+    private final EvictionPolicy policy;
+    private final Weigher weigher;
+    private final CacheBudget budget;
+    private final long maxEntries;
+    private final long maxWeight;
+    private final AtomicLong weightedSize = new AtomicLong();
 
-    //List of all paths that have been removed using the remove method.
-    private final List<String> removeCache = new ArrayList<>();
+    //Only used if the path index is enabled.
+    private final PathIndex index;
+
+    //Temporarily stores all things that were set or removed and will need to be pushed to the data source.
+    private final WriteBuffer writeBuffer = new WriteBuffer();
 
     /**
      * @param container The StorageContainer that this cache attaches to.
@@ -34,6 +58,22 @@ public class StorageCache {
         this.container = container;
         this.cacheDuration = cacheDuration;
 
+        StorageSettings settings = container.getSettings();
+        this.maxEntries = settings.getMaxEntries();
+        this.maxWeight = settings.getMaxWeight();
+        this.weigher = settings.getWeigher();
+        this.budget = container.getAPI().getCacheBudget();
+
+        if(this.maxEntries > 0 || this.maxWeight > 0 || this.budget != null) {
+            this.policy = settings.getEvictionPolicy().get();
+        } else this.policy = null;
+
+        if(this.budget != null) {
+            this.budget.register(this);
+        }
+
+        this.index = settings.isUseCache() && settings.isPathIndex() ? new PathIndex() : null;
+
         this.flushTask = new FlushTask(container);
     }
 
@@ -55,7 +95,35 @@ public class StorageCache {
      * @param cacheDuration How long, in seconds, an object should be kept in the cache for.
      */
     public void cache(String path, Object obj, int cacheDuration) {
-        this.getCache().put(path, new CachedObject(this, obj, cacheDuration));
+        if(!this.isBounded()) {
+            CachedObject previous = this.put(path, new CachedObject(this, path, obj, cacheDuration, 0));
+            if(previous != null) {
+                previous.cancel();
+            }
+            return;
+        }
+
+        CachedObject object = new CachedObject(this, path, obj, cacheDuration, this.weigher.weigh(path, obj));
+        synchronized (this.policy) {
+            CachedObject previous = this.put(path, object);
+
+            if(previous != null) {
+                previous.cancel();
+                this.policy.onAccess(path);
+                this.addWeight(object.getWeight() - previous.getWeight());
+            } else {
+                this.policy.onInsert(path);
+                this.addWeight(object.getWeight());
+            }
+
+            while(this.isOverCapacity()) {
+                if(!this.evict()) break;
+            }
+        }
+
+        if(this.budget != null && this.budget.isExceeded()) {
+            this.budget.reclaim();
+        }
     }
 
     /**
@@ -66,7 +134,19 @@ public class StorageCache {
      * @return The cached Object
      */
     public CachedObject get(String path) {
-        return this.getCache().get(path);
+        CachedObject object = this.getCache().get(path);
+
+        if(object != null) {
+            object.touch();
+
+            if(this.isBounded()) {
+                synchronized (this.policy) {
+                    this.policy.onAccess(path);
+                }
+            }
+        }
+
+        return object;
     }
 
     /**
@@ -75,40 +155,116 @@ public class StorageCache {
      * @param path The path to remove.
      */
     public void remove(String path) {
-        this.getCache().remove(path);
+        if(!this.isBounded()) {
+            CachedObject object = this.unlink(path, null);
+            if(object != null) {
+                object.cancel();
+            }
+            return;
+        }
+
+        synchronized (this.policy) {
+            CachedObject object = this.unlink(path, null);
+            if(object != null) {
+                this.discard(object);
+            }
+        }
     }
 
     /**
      * Removes a {@link CachedObject} from the cache.
+     * Nothing is removed if the path has since been cached to a different object.
      *
      * @param object The CachedObject to remove.
      */
     public void remove(CachedObject object) {
-        this.getCache().entrySet().removeIf(entry -> entry.getValue() == object);
+        this.removeObject(object);
     }
 
     /**
-     * Updates the {@link StorageContainer} with the set and remove caches.
-     * After flushing, these maps will be cleared.
+     * Returns every cached path that is, or is nested within, the prefix.
+     * If the {@link PathIndex} is disabled, this scans the whole cache.
      *
-     * Flushing will not empty the cached data, only the data that needs to be updated to the structure.
+     * @param prefix The path to search under. An empty String returns every cached path.
+     * @return The cached paths.
+     */
+    public List<String> getCachedPaths(String prefix) {
+        if(this.index != null) {
+            return this.index.getPaths(prefix);
+        }
+
+        StoragePath path = StoragePath.of(prefix);
+        List<String> paths = new ArrayList<>();
+        for(String cached : this.getCache().keySet()) {
+            if(StoragePath.of(cached).startsWith(path)) {
+                paths.add(cached);
+            }
+        }
+        return paths;
+    }
+
+    /**
+     * Removes every cached object that is, or is nested within, the prefix.
+     * Any keys that are known for those paths are also forgotten.
      *
-     * @see StorageContainer#set(String, Object) for adding objects into the Set cache.
-     * @see StorageContainer#remove(String) for adding paths into the Remove cache.
+     * This does not affect data that is waiting to be flushed.
      *
-     * @return A future that is completed once the flush has finished.
+     * @param prefix The path to invalidate. An empty String invalidates the whole cache.
      */
-    public CompletableFuture<Void> flush() {
-        CompletableFuture<Void> future = CompletableFuture.completedFuture(null);
+    public void invalidate(String prefix) {
+        for(String path : this.getCachedPaths(prefix)) {
+            this.remove(path);
+        }
 
-        if(!this.getSetCache().isEmpty()) {
-            StorageCache cache = this;
-            future = this.getContainer().storeAll(new HashMap<>() {{
-                putAll(cache.getSetCache());
-            }});
+        if(this.index != null) {
+            this.index.invalidateKeys(prefix);
         }
+    }
 
-        return future.thenCompose(future1 -> this.getContainer().deleteAll(new ArrayList<>(this.getRemoveCache())));
+    /**
+     * Evicts a single object from the cache, as chosen by the {@link EvictionPolicy}.
+     *
+     * @return False if the cache is unbounded or there was nothing left to evict.
+     */
+    public boolean evictOne() {
+        if(!this.isBounded()) return false;
+
+        synchronized (this.policy) {
+            return this.evict();
+        }
+    }
+
+    /**
+     * Returns if this cache has a size, weight, or budget limit.
+     *
+     * @return If the cache is bounded.
+     */
+    public boolean isBounded() {
+        return this.policy != null;
+    }
+
+    /**
+     * Returns the combined weight of every cached object, as measured by the {@link Weigher}.
+     * This is always 0 if the cache is unbounded.
+     *
+     * @return The weighted size of the cache.
+     */
+    public long getWeightedSize() {
+        return this.weightedSize.get();
+    }
+
+    /**
+     * Updates the {@link StorageContainer} with the {@link WriteBuffer}.
+     * After flushing, the flushed writes will no longer be pending.
+     *
+     * Flushing will not empty the cached data, only the data that needs to be updated to the structure.
+     *
+     * @see StorageContainer#flush()
+     *
+     * @return A future that is completed once the flush has finished.
+     */
+    public CompletableFuture<Void> flush() {
+        return this.getContainer().flush();
     }
 
     /**
@@ -118,19 +274,38 @@ public class StorageCache {
      * @return If the path is cached.
      */
     public boolean isCached(String path) {
-        return this.getCache().containsKey(path) || this.getSetCache().containsKey(path);
+        if(this.getCache().containsKey(path)) return true;
+
+        //Decomposed objects that were replayed from the journal can't be read until they're flushed.
+        return this.getWriteBuffer().isPending(path) && !(this.getWriteBuffer().get(path) instanceof DecomposedObject);
     }
 
     /**
      * Clears the cache.
      */
     public void clearCache() {
-        for(CachedObject object : this.getCache().values()) {
-            if(object.getRunnable() != null) {
-                this.getContainer().getAPI().getTaskHandler().cancel(object.getRunnable());
+        if(!this.isBounded()) {
+            for(CachedObject object : this.getCache().values()) {
+                object.cancel();
+            }
+            this.getCache().clear();
+            if(this.index != null) {
+                this.index.clear();
             }
+            return;
+        }
+
+        synchronized (this.policy) {
+            for(CachedObject object : this.getCache().values()) {
+                object.cancel();
+            }
+            this.getCache().clear();
+            if(this.index != null) {
+                this.index.clear();
+            }
+            this.policy.clear();
+            this.addWeight(-this.getWeightedSize());
         }
-        this.getCache().clear();
     }
 
     /**
@@ -171,20 +346,131 @@ public class StorageCache {
     }
 
     /**
-     * Returns the cache of objects that have been set and not updated to the data structure.
-     * This cache is cleared once the cache has been pushed to the structure.
-     * @return The current set cache
+     * Returns the {@link WriteBuffer} of data that has been set or removed and not updated to the data structure.
+     * Writes are removed from the buffer once they have been pushed to the structure.
+     *
+     * @return The WriteBuffer
      */
-    public Map<String, Object> getSetCache() {
-        return setCache;
+    public WriteBuffer getWriteBuffer() {
+        return writeBuffer;
     }
 
     /**
-     * Returns the cache of objects that have been removed and not updated to the data structure.
-     * This cache is cleared once the cache has been pushed to the structure.
-     * @return The current remove cache
+     * Returns the {@link CacheBudget} that this cache charges its weight to.
+     *
+     * @return The CacheBudget, or null if the API doesn't have one.
      */
-    public List<String> getRemoveCache() {
-        return removeCache;
+    public CacheBudget getBudget() {
+        return budget;
+    }
+
+    /**
+     * Returns the {@link PathIndex} of every cached path.
+     *
+     * @return The PathIndex, or null if it's disabled.
+     */
+    public PathIndex getIndex() {
+        return index;
+    }
+
+    /**
+     * Removes a {@link CachedObject} that has expired from the cache.
+     *
+     * @param object The CachedObject that expired.
+     */
+    void expire(CachedObject object) {
+        if(this.removeObject(object)) {
+            this.getContainer().getMetrics().recordExpiration();
+        }
+    }
+
+    private boolean removeObject(CachedObject object) {
+        if(!this.isBounded()) {
+            if(this.unlink(object.getPath(), object) == null) return false;
+
+            object.cancel();
+            return true;
+        }
+
+        synchronized (this.policy) {
+            if(this.unlink(object.getPath(), object) == null) return false;
+
+            this.discard(object);
+            return true;
+        }
+    }
+
+    private CachedObject put(String path, CachedObject object) {
+        if(this.index == null) {
+            return this.getCache().put(path, object);
+        }
+
+        //The index is updated within the map's lock for the path, so it always agrees with the map.
+        CachedObject[] previous = new CachedObject[1];
+        this.getCache().compute(path, (key, existing) -> {
+            previous[0] = existing;
+            this.index.add(key);
+            return object;
+        });
+        return previous[0];
+    }
+
+    /**
+     * Removes a path from the cache map.
+     *
+     * @param path The path to remove.
+     * @param expected The object that must be cached to the path, or null to remove any object.
+     * @return The removed object, or null if nothing was removed.
+     */
+    private CachedObject unlink(String path, CachedObject expected) {
+        if(this.index == null) {
+            if(expected == null) return this.getCache().remove(path);
+            return this.getCache().remove(path, expected) ? expected : null;
+        }
+
+        CachedObject[] removed = new CachedObject[1];
+        this.getCache().computeIfPresent(path, (key, existing) -> {
+            if(expected != null && existing != expected) return existing;
+
+            removed[0] = existing;
+            this.index.remove(key);
+            return null;
+        });
+        return removed[0];
+    }
+
+    //Must be called while holding the policy's monitor.
+    private boolean evict() {
+        String victim = this.policy.victim();
+        if(victim == null) return false;
+
+        CachedObject object = this.unlink(victim, null);
+        if(object != null) {
+            object.cancel();
+            this.addWeight(-object.getWeight());
+            this.getContainer().getMetrics().recordEviction();
+        }
+        return true;
+    }
+
+    //Must be called while holding the policy's monitor.
+    private void discard(CachedObject object) {
+        object.cancel();
+        this.policy.onRemove(object.getPath());
+        this.addWeight(-object.getWeight());
+    }
+
+    private boolean isOverCapacity() {
+        return (this.maxEntries > 0 && this.getCache().size() > this.maxEntries)
+                || (this.maxWeight > 0 && this.getWeightedSize() > this.maxWeight);
+    }
+
+    private void addWeight(long weight) {
+        if(weight == 0) return;
+
+        this.weightedSize.addAndGet(weight);
+        if(this.budget != null) {
+            this.budget.charge(weight);
+        }
     }
 }
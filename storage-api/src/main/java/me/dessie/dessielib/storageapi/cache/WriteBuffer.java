@@ -0,0 +1,343 @@
+package me.dessie.dessielib.storageapi.cache;
+
+import me.dessie.dessielib.storageapi.container.StorageContainer;
+import me.dessie.dessielib.storageapi.util.StoragePath;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Holds the data that has been set or removed from a {@link StorageContainer}, but not yet flushed to the data structure.
+ *
+ * Writes to the same path are coalesced, so only the latest value is flushed, and removing a path replaces any pending set.
+ * When flushing, the buffered writes are swapped out for an empty buffer in a single step,
+ * so setting and removing never has to wait for a flush to finish.
+ *
+ * @see StorageContainer#set(String, Object)
+ * @see StorageContainer#remove(String)
+ */
+public class WriteBuffer {
+
+    //Marks a path as removed, since a ConcurrentHashMap can't hold null values.
+    private static final Object TOMBSTONE = new Object();
+
+    private final AtomicReference<Segment> current = new AtomicReference<>(new Segment());
+
+    //Segments that have been swapped out, but are still being flushed. The newest segment is first.
+    private final ConcurrentLinkedDeque<Segment> draining = new ConcurrentLinkedDeque<>();
+
+    /**
+     * Buffers data to be set to a path, replacing anything that is already pending for the path.
+     *
+     * @param path The path to set.
+     * @param data The data to set.
+     */
+    public void set(String path, Object data) {
+        this.write(path, data);
+    }
+
+    /**
+     * Buffers a path to be removed, replacing anything that is already pending for the path.
+     *
+     * @param path The path to remove.
+     */
+    public void remove(String path) {
+        this.write(path, TOMBSTONE);
+    }
+
+    /**
+     * Discards anything that is pending for the path, for example because it was just stored or deleted directly.
+     *
+     * Writes that have already been swapped out by a flush are discarded too, so they can't overwrite the path afterwards.
+     * If one of them is being written right now, this waits for it to finish.
+     * Only that path waits, so discarding other paths is never held up by a write.
+     *
+     * @param path The path to discard.
+     */
+    public void discard(String path) {
+        Segment segment = this.acquire();
+        try {
+            segment.entries.remove(path);
+        } finally {
+            segment.writers.decrementAndGet();
+        }
+
+        for(Segment draining : this.draining) {
+            draining.entries.remove(path);
+
+            //The write may have checked the path right before it was removed, so wait for it to finish.
+            ReentrantLock writing = draining.writing.get(path);
+            if(writing != null) {
+                writing.lock();
+                writing.unlock();
+            }
+        }
+    }
+
+    /**
+     * Returns if the path has a pending set, including writes that are currently being flushed.
+     *
+     * @param path The path to check.
+     * @return If the path will be set by a flush.
+     */
+    public boolean isSet(String path) {
+        Object value = this.lookup(path);
+        return value != null && value != TOMBSTONE;
+    }
+
+    /**
+     * Returns if the path has a pending remove, including removes that are currently being flushed.
+     *
+     * @param path The path to check.
+     * @return If the path will be removed by a flush.
+     */
+    public boolean isRemoved(String path) {
+        return this.lookup(path) == TOMBSTONE;
+    }
+
+    /**
+     * Returns if the path has a pending set or remove.
+     *
+     * @param path The path to check.
+     * @return If the path is pending.
+     */
+    public boolean isPending(String path) {
+        return this.lookup(path) != null;
+    }
+
+    /**
+     * Returns the data that is pending to be set to a path.
+     *
+     * @param path The path to get.
+     * @return The pending data, or null if nothing is pending or the path is pending removal.
+     */
+    public Object get(String path) {
+        Object value = this.lookup(path);
+        return value == TOMBSTONE ? null : value;
+    }
+
+    /**
+     * Returns if the path, or any of its parents, has a pending set or remove.
+     * A pending write to a parent replaces everything below it once it's flushed.
+     *
+     * @param path The path to check.
+     * @return If the path or one of its parents is pending.
+     */
+    public boolean isPendingAt(String path) {
+        for(StoragePath current = StoragePath.of(path); !current.isRoot(); current = current.parent()) {
+            if(this.isPending(current.toString())) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns if nothing is pending to be flushed, including writes that are currently being flushed.
+     *
+     * @return If the buffer is empty.
+     */
+    public boolean isEmpty() {
+        if(!this.current.get().entries.isEmpty()) return false;
+
+        for(Segment segment : this.draining) {
+            if(!segment.entries.isEmpty()) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the amount of writes that are pending, including writes that are currently being flushed.
+     * A path that was written again while it's being flushed is counted for each write.
+     *
+     * @return The amount of pending writes.
+     */
+    public int size() {
+        int size = this.current.get().entries.size();
+        for(Segment segment : this.draining) {
+            size += segment.entries.size();
+        }
+        return size;
+    }
+
+    /**
+     * Swaps the pending writes out for an empty buffer.
+     *
+     * The returned {@link Drain} must be released once it has been written to the data structure.
+     * Until then, its writes are still visible through {@link WriteBuffer#get(String)}.
+     *
+     * @return The writes that should be flushed.
+     */
+    public Drain drain() {
+        Segment segment = this.current.getAndSet(new Segment());
+        this.draining.addFirst(segment);
+
+        //Wait out writers that acquired the segment right before it was swapped, they finish within a few instructions.
+        while(segment.writers.get() != 0) {
+            Thread.onSpinWait();
+        }
+
+        return new Drain(segment);
+    }
+
+    /**
+     * Clears every pending write, without flushing it.
+     *
+     * Writes that have been swapped out by a flush are cleared too, so the flush skips them.
+     * A write that is already running still finishes.
+     */
+    public void clear() {
+        this.current.set(new Segment());
+
+        Iterator<Segment> iterator = this.draining.iterator();
+        while(iterator.hasNext()) {
+            iterator.next().entries.clear();
+            iterator.remove();
+        }
+    }
+
+    private void write(String path, Object value) {
+        Segment segment = this.acquire();
+        try {
+            segment.entries.put(path, value);
+        } finally {
+            segment.writers.decrementAndGet();
+        }
+    }
+
+    /**
+     * Registers the caller as a writer of the current segment.
+     * The caller must decrement the segment's writers once it's done.
+     */
+    private Segment acquire() {
+        while(true) {
+            Segment segment = this.current.get();
+            segment.writers.incrementAndGet();
+
+            //If a flush swapped the segment in the meantime, write to the new one instead.
+            if(this.current.get() == segment) return segment;
+            segment.writers.decrementAndGet();
+        }
+    }
+
+    private Object lookup(String path) {
+        Object value = this.current.get().entries.get(path);
+        if(value != null) return value;
+
+        for(Segment segment : this.draining) {
+            value = segment.entries.get(path);
+            if(value != null) return value;
+        }
+
+        return null;
+    }
+
+    private static class Segment {
+        private final Map<String, Object> entries = new ConcurrentHashMap<>();
+        private final AtomicInteger writers = new AtomicInteger();
+
+        //The paths of this segment that are being written by a flush right now.
+        private final Map<String, ReentrantLock> writing = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * A set of writes that have been swapped out of the {@link WriteBuffer} to be flushed.
+     */
+    public class Drain {
+        private final Segment segment;
+        private final Map<String, Object> sets = new HashMap<>();
+        private final List<String> removes = new ArrayList<>();
+
+        private Drain(Segment segment) {
+            this.segment = segment;
+
+            for(Map.Entry<String, Object> entry : segment.entries.entrySet()) {
+                if(entry.getValue() == TOMBSTONE) {
+                    this.removes.add(entry.getKey());
+                } else this.sets.put(entry.getKey(), entry.getValue());
+            }
+        }
+
+        /**
+         * @return The paths and data that should be set.
+         */
+        public Map<String, Object> getSets() {
+            return Collections.unmodifiableMap(this.sets);
+        }
+
+        /**
+         * @return The paths that should be removed.
+         */
+        public List<String> getRemoves() {
+            return Collections.unmodifiableList(this.removes);
+        }
+
+        /**
+         * @return If there is nothing to flush.
+         */
+        public boolean isEmpty() {
+            return this.sets.isEmpty() && this.removes.isEmpty();
+        }
+
+        /**
+         * Runs the write for a path, unless the path has been discarded since it was drained.
+         * Discarding the path waits while the write is running, so a discarded write never runs after the write that replaced it.
+         *
+         * The write runs without holding any lock of the buffer itself, so it may store to the same container.
+         *
+         * @param path The path that is being written.
+         * @param write Writes the drained set or remove of the path.
+         * @return If the write was run.
+         */
+        public boolean write(String path, Runnable write) {
+            ReentrantLock lock = new ReentrantLock();
+            lock.lock();
+            try {
+                //Mark the path as being written before checking it, so a discard either removes it first or waits for the write.
+                this.segment.writing.put(path, lock);
+                if(!this.segment.entries.containsKey(path)) return false;
+
+                write.run();
+                return true;
+            } finally {
+                this.segment.writing.remove(path, lock);
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Puts the writes back into the buffer, for example because the flush failed.
+         * Paths that have been written to since the drain keep their newer write, and discarded paths aren't restored.
+         */
+        public void restore() {
+            Segment current = WriteBuffer.this.acquire();
+            try {
+                this.segment.entries.forEach(current.entries::putIfAbsent);
+            } finally {
+                current.writers.decrementAndGet();
+            }
+
+            this.release();
+        }
+
+        /**
+         * Releases the writes once they have been flushed, so they're no longer reported as pending.
+         */
+        public void release() {
+            Iterator<Segment> iterator = WriteBuffer.this.draining.iterator();
+            while(iterator.hasNext()) {
+                if(iterator.next() == this.segment) {
+                    iterator.remove();
+                    return;
+                }
+            }
+        }
+    }
+}
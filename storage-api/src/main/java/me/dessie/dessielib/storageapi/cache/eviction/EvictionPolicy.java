@@ -0,0 +1,50 @@
+package me.dessie.dessielib.storageapi.cache.eviction;
+
+import me.dessie.dessielib.storageapi.cache.StorageCache;
+import me.dessie.dessielib.storageapi.settings.StorageSettings;
+
+/**
+ * Decides which path a bounded {@link StorageCache} should evict once it has exceeded
+ * {@link StorageSettings#getMaxEntries()}, {@link StorageSettings#getMaxWeight()} or the API's {@link me.dessie.dessielib.storageapi.cache.CacheBudget}.
+ *
+ * A policy instance belongs to a single StorageCache, and all calls to it are made while holding the policy's monitor.
+ * Implementations therefore do not need to be thread-safe themselves.
+ *
+ * @see LRUPolicy
+ * @see TinyLFUPolicy
+ */
+public interface EvictionPolicy {
+
+    /**
+     * Called when a path that wasn't previously cached has been added to the cache.
+     *
+     * @param path The path that was added.
+     */
+    void onInsert(String path);
+
+    /**
+     * Called when a cached path has been read, or has been cached again.
+     *
+     * @param path The path that was accessed.
+     */
+    void onAccess(String path);
+
+    /**
+     * Called when a path has been removed from the cache for any reason other than {@link EvictionPolicy#victim()}.
+     *
+     * @param path The path that was removed.
+     */
+    void onRemove(String path);
+
+    /**
+     * Selects the next path that should be evicted, and stops tracking it.
+     *
+     * @return The path to evict, or null if the policy isn't tracking any paths.
+     */
+    String victim();
+
+    /**
+     * Stops tracking every path.
+     */
+    void clear();
+}
@@ -0,0 +1,110 @@
+package me.dessie.dessielib.storageapi.cache.eviction;
+
+/**
+ * A count-min sketch of 4-bit counters that estimates how often a path has been accessed.
+ *
+ * Each path is mapped to four counters, and its frequency is the smallest of them.
+ * Once enough accesses have been sampled, every counter is halved, so that old popularity fades over time.
+ *
+ * Used by {@link TinyLFUPolicy} to decide whether a new path is worth keeping over an existing one.
+ */
+class FrequencySketch {
+
+    private static final long[] SEEDS = {0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final long ONE_MASK = 0x1111111111111111L;
+
+    private long[] table = new long[16];
+    private int tableMask = 15;
+    private int sampleSize = 160;
+    private int size;
+
+    /**
+     * Grows the sketch so that it can accurately track the provided amount of paths.
+     * The sketch never shrinks.
+     *
+     * @param maximum The amount of paths that are expected to be tracked.
+     */
+    void ensureCapacity(long maximum) {
+        int capacity = (int) Math.min(maximum, Integer.MAX_VALUE >>> 1);
+        if(this.table.length >= capacity) return;
+
+        int length = 1;
+        while(length < capacity) {
+            length <<= 1;
+        }
+
+        this.table = new long[length];
+        this.tableMask = length - 1;
+        this.sampleSize = 10 * length;
+        this.size = 0;
+    }
+
+    /**
+     * @param path The path to get the frequency of.
+     * @return The estimated amount of times the path has been accessed, between 0 and 15.
+     */
+    int frequency(String path) {
+        int hash = spread(path.hashCode());
+        int start = (hash & 3) << 2;
+
+        int frequency = Integer.MAX_VALUE;
+        for(int i = 0; i < 4; i++) {
+            int index = this.indexOf(hash, i);
+            int count = (int) ((this.table[index] >>> ((start + i) << 2)) & 15L);
+            frequency = Math.min(frequency, count);
+        }
+        return frequency;
+    }
+
+    /**
+     * Increments the frequency of a path, if it isn't already at the maximum.
+     *
+     * @param path The path that was accessed.
+     */
+    void increment(String path) {
+        int hash = spread(path.hashCode());
+        int start = (hash & 3) << 2;
+
+        boolean added = false;
+        for(int i = 0; i < 4; i++) {
+            added |= this.incrementAt(this.indexOf(hash, i), start + i);
+        }
+
+        if(added && ++this.size >= this.sampleSize) {
+            this.reset();
+        }
+    }
+
+    private boolean incrementAt(int index, int counter) {
+        int offset = counter << 2;
+        long mask = 15L << offset;
+
+        if((this.table[index] & mask) != mask) {
+            this.table[index] += 1L << offset;
+            return true;
+        }
+        return false;
+    }
+
+    private void reset() {
+        int odd = 0;
+        for(int i = 0; i < this.table.length; i++) {
+            odd += Long.bitCount(this.table[i] & ONE_MASK);
+            this.table[i] = (this.table[i] >>> 1) & RESET_MASK;
+        }
+        this.size = (this.size >>> 1) - (odd >>> 2);
+    }
+
+    private int indexOf(int hash, int depth) {
+        long mixed = (hash + SEEDS[depth]) * SEEDS[depth];
+        mixed += mixed >>> 32;
+        return ((int) mixed) & this.tableMask;
+    }
+
+    private static int spread(int hash) {
+        hash = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+        hash = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+        return (hash >>> 16) ^ hash;
+    }
+}
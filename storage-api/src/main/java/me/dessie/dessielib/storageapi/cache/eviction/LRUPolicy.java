@@ -0,0 +1,45 @@
+package me.dessie.dessielib.storageapi.cache.eviction;
+
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+
+/**
+ * An {@link EvictionPolicy} that evicts the least recently used path first.
+ */
+public class LRUPolicy implements EvictionPolicy {
+
+    private final LinkedHashSet<String> order = new LinkedHashSet<>();
+
+    @Override
+    public void onInsert(String path) {
+        this.order.add(path);
+    }
+
+    @Override
+    public void onAccess(String path) {
+        //Re-adding moves the path to the most recently used end.
+        if(this.order.remove(path)) {
+            this.order.add(path);
+        }
+    }
+
+    @Override
+    public void onRemove(String path) {
+        this.order.remove(path);
+    }
+
+    @Override
+    public String victim() {
+        Iterator<String> iterator = this.order.iterator();
+        if(!iterator.hasNext()) return null;
+
+        String victim = iterator.next();
+        iterator.remove();
+        return victim;
+    }
+
+    @Override
+    public void clear() {
+        this.order.clear();
+    }
+}
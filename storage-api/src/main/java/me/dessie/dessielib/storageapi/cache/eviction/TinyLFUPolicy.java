@@ -0,0 +1,124 @@
+package me.dessie.dessielib.storageapi.cache.eviction;
+
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+
+/**
+ * An {@link EvictionPolicy} that implements Window TinyLFU.
+ *
+ * New paths enter a small LRU window. Once the window is full, its oldest path has to compete with the
+ * oldest path of the main area, and only the one that has been accessed more often (as estimated by a
+ * {@link FrequencySketch}) is kept. The main area is a segmented LRU, where paths that are accessed again
+ * are promoted from a probation segment to a protected segment.
+ *
+ * This keeps frequently used paths cached through bursts of one-off retrieves, which a plain {@link LRUPolicy} would not.
+ */
+public class TinyLFUPolicy implements EvictionPolicy {
+
+    private static final double WINDOW_RATIO = 0.01;
+    private static final double PROTECTED_RATIO = 0.8;
+
+    private final FrequencySketch sketch = new FrequencySketch();
+
+    private final LinkedHashSet<String> window = new LinkedHashSet<>();
+    private final LinkedHashSet<String> probation = new LinkedHashSet<>();
+    private final LinkedHashSet<String> protect = new LinkedHashSet<>();
+
+    @Override
+    public void onInsert(String path) {
+        this.sketch.increment(path);
+        this.window.add(path);
+        this.sketch.ensureCapacity(this.size());
+    }
+
+    @Override
+    public void onAccess(String path) {
+        this.sketch.increment(path);
+
+        if(this.window.remove(path)) {
+            this.window.add(path);
+        } else if(this.probation.remove(path)) {
+            this.protect.add(path);
+
+            //Keep the protected segment at its share of the main area by demoting its oldest path.
+            if(this.protect.size() > this.getProtectedLimit()) {
+                this.probation.add(removeFirst(this.protect));
+            }
+        } else if(this.protect.remove(path)) {
+            this.protect.add(path);
+        }
+    }
+
+    @Override
+    public void onRemove(String path) {
+        if(!this.window.remove(path) && !this.probation.remove(path)) {
+            this.protect.remove(path);
+        }
+    }
+
+    @Override
+    public String victim() {
+        //Until the main area holds its share of the cache, paths that overflow the window are moved into it without competing.
+        while(this.window.size() > this.getWindowLimit() && this.getMainSize() < this.size() - 1 - this.getWindowLimit()) {
+            this.probation.add(removeFirst(this.window));
+        }
+
+        //Paths that overflow the window have to compete with the main area's victim to stay.
+        if(this.window.size() > this.getWindowLimit() || this.getMainSize() == 0) {
+            String candidate = removeFirst(this.window);
+            if(candidate == null) return null;
+
+            String mainVictim = this.peekMainVictim();
+            if(mainVictim == null) return candidate;
+
+            if(this.sketch.frequency(candidate) > this.sketch.frequency(mainVictim)) {
+                this.onRemove(mainVictim);
+                this.probation.add(candidate);
+                return mainVictim;
+            }
+            return candidate;
+        }
+
+        String mainVictim = this.peekMainVictim();
+        this.onRemove(mainVictim);
+        return mainVictim;
+    }
+
+    @Override
+    public void clear() {
+        this.window.clear();
+        this.probation.clear();
+        this.protect.clear();
+    }
+
+    private String peekMainVictim() {
+        if(!this.probation.isEmpty()) return this.probation.iterator().next();
+        if(!this.protect.isEmpty()) return this.protect.iterator().next();
+        return null;
+    }
+
+    private int size() {
+        return this.window.size() + this.getMainSize();
+    }
+
+    private int getMainSize() {
+        return this.probation.size() + this.protect.size();
+    }
+
+    private int getWindowLimit() {
+        return Math.max(1, (int) (this.size() * WINDOW_RATIO));
+    }
+
+    private int getProtectedLimit() {
+        return Math.max(1, (int) (this.getMainSize() * PROTECTED_RATIO));
+    }
+
+    private static String removeFirst(LinkedHashSet<String> set) {
+        Iterator<String> iterator = set.iterator();
+        if(!iterator.hasNext()) return null;
+
+        String first = iterator.next();
+        iterator.remove();
+        return first;
+    }
+}
@@ -0,0 +1,85 @@
+package me.dessie.dessielib.storageapi.cache.eviction;
+
+import me.dessie.dessielib.storageapi.settings.StorageSettings;
+
+import java.lang.reflect.Array;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Estimates the weight of a cached value, used for bounding a cache by {@link StorageSettings#getMaxWeight()}
+ * and by the API's {@link me.dessie.dessielib.storageapi.cache.CacheBudget}.
+ *
+ * Weights are unit-less, but the default {@link Weigher#estimating()} weigher returns an approximate size in bytes,
+ * so budgets are easiest to reason about when custom weighers do the same.
+ */
+@FunctionalInterface
+public interface Weigher {
+
+    /**
+     * Returns the weight of a cached path and value. This must never be negative.
+     *
+     * @param path The path that the value is cached at.
+     * @param value The cached value, which may be null.
+     * @return The weight of the entry.
+     */
+    int weigh(String path, Object value);
+
+    /**
+     * Returns a Weigher that weighs every entry as 1, so that weight bounds behave as entry bounds.
+     *
+     * @return The singleton Weigher.
+     */
+    static Weigher singleton() {
+        return (path, value) -> 1;
+    }
+
+    /**
+     * Returns a Weigher that roughly estimates the heap size, in bytes, of the path and its value.
+     *
+     * Strings, primitive wrappers, arrays, Collections and Maps are walked.
+     * Any other Object is assumed to be a small object of 64 bytes, since it can't be measured without reflection.
+     *
+     * @return The estimating Weigher.
+     */
+    static Weigher estimating() {
+        return (path, value) -> (int) Math.min(Integer.MAX_VALUE, estimate(path) + estimate(value) + 48);
+    }
+
+    private static long estimate(Object value) {
+        if(value == null) return 0;
+        if(value instanceof String string) return 40 + 2L * string.length();
+        if(value instanceof Number || value instanceof Boolean || value instanceof Character) return 16;
+
+        if(value instanceof Collection<?> collection) {
+            long size = 40 + 8L * collection.size();
+            for(Object element : collection) {
+                size += estimate(element);
+            }
+            return size;
+        }
+
+        if(value instanceof Map<?, ?> map) {
+            long size = 48 + 40L * map.size();
+            for(Map.Entry<?, ?> entry : map.entrySet()) {
+                size += estimate(entry.getKey()) + estimate(entry.getValue());
+            }
+            return size;
+        }
+
+        if(value.getClass().isArray()) {
+            int length = Array.getLength(value);
+            if(value.getClass().getComponentType().isPrimitive()) {
+                return 16 + 8L * length;
+            }
+
+            long size = 16 + 8L * length;
+            for(int i = 0; i < length; i++) {
+                size += estimate(Array.get(value, i));
+            }
+            return size;
+        }
+
+        return 64;
+    }
+}
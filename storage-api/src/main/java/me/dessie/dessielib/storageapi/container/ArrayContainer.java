@@ -1,6 +1,9 @@
 package me.dessie.dessielib.storageapi.container;
 
 import me.dessie.dessielib.storageapi.api.IStorageAPI;
+import me.dessie.dessielib.storageapi.cache.CachedObject;
+import me.dessie.dessielib.storageapi.cache.WriteBuffer;
+import me.dessie.dessielib.storageapi.container.hooks.ListHook;
 import me.dessie.dessielib.storageapi.decomposition.RecomposedObject;
 import me.dessie.dessielib.storageapi.decomposition.StorageDecomposer;
 import me.dessie.dessielib.storageapi.settings.StorageSettings;
@@ -27,6 +30,8 @@ import java.util.stream.Stream;
  */
 public abstract class ArrayContainer<H> extends StorageContainer {
 
+    private final ListHook<H> listHook;
+
     /**
      * Creates an ArrayContainer with a default {@link StorageSettings}.
      *
@@ -34,7 +39,9 @@ public abstract class ArrayContainer<H> extends StorageContainer {
      * 
      * @see StorageSettings#StorageSettings() for the default settings.
      */
-    public ArrayContainer(IStorageAPI api) {super(api);}
+    public ArrayContainer(IStorageAPI api) {
+        this(api, new StorageSettings());
+    }
 
     /**
      * Creates an ArrayContainer with the specified {@link StorageSettings}.
@@ -44,6 +51,21 @@ public abstract class ArrayContainer<H> extends StorageContainer {
      */
     public ArrayContainer(IStorageAPI api, StorageSettings settings) {
         super(api, settings);
+        this.listHook = this.listHook();
+    }
+
+    /**
+     * Optional implementation method, specifies how this ArrayContainer's lists
+     * can be changed without retrieving and storing the entire list.
+     *
+     * By default, this returns null, and lists are retrieved, changed and stored again.
+     *
+     * @see ArrayContainer#appendToList(Class, String, Object[])
+     *
+     * @return The {@link ListHook} behavior, or null.
+     */
+    protected ListHook<H> listHook() {
+        return null;
     }
 
     /**
@@ -191,15 +213,83 @@ public abstract class ArrayContainer<H> extends StorageContainer {
      * @return A future that when completed will verify if the object exists within the provided array.
      */
     public <T> CompletableFuture<Boolean> listContains(Class<T> type, String path, T object) {
-        CompletableFuture<List<T>> listFuture = this.retrieveListAsync(type, path);
-        CompletableFuture<Boolean> future = new CompletableFuture<>();
+        return this.changeList(type, path, false,
+                operations -> operations.contains(path, this.handleList(List.of(object))),
+                list -> list.contains(object));
+    }
+
+    /**
+     * Adds objects to the end of the list on the path, without retrieving the list.
+     * If a list does not exist at the specified path, it will be created.
+     *
+     * If the container provides a {@link ListHook}, only the new objects are written to the data structure.
+     * Anything that is waiting to be flushed is flushed first, so the objects are added after it.
+     *
+     * @see ArrayContainer#addToList(Class, String, Object[]) to also retrieve the updated list.
+     *
+     * @param type The type of objects to add
+     * @param path The path to the array list.
+     * @param objects The objects to add
+     * @param <T> The type of objects
+     *
+     * @return A {@link CompletableFuture} that is completed once the objects have been added.
+     */
+    public <T> CompletableFuture<Void> appendToList(Class<T> type, String path, T... objects) {
+        this.verifyListObjects(objects);
 
-        listFuture.thenAccept(list -> {
-            if(list == null) return;
-            future.complete(list.contains(object));
+        List<T> elements = Arrays.asList(objects);
+        return this.changeList(type, path, true, operations -> {
+            operations.append(path, this.handleList(elements));
+            return null;
+        }, list -> {
+            list.addAll(elements);
+            return null;
         });
+    }
 
-        return future;
+    /**
+     * Removes every occurrence of the objects from the list on the path, without retrieving the list.
+     * Unlike {@link ArrayContainer#removeFromList(Class, String, Object[])}, an empty list is kept.
+     *
+     * If the container provides a {@link ListHook}, the objects are compared as they're stored in the data structure.
+     * Anything that is waiting to be flushed is flushed first.
+     *
+     * @param type The type of objects to remove
+     * @param path The path to the array list.
+     * @param objects The objects to remove
+     * @param <T> The type of objects
+     *
+     * @return A {@link CompletableFuture} that is completed with the amount of objects that were removed.
+     */
+    public <T> CompletableFuture<Integer> removeAllFromList(Class<T> type, String path, T... objects) {
+        this.verifyListObjects(objects);
+
+        List<T> elements = Arrays.asList(objects);
+        return this.changeList(type, path, true, operations -> operations.remove(path, this.handleList(elements)), list -> {
+            int size = list.size();
+            list.removeAll(elements);
+            return size - list.size();
+        });
+    }
+
+    /**
+     * Removes the object at an index from the list on the path, without retrieving the list.
+     * Anything that is waiting to be flushed is flushed first.
+     *
+     * @param type The type of objects in the list
+     * @param path The path to the array list.
+     * @param index The index of the object to remove.
+     * @param <T> The type of objects
+     *
+     * @return A {@link CompletableFuture} that is completed with whether an object was removed.
+     */
+    public <T> CompletableFuture<Boolean> removeFromListAt(Class<T> type, String path, int index) {
+        return this.changeList(type, path, true, operations -> operations.removeAt(path, index), list -> {
+            if(index < 0 || index >= list.size()) return false;
+
+            list.remove(index);
+            return true;
+        });
     }
 
     /**
@@ -229,6 +319,7 @@ public abstract class ArrayContainer<H> extends StorageContainer {
 
         List<T> list;
         H handler;
+        long start = System.nanoTime();
         try {
             handler = this.getRetrieveListHandler(path);
         } catch (Exception e) {
@@ -237,6 +328,7 @@ public abstract class ArrayContainer<H> extends StorageContainer {
         }
 
         list = this.handleRetrieveList(handler, this.getAPI().getDecomposer(type) != null ? type : null);
+        this.getMetrics().recordRetrieve(start, 1);
 
         this.cacheRetrieve(path, list);
         return list;
@@ -254,7 +346,7 @@ public abstract class ArrayContainer<H> extends StorageContainer {
      * @return A future, that when completed will contain the List of retrieved Objects.
      */
     public <T> CompletableFuture<List<T>> retrieveListAsync(Class<T> type, String path) {
-        return CompletableFuture.supplyAsync(() -> this.retrieveList(type, path));
+        return this.getAPI().getExecutor().supply(() -> this.retrieveList(type, path));
     }
 
     /**
@@ -287,13 +379,107 @@ public abstract class ArrayContainer<H> extends StorageContainer {
      * @return A future, that when completed will contain the List of retrieved Objects.
      */
     public <T> CompletableFuture<List<T>> retrieveListOrElseAsync(Class<T> type, String path, List<T> orElse) {
-        CompletableFuture<List<T>> future = this.retrieveListAsync(type, path);
-        future.thenAccept(list -> {
-            future.complete(list == null ? orElse : list);
-        });
+        return this.retrieveListAsync(type, path).thenApply(list -> list == null ? orElse : list);
+    }
+
+    /**
+     * Changes the list on a path with the {@link ListHook}, and applies the same change to the cached list.
+     *
+     * Without a ListHook, or if the list is waiting to be flushed, the list is retrieved, changed in memory, and set again.
+     * Lists that are only read are also read from the cache if they're cached.
+     *
+     * A cached list is never changed, since it may have been returned by {@link ArrayContainer#retrieveList(Class, String)}.
+     * The changed list is cached as a copy instead.
+     *
+     * @param type The type of objects in the list.
+     * @param path The path to the array list.
+     * @param modifies If the list is changed, which completes the container afterwards.
+     * @param operation Changes the list in the data structure.
+     * @param change Makes the same change to a list in memory.
+     * @param <R> The result of the change.
+     * @return A future that is completed with the result once the list has been changed.
+     */
+    @SuppressWarnings("unchecked")
+    private <R> CompletableFuture<R> changeList(Class<?> type, String path, boolean modifies,
+                                                Function<ListHook.Operations<H>, R> operation, Function<List<Object>, R> change) {
+        Objects.requireNonNull(type, "Class type cannot be null!");
+        Objects.requireNonNull(path, "Path cannot be null!");
+
+        boolean pending = this.getCache().getWriteBuffer().isPending(path);
+        if(this.getListHook() == null || pending || (!modifies && this.isCached(path))) {
+            return this.retrieveListOrElseAsync((Class<Object>) type, path, new ArrayList<>()).thenApply(retrieved -> {
+                //The retrieved list may be cached or pending, so it's copied instead of changed.
+                List<Object> list = new ArrayList<>(retrieved);
+                R result = change.apply(list);
+
+                if(modifies) {
+                    this.set(path, list);
+                }
+                return result;
+            });
+        }
+
+        //The list has to be changed after anything that is pending, or a flush could overwrite the change.
+        //Reading it only has to wait for writes to the list itself or one of its parents.
+        WriteBuffer buffer = this.getCache().getWriteBuffer();
+        CompletableFuture<Void> flushed = (modifies ? buffer.isEmpty() : !buffer.isPendingAt(path))
+                ? CompletableFuture.completedFuture(null) : this.flush().exceptionally(throwable -> null);
+
+        CompletableFuture<R> future = new CompletableFuture<>();
+        flushed.thenRun(() -> this.getAPI().getTaskHandler().runTaskAsync(() -> {
+            if(!modifies) {
+                try {
+                    future.complete(operation.apply(this.getListHook().getOperations()));
+                } catch (RuntimeException e) {
+                    future.completeExceptionally(e);
+                }
+                return;
+            }
+
+            //Changes to the same path are applied to the data structure and the cache in the same order.
+            R result;
+            try {
+                result = this.getPathLocks().withLock(path, () -> {
+                    R changed = operation.apply(this.getListHook().getOperations());
+
+                    //Cache a changed copy, since the cached list may have been returned by retrieveList.
+                    CachedObject cached = this.getCache().get(path);
+                    if(cached != null && cached.getObject() instanceof List<?> list) {
+                        List<Object> copy = new ArrayList<>(list);
+                        change.apply(copy);
+                        this.getCache().cache(path, copy);
+                    }
+                    return changed;
+                });
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+                return;
+            }
+
+            if(this.getCache().getIndex() != null) {
+                this.getCache().getIndex().stored(path);
+            }
+
+            this.complete().thenRun(() -> future.complete(result));
+        }));
+
         return future;
     }
 
+    private void verifyListObjects(Object[] objects) {
+        if(objects.length == 0) {
+            throw new IllegalArgumentException("You need to provide objects to change the list with!");
+        }
+
+        if(!this.isListSupported(objects[0].getClass())) {
+            throw new IllegalArgumentException(objects[0].getClass() + " is not a supported storage class for a list within this container!");
+        }
+    }
+
+    private ListHook<H> getListHook() {
+        return listHook;
+    }
+
     /**
      * Helper method for retrieving Lists with nested DecomposedObjects.
      * Will return the RecomposedObject from a Handler and decomposer type.
@@ -406,8 +592,8 @@ public abstract class ArrayContainer<H> extends StorageContainer {
                 Object storedObject = composer.applyDecompose(triple.getMiddle()).getDecomposedMap().get(decomposedPath);
                 currentPath.append(decomposedPath);
 
-                if (storedObject != null && this.getAPI().getDecomposer(storedObject.getClass()) != null) {
-                    StorageDecomposer<?> nestedDecomposer = this.getAPI().getDecomposer(storedObject.getClass());
+                if (storedObject != null && this.getAPI().resolveDecomposer(storedObject.getClass()) != null) {
+                    StorageDecomposer<?> nestedDecomposer = this.getAPI().resolveDecomposer(storedObject.getClass());
                     currentPath.append(".");
 
                     //Check for recursive storage
@@ -429,7 +615,7 @@ public abstract class ArrayContainer<H> extends StorageContainer {
         //For each object in the list, attempt to add the decomposed object or the normal object to the handleObject list.
         this.getListStream(data).forEach(obj -> {
             List<Pair<String, Object>> storage = new ArrayList<>();
-            StorageDecomposer<?> decomp = this.getAPI().getDecomposer(obj.getClass());
+            StorageDecomposer<?> decomp = this.getAPI().resolveDecomposer(obj.getClass());
 
             if (decomp == null || this.isPrimitiveList(obj)) {
                 storage.add(new Pair<>(null, obj));
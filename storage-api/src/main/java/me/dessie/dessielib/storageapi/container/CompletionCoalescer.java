@@ -0,0 +1,165 @@
+package me.dessie.dessielib.storageapi.container;
+
+import me.dessie.dessielib.storageapi.api.ITaskHandler;
+import me.dessie.dessielib.storageapi.container.hooks.CompleteHook;
+import me.dessie.dessielib.storageapi.settings.StorageSettings;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces requests to complete a {@link StorageContainer}, so that many stores and deletes share a single {@link CompleteHook#complete()}.
+ *
+ * Requests that arrive while a completion is running always share the next completion.
+ * If a debounce is set, the completion also waits until no requests have arrived for the debounce,
+ * but never longer than the max latency after the first request.
+ *
+ * Every request's future is completed once a completion that started after the request has finished.
+ *
+ * @see StorageSettings#setCompleteDebounce(long)
+ * @see StorageSettings#setCompleteMaxLatency(long)
+ */
+public class CompletionCoalescer {
+
+    private final Supplier<CompletableFuture<Void>> completion;
+    private final ITaskHandler taskHandler;
+    private final long debounce;
+    private final long maxLatency;
+
+    //The future shared by every request waiting for the next completion, or null if there are none.
+    private CompletableFuture<Void> pending;
+    private long firstRequest;
+    private long deadline;
+
+    private boolean scheduled;
+    private boolean running;
+
+    /**
+     * @param completion The completion to run, usually {@link CompleteHook#complete()}.
+     * @param taskHandler The ITaskHandler used for waiting out the debounce.
+     * @param debounce How long, in milliseconds, to wait for more requests before completing. 0 only coalesces requests during a completion.
+     * @param maxLatency The longest time, in milliseconds, that a request will be debounced for.
+     */
+    public CompletionCoalescer(Supplier<CompletableFuture<Void>> completion, ITaskHandler taskHandler, long debounce, long maxLatency) {
+        this.completion = completion;
+        this.taskHandler = taskHandler;
+        this.debounce = Math.max(0, debounce);
+        this.maxLatency = Math.max(this.debounce, maxLatency);
+    }
+
+    /**
+     * Requests a completion.
+     *
+     * @return A future that is completed once a completion that started after this request has finished.
+     */
+    public CompletableFuture<Void> request() {
+        CompletableFuture<Void> future;
+        CompletableFuture<Void> batch = null;
+
+        synchronized (this) {
+            long now = now();
+            if(this.pending == null) {
+                this.pending = new CompletableFuture<>();
+                this.firstRequest = now;
+            }
+            future = this.pending;
+
+            if(this.debounce == 0) {
+                batch = this.take();
+            } else {
+                this.deadline = Math.min(now + this.debounce, this.firstRequest + this.maxLatency);
+                if(!this.scheduled) {
+                    this.scheduled = true;
+                    this.taskHandler.runTaskLater(this::fire, this.deadline - now, TimeUnit.MILLISECONDS);
+                }
+            }
+        }
+
+        if(batch != null) {
+            this.run(batch);
+        }
+        return future;
+    }
+
+    /**
+     * @return How long, in milliseconds, the completion waits for more requests.
+     */
+    public long getDebounce() {
+        return debounce;
+    }
+
+    /**
+     * @return The longest time, in milliseconds, that a request will be debounced for.
+     */
+    public long getMaxLatency() {
+        return maxLatency;
+    }
+
+    private void fire() {
+        CompletableFuture<Void> batch;
+
+        synchronized (this) {
+            this.scheduled = false;
+
+            //More requests arrived since this was scheduled, so wait for the rest of the debounce.
+            long remaining = this.deadline - now();
+            if(this.pending != null && remaining > 0) {
+                this.scheduled = true;
+                this.taskHandler.runTaskLater(this::fire, remaining, TimeUnit.MILLISECONDS);
+                return;
+            }
+
+            //If a completion is running, the batch is started once it finishes.
+            batch = this.take();
+        }
+
+        if(batch != null) {
+            //Timers may run on a thread that shouldn't be blocked, such as a server's main thread.
+            this.taskHandler.runTaskAsync(() -> this.run(batch));
+        }
+    }
+
+    private void run(CompletableFuture<Void> batch) {
+        CompletableFuture<Void> result;
+        try {
+            result = this.completion.get();
+        } catch (Throwable throwable) {
+            result = CompletableFuture.failedFuture(throwable);
+        }
+
+        result.whenComplete((ignored, throwable) -> {
+            if(throwable != null) {
+                batch.completeExceptionally(throwable);
+            } else batch.complete(null);
+
+            CompletableFuture<Void> next = null;
+            synchronized (this) {
+                this.running = false;
+
+                //Requests that arrived during the completion still wait for their debounce, unless it has already passed.
+                if(this.debounce == 0 || !this.scheduled) {
+                    next = this.take();
+                }
+            }
+
+            if(next != null) {
+                this.run(next);
+            }
+        });
+    }
+
+    //Must be called while holding the monitor.
+    private CompletableFuture<Void> take() {
+        if(this.running || this.pending == null) return null;
+
+        CompletableFuture<Void> batch = this.pending;
+        this.pending = null;
+        this.running = true;
+        return batch;
+    }
+
+    private static long now() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+    }
+}
@@ -119,7 +119,14 @@ public abstract class RetrieveArrayContainer<H, N> extends ArrayContainer<H> {
     protected <T> List<T> handleRetrieveList(H handler, Class<T> type) {
         List<T> list = new ArrayList<>();
 
-        this.getHandlerStream(handler).filter(this::isNested).map(obj -> (N) obj).forEach(obj -> {
+        //The handler is only streamed once, and objects keep the order they're stored in.
+        this.getHandlerStream(handler).forEach(element -> {
+            if(!this.isNested(element)) {
+                list.add((T) this.getPrimitive(element));
+                return;
+            }
+
+            N obj = (N) element;
             RecomposedObject<T> recomposedObject = RecomposedObject.filled(this, type);
 
             //Handle nested decomposers
@@ -151,11 +158,6 @@ public abstract class RetrieveArrayContainer<H, N> extends ArrayContainer<H> {
             list.add(recomposedObject.complete());
         });
 
-        //Add all the non-decomposer objects (The ones that aren't nested objects or arrays).
-        this.getHandlerStream(handler).filter(obj -> !this.isNested(obj)).forEach(obj -> {
-            list.add((T) this.getPrimitive(obj));
-        });
-
         return list;
     }
 
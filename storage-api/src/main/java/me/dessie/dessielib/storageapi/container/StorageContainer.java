@@ -1,18 +1,32 @@
 package me.dessie.dessielib.storageapi.container;
 
 import me.dessie.dessielib.storageapi.api.IStorageAPI;
+import me.dessie.dessielib.storageapi.api.StorageExecutor;
 import me.dessie.dessielib.storageapi.cache.CachedObject;
+import me.dessie.dessielib.storageapi.cache.CacheBudget;
+import me.dessie.dessielib.storageapi.cache.ExpiryWheel;
+import me.dessie.dessielib.storageapi.cache.PathIndex;
 import me.dessie.dessielib.storageapi.cache.StorageCache;
+import me.dessie.dessielib.storageapi.cache.WriteBuffer;
 import me.dessie.dessielib.storageapi.container.hooks.*;
 import me.dessie.dessielib.storageapi.decomposition.DecomposedObject;
+import me.dessie.dessielib.storageapi.decomposition.RecomposedObject;
 import me.dessie.dessielib.storageapi.decomposition.StorageDecomposer;
+import me.dessie.dessielib.storageapi.journal.Journal;
+import me.dessie.dessielib.storageapi.metrics.StorageMetrics;
+import me.dessie.dessielib.storageapi.metrics.StorageStatistics;
 import me.dessie.dessielib.storageapi.settings.StorageSettings;
+import me.dessie.dessielib.storageapi.subscription.ChangeEvent;
+import me.dessie.dessielib.storageapi.subscription.ChangeFeed;
+import me.dessie.dessielib.storageapi.subscription.OverflowPolicy;
+import me.dessie.dessielib.storageapi.util.StoragePath;
 
+import java.io.IOException;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
+import java.util.concurrent.Flow;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
 
 /**
  * Abstraction class for StorageAPI.
@@ -23,14 +37,31 @@ import java.util.concurrent.TimeoutException;
  */
 public abstract class StorageContainer {
 
+    //Returned by retrieveTyped when the TypedRetrieveHook should be used.
+    private static final Object NATIVE = new Object();
+
+    //The amount of stripes that paths are locked with for atomic operations.
+    private static final int LOCK_STRIPES = 64;
+
     private final IStorageAPI api;
     private final StorageCache cache;
     private final StorageSettings settings;
+    private final Journal journal;
+
+    //Flushes are chained, so that an older flush can never overwrite a newer one.
+    private final Object flushLock = new Object();
+    private CompletableFuture<Void> lastFlush = CompletableFuture.completedFuture(null);
 
     private final StoreHook storeHook;
     private final DeleteHook deleteHook;
     private final RetrieveHook retrieveHook;
     private final CompleteHook completeHook;
+    private final TypedRetrieveHook typedRetrieveHook;
+    private final CompletionCoalescer completionCoalescer;
+
+    private final StorageMetrics metrics;
+    private final StripedLock pathLocks = new StripedLock(LOCK_STRIPES);
+    private final ChangeFeed changeFeed;
 
     /**
      * Creates a StorageContainer with a default {@link StorageSettings}.
@@ -55,13 +86,24 @@ public abstract class StorageContainer {
 
         this.api = api;
         this.settings = settings;
+        this.metrics = new StorageMetrics(this);
+        this.changeFeed = new ChangeFeed(api.getTaskHandler());
         this.cache = new StorageCache(this, this.getSettings().getCacheDuration());
+        this.journal = this.openJournal();
 
         //Setup the hooks from the extending class.
         this.storeHook = this.storeHook();
         this.deleteHook = this.deleteHook();
         this.retrieveHook = this.retrieveHook();
         this.completeHook = this.completeHook();
+        this.typedRetrieveHook = this.typedRetrieveHook();
+
+        this.completionCoalescer = new CompletionCoalescer(this::completeStructure, api.getTaskHandler(),
+                this.getSettings().getCompleteDebounce(), this.getSettings().getCompleteMaxLatency());
+
+        if(this.getSettings().isRegisterMBean()) {
+            this.getMetrics().register();
+        }
     }
 
     /**
@@ -97,20 +139,80 @@ public abstract class StorageContainer {
     protected abstract CompleteHook completeHook();
 
     /**
-     * Returns a list of all sub-paths one level below the provided path.
+     * Optional implementation method, specifies how this StorageContainer's
+     * primitives and Strings can be retrieved without boxing them.
+     *
+     * By default, this returns null, and typed retrieves convert the Object returned by the {@link RetrieveHook}.
+     *
+     * @see StorageContainer#retrieveInt(String, int)
+     *
+     * @return The {@link TypedRetrieveHook} behavior, or null.
+     */
+    protected TypedRetrieveHook typedRetrieveHook() {
+        return null;
+    }
+
+    /**
+     * Returns a list of all sub-paths one level below the provided path, directly from the data structure.
+     * Containers should override this instead of {@link StorageContainer#getKeys(String)}, so the {@link PathIndex} can be used.
      *
      * This should return an empty list if the path has no sub-paths.
      *
      * @param path The path to get the keys for.
      * @return The List of keys that are under the provided path.
+     * @throws UnsupportedOperationException If the container overrides {@link StorageContainer#getKeys(String)} instead.
+     */
+    protected Set<String> retrieveKeys(String path) {
+        throw new UnsupportedOperationException(this.getClass().getSimpleName() + " must override retrieveKeys(String) or getKeys(String)!");
+    }
+
+    /**
+     * Returns a list of all sub-paths one level below the provided path.
+     * If {@link StorageSettings#isPathIndex()} is enabled, the keys are only retrieved from the data structure
+     * the first time, and are kept up to date as paths are stored and deleted.
+     *
+     * Containers that override this directly still work, but don't use the {@link PathIndex}.
+     *
+     * This will return an empty list if the path has no sub-paths.
+     *
+     * @param path The path to get the keys for.
+     * @return The List of keys that are under the provided path.
+     */
+    public Set<String> getKeys(String path) {
+        Objects.requireNonNull(path, "Cannot get keys from null path!");
+
+        PathIndex index = this.getCache().getIndex();
+        if(index == null) {
+            return this.retrieveKeys(path);
+        }
+
+        Set<String> keys = index.getKeys(path);
+        if(keys == null) {
+            long modifications = index.getModifications();
+            keys = this.retrieveKeys(path);
+            index.setKeys(path, keys, modifications);
+        }
+
+        return keys;
+    }
+
+    /**
+     * @see StorageContainer#getKeys(String)
+     *
+     * @param path The path to get the keys for.
+     * @return The List of keys that are under the provided path.
      */
-    public abstract Set<String> getKeys(String path);
+    public Set<String> getKeys(StoragePath path) {
+        return this.getKeys(pathOf(path));
+    }
 
     /**
      * Returns a cached object.
      * Objects are only cached after they've initially been retrieved.
      * Therefore, this method will always return null if you haven't retrieved a path yet.
      *
+     * Data that has been set or removed but not yet flushed is always returned, even if the cache is disabled.
+     *
      * @see StorageContainer#retrieve(String)
      * @see StorageContainer#getOrElse(String, Object)
      *
@@ -123,8 +225,34 @@ public abstract class StorageContainer {
     public <T> T get(String path) throws ClassCastException {
         Objects.requireNonNull(path, "Cannot get from null path!");
 
+        WriteBuffer buffer = this.getCache().getWriteBuffer();
+        if(buffer.isPending(path)) {
+            Object pending = buffer.get(path);
+
+            //Decomposed objects that were replayed from the journal can't be read until they're flushed.
+            if(!(pending instanceof DecomposedObject)) {
+                this.getMetrics().recordHit();
+                return (T) pending;
+            }
+        }
+
         CachedObject cachedObject = this.getCache().get(path);
-        return cachedObject == null ? null : (T) cachedObject.getObject();
+        if(cachedObject == null) return null;
+
+        this.getMetrics().recordHit();
+        return (T) cachedObject.getObject();
+    }
+
+    /**
+     * @see StorageContainer#get(String)
+     *
+     * @param path The path to get the data from.
+     * @param <T> The type to cast to
+     * @return The cached object, or null if none exists at the path.
+     * @throws ClassCastException If the cached object is not of type T
+     */
+    public <T> T get(StoragePath path) throws ClassCastException {
+        return this.get(pathOf(path));
     }
 
     /**
@@ -145,6 +273,18 @@ public abstract class StorageContainer {
         return obtained == null ? orElse : obtained;
     }
 
+    /**
+     * @see StorageContainer#getOrElse(String, Object)
+     *
+     * @param path The path to get the data from.
+     * @param orElse The object to return if the path does not exist or returns null.
+     * @param <T> The type to cast to
+     * @return The cached object, or null if none exists at the path.
+     */
+    public <T> T getOrElse(StoragePath path, T orElse) {
+        return this.getOrElse(pathOf(path), orElse);
+    }
+
     /**
      * Sets data into a cache that will eventually be updated into the data structure.
      * Data that is set may be lost in the case of a hard crash.
@@ -156,7 +296,7 @@ public abstract class StorageContainer {
      * @param path The path of the data.
      * @param data The data to set.
      */
-    public synchronized void set(String path, Object data) {
+    public void set(String path, Object data) {
         Objects.requireNonNull(path, "Cannot set to null path!");
 
         if(!isSupported(data.getClass())) {
@@ -164,9 +304,23 @@ public abstract class StorageContainer {
         }
 
         this.cacheStore(path, data);
+        this.getCache().getWriteBuffer().set(path, data);
+        this.getChangeFeed().publish(ChangeEvent.Type.SET, path, data);
+
+        //Anything that can't be journaled is written through, so that it's never at risk of being lost.
+        if(this.getJournal() != null && !this.getJournal().set(path, data)) {
+            this.storeDirectly(path, data);
+        }
+    }
 
-        this.getCache().getSetCache().put(path, data);
-        this.getCache().getRemoveCache().remove(path);
+    /**
+     * @see StorageContainer#set(String, Object)
+     *
+     * @param path The path of the data.
+     * @param data The data to set.
+     */
+    public void set(StoragePath path, Object data) {
+        this.set(pathOf(path), data);
     }
 
     /**
@@ -179,7 +333,7 @@ public abstract class StorageContainer {
      *
      * @param data A map with all the paths and objects to set.
      */
-    public synchronized void setAll(Map<String, Object> data) {
+    public void setAll(Map<String, Object> data) {
         data.forEach(this::set);
     }
 
@@ -193,13 +347,25 @@ public abstract class StorageContainer {
      *
      * @param path The path of the data to remove.
      */
-    public synchronized void remove(String path) {
+    public void remove(String path) {
         Objects.requireNonNull(path, "Cannot remove from null path!");
 
-        this.getCache().getRemoveCache().add(path);
+        //Replaces any pending set, since now it was removed.
+        this.getCache().getWriteBuffer().remove(path);
+        this.getChangeFeed().publish(ChangeEvent.Type.REMOVE, path, null);
+
+        if(this.getJournal() != null) {
+            this.getJournal().remove(path);
+        }
+    }
 
-        //Don't need to set anything, since now it was removed.
-        this.getCache().getSetCache().remove(path);
+    /**
+     * @see StorageContainer#remove(String)
+     *
+     * @param path The path of the data to remove.
+     */
+    public void remove(StoragePath path) {
+        this.remove(pathOf(path));
     }
 
     /**
@@ -212,10 +378,230 @@ public abstract class StorageContainer {
      *
      * @param paths The path of the data to remove.
      */
-    public synchronized void removeAll(List<String> paths) {
+    public void removeAll(List<String> paths) {
         paths.forEach(this::remove);
     }
 
+    /**
+     * Atomically replaces the value at a path with the value computed from it.
+     * The new value is set the same way as {@link StorageContainer#set(String, Object)}, so it's written by the next flush.
+     * If the function returns null, the path is removed instead.
+     *
+     * The current value is taken from anything pending in the {@link WriteBuffer}, then from the cache,
+     * and is only retrieved from the data structure if neither have it. Enabling the cache means the data structure
+     * is only retrieved from the first time a path is computed.
+     *
+     * Paths are locked using a {@link StripedLock}, so computing different paths rarely waits.
+     * This is only atomic with other atomic operations, setting or removing the path directly isn't locked.
+     *
+     * Note: The function should be fast and must not use this container, since other paths in the same stripe wait for it.
+     *
+     * @see StorageContainer#increment(String, int)
+     * @see StorageContainer#compareAndSet(String, Object, Object)
+     *
+     * @param path The path to compute.
+     * @param function Computes the new value from the current value, which is null if the path doesn't exist.
+     * @param <T> The type of the value.
+     * @return The new value.
+     */
+    public <T> T compute(String path, UnaryOperator<T> function) {
+        return this.compute(null, path, function);
+    }
+
+    /**
+     * @see StorageContainer#compute(String, UnaryOperator)
+     *
+     * @param path The path to compute.
+     * @param function Computes the new value from the current value, which is null if the path doesn't exist.
+     * @param <T> The type of the value.
+     * @return The new value.
+     */
+    public <T> T compute(StoragePath path, UnaryOperator<T> function) {
+        return this.compute(pathOf(path), function);
+    }
+
+    /**
+     * Atomically replaces the value at a path with the value computed from it.
+     * If the value has to be retrieved from the data structure, it's retrieved as the provided type,
+     * so this should be used to compute objects that are stored with a {@link StorageDecomposer}.
+     *
+     * @see StorageContainer#compute(String, UnaryOperator)
+     *
+     * @param type The type of the value, or null to retrieve it with implicit casting.
+     * @param path The path to compute.
+     * @param function Computes the new value from the current value, which is null if the path doesn't exist.
+     * @param <T> The type of the value.
+     * @return The new value.
+     */
+    public <T> T compute(Class<T> type, String path, UnaryOperator<T> function) {
+        Objects.requireNonNull(path, "Cannot compute null path!");
+        Objects.requireNonNull(function, "Function cannot be null!");
+
+        return this.pathLocks.withLock(path, () -> {
+            T value = function.apply(this.getCurrent(type, path));
+            this.setCurrent(path, value);
+            return value;
+        });
+    }
+
+    /**
+     * @see StorageContainer#compute(Class, String, UnaryOperator)
+     *
+     * @param type The type of the value, or null to retrieve it with implicit casting.
+     * @param path The path to compute.
+     * @param function Computes the new value from the current value, which is null if the path doesn't exist.
+     * @param <T> The type of the value.
+     * @return The new value.
+     */
+    public <T> T compute(Class<T> type, StoragePath path, UnaryOperator<T> function) {
+        return this.compute(type, pathOf(path), function);
+    }
+
+    /**
+     * Atomically adds to the number at a path, and sets it as an int.
+     * If the path doesn't exist, it's treated as 0.
+     *
+     * @see StorageContainer#compute(String, UnaryOperator)
+     *
+     * @param path The path to increment.
+     * @param delta The amount to add, which can be negative.
+     * @return The new value.
+     * @throws IllegalArgumentException If the value at the path isn't a number.
+     */
+    public int increment(String path, int delta) {
+        return (int) this.compute(path, current -> toNumber(path, current).intValue() + delta);
+    }
+
+    /**
+     * @see StorageContainer#increment(String, int)
+     *
+     * @param path The path to increment.
+     * @param delta The amount to add, which can be negative.
+     * @return The new value.
+     * @throws IllegalArgumentException If the value at the path isn't a number.
+     */
+    public int increment(StoragePath path, int delta) {
+        return this.increment(pathOf(path), delta);
+    }
+
+    /**
+     * Atomically adds to the number at a path, and sets it as a double.
+     * If the path doesn't exist, it's treated as 0.
+     *
+     * @see StorageContainer#compute(String, UnaryOperator)
+     *
+     * @param path The path to increment.
+     * @param delta The amount to add, which can be negative.
+     * @return The new value.
+     * @throws IllegalArgumentException If the value at the path isn't a number.
+     */
+    public double increment(String path, double delta) {
+        return (double) this.compute(path, current -> toNumber(path, current).doubleValue() + delta);
+    }
+
+    /**
+     * @see StorageContainer#increment(String, double)
+     *
+     * @param path The path to increment.
+     * @param delta The amount to add, which can be negative.
+     * @return The new value.
+     * @throws IllegalArgumentException If the value at the path isn't a number.
+     */
+    public double increment(StoragePath path, double delta) {
+        return this.increment(pathOf(path), delta);
+    }
+
+    /**
+     * Atomically sets the value at a path, but only if the current value equals the expected value.
+     * Values are compared using {@link Object#equals(Object)}, so an Integer never equals a Long.
+     *
+     * @see StorageContainer#compute(String, UnaryOperator)
+     *
+     * @param path The path to set.
+     * @param expected The value that the path should have, or null if the path shouldn't exist.
+     * @param value The value to set, or null to remove the path.
+     * @return If the value was set.
+     */
+    public boolean compareAndSet(String path, Object expected, Object value) {
+        Objects.requireNonNull(path, "Cannot compare and set null path!");
+
+        return this.pathLocks.withLock(path, () -> {
+            if(!Objects.equals(this.getCurrent(null, path), expected)) return false;
+
+            this.setCurrent(path, value);
+            return true;
+        });
+    }
+
+    /**
+     * @see StorageContainer#compareAndSet(String, Object, Object)
+     *
+     * @param path The path to set.
+     * @param expected The value that the path should have, or null if the path shouldn't exist.
+     * @param value The value to set, or null to remove the path.
+     * @return If the value was set.
+     */
+    public boolean compareAndSet(StoragePath path, Object expected, Object value) {
+        return this.compareAndSet(pathOf(path), expected, value);
+    }
+
+    /**
+     * Subscribes to the changes made to a path, and every path that is nested within it.
+     * Changes are published when a path is set, removed, stored or deleted through this container,
+     * and are delivered asynchronously once the subscriber requests them.
+     *
+     * Every subscriber buffers up to {@link ChangeFeed#DEFAULT_BUFFER_SIZE} changes,
+     * and drops the oldest change once its buffer is full.
+     *
+     * @see StorageContainer#subscribe(String, int, OverflowPolicy)
+     *
+     * @param prefix The path to subscribe to. An empty String subscribes to every change.
+     * @return A {@link Flow.Publisher} of the changes.
+     */
+    public Flow.Publisher<ChangeEvent> subscribe(String prefix) {
+        return this.subscribe(prefix, ChangeFeed.DEFAULT_BUFFER_SIZE, OverflowPolicy.DROP_OLDEST);
+    }
+
+    /**
+     * @see StorageContainer#subscribe(String)
+     *
+     * @param prefix The path to subscribe to.
+     * @return A {@link Flow.Publisher} of the changes.
+     */
+    public Flow.Publisher<ChangeEvent> subscribe(StoragePath prefix) {
+        return this.subscribe(pathOf(prefix));
+    }
+
+    /**
+     * Subscribes to the changes made to a path, and every path that is nested within it.
+     * Changes are published when a path is set, removed, stored or deleted through this container,
+     * and are delivered asynchronously once the subscriber requests them.
+     *
+     * Changes made directly to the data structure, or to lists using the {@link ArrayContainer} list operations, aren't published.
+     * Once the container is closed, every subscriber is completed.
+     *
+     * @param prefix The path to subscribe to. An empty String subscribes to every change.
+     * @param bufferSize How many changes each subscriber can have buffered before the overflow policy is used.
+     * @param policy What happens when a subscriber's buffer is full.
+     * @return A {@link Flow.Publisher} of the changes.
+     */
+    public Flow.Publisher<ChangeEvent> subscribe(String prefix, int bufferSize, OverflowPolicy policy) {
+        Objects.requireNonNull(prefix, "Cannot subscribe to null path!");
+        return this.getChangeFeed().publisher(prefix, bufferSize, policy);
+    }
+
+    /**
+     * @see StorageContainer#subscribe(String, int, OverflowPolicy)
+     *
+     * @param prefix The path to subscribe to.
+     * @param bufferSize How many changes each subscriber can have buffered before the overflow policy is used.
+     * @param policy What happens when a subscriber's buffer is full.
+     * @return A {@link Flow.Publisher} of the changes.
+     */
+    public Flow.Publisher<ChangeEvent> subscribe(StoragePath prefix, int bufferSize, OverflowPolicy policy) {
+        return this.subscribe(pathOf(prefix), bufferSize, policy);
+    }
+
     /**
      * Stores data to the data structure. This method is executed asynchronously.
      *
@@ -230,12 +616,19 @@ public abstract class StorageContainer {
      * @return A {@link CompletableFuture} that will be completed once the async storage has been finalized, but before {@link StorageHook#complete()} is called.
      */
     public CompletableFuture<Void> store(String path, Object data) {
-        //Overwrite anything we've already cached to do.
-        this.getCache().getRemoveCache().remove(path);
-        this.getCache().getSetCache().remove(path);
+        this.getChangeFeed().publish(ChangeEvent.Type.STORE, path, data);
+        return this.storeDirectly(path, data);
+    }
 
-        return this.storeData(path, data, true)
-                .thenCompose(future -> this.getCompleteHook().complete());
+    /**
+     * @see StorageContainer#store(String, Object)
+     *
+     * @param path The path to store the data to.
+     * @param data The data to store in the file format.
+     * @return A {@link CompletableFuture} that will be completed once the async storage has been finalized.
+     */
+    public CompletableFuture<Void> store(StoragePath path, Object data) {
+        return this.store(pathOf(path), data);
     }
 
     /**
@@ -248,18 +641,11 @@ public abstract class StorageContainer {
      *         This will complete before {@link StorageHook#complete()} has been called.
      */
     public CompletableFuture<Void> storeAll(Map<String, Object> data) {
-        List<CompletableFuture<Void>> futures = new ArrayList<>();
-
-        for(Map.Entry<String, Object> entry : data.entrySet()) {
-            futures.add(this.storeData(entry.getKey(), entry.getValue(), true));
-
-            //Overwrite anything we've already cached to do.
-            this.getCache().getRemoveCache().remove(entry.getKey());
-            this.getCache().getSetCache().remove(entry.getKey());
-        }
+        //Overwrite anything we've already cached to do.
+        data.keySet().forEach(this::discard);
+        data.forEach((path, value) -> this.getChangeFeed().publish(ChangeEvent.Type.STORE, path, value));
 
-        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[] {}))
-                .thenCompose(future -> this.getCompleteHook().complete());
+        return this.storeAllData(data);
     }
 
     /**
@@ -277,23 +663,33 @@ public abstract class StorageContainer {
     public CompletableFuture<Void> delete(String path) {
         Objects.requireNonNull(path, "Cannot delete from null path!");
 
+        //Overwrite anything we've already cached to do.
+        this.discard(path);
+        this.getChangeFeed().publish(ChangeEvent.Type.DELETE, path, null);
+
         CompletableFuture<Void> future = new CompletableFuture<>();
 
         this.getAPI().getTaskHandler().runTaskAsync(() -> {
-            this.getDeleteHook().accept(path);
+            this.deleteFromStructure(path);
 
-            this.getCompleteHook().complete().thenRun(() -> {
+            this.complete().thenRun(() -> {
                 future.complete(null);
             });
         });
 
-        //Overwrite anything we've already cached to do.
-        this.getCache().getRemoveCache().remove(path);
-        this.getCache().getSetCache().remove(path);
-
         return future;
     }
 
+    /**
+     * @see StorageContainer#delete(String)
+     *
+     * @param path The path to remove.
+     * @return A {@link CompletableFuture} that will be completed once the async deletion has been finished.
+     */
+    public CompletableFuture<Void> delete(StoragePath path) {
+        return this.delete(pathOf(path));
+    }
+
     /**
      * Removes multiple paths from the data source. This method is executed asynchronously.
      * Useful if you're removing lots of items and don't want to call {@link DeleteHook#complete()} constantly.
@@ -306,23 +702,11 @@ public abstract class StorageContainer {
     public CompletableFuture<Void> deleteAll(List<String> paths) {
         Objects.requireNonNull(paths, "Cannot delete from null path!");
 
-        CompletableFuture<Void> future = new CompletableFuture<>();
-
-        this.getAPI().getTaskHandler().runTaskAsync(() -> {
-            paths.forEach(p -> {
-                this.getDeleteHook().accept(p);
-            });
-
-            this.getCompleteHook().complete().thenRun(() -> {
-                future.complete(null);
-            });
-        });
-
         //This should overwrite anything we've already cached to do.
-        this.getCache().getRemoveCache().removeAll(paths);
-        this.getCache().getSetCache().keySet().removeIf(paths::contains);
+        paths.forEach(this::discard);
+        paths.forEach(path -> this.getChangeFeed().publish(ChangeEvent.Type.DELETE, path, null));
 
-        return future;
+        return this.deleteAllData(paths, null);
     }
 
     /**
@@ -347,19 +731,35 @@ public abstract class StorageContainer {
             return this.get(path);
         }
 
+        long start = System.nanoTime();
         T obj = (T) this.getRetrieveHook().getFunction().apply(path);
         this.getRetrieveHook().complete();
+        this.getMetrics().recordRetrieve(start, 1);
         this.cacheRetrieve(path, obj);
         return obj;
     }
 
+    /**
+     * @see StorageContainer#retrieve(String)
+     *
+     * @param <T> The implicit type that will be cast to.
+     * @param path The path to retrieve.
+     * @return The cast object from the path, or null if it doesn't exist.
+     */
+    public <T> T retrieve(StoragePath path) {
+        return this.retrieve(pathOf(path));
+    }
+
     /**
      * Retrieves the object directly from the data source with explicit casting.
      * If you want to retrieve a {@link StorageDecomposer}, you will need to use this method and provide the type.
      *
-     * Note: This method is blocking, and will block for up to 5 seconds.
+     * Note: This method is blocking, and will block until the object has been recomposed.
      * It is highly recommended to only use this method if you know your data structure will not block
      *
+     * On a storage Thread of the {@link StorageExecutor}, the object is recomposed on the calling Thread,
+     * so a nested retrieve never waits for a storage Thread that could be waiting on it in turn.
+     *
      * @see StorageContainer#retrieve(String) to get the value with implicit casting.
      * @see StorageContainer#retrieveAsync(Class, String) for retrieving data asynchronously.
      *
@@ -367,6 +767,7 @@ public abstract class StorageContainer {
      * @param type The type of Object to get. If this Object has a {@link StorageDecomposer}, it will be used.
      * @param path The path to retrieve.
      * @return The cast object from the path, or null if it doesn't exist.
+     * @throws java.util.concurrent.CompletionException If the object could not be recomposed.
      */
     @SuppressWarnings("unchecked")
     public <T> T retrieve(Class<T> type, String path) {
@@ -381,83 +782,275 @@ public abstract class StorageContainer {
             throw new IllegalArgumentException(type + " is not a supported storage class. Create a StorageDecomposer to implement behavior!");
         }
 
-        StorageDecomposer<?> decomposer = this.getAPI().getDecomposer(type);
+        StorageDecomposer<T> decomposer = this.getAPI().getDecomposer(type);
 
         if (decomposer != null) {
-            //Only append %path% if it doesn't already exist in the String.
-            //Also needs to be ran async so it doesn't block itself, very smart
-            CompletableFuture<CompletableFuture<T>> future = CompletableFuture.supplyAsync(() -> {
-                try {
-                    return (CompletableFuture<T>) decomposer.applyRecompose(this, path.contains("%path%") ? path : path + ".%path%");
-                } catch (ClassCastException e) {
-                    throw new ClassCastException("Unable to recompose! This can occur if you're using addRecomposeKey instead of addCompletedRecomposeKey when using retrieve. addRecomposeKey should use retrieveAsync and addCompletedRecomposeKey should use retrieve or a straight object.");
-                }
-            });
-
-            try {
-                //Wait for the asynchronous future to be completed.
-                return future.get().get(5, TimeUnit.SECONDS);
-            } catch (InterruptedException | ExecutionException | TimeoutException e) {
-                e.printStackTrace();
-            }
+            //On a storage Thread, the recomposition has already run on that Thread, so this never waits for another one.
+            return this.recomposeAsync(decomposer, path).join();
         } else {
             return this.retrieve(path);
         }
-        return null;
-    }
-
-    /**
-     * Retrieves an object directly from the data source with implicit casting.
-     * This method is executed asynchronously, and the future will be completed when the data has been returned.
-     * Note: This method will not recompose {@link StorageDecomposer}s.
-     *
-     * @see StorageContainer#retrieveAsync(Class, String) for retrieving with explicit casting, or to recompose decomposed objects.
-     *
-     * @param <T> The implicit type that will be cast to.
-     * @param path The path to retrieve.
-     * @return The cast object from the path, or null if it doesn't exist.
-     */
-    public <T> CompletableFuture<T> retrieveAsync(String path) {
-        return CompletableFuture.supplyAsync(() -> this.retrieve(path));
     }
 
     /**
-     * Retrieves the object directly from the data source with explicit casting.
-     * If you want to retrieve a {@link StorageDecomposer}, you will need to use this method and provide the type.
-     * This method is executed asynchronously, and the future will be completed when the data has been returned.
-     *
-     * @see StorageContainer#retrieveAsync(String) to get the value with implicit casting.
+     * @see StorageContainer#retrieve(Class, String)
      *
      * @param <T> The explicit type that will be cast to.
      * @param type The type of Object to get. If this Object has a {@link StorageDecomposer}, it will be used.
      * @param path The path to retrieve.
      * @return The cast object from the path, or null if it doesn't exist.
      */
-    public <T> CompletableFuture<T> retrieveAsync(Class<T> type, String path) {
-        return CompletableFuture.supplyAsync(() -> this.retrieve(type, path));
+    public <T> T retrieve(Class<T> type, StoragePath path) {
+        return this.retrieve(type, pathOf(path));
     }
 
     /**
-     * Retrieves an object directly from the data source with implicit casting.
+     * Retrieves many objects from the data source with implicit casting.
+     * Cached paths are returned immediately, and every other path is retrieved from the data source in a single batch.
      * Note: This method will not recompose {@link StorageDecomposer}s.
      *
-     * Note: This method is blocking, and will block until the data structure returns an object.
-     * It is highly recommended to only use this method if you know your data structure will not block
-     *
-     * If the data structure returns null, the provided object will be returned instead.
-     *
-     * @see StorageContainer#retrieveOrElse(String, Object) for retrieving with explicit casting, or to recompose decomposed objects.
-     * @see StorageContainer#retrieveOrElseAsync(String, Object) for retrieving data asynchronously.
+     * @see StorageContainer#retrieveAll(Class, Collection) for retrieving with explicit casting, or to recompose decomposed objects.
+     * @see RetrieveHook#getBatchFunction()
      *
      * @param <T> The implicit type that will be cast to.
-     * @param path The path to retrieve.
-     * @param orElse The object to return if the path does not exist or returns null.
-     * @return The cast object from the path, or null if it doesn't exist.
+     * @param paths The paths to retrieve.
+     * @return A future with a Map of each path to its cast object, in the order the paths were provided.
+     *         The object is null if it doesn't exist.
      */
-    public <T> T retrieveOrElse(String path, T orElse) {
-        T obtained = this.retrieve(path);
-        return obtained == null ? orElse : obtained;
-    }
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<Map<String, T>> retrieveAll(Collection<String> paths) {
+        Objects.requireNonNull(paths, "Cannot retrieve from null paths!");
+
+        Map<String, T> retrieved = new LinkedHashMap<>();
+        List<String> missed = new ArrayList<>();
+
+        for(String path : paths) {
+            Objects.requireNonNull(path, "Cannot retrieve from null path!");
+
+            if(this.isCached(path)) {
+                retrieved.put(path, this.get(path));
+            } else {
+                //Keeps the order of the provided paths.
+                retrieved.put(path, null);
+                missed.add(path);
+            }
+        }
+
+        if(missed.isEmpty()) {
+            return CompletableFuture.completedFuture(retrieved);
+        }
+
+        return this.getAPI().getExecutor().supply(() -> {
+            long start = System.nanoTime();
+            Map<String, Object> batch = this.getRetrieveHook().getBatchFunction().apply(missed);
+            this.getRetrieveHook().complete();
+            this.getMetrics().recordRetrieve(start, missed.size());
+
+            for(String path : missed) {
+                Object obj = batch.get(path);
+                this.cacheRetrieve(path, obj);
+                retrieved.put(path, (T) obj);
+            }
+
+            return retrieved;
+        });
+    }
+
+    /**
+     * Retrieves many objects from the data source with explicit casting.
+     * If the type has a {@link StorageDecomposer}, every object is recomposed, and the keys of all the objects are
+     * retrieved together in a single batch, instead of one retrieve per key.
+     *
+     * @see StorageContainer#retrieveAll(Collection) to get the values with implicit casting.
+     *
+     * @param <T> The explicit type that will be cast to.
+     * @param type The type of Object to get. If this Object has a {@link StorageDecomposer}, it will be used.
+     * @param paths The paths to retrieve.
+     * @return A future with a Map of each path to its cast object, in the order the paths were provided.
+     *         The object is null if it doesn't exist.
+     */
+    public <T> CompletableFuture<Map<String, T>> retrieveAll(Class<T> type, Collection<String> paths) {
+        Objects.requireNonNull(paths, "Cannot retrieve from null paths!");
+        Objects.requireNonNull(type, "Type must be provided");
+
+        if(!isSupported(type)) {
+            throw new IllegalArgumentException(type + " is not a supported storage class. Create a StorageDecomposer to implement behavior!");
+        }
+
+        StorageDecomposer<T> decomposer = this.getAPI().getDecomposer(type);
+        if(decomposer == null || decomposer.getRecomposeFunction() == null) {
+            return this.retrieveAll(paths);
+        }
+
+        Map<String, T> retrieved = new LinkedHashMap<>();
+        List<String> missed = new ArrayList<>();
+        for(String path : paths) {
+            Objects.requireNonNull(path, "Cannot retrieve from null path!");
+
+            if(this.isCached(path)) {
+                retrieved.put(path, this.get(path));
+            } else {
+                retrieved.put(path, null);
+                missed.add(path);
+            }
+        }
+
+        if(missed.isEmpty()) {
+            return CompletableFuture.completedFuture(retrieved);
+        }
+
+        //Every object uses the same keys, so they only need to be found once.
+        RecomposedObject<T> keys = RecomposedObject.filled(this, decomposer);
+        List<String> leafPaths = new ArrayList<>();
+        for(String path : missed) {
+            for(String key : keys.getKeys()) {
+                Class<?> keyType = keys.getType(key);
+
+                //Nested decomposed objects are recomposed on their own.
+                if(keyType == null || this.getAPI().getDecomposer(keyType) != null) continue;
+                leafPaths.add(getRecomposePath(path).replace("%path%", key));
+            }
+        }
+
+        //The prefetched values aren't cached here, since lists are only cached once they've been retrieved as a list.
+        return this.getAPI().getExecutor().supply(() -> {
+            long start = System.nanoTime();
+            Map<String, Object> prefetched = this.getRetrieveHook().getBatchFunction().apply(leafPaths);
+            this.getRetrieveHook().complete();
+            this.getMetrics().recordRetrieve(start, leafPaths.size());
+            return prefetched;
+        }).thenCompose(prefetched -> {
+            Map<String, CompletableFuture<T>> futures = new LinkedHashMap<>();
+            for(String path : missed) {
+                futures.put(path, decomposer.applyRecompose(this, getRecomposePath(path), prefetched));
+            }
+
+            return CompletableFuture.allOf(futures.values().toArray(new CompletableFuture<?>[0])).thenApply(ignored -> {
+                futures.forEach((path, future) -> retrieved.put(path, future.join()));
+                return retrieved;
+            });
+        });
+    }
+
+    /**
+     * Retrieves an object directly from the data source with implicit casting.
+     * This method is executed asynchronously, and the future will be completed when the data has been returned.
+     * Note: This method will not recompose {@link StorageDecomposer}s.
+     *
+     * @see StorageContainer#retrieveAsync(Class, String) for retrieving with explicit casting, or to recompose decomposed objects.
+     *
+     * @param <T> The implicit type that will be cast to.
+     * @param path The path to retrieve.
+     * @return The cast object from the path, or null if it doesn't exist.
+     */
+    public <T> CompletableFuture<T> retrieveAsync(String path) {
+        Objects.requireNonNull(path, "Cannot retrieve from null path!");
+
+        if(this.isCached(path)) {
+            return CompletableFuture.completedFuture(this.get(path));
+        }
+
+        return this.getAPI().getExecutor().supply(() -> this.retrieve(path));
+    }
+
+    /**
+     * @see StorageContainer#retrieveAsync(String)
+     *
+     * @param <T> The implicit type that will be cast to.
+     * @param path The path to retrieve.
+     * @return The cast object from the path, or null if it doesn't exist.
+     */
+    public <T> CompletableFuture<T> retrieveAsync(StoragePath path) {
+        return this.retrieveAsync(pathOf(path));
+    }
+
+    /**
+     * Retrieves the object directly from the data source with explicit casting.
+     * If you want to retrieve a {@link StorageDecomposer}, you will need to use this method and provide the type.
+     * This method is executed asynchronously, and the future will be completed when the data has been returned.
+     *
+     * Recomposing is done by composing the futures of every recomposed key, so no Thread waits for nested objects.
+     *
+     * @see StorageContainer#retrieveAsync(String) to get the value with implicit casting.
+     *
+     * @param <T> The explicit type that will be cast to.
+     * @param type The type of Object to get. If this Object has a {@link StorageDecomposer}, it will be used.
+     * @param path The path to retrieve.
+     * @return The cast object from the path, or null if it doesn't exist.
+     */
+    public <T> CompletableFuture<T> retrieveAsync(Class<T> type, String path) {
+        Objects.requireNonNull(path, "Cannot retrieve from null path!");
+        Objects.requireNonNull(type, "Type must be provided");
+
+        if(this.isCached(path)) {
+            return CompletableFuture.completedFuture(this.get(path));
+        }
+
+        if(!isSupported(type)) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException(type + " is not a supported storage class. Create a StorageDecomposer to implement behavior!"));
+        }
+
+        StorageDecomposer<T> decomposer = this.getAPI().getDecomposer(type);
+        return decomposer != null ? this.recomposeAsync(decomposer, path) : this.retrieveAsync(path);
+    }
+
+    //The recompose function is started on the executor, since it may retrieve keys with blocking calls.
+    private <T> CompletableFuture<T> recomposeAsync(StorageDecomposer<T> decomposer, String path) {
+        return this.getAPI().getExecutor().supply(() -> {
+            try {
+                CompletableFuture<T> recomposed = decomposer.applyRecompose(this, getRecomposePath(path));
+                return recomposed == null ? CompletableFuture.<T>completedFuture(null) : recomposed;
+            } catch (ClassCastException e) {
+                throw new ClassCastException("Unable to recompose! This can occur if you're using addRecomposeKey instead of addCompletedRecomposeKey when using retrieve. addRecomposeKey should use retrieveAsync and addCompletedRecomposeKey should use retrieve or a straight object.");
+            }
+        }).thenCompose(Function.identity());
+    }
+
+    /**
+     * @see StorageContainer#retrieveAsync(Class, String)
+     *
+     * @param <T> The explicit type that will be cast to.
+     * @param type The type of Object to get. If this Object has a {@link StorageDecomposer}, it will be used.
+     * @param path The path to retrieve.
+     * @return The cast object from the path, or null if it doesn't exist.
+     */
+    public <T> CompletableFuture<T> retrieveAsync(Class<T> type, StoragePath path) {
+        return this.retrieveAsync(type, pathOf(path));
+    }
+
+    /**
+     * Retrieves an object directly from the data source with implicit casting.
+     * Note: This method will not recompose {@link StorageDecomposer}s.
+     *
+     * Note: This method is blocking, and will block until the data structure returns an object.
+     * It is highly recommended to only use this method if you know your data structure will not block
+     *
+     * If the data structure returns null, the provided object will be returned instead.
+     *
+     * @see StorageContainer#retrieveOrElse(String, Object) for retrieving with explicit casting, or to recompose decomposed objects.
+     * @see StorageContainer#retrieveOrElseAsync(String, Object) for retrieving data asynchronously.
+     *
+     * @param <T> The implicit type that will be cast to.
+     * @param path The path to retrieve.
+     * @param orElse The object to return if the path does not exist or returns null.
+     * @return The cast object from the path, or null if it doesn't exist.
+     */
+    public <T> T retrieveOrElse(String path, T orElse) {
+        T obtained = this.retrieve(path);
+        return obtained == null ? orElse : obtained;
+    }
+
+    /**
+     * @see StorageContainer#retrieveOrElse(String, Object)
+     *
+     * @param <T> The implicit type that will be cast to.
+     * @param path The path to retrieve.
+     * @param orElse The object to return if the path does not exist or returns null.
+     * @return The cast object from the path, or null if it doesn't exist.
+     */
+    public <T> T retrieveOrElse(StoragePath path, T orElse) {
+        return this.retrieveOrElse(pathOf(path), orElse);
+    }
 
     /**
      * Retrieves the object directly from the data source with explicit casting.
@@ -466,65 +1059,395 @@ public abstract class StorageContainer {
      * Note: This method is blocking, and will block for up to 5 seconds.
      * It is highly recommended to only use this method if you know your data structure will not block
      *
-     * If the data structure returns null, the provided object will be returned instead.
+     * If the data structure returns null, the provided object will be returned instead.
+     *
+     * @see StorageContainer#retrieveOrElse(String, Object) to get the value with implicit casting.
+     * @see StorageContainer#retrieveOrElseAsync(Class, String, Object) for retrieving data asynchronously.
+     *
+     * @param <T> The explicit type that will be cast to.
+     * @param type The type of Object to get. If this Object has a {@link StorageDecomposer}, it will be used.
+     * @param path The path to retrieve.
+     * @param orElse The object to return if the path does not exist or returns null.
+     * @return The cast object from the path, or null if it doesn't exist.
+     */
+    public <T> T retrieveOrElse(Class<T> type, String path, T orElse) {
+        T obtained = this.retrieve(type, path);
+        return obtained == null ? orElse : obtained;
+    }
+
+    /**
+     * @see StorageContainer#retrieveOrElse(Class, String, Object)
+     *
+     * @param <T> The explicit type that will be cast to.
+     * @param type The type of Object to get. If this Object has a {@link StorageDecomposer}, it will be used.
+     * @param path The path to retrieve.
+     * @param orElse The object to return if the path does not exist or returns null.
+     * @return The cast object from the path, or null if it doesn't exist.
+     */
+    public <T> T retrieveOrElse(Class<T> type, StoragePath path, T orElse) {
+        return this.retrieveOrElse(type, pathOf(path), orElse);
+    }
+
+    /**
+     * Retrieves an object directly from the data source with implicit casting.
+     * This method is executed asynchronously, and the future will be completed when the data has been returned.
+     * Note: This method will not recompose {@link StorageDecomposer}s.
+     *
+     * If the data structure returns null, the provided object will be returned instead.
+     *
+     * @see StorageContainer#retrieveOrElseAsync(Class, String, Object) for retrieving with explicit casting, or to recompose decomposed objects.
+     *
+     * @param <T> The implicit type that will be cast to.
+     * @param path The path to retrieve.
+     * @param orElse The object to return if the path does not exist or returns null.
+     * @return The cast object from the path, or null if it doesn't exist.
+     */
+    public <T> CompletableFuture<T> retrieveOrElseAsync(String path, T orElse) {
+        return this.<T>retrieveAsync(path).thenApply(obj -> obj == null ? orElse : obj);
+    }
+
+    /**
+     * @see StorageContainer#retrieveOrElseAsync(String, Object)
+     *
+     * @param <T> The implicit type that will be cast to.
+     * @param path The path to retrieve.
+     * @param orElse The object to return if the path does not exist or returns null.
+     * @return The cast object from the path, or null if it doesn't exist.
+     */
+    public <T> CompletableFuture<T> retrieveOrElseAsync(StoragePath path, T orElse) {
+        return this.retrieveOrElseAsync(pathOf(path), orElse);
+    }
+
+    /**
+     * Retrieves the object directly from the data source with explicit casting.
+     * If you want to retrieve a {@link StorageDecomposer}, you will need to use this method and provide the type.
+     * This method is executed asynchronously, and the future will be completed when the data has been returned.
+     *
+     * If the data structure returns null, the provided object will be returned instead.
+     *
+     * @see StorageContainer#retrieveOrElseAsync(String, Object) to get the value with implicit casting.
+     *
+     * @param <T> The explicit type that will be cast to.
+     * @param type The type of Object to get. If this Object has a {@link StorageDecomposer}, it will be used.
+     * @param path The path to retrieve.
+     * @param orElse The object to return if the path does not exist or returns null.
+     * @return The cast object from the path, or null if it doesn't exist.
+     */
+    public <T> CompletableFuture<T> retrieveOrElseAsync(Class<T> type, String path, T orElse) {
+        return this.retrieveAsync(type, path).thenApply(obj -> obj == null ? orElse : obj);
+    }
+
+    /**
+     * @see StorageContainer#retrieveOrElseAsync(Class, String, Object)
+     *
+     * @param <T> The explicit type that will be cast to.
+     * @param type The type of Object to get. If this Object has a {@link StorageDecomposer}, it will be used.
+     * @param path The path to retrieve.
+     * @param orElse The object to return if the path does not exist or returns null.
+     * @return The cast object from the path, or null if it doesn't exist.
+     */
+    public <T> CompletableFuture<T> retrieveOrElseAsync(Class<T> type, StoragePath path, T orElse) {
+        return this.retrieveOrElseAsync(type, pathOf(path), orElse);
+    }
+
+    /**
+     * Retrieves an int from the data source, without boxing it if possible.
+     * This behaves the same as {@link StorageContainer#retrieve(String)}, but returns 0 if the path doesn't exist or isn't a number.
+     *
+     * Note: This method is blocking, and will block until the data structure returns the value.
+     *
+     * @see StorageContainer#retrieveInt(String, int)
+     *
+     * @param path The path to retrieve.
+     * @return The int at the path, or 0.
+     */
+    public int retrieveInt(String path) {
+        return this.retrieveInt(path, 0);
+    }
+
+    /**
+     * @see StorageContainer#retrieveInt(String)
+     *
+     * @param path The path to retrieve.
+     * @return The int at the path, or 0.
+     */
+    public int retrieveInt(StoragePath path) {
+        return this.retrieveInt(pathOf(path), 0);
+    }
+
+    /**
+     * Retrieves an int from the data source, without boxing it if possible.
+     * Cached and pending values are returned first. Otherwise, the {@link TypedRetrieveHook} is used if the container provides one,
+     * and retrieved objects aren't cached.
+     *
+     * Note: This method is blocking, and will block until the data structure returns the value.
+     *
+     * @param path The path to retrieve.
+     * @param orElse The value to return if the path doesn't exist or isn't a number.
+     * @return The int at the path, or orElse.
+     */
+    public int retrieveInt(String path, int orElse) {
+        Object object = this.retrieveTyped(path);
+        if(object == NATIVE) {
+            long start = System.nanoTime();
+            int value = this.getTypedRetrieveHook().getRetriever().retrieveInt(path, orElse);
+            this.getTypedRetrieveHook().complete();
+            this.getMetrics().recordRetrieve(start, 1);
+            return value;
+        }
+
+        return object instanceof Number number ? number.intValue() : orElse;
+    }
+
+    /**
+     * @see StorageContainer#retrieveInt(String, int)
+     *
+     * @param path The path to retrieve.
+     * @param orElse The value to return if the path doesn't exist or isn't a number.
+     * @return The int at the path, or orElse.
+     */
+    public int retrieveInt(StoragePath path, int orElse) {
+        return this.retrieveInt(pathOf(path), orElse);
+    }
+
+    /**
+     * Retrieves a long from the data source, without boxing it if possible.
+     * This behaves the same as {@link StorageContainer#retrieve(String)}, but returns 0 if the path doesn't exist or isn't a number.
+     *
+     * Note: This method is blocking, and will block until the data structure returns the value.
+     *
+     * @see StorageContainer#retrieveLong(String, long)
+     *
+     * @param path The path to retrieve.
+     * @return The long at the path, or 0.
+     */
+    public long retrieveLong(String path) {
+        return this.retrieveLong(path, 0);
+    }
+
+    /**
+     * @see StorageContainer#retrieveLong(String)
+     *
+     * @param path The path to retrieve.
+     * @return The long at the path, or 0.
+     */
+    public long retrieveLong(StoragePath path) {
+        return this.retrieveLong(pathOf(path), 0);
+    }
+
+    /**
+     * Retrieves a long from the data source, without boxing it if possible.
+     * Cached and pending values are returned first. Otherwise, the {@link TypedRetrieveHook} is used if the container provides one,
+     * and retrieved objects aren't cached.
+     *
+     * Note: This method is blocking, and will block until the data structure returns the value.
+     *
+     * @param path The path to retrieve.
+     * @param orElse The value to return if the path doesn't exist or isn't a number.
+     * @return The long at the path, or orElse.
+     */
+    public long retrieveLong(String path, long orElse) {
+        Object object = this.retrieveTyped(path);
+        if(object == NATIVE) {
+            long start = System.nanoTime();
+            long value = this.getTypedRetrieveHook().getRetriever().retrieveLong(path, orElse);
+            this.getTypedRetrieveHook().complete();
+            this.getMetrics().recordRetrieve(start, 1);
+            return value;
+        }
+
+        return object instanceof Number number ? number.longValue() : orElse;
+    }
+
+    /**
+     * @see StorageContainer#retrieveLong(String, long)
+     *
+     * @param path The path to retrieve.
+     * @param orElse The value to return if the path doesn't exist or isn't a number.
+     * @return The long at the path, or orElse.
+     */
+    public long retrieveLong(StoragePath path, long orElse) {
+        return this.retrieveLong(pathOf(path), orElse);
+    }
+
+    /**
+     * Retrieves a double from the data source, without boxing it if possible.
+     * This behaves the same as {@link StorageContainer#retrieve(String)}, but returns 0 if the path doesn't exist or isn't a number.
+     *
+     * Note: This method is blocking, and will block until the data structure returns the value.
+     *
+     * @see StorageContainer#retrieveDouble(String, double)
+     *
+     * @param path The path to retrieve.
+     * @return The double at the path, or 0.
+     */
+    public double retrieveDouble(String path) {
+        return this.retrieveDouble(path, 0);
+    }
+
+    /**
+     * @see StorageContainer#retrieveDouble(String)
+     *
+     * @param path The path to retrieve.
+     * @return The double at the path, or 0.
+     */
+    public double retrieveDouble(StoragePath path) {
+        return this.retrieveDouble(pathOf(path), 0);
+    }
+
+    /**
+     * Retrieves a double from the data source, without boxing it if possible.
+     * Cached and pending values are returned first. Otherwise, the {@link TypedRetrieveHook} is used if the container provides one,
+     * and retrieved objects aren't cached.
+     *
+     * Note: This method is blocking, and will block until the data structure returns the value.
+     *
+     * @param path The path to retrieve.
+     * @param orElse The value to return if the path doesn't exist or isn't a number.
+     * @return The double at the path, or orElse.
+     */
+    public double retrieveDouble(String path, double orElse) {
+        Object object = this.retrieveTyped(path);
+        if(object == NATIVE) {
+            long start = System.nanoTime();
+            double value = this.getTypedRetrieveHook().getRetriever().retrieveDouble(path, orElse);
+            this.getTypedRetrieveHook().complete();
+            this.getMetrics().recordRetrieve(start, 1);
+            return value;
+        }
+
+        return object instanceof Number number ? number.doubleValue() : orElse;
+    }
+
+    /**
+     * @see StorageContainer#retrieveDouble(String, double)
+     *
+     * @param path The path to retrieve.
+     * @param orElse The value to return if the path doesn't exist or isn't a number.
+     * @return The double at the path, or orElse.
+     */
+    public double retrieveDouble(StoragePath path, double orElse) {
+        return this.retrieveDouble(pathOf(path), orElse);
+    }
+
+    /**
+     * Retrieves a boolean from the data source, without boxing it if possible.
+     * This behaves the same as {@link StorageContainer#retrieve(String)}, but returns false if the path doesn't exist or isn't a boolean.
+     *
+     * Note: This method is blocking, and will block until the data structure returns the value.
+     *
+     * @see StorageContainer#retrieveBoolean(String, boolean)
+     *
+     * @param path The path to retrieve.
+     * @return The boolean at the path, or false.
+     */
+    public boolean retrieveBoolean(String path) {
+        return this.retrieveBoolean(path, false);
+    }
+
+    /**
+     * @see StorageContainer#retrieveBoolean(String)
+     *
+     * @param path The path to retrieve.
+     * @return The boolean at the path, or false.
+     */
+    public boolean retrieveBoolean(StoragePath path) {
+        return this.retrieveBoolean(pathOf(path), false);
+    }
+
+    /**
+     * Retrieves a boolean from the data source, without boxing it if possible.
+     * Cached and pending values are returned first. Otherwise, the {@link TypedRetrieveHook} is used if the container provides one,
+     * and retrieved objects aren't cached.
+     *
+     * Note: This method is blocking, and will block until the data structure returns the value.
      *
-     * @see StorageContainer#retrieveOrElse(String, Object) to get the value with implicit casting.
-     * @see StorageContainer#retrieveOrElseAsync(Class, String, Object) for retrieving data asynchronously.
+     * @param path The path to retrieve.
+     * @param orElse The value to return if the path doesn't exist or isn't a boolean.
+     * @return The boolean at the path, or orElse.
+     */
+    public boolean retrieveBoolean(String path, boolean orElse) {
+        Object object = this.retrieveTyped(path);
+        if(object == NATIVE) {
+            long start = System.nanoTime();
+            boolean value = this.getTypedRetrieveHook().getRetriever().retrieveBoolean(path, orElse);
+            this.getTypedRetrieveHook().complete();
+            this.getMetrics().recordRetrieve(start, 1);
+            return value;
+        }
+
+        return object instanceof Boolean bool ? bool : orElse;
+    }
+
+    /**
+     * @see StorageContainer#retrieveBoolean(String, boolean)
      *
-     * @param <T> The explicit type that will be cast to.
-     * @param type The type of Object to get. If this Object has a {@link StorageDecomposer}, it will be used.
      * @param path The path to retrieve.
-     * @param orElse The object to return if the path does not exist or returns null.
-     * @return The cast object from the path, or null if it doesn't exist.
+     * @param orElse The value to return if the path doesn't exist or isn't a boolean.
+     * @return The boolean at the path, or orElse.
      */
-    public <T> T retrieveOrElse(Class<T> type, String path, T orElse) {
-        T obtained = this.retrieve(type, path);
-        return obtained == null ? orElse : obtained;
+    public boolean retrieveBoolean(StoragePath path, boolean orElse) {
+        return this.retrieveBoolean(pathOf(path), orElse);
     }
 
     /**
-     * Retrieves an object directly from the data source with implicit casting.
-     * This method is executed asynchronously, and the future will be completed when the data has been returned.
-     * Note: This method will not recompose {@link StorageDecomposer}s.
+     * Retrieves a String from the data source, without boxing it if possible.
+     * This behaves the same as {@link StorageContainer#retrieve(String)}, but returns null if the path doesn't exist or isn't a String.
      *
-     * If the data structure returns null, the provided object will be returned instead.
+     * Note: This method is blocking, and will block until the data structure returns the value.
      *
-     * @see StorageContainer#retrieveOrElseAsync(Class, String, Object) for retrieving with explicit casting, or to recompose decomposed objects.
+     * @see StorageContainer#retrieveString(String, String)
      *
-     * @param <T> The implicit type that will be cast to.
      * @param path The path to retrieve.
-     * @param orElse The object to return if the path does not exist or returns null.
-     * @return The cast object from the path, or null if it doesn't exist.
+     * @return The String at the path, or null.
      */
-    public <T> CompletableFuture<T> retrieveOrElseAsync(String path, T orElse) {
-        CompletableFuture<T> obtained = this.retrieveAsync(path);
-        obtained.thenAccept(obj -> {
-            obtained.complete(obj == null ? orElse : obj);
-        });
-        return obtained;
+    public String retrieveString(String path) {
+        return this.retrieveString(path, null);
     }
 
     /**
-     * Retrieves the object directly from the data source with explicit casting.
-     * If you want to retrieve a {@link StorageDecomposer}, you will need to use this method and provide the type.
-     * This method is executed asynchronously, and the future will be completed when the data has been returned.
+     * @see StorageContainer#retrieveString(String)
      *
-     * If the data structure returns null, the provided object will be returned instead.
+     * @param path The path to retrieve.
+     * @return The String at the path, or null.
+     */
+    public String retrieveString(StoragePath path) {
+        return this.retrieveString(pathOf(path), null);
+    }
+
+    /**
+     * Retrieves a String from the data source, without boxing it if possible.
+     * Cached and pending values are returned first. Otherwise, the {@link TypedRetrieveHook} is used if the container provides one,
+     * and retrieved objects aren't cached.
      *
-     * @see StorageContainer#retrieveOrElseAsync(String, Object) to get the value with implicit casting.
+     * Note: This method is blocking, and will block until the data structure returns the value.
      *
-     * @param <T> The explicit type that will be cast to.
-     * @param type The type of Object to get. If this Object has a {@link StorageDecomposer}, it will be used.
      * @param path The path to retrieve.
-     * @param orElse The object to return if the path does not exist or returns null.
-     * @return The cast object from the path, or null if it doesn't exist.
+     * @param orElse The value to return if the path doesn't exist or isn't a String.
+     * @return The String at the path, or orElse.
      */
-    public <T> CompletableFuture<T> retrieveOrElseAsync(Class<T> type, String path, T orElse) {
-        CompletableFuture<T> obtained = this.retrieveAsync(type, path);
-        obtained.thenAccept(obj -> {
-            obtained.complete(obj == null ? orElse : obj);
-        });
-        return obtained;
+    public String retrieveString(String path, String orElse) {
+        Object object = this.retrieveTyped(path);
+        if(object == NATIVE) {
+            long start = System.nanoTime();
+            String value = this.getTypedRetrieveHook().getRetriever().retrieveString(path, orElse);
+            this.getTypedRetrieveHook().complete();
+            this.getMetrics().recordRetrieve(start, 1);
+            return value;
+        }
+
+        return object instanceof String string ? string : orElse;
+    }
+
+    /**
+     * @see StorageContainer#retrieveString(String, String)
+     *
+     * @param path The path to retrieve.
+     * @param orElse The value to return if the path doesn't exist or isn't a String.
+     * @return The String at the path, or orElse.
+     */
+    public String retrieveString(StoragePath path, String orElse) {
+        return this.retrieveString(pathOf(path), orElse);
     }
 
     /**
@@ -575,6 +1498,25 @@ public abstract class StorageContainer {
         return this.getCache().isCached(path);
     }
 
+    /**
+     * @see StorageContainer#isCached(String)
+     *
+     * @param path The path to check.
+     * @return If the path is cached.
+     */
+    public boolean isCached(StoragePath path) {
+        return this.isCached(pathOf(path));
+    }
+
+    /**
+     * Returns the locks that atomic operations hold while they change a path.
+     *
+     * @return The StripedLock for this Container's paths.
+     */
+    StripedLock getPathLocks() {
+        return pathLocks;
+    }
+
     /**
      * Returns the {@link StorageSettings} for this Container.
      *
@@ -592,6 +1534,51 @@ public abstract class StorageContainer {
         return cache;
     }
 
+    /**
+     * Returns the {@link Journal} that sets and removes are appended to.
+     *
+     * @see StorageSettings#setJournal(java.io.File)
+     *
+     * @return The Journal, or null if the journal is disabled.
+     */
+    public Journal getJournal() {
+        return journal;
+    }
+
+    /**
+     * Returns the {@link StorageMetrics} that are recorded for this container.
+     *
+     * @see StorageSettings#setRegisterMBean(boolean)
+     *
+     * @return The StorageMetrics.
+     */
+    public StorageMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Returns a snapshot of this container's cache hits and misses, evictions, pending writes, flushes,
+     * and how long each of the container's hooks have taken.
+     *
+     * These can be used to tune settings such as {@link StorageSettings#setCacheDuration(int)} and {@link StorageSettings#setFlushRate(int)}.
+     *
+     * @return The StorageStatistics.
+     */
+    public StorageStatistics getStatistics() {
+        return this.getMetrics().snapshot();
+    }
+
+    /**
+     * Returns the {@link ChangeFeed} that changes to this container are published to.
+     *
+     * @see StorageContainer#subscribe(String)
+     *
+     * @return The ChangeFeed.
+     */
+    public ChangeFeed getChangeFeed() {
+        return changeFeed;
+    }
+
     /**
      * Returns the {@link IStorageAPI} that was used to create this container.
      * @return The IStorageAPI
@@ -601,18 +1588,52 @@ public abstract class StorageContainer {
     }
 
     /**
-     * Updates the {@link StorageContainer} with the set and remove caches.
-     * After flushing, these maps will be cleared.
+     * Updates the {@link StorageContainer} with the {@link WriteBuffer}.
+     * The pending writes are swapped out when the flush starts, so anything set or removed during the flush
+     * will be written by the next one. Flushes run one at a time, in the order they were requested.
      *
      * Flushing will not empty the cached data, only the data that needs to be updated to the structure.
      *
-     * @see StorageContainer#set(String, Object) for adding objects into the Set cache.
-     * @see StorageContainer#remove(String) for adding paths into the Remove cache.
+     * @see StorageContainer#set(String, Object) for adding objects into the WriteBuffer.
+     * @see StorageContainer#remove(String) for adding removals into the WriteBuffer.
      *
      * @return A future that is completed once the flush has finished.
      */
     public CompletableFuture<Void> flush() {
-        return this.getCache().flush();
+        synchronized (this.flushLock) {
+            this.lastFlush = this.lastFlush.exceptionally(throwable -> null)
+                    .thenCompose(previous -> this.flushBuffer());
+            return this.lastFlush;
+        }
+    }
+
+    /**
+     * Flushes anything that is pending, and stops flushing the container automatically.
+     * If the container has a {@link Journal}, it's closed afterwards, and every subscriber of its changes is completed.
+     * The cache is cleared, and no longer charged to the API's {@link CacheBudget}.
+     * If no other container has cached objects, the API's {@link ExpiryWheel} is stopped.
+     *
+     * Containers that hold files or connections open override this to release them.
+     * Once closed, the container should no longer be stored to.
+     */
+    public void close() {
+        this.flush().exceptionally(throwable -> null).join();
+        this.getCache().getFlushTask().cancel();
+
+        this.getCache().clearCache();
+        if(this.getCache().getBudget() != null) {
+            this.getCache().getBudget().unregister(this.getCache());
+        }
+
+        //If this was the last container with cached objects, the wheel has nothing left to expire.
+        this.getAPI().getExpiryWheel().stopIfEmpty();
+
+        if(this.getJournal() != null) {
+            this.getJournal().close();
+        }
+
+        this.getChangeFeed().close();
+        this.getMetrics().unregister();
     }
 
     /**
@@ -622,6 +1643,52 @@ public abstract class StorageContainer {
         this.getCache().clearCache();
     }
 
+    private CompletableFuture<Void> flushBuffer() {
+        //The journal has to be rolled before draining, so every write in the new segment is also in the new buffer.
+        Journal.Checkpoint checkpoint = this.getJournal() == null ? null : this.getJournal().checkpoint();
+
+        WriteBuffer.Drain drain = this.getCache().getWriteBuffer().drain();
+        if(drain.isEmpty()) {
+            drain.release();
+            if(checkpoint != null) {
+                checkpoint.release();
+            }
+            return CompletableFuture.completedFuture(null);
+        }
+
+        long start = System.nanoTime();
+        int writes = drain.getSets().size() + drain.getRemoves().size();
+
+        CompletableFuture<Void> future = CompletableFuture.completedFuture(null);
+        try {
+            if(!drain.getSets().isEmpty()) {
+                future = this.flushAllData(drain);
+            }
+
+            if(!drain.getRemoves().isEmpty()) {
+                future = future.thenCompose(future1 -> this.deleteAllData(drain.getRemoves(), drain));
+            }
+        } catch (RuntimeException e) {
+            //The drain still has to be restored, otherwise its writes would be reported as pending forever.
+            future = CompletableFuture.failedFuture(e);
+        }
+
+        return future.whenComplete((result, throwable) -> {
+            this.getMetrics().recordFlush(start, writes, throwable != null);
+
+            if(throwable != null) {
+                //Keep the writes, so that they're attempted again by the next flush.
+                drain.restore();
+                return;
+            }
+
+            drain.release();
+            if(checkpoint != null) {
+                checkpoint.release();
+            }
+        });
+    }
+
     /**
      * Returns if a class is supported for storage in this container.
      *
@@ -634,7 +1701,7 @@ public abstract class StorageContainer {
     public boolean isSupported(Class<?> clazz) {
         if(clazz.isPrimitive()) return true;
         if(clazz == String.class) return true;
-        if(this.getAPI().getDecomposer(clazz) != null) return true;
+        if(this.getAPI().resolveDecomposer(clazz) != null) return true;
         if(this.getAPI().getSupportedPrimitives().contains(clazz)) return true;
 
         return false;
@@ -650,19 +1717,21 @@ public abstract class StorageContainer {
         Objects.requireNonNull(path, "Cannot store to null path!");
         CompletableFuture<Void> future = new CompletableFuture<>();
 
-        if (data != null && !this.isSupported(data.getClass())) {
+        if (data != null && !(data instanceof DecomposedObject) && !this.isSupported(data.getClass())) {
             throw new IllegalArgumentException(data.getClass() + " is not a supported storage class. Create a StorageDecomposer to implement behavior!");
         }
 
-        StorageDecomposer<?> decomposer = data == null ? null : this.getAPI().getDecomposer(data.getClass());
+        StorageDecomposer<?> decomposer = data == null ? null : this.getAPI().resolveDecomposer(data.getClass());
         DecomposedObject object = null;
 
         //Cache the data.
-        if (decomposer != null) {
-            String decomposePath = path + ".%path%";
+        if (data instanceof DecomposedObject decomposed) {
+            //Already decomposed, since it was replayed from the journal.
+            object = decomposed;
+        } else if (decomposer != null) {
             object = decomposer.applyDecompose(data);
-            for (String decomposedPath : object.getDecomposedMap().keySet()) {
-                this.cacheStore(decomposePath.replace("%path%", decomposedPath), object.getDecomposedMap().get(decomposedPath));
+            for (Map.Entry<String, Object> entry : object.getDecomposedMap().entrySet()) {
+                this.cacheStore(path + "." + entry.getKey(), entry.getValue());
             }
         } else {
             this.cacheStore(path, data);
@@ -670,28 +1739,27 @@ public abstract class StorageContainer {
 
         DecomposedObject finalObject = object;
         Runnable runnable = () -> {
-            if (decomposer != null) {
-                //Add the placeholder for each decomposed path.
-                String decomposePath = path + ".%path%";
-                for (String decomposedPath : finalObject.getDecomposedMap().keySet()) {
-                    String compiledPath = decomposePath.replace("%path%", decomposedPath);
-                    Object decomposedObject = finalObject.getDecomposedMap().get(decomposedPath);
+            if (finalObject != null) {
+                //Store each decomposed key under the path.
+                for (Map.Entry<String, Object> entry : finalObject.getDecomposedMap().entrySet()) {
+                    String compiledPath = path + "." + entry.getKey();
+                    Object decomposedObject = entry.getValue();
 
                     if(decomposedObject != null) {
                         if(this instanceof ArrayContainer<?> arrayContainer && arrayContainer.isList(decomposedObject)) {
-                            this.getStoreHook().accept(compiledPath, arrayContainer.handleList(decomposedObject));
+                            this.storeToStructure(compiledPath, arrayContainer.handleList(decomposedObject));
                             continue;
-                        } else if(this.getAPI().getDecomposer(decomposedObject.getClass()) != null) {
+                        } else if(decomposedObject instanceof DecomposedObject || this.getAPI().resolveDecomposer(decomposedObject.getClass()) != null) {
                             this.storeData(compiledPath, decomposedObject, false);
                             continue;
                         }
-                        this.getStoreHook().accept(compiledPath, decomposedObject);
+                        this.storeToStructure(compiledPath, decomposedObject);
                     }
                 }
             } else if (this instanceof ArrayContainer<?> arrayContainer && arrayContainer.isList(data)) {
-                this.getStoreHook().accept(path, arrayContainer.handleList(data));
+                this.storeToStructure(path, arrayContainer.handleList(data));
             } else {
-                this.getStoreHook().accept(path, data);
+                this.storeToStructure(path, data);
             }
 
             future.complete(null);
@@ -703,13 +1771,271 @@ public abstract class StorageContainer {
             runnable.run();
         }
 
-        //No need to update these later, since this should overwrite them.
-        this.getCache().getSetCache().remove(path);
-        this.getCache().getRemoveCache().remove(path);
+        return future;
+    }
+
+    /**
+     * Stores data without publishing it to the {@link ChangeFeed}, and calls {@link CompleteHook#complete()} once it has been stored.
+     *
+     * @param path The path to store the data to.
+     * @param data The data to store in the file format.
+     */
+    private CompletableFuture<Void> storeDirectly(String path, Object data) {
+        //Overwrite anything we've already cached to do.
+        this.discard(path);
+
+        return this.storeData(path, data, true)
+                .thenCompose(future -> this.complete());
+    }
+
+    /**
+     * Stores all data, and calls {@link CompleteHook#complete()} once it has been stored.
+     * This does not touch the {@link WriteBuffer}.
+     *
+     * @param data A map with all the paths and objects to store.
+     */
+    private CompletableFuture<Void> storeAllData(Map<String, Object> data) {
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+
+        for(Map.Entry<String, Object> entry : data.entrySet()) {
+            futures.add(this.storeData(entry.getKey(), entry.getValue(), true));
+        }
+
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]))
+                .thenCompose(future -> this.complete());
+    }
+
+    /**
+     * Stores the sets of a {@link WriteBuffer.Drain}, and calls {@link CompleteHook#complete()} once they have been stored.
+     * Paths that are stored or deleted directly while flushing are skipped, so the flush never overwrites them.
+     *
+     * @param drain The drained writes.
+     */
+    private CompletableFuture<Void> flushAllData(WriteBuffer.Drain drain) {
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+
+        for(Map.Entry<String, Object> entry : drain.getSets().entrySet()) {
+            CompletableFuture<Void> future = new CompletableFuture<>();
+            this.getAPI().getTaskHandler().runTaskAsync(() -> {
+                try {
+                    drain.write(entry.getKey(), () -> this.storeData(entry.getKey(), entry.getValue(), false));
+                    future.complete(null);
+                } catch (RuntimeException e) {
+                    future.completeExceptionally(e);
+                }
+            });
+            futures.add(future);
+        }
+
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]))
+                .thenCompose(future -> this.complete());
+    }
+
+    /**
+     * Deletes all paths, and calls {@link CompleteHook#complete()} once they have been deleted.
+     * This does not touch the {@link WriteBuffer}.
+     *
+     * @param paths The paths to delete.
+     * @param drain The drained writes that the paths are from, or null if they're deleted directly.
+     */
+    private CompletableFuture<Void> deleteAllData(List<String> paths, WriteBuffer.Drain drain) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+
+        this.getAPI().getTaskHandler().runTaskAsync(() -> {
+            paths.forEach(p -> {
+                if(drain == null) {
+                    this.deleteFromStructure(p);
+                } else drain.write(p, () -> this.deleteFromStructure(p));
+            });
+
+            this.complete().thenRun(() -> {
+                future.complete(null);
+            });
+        });
 
         return future;
     }
 
+    /**
+     * Returns the path that a {@link StorageDecomposer} recomposes from.
+     * Only appends %path% if it doesn't already exist in the String.
+     *
+     * @param path The path of the decomposed object.
+     * @return The path with a %path% placeholder.
+     */
+    private static String getRecomposePath(String path) {
+        return path.contains("%path%") ? path : path + ".%path%";
+    }
+
+    /**
+     * Stores a path with the {@link StoreHook}, and updates the known keys in the {@link PathIndex}.
+     *
+     * @param path The path to store to.
+     * @param data The data to store.
+     */
+    private void storeToStructure(String path, Object data) {
+        long start = System.nanoTime();
+        this.getStoreHook().accept(path, data);
+        this.getMetrics().recordStore(start);
+
+        if(this.getCache().getIndex() != null) {
+            this.getCache().getIndex().stored(path);
+        }
+    }
+
+    /**
+     * Deletes a path with the {@link DeleteHook}, and updates the known keys in the {@link PathIndex}.
+     *
+     * @param path The path to delete.
+     */
+    private void deleteFromStructure(String path) {
+        long start = System.nanoTime();
+        this.getDeleteHook().accept(path);
+        this.getMetrics().recordDelete(start);
+
+        if(this.getCache().getIndex() != null) {
+            this.getCache().getIndex().deleted(path);
+        }
+    }
+
+    /**
+     * Returns the current value of a path for an atomic operation.
+     * This must be called while holding the path's lock.
+     *
+     * @param type The type to retrieve as, or null to retrieve with implicit casting.
+     * @param path The path.
+     * @return The current value, or null if the path doesn't exist.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T getCurrent(Class<T> type, String path) {
+        //Pending writes are kept until they've been stored, so the data structure never has an older value than this.
+        WriteBuffer buffer = this.getCache().getWriteBuffer();
+        if(buffer.isPending(path)) {
+            return (T) buffer.get(path);
+        }
+
+        //The cached object is only looked up once, since it may expire between checking and getting it.
+        CachedObject cachedObject = this.getCache().get(path);
+        if(cachedObject != null) {
+            return (T) cachedObject.getObject();
+        }
+
+        return type == null ? this.retrieve(path) : this.retrieve(type, path);
+    }
+
+    /**
+     * Sets or removes the value of a path for an atomic operation.
+     * This must be called while holding the path's lock.
+     *
+     * @param path The path.
+     * @param value The value to set, or null to remove the path.
+     */
+    private void setCurrent(String path, Object value) {
+        if(value == null) {
+            this.remove(path);
+        } else {
+            this.set(path, value);
+        }
+
+        //The cache would otherwise still have the old value once the write has been flushed.
+        if(value == null || !this.getSettings().isCachedOnStore()) {
+            this.getCache().remove(path);
+        }
+    }
+
+    private static Number toNumber(String path, Object value) {
+        if(value == null) return 0;
+        if(value instanceof Number number) return number;
+
+        throw new IllegalArgumentException("Cannot increment " + path + ", since it's not a number!");
+    }
+
+    /**
+     * Returns the String form of a {@link StoragePath}, which the hooks and caches are keyed by.
+     *
+     * @param path The StoragePath.
+     * @return The path as a String.
+     */
+    private static String pathOf(StoragePath path) {
+        Objects.requireNonNull(path, "Path cannot be null!");
+        return path.toString();
+    }
+
+    /**
+     * Discards anything pending for a path, since it's being stored or deleted directly.
+     *
+     * @param path The path to discard.
+     */
+    private void discard(String path) {
+        this.getCache().getWriteBuffer().discard(path);
+
+        if(this.getJournal() != null) {
+            this.getJournal().discard(path);
+        }
+    }
+
+    /**
+     * Opens the {@link Journal} from the settings, and replays it into the {@link WriteBuffer}.
+     *
+     * @return The Journal, or null if the journal is disabled or couldn't be opened.
+     */
+    private Journal openJournal() {
+        if(this.getSettings().getJournal() == null) return null;
+
+        try {
+            Journal journal = new Journal(this.getSettings().getJournal(), this.getAPI());
+
+            //The hooks aren't ready until the container has been created, so the replayed writes are flushed afterwards.
+            if(journal.replay(this.getCache().getWriteBuffer()) > 0) {
+                this.getAPI().getTaskHandler().runTaskLater(this::flush, 1);
+            }
+            return journal;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Returns the object that a typed retrieve should convert,
+     * or {@link #NATIVE} if the value should be retrieved with the {@link TypedRetrieveHook} instead.
+     *
+     * @param path The path to retrieve.
+     * @return The object at the path, or NATIVE.
+     */
+    private Object retrieveTyped(String path) {
+        Objects.requireNonNull(path, "Cannot retrieve from null path!");
+
+        if(this.isCached(path)) {
+            return this.get(path);
+        }
+
+        //Caching the value would box it anyway, so the hook is only used while retrieved objects aren't cached.
+        if(this.getTypedRetrieveHook() == null || (this.getSettings().isUseCache() && this.getSettings().isCachedOnRetrieve())) {
+            return this.retrieve(path);
+        }
+        return NATIVE;
+    }
+
+    /**
+     * Requests the {@link CompleteHook} to be completed, sharing the completion with any other pending requests.
+     *
+     * @see CompletionCoalescer
+     */
+    CompletableFuture<Void> complete() {
+        return this.completionCoalescer.request();
+    }
+
+    /**
+     * Completes the {@link CompleteHook}, and records how long it took.
+     *
+     * @return The future from the CompleteHook.
+     */
+    private CompletableFuture<Void> completeStructure() {
+        long start = System.nanoTime();
+        return this.getCompleteHook().complete().whenComplete((result, throwable) -> this.getMetrics().recordComplete(start));
+    }
+
     private StoreHook getStoreHook() {
         return this.storeHook;
     }
@@ -722,4 +2048,7 @@ public abstract class StorageContainer {
     private CompleteHook getCompleteHook() {
         return completeHook;
     }
+    private TypedRetrieveHook getTypedRetrieveHook() {
+        return typedRetrieveHook;
+    }
 }
@@ -0,0 +1,71 @@
+package me.dessie.dessielib.storageapi.container;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Locks paths using a fixed amount of {@link ReentrantLock}s, which each lock a stripe of paths.
+ *
+ * Paths that are in the same stripe will wait for each other, but operations on different stripes never contend.
+ * This keeps the amount of locks fixed, no matter how many paths are used.
+ *
+ * @see StorageContainer#compute(String, java.util.function.UnaryOperator)
+ */
+public class StripedLock {
+
+    private final ReentrantLock[] locks;
+
+    /**
+     * @param stripes The amount of stripes, which is rounded up to a power of two.
+     */
+    public StripedLock(int stripes) {
+        if(stripes <= 0) {
+            throw new IllegalArgumentException("Stripes must be positive!");
+        }
+
+        int size = 1;
+        while(size < stripes) {
+            size <<= 1;
+        }
+
+        this.locks = new ReentrantLock[size];
+        for(int i = 0; i < this.locks.length; i++) {
+            this.locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Runs an operation while holding the lock for a path.
+     *
+     * @param path The path to lock.
+     * @param operation The operation to run.
+     * @param <T> The type that the operation returns.
+     * @return What the operation returned.
+     */
+    public <T> T withLock(String path, Supplier<T> operation) {
+        ReentrantLock lock = this.getLock(path);
+        lock.lock();
+        try {
+            return operation.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @param path The path.
+     * @return The lock for the stripe that the path is in.
+     */
+    public ReentrantLock getLock(String path) {
+        //Spread the higher bits, since only the lower bits pick the stripe.
+        int hash = path.hashCode();
+        return this.locks[(hash ^ (hash >>> 16)) & (this.locks.length - 1)];
+    }
+
+    /**
+     * @return The amount of stripes.
+     */
+    public int getStripes() {
+        return this.locks.length;
+    }
+}
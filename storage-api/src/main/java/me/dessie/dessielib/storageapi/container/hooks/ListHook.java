@@ -0,0 +1,76 @@
+package me.dessie.dessielib.storageapi.container.hooks;
+
+/**
+ * Hooks into a {@link me.dessie.dessielib.storageapi.container.ArrayContainer}
+ * to specify how lists can be changed in the data structure, without retrieving and storing the entire list.
+ *
+ * This hook is optional. If an ArrayContainer doesn't provide it, the list is retrieved, changed, and stored again.
+ *
+ * Elements are provided as a Handler, created the same way as a List that is being stored.
+ * Elements should be compared in the Handler's format, so that lists of decomposed objects don't have to be recomposed.
+ *
+ * @see me.dessie.dessielib.storageapi.container.ArrayContainer#appendToList(Class, String, Object[])
+ *
+ * @param <H> The Handler type of the ArrayContainer.
+ */
+public class ListHook<H> extends StorageHook<ListHook<H>> {
+
+    private final Operations<H> operations;
+
+    /**
+     * @param operations How the hook behaves when changing lists in the structure.
+     */
+    public ListHook(Operations<H> operations) {
+        this.operations = operations;
+    }
+
+    /**
+     * @return The behavior {@link Operations} for this hook.
+     */
+    public Operations<H> getOperations() {
+        return operations;
+    }
+
+    /**
+     * Changes lists in a data structure. Every method is provided the path to the list.
+     *
+     * @param <H> The Handler type of the ArrayContainer.
+     */
+    public interface Operations<H> {
+
+        /**
+         * Adds elements to the end of a list. If a list doesn't exist at the path, it should be created.
+         *
+         * @param path The path to the list.
+         * @param elements The elements to add.
+         */
+        void append(String path, H elements);
+
+        /**
+         * Removes every element of a list that is equal to one of the provided elements.
+         *
+         * @param path The path to the list.
+         * @param elements The elements to remove.
+         * @return The amount of elements that were removed.
+         */
+        int remove(String path, H elements);
+
+        /**
+         * Removes the element at an index of a list.
+         *
+         * @param path The path to the list.
+         * @param index The index to remove.
+         * @return If an element was removed.
+         */
+        boolean removeAt(String path, int index);
+
+        /**
+         * Returns if a list contains an element.
+         *
+         * @param path The path to the list.
+         * @param element A Handler that contains the single element to look for.
+         * @return If the list contains the element.
+         */
+        boolean contains(String path, H element);
+    }
+}
@@ -1,5 +1,8 @@
 package me.dessie.dessielib.storageapi.container.hooks;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.function.Function;
 
 /**
@@ -11,10 +14,14 @@ import java.util.function.Function;
  *
  * This hook can block a thread, and users should use {@link me.dessie.dessielib.storageapi.container.StorageContainer#retrieveAsync(Class, String)}
  * if they wish to retrieve asynchronously.
+ *
+ * Implementations can also provide a batch function, which is used by
+ * {@link me.dessie.dessielib.storageapi.container.StorageContainer#retrieveAll(Collection)} to retrieve many paths at once.
  */
 public class RetrieveHook extends StorageHook<RetrieveHook> {
 
     private final Function<String, Object> function;
+    private final Function<Collection<String>, Map<String, Object>> batchFunction;
 
     /**
      * @param function How the hook behaves when retrieving from the structure.
@@ -22,7 +29,26 @@ public class RetrieveHook extends StorageHook<RetrieveHook> {
      *                 The Function can and should block the Thread to await the Object.
      */
     public RetrieveHook(Function<String, Object> function) {
+        this(function, null);
+    }
+
+    /**
+     * @param function How the hook behaves when retrieving from the structure.
+     *                 The {@link Function} will accept the path to the data, and should return the Object.
+     *                 The Function can and should block the Thread to await the Object.
+     * @param batchFunction How the hook behaves when retrieving many paths from the structure at once.
+     *                      The {@link Function} will accept the paths, and should return a Map of each path to its Object.
+     *                      If this is null, the single path function is applied to each path.
+     */
+    public RetrieveHook(Function<String, Object> function, Function<Collection<String>, Map<String, Object>> batchFunction) {
         this.function = function;
+        this.batchFunction = batchFunction != null ? batchFunction : paths -> {
+            Map<String, Object> retrieved = new HashMap<>();
+            for(String path : paths) {
+                retrieved.put(path, function.apply(path));
+            }
+            return retrieved;
+        };
     }
 
     /**
@@ -31,4 +57,11 @@ public class RetrieveHook extends StorageHook<RetrieveHook> {
     public Function<String, Object> getFunction() {
         return function;
     }
+
+    /**
+     * @return The batch behavior {@link Function} for this hook.
+     */
+    public Function<Collection<String>, Map<String, Object>> getBatchFunction() {
+        return batchFunction;
+    }
 }
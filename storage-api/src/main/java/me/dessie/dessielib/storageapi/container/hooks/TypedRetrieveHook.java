@@ -0,0 +1,73 @@
+package me.dessie.dessielib.storageapi.container.hooks;
+
+/**
+ * Hooks into a {@link me.dessie.dessielib.storageapi.container.StorageContainer}
+ * to specify how primitives and Strings can be retrieved directly from the data structure, without boxing the value.
+ *
+ * This hook is optional. If a StorageContainer doesn't provide it, typed retrieves use the {@link RetrieveHook},
+ * and convert the Object that is returned. The hook is also only used while retrieved objects aren't being cached,
+ * since a cached object has to be boxed anyway.
+ *
+ * @see me.dessie.dessielib.storageapi.container.StorageContainer#retrieveInt(String, int)
+ */
+public class TypedRetrieveHook extends StorageHook<TypedRetrieveHook> {
+
+    private final Retriever retriever;
+
+    /**
+     * @param retriever How the hook behaves when retrieving primitives and Strings from the structure.
+     */
+    public TypedRetrieveHook(Retriever retriever) {
+        this.retriever = retriever;
+    }
+
+    /**
+     * @return The behavior {@link Retriever} for this hook.
+     */
+    public Retriever getRetriever() {
+        return retriever;
+    }
+
+    /**
+     * Retrieves primitives and Strings from a data structure.
+     * Every method is provided the path to retrieve, and the value to return if the path doesn't exist,
+     * or the value at the path isn't of the requested type.
+     */
+    public interface Retriever {
+
+        /**
+         * @param path The path to retrieve.
+         * @param orElse The value to return if the path isn't a number.
+         * @return The int at the path.
+         */
+        int retrieveInt(String path, int orElse);
+
+        /**
+         * @param path The path to retrieve.
+         * @param orElse The value to return if the path isn't a number.
+         * @return The long at the path.
+         */
+        long retrieveLong(String path, long orElse);
+
+        /**
+         * @param path The path to retrieve.
+         * @param orElse The value to return if the path isn't a number.
+         * @return The double at the path.
+         */
+        double retrieveDouble(String path, double orElse);
+
+        /**
+         * @param path The path to retrieve.
+         * @param orElse The value to return if the path isn't a boolean.
+         * @return The boolean at the path.
+         */
+        boolean retrieveBoolean(String path, boolean orElse);
+
+        /**
+         * @param path The path to retrieve.
+         * @param orElse The value to return if the path isn't a String.
+         * @return The String at the path.
+         */
+        String retrieveString(String path, String orElse);
+    }
+}
@@ -0,0 +1,244 @@
+package me.dessie.dessielib.storageapi.decomposition;
+
+import me.dessie.dessielib.storageapi.api.IStorageAPI;
+
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Holds the {@link StorageDecomposer}s of an {@link IStorageAPI}, and finds the decomposer to use for a class.
+ *
+ * A class uses the decomposer that was registered for it. If there isn't one, the decomposer of its closest superclass is used,
+ * and then the decomposer of the first interface found while walking up the hierarchy.
+ * This means a decomposer for an abstract type also decomposes every subclass of it, but it still only recomposes the abstract type.
+ *
+ * Every class is only resolved once, including classes that don't have a decomposer, and the result is kept in a {@link ClassValue}.
+ * Registering or unregistering a decomposer discards every resolved class, since it may change which decomposer they resolve to.
+ */
+public class DecomposerRegistry {
+
+    private final Map<Class<?>, StorageDecomposer<?>> decomposers = new LinkedHashMap<>();
+
+    //Replaced whenever a decomposer is registered, so nothing is resolved against the old decomposers.
+    private volatile ClassValue<Optional<StorageDecomposer<?>>> resolved = this.createCache();
+
+    private final List<StorageDecomposer<?>> view = new DecomposerList();
+
+    /**
+     * Registers a decomposer, replacing any decomposer that was registered for the same type.
+     *
+     * @param decomposer The decomposer to register.
+     */
+    public void register(StorageDecomposer<?> decomposer) {
+        Objects.requireNonNull(decomposer, "Cannot register null decomposer!");
+
+        synchronized (this.decomposers) {
+            this.decomposers.put(decomposer.getType(), decomposer);
+            this.resolved = this.createCache();
+        }
+    }
+
+    /**
+     * Returns the decomposer that decomposes a class, which may have been registered for a superclass or interface of it.
+     * A decomposer that was registered for a superclass or interface only recomposes that type, not the class itself.
+     *
+     * @param clazz The class to get the decomposer for.
+     * @param <T> The type of the class.
+     * @return The decomposer, or null if the class doesn't have one.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> StorageDecomposer<? super T> resolve(Class<T> clazz) {
+        if(clazz == null) return null;
+        return (StorageDecomposer<? super T>) this.resolved.get(clazz).orElse(null);
+    }
+
+    /**
+     * Returns the decomposer that was registered for exactly this class.
+     *
+     * @param clazz The class to get the decomposer for.
+     * @param <T> The type of the class.
+     * @return The decomposer, or null if none was registered for the class.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> StorageDecomposer<T> get(Class<T> clazz) {
+        StorageDecomposer<?> decomposer = this.resolve(clazz);
+        return decomposer != null && decomposer.getType() == clazz ? (StorageDecomposer<T>) decomposer : null;
+    }
+
+    /**
+     * Returns the decomposer that was registered for exactly this class.
+     *
+     * @param clazz The class to get the decomposer for.
+     * @param <T> The type of the class.
+     * @return The decomposer, or null if none was registered for the class.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> StorageDecomposer<T> getRegistered(Class<T> clazz) {
+        synchronized (this.decomposers) {
+            return (StorageDecomposer<T>) this.decomposers.get(clazz);
+        }
+    }
+
+    /**
+     * Unregisters the decomposer that was registered for a type.
+     *
+     * @param type The type to unregister the decomposer of.
+     * @return The decomposer that was unregistered, or null if none was registered for the type.
+     */
+    public StorageDecomposer<?> unregister(Class<?> type) {
+        synchronized (this.decomposers) {
+            StorageDecomposer<?> removed = this.decomposers.remove(type);
+            if(removed != null) {
+                this.resolved = this.createCache();
+            }
+            return removed;
+        }
+    }
+
+    //Only unregisters the decomposer if it hasn't been replaced since.
+    private void unregister(StorageDecomposer<?> decomposer) {
+        synchronized (this.decomposers) {
+            if(this.decomposers.remove(decomposer.getType(), decomposer)) {
+                this.resolved = this.createCache();
+            }
+        }
+    }
+
+    /**
+     * Returns every registered decomposer, in the order they were registered.
+     *
+     * The list is a view of this registry, so adding a decomposer to it registers the decomposer,
+     * replacing any decomposer that was registered for the same type, and removing one unregisters it.
+     *
+     * @return The registered decomposers.
+     */
+    public List<StorageDecomposer<?>> getDecomposers() {
+        return this.view;
+    }
+
+    private ClassValue<Optional<StorageDecomposer<?>>> createCache() {
+        return new ClassValue<>() {
+            @Override
+            protected Optional<StorageDecomposer<?>> computeValue(Class<?> type) {
+                return Optional.ofNullable(DecomposerRegistry.this.find(type));
+            }
+        };
+    }
+
+    private StorageDecomposer<?> find(Class<?> type) {
+        synchronized (this.decomposers) {
+            if(this.decomposers.isEmpty()) return null;
+
+            //The closest superclass wins over any interface.
+            for(Class<?> current = type; current != null; current = current.getSuperclass()) {
+                StorageDecomposer<?> decomposer = this.decomposers.get(current);
+                if(decomposer != null) return decomposer;
+            }
+
+            //Walk the interfaces breadth first, so directly implemented interfaces are found before inherited ones.
+            Deque<Class<?>> queue = new ArrayDeque<>();
+            Set<Class<?>> visited = new HashSet<>();
+            for(Class<?> current = type; current != null; current = current.getSuperclass()) {
+                Collections.addAll(queue, current.getInterfaces());
+            }
+
+            while(!queue.isEmpty()) {
+                Class<?> current = queue.poll();
+                if(!visited.add(current)) continue;
+
+                StorageDecomposer<?> decomposer = this.decomposers.get(current);
+                if(decomposer != null) return decomposer;
+
+                Collections.addAll(queue, current.getInterfaces());
+            }
+
+            return null;
+        }
+    }
+
+    //Reads and writes through to the registered decomposers, so the list is never out of date.
+    private class DecomposerList extends AbstractList<StorageDecomposer<?>> {
+        @Override
+        public StorageDecomposer<?> get(int index) {
+            synchronized (DecomposerRegistry.this.decomposers) {
+                return List.copyOf(DecomposerRegistry.this.decomposers.values()).get(index);
+            }
+        }
+
+        @Override
+        public int size() {
+            synchronized (DecomposerRegistry.this.decomposers) {
+                return DecomposerRegistry.this.decomposers.size();
+            }
+        }
+
+        @Override
+        public boolean add(StorageDecomposer<?> decomposer) {
+            DecomposerRegistry.this.register(decomposer);
+            return true;
+        }
+
+        @Override
+        public void add(int index, StorageDecomposer<?> decomposer) {
+            //Decomposers are kept in the order they were registered.
+            this.add(decomposer);
+        }
+
+        @Override
+        public StorageDecomposer<?> set(int index, StorageDecomposer<?> decomposer) {
+            StorageDecomposer<?> previous = this.remove(index);
+            this.add(decomposer);
+            return previous;
+        }
+
+        @Override
+        public StorageDecomposer<?> remove(int index) {
+            synchronized (DecomposerRegistry.this.decomposers) {
+                StorageDecomposer<?> decomposer = this.get(index);
+                DecomposerRegistry.this.unregister(decomposer);
+                return decomposer;
+            }
+        }
+
+        @Override
+        public Iterator<StorageDecomposer<?>> iterator() {
+            //Iterates a snapshot, so it can't be broken by decomposers that are registered meanwhile.
+            Iterator<StorageDecomposer<?>> snapshot;
+            synchronized (DecomposerRegistry.this.decomposers) {
+                snapshot = List.copyOf(DecomposerRegistry.this.decomposers.values()).iterator();
+            }
+
+            return new Iterator<>() {
+                private StorageDecomposer<?> last;
+
+                @Override
+                public boolean hasNext() {
+                    return snapshot.hasNext();
+                }
+
+                @Override
+                public StorageDecomposer<?> next() {
+                    this.last = snapshot.next();
+                    return this.last;
+                }
+
+                @Override
+                public void remove() {
+                    if(this.last == null) throw new IllegalStateException();
+                    DecomposerRegistry.this.unregister(this.last);
+                    this.last = null;
+                }
+            };
+        }
+    }
+}
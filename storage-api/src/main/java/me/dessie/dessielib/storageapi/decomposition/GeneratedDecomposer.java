@@ -0,0 +1,178 @@
+package me.dessie.dessielib.storageapi.decomposition;
+
+import me.dessie.dessielib.storageapi.api.IStorageAPI;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.VarHandle;
+import java.lang.reflect.InvocationTargetException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.List;
+
+/**
+ * Support for the {@link StorageDecomposer}s that the annotation processor generates for classes
+ * with {@code @Stored}, {@code @StoredList} and {@code @RecomposeConstructor} annotations.
+ *
+ * A generated decomposer is named after its class with {@link GeneratedDecomposer#SUFFIX}, is in the same package,
+ * and accesses the fields and constructor directly instead of through reflection.
+ * Every generated decomposer is also listed in the {@link GeneratedDecomposer#INDEX} resource.
+ *
+ * The remaining methods are only meant to be called by generated code.
+ *
+ * @see IStorageAPI#registerAnnotatedDecomposer(Class)
+ * @see IStorageAPI#registerGeneratedDecomposers(ClassLoader)
+ */
+public final class GeneratedDecomposer {
+
+    /**
+     * Appended to the binary name of a class to get the name of its generated decomposer.
+     */
+    public static final String SUFFIX = "$$StorageDecomposer";
+
+    /**
+     * The resource that lists every generated decomposer, one binary name per line.
+     */
+    public static final String INDEX = "META-INF/dessielib/storage-decomposers";
+
+    private GeneratedDecomposer() {}
+
+    /**
+     * Loads the generated decomposer of a class.
+     *
+     * @param type The class to load the decomposer for.
+     * @param <T> The type of the class.
+     * @return The generated decomposer, or null if the class doesn't have one.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> StorageDecomposer<T> load(Class<T> type) {
+        try {
+            Class<?> generated = Class.forName(type.getName() + SUFFIX, true, type.getClassLoader());
+            return (StorageDecomposer<T>) create(generated);
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Loads every generated decomposer that is listed in an {@link GeneratedDecomposer#INDEX} resource of the ClassLoader.
+     *
+     * @param loader The ClassLoader to find the indexes and classes with.
+     * @return The generated decomposers.
+     */
+    public static List<StorageDecomposer<?>> loadIndex(ClassLoader loader) {
+        List<StorageDecomposer<?>> decomposers = new ArrayList<>();
+
+        try {
+            Enumeration<URL> indexes = loader.getResources(INDEX);
+            while(indexes.hasMoreElements()) {
+                try(BufferedReader reader = new BufferedReader(new InputStreamReader(indexes.nextElement().openStream(), StandardCharsets.UTF_8))) {
+                    String line;
+                    while((line = reader.readLine()) != null) {
+                        line = line.trim();
+                        if(line.isEmpty()) continue;
+
+                        try {
+                            StorageDecomposer<?> decomposer = create(Class.forName(line, true, loader));
+                            if(decomposer != null) {
+                                decomposers.add(decomposer);
+                            }
+                        } catch (ClassNotFoundException e) {
+                            e.printStackTrace();
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+
+        return decomposers;
+    }
+
+    /**
+     * Finds a field that can't be accessed directly.
+     *
+     * @param owner The class that declares the field.
+     * @param name The name of the field.
+     * @param type The type of the field.
+     * @return A VarHandle for the field.
+     * @throws IllegalStateException If the field can't be found or accessed.
+     */
+    public static VarHandle field(Class<?> owner, String name, Class<?> type) {
+        try {
+            return MethodHandles.privateLookupIn(owner, MethodHandles.lookup()).findVarHandle(owner, name, type);
+        } catch (NoSuchFieldException | IllegalAccessException e) {
+            throw new IllegalStateException("Unable to access field " + name + " of " + owner.getName(), e);
+        }
+    }
+
+    /**
+     * Finds a constructor that can't be called directly.
+     *
+     * @param owner The class that declares the constructor.
+     * @param parameters The parameter types of the constructor.
+     * @return A MethodHandle for the constructor.
+     * @throws IllegalStateException If the constructor can't be found or accessed.
+     */
+    public static MethodHandle constructor(Class<?> owner, Class<?>... parameters) {
+        try {
+            return MethodHandles.privateLookupIn(owner, MethodHandles.lookup()).findConstructor(owner, MethodType.methodType(void.class, parameters));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new IllegalStateException("Unable to access constructor of " + owner.getName(), e);
+        }
+    }
+
+    /**
+     * Gets the completed objects of a {@link RecomposedObject} as constructor arguments,
+     * with the same checks as a decomposer that is registered by reflection.
+     *
+     * @param completed The completed RecomposedObject.
+     * @param owner The class that is being recomposed.
+     * @param paths The path of each argument.
+     * @param parameters The type of each parameter, with primitives as their wrappers.
+     * @param allowNull If arguments can be null.
+     * @param throwError If an error should be thrown when an argument isn't valid, instead of returning null.
+     * @return The arguments, or null if they aren't valid and throwError is false.
+     * @throws IllegalStateException If an argument isn't valid and throwError is true.
+     */
+    public static Object[] arguments(RecomposedObject<?> completed, Class<?> owner, String[] paths, Class<?>[] parameters, boolean allowNull, boolean throwError) {
+        Object[] args = new Object[paths.length];
+        for(int i = 0; i < paths.length; i++) {
+            args[i] = completed.getCompletedObject(paths[i]);
+        }
+
+        for(int i = 0; i < args.length; i++) {
+            if(!allowNull && args[i] == null) {
+                if(throwError) {
+                    throw new IllegalStateException("When recomposing " + owner + ", the parameter " + parameters[i] + " was found to be null when not allowed.");
+                }
+                return null;
+            } else if(args[i] != null && !parameters[i].isInstance(args[i])) {
+                if(throwError) {
+                    Class<?>[] argTypes = Arrays.stream(args).map(obj -> obj == null ? null : obj.getClass()).toArray(Class<?>[]::new);
+                    throw new IllegalStateException("Cannot use Annotations to add a Recomposer for " + owner.getSimpleName() + ". Constructor and provided arguments do not match. Expected " + Arrays.toString(parameters) + " but got " + Arrays.toString(argTypes));
+                }
+                return null;
+            }
+        }
+
+        return args;
+    }
+
+    private static StorageDecomposer<?> create(Class<?> generated) {
+        try {
+            return (StorageDecomposer<?>) generated.getConstructor().newInstance();
+        } catch (InstantiationException | IllegalAccessException | InvocationTargetException | NoSuchMethodException | ClassCastException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+}
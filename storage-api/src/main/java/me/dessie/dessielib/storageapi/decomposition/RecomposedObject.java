@@ -132,7 +132,8 @@ public class RecomposedObject<T> {
     /**
      * Returns the completed object for a specified path.
      * This should only be called in the {@link RecomposedObject#onComplete(Function)} method.
-     * This method is Thread blocking, and will wait for the Recompose Functions to be completed to return.
+     * Every Recompose Function has completed before the complete function is called, so this won't block within it.
+     * Anywhere else, this method is Thread blocking, and will wait for the Recompose Functions to be completed to return.
      *
      * This method implicitly cast to the type you're trying to retrieve and may result in ClassCastExceptions.
      *
@@ -4,7 +4,9 @@ import me.dessie.dessielib.storageapi.container.StorageContainer;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.BiFunction;
 import java.util.function.Function;
@@ -89,6 +91,24 @@ public class StorageDecomposer<T> {
      * @return A {@link CompletableFuture} that will complete when the recompose is finished, or null if the function does not exist.
      */
     public CompletableFuture<T> applyRecompose(StorageContainer container, String path) {
+        return this.applyRecompose(container, path, Collections.emptyMap());
+    }
+
+    /**
+     * Applies the recompose function to a Container and Path, using values that have already been retrieved.
+     *
+     * A prefetched value is only used if it's of the type that the recomposed key expects,
+     * otherwise the key is retrieved like normal.
+     *
+     * @see StorageDecomposer#applyRecompose(StorageContainer, String)
+     * @see StorageContainer#retrieveAll(Class, java.util.Collection)
+     *
+     * @param container The container to retrieve data from.
+     * @param path The path to retrieve data from for the recomposition.
+     * @param prefetched The values that have already been retrieved, mapped by their full path.
+     * @return A {@link CompletableFuture} that will complete when the recompose is finished, or null if the function does not exist.
+     */
+    public CompletableFuture<T> applyRecompose(StorageContainer container, String path, Map<String, Object> prefetched) {
         if(this.getRecomposeFunction() == null) return null;
         RecomposedObject<T> recomposedObject = new RecomposedObject<>(container.getAPI());
         CompletableFuture<T> completed = this.getRecomposeFunction().apply(container, recomposedObject);
@@ -106,6 +126,11 @@ public class StorageDecomposer<T> {
 
                 //Make sure the completed path is also notified of this completion, since we're not actually completing via retrieve.
                 recomposedObject.getCompletedPath().get(compose).complete(cached);
+            } else if(isPrefetched(container, recomposedObject.getType(compose), prefetched.get(composedPath))) {
+                Object retrieved = prefetched.get(composedPath);
+                composedFutures.add(CompletableFuture.completedFuture(retrieved));
+                recomposedObject.getCompletedPath().get(compose).complete(retrieved);
+                container.cacheRetrieve(composedPath, retrieved);
             } else {
                 CompletableFuture<Object> future = recomposedObject.getRecomposedMap().get(compose).apply(composedPath);
                 composedFutures.add(future);
@@ -120,13 +145,26 @@ public class StorageDecomposer<T> {
             }
         }
 
-        CompletableFuture.allOf(composedFutures.toArray(new CompletableFuture<?>[]{})).thenRun(() -> {
-            completed.complete(recomposedObject.complete());
+        //Every key is already done once this runs, so completing never waits on another future.
+        CompletableFuture.allOf(composedFutures.toArray(new CompletableFuture<?>[]{})).whenComplete((ignored, throwable) -> {
+            if(throwable != null) {
+                completed.completeExceptionally(throwable);
+            } else {
+                completed.complete(recomposedObject.complete());
+            }
         });
 
         return completed;
     }
 
+    private static boolean isPrefetched(StorageContainer container, Class<?> type, Object retrieved) {
+        if(type == null || retrieved == null) return false;
+
+        //Lists are retrieved as the container's native list, so they won't match the element type and are retrieved normally.
+        Class<?> wrapper = type.isPrimitive() ? container.getAPI().getWrappers().get(type) : type;
+        return wrapper != null && wrapper.isInstance(retrieved);
+    }
+
     /**
      * @return The type of the StorageDecomposer
      */
@@ -0,0 +1,425 @@
+package me.dessie.dessielib.storageapi.journal;
+
+import me.dessie.dessielib.storageapi.api.IStorageAPI;
+import me.dessie.dessielib.storageapi.cache.WriteBuffer;
+import me.dessie.dessielib.storageapi.container.StorageContainer;
+import me.dessie.dessielib.storageapi.settings.StorageSettings;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only write-ahead journal for a {@link StorageContainer}.
+ *
+ * Every {@link StorageContainer#set(String, Object)} and {@link StorageContainer#remove(String)} appends a record to the journal,
+ * so data that hasn't been flushed yet can be recovered after a crash.
+ * Records are written and synced asynchronously, and every record that is appended while a sync is in progress
+ * is written by the next sync, so many writes share the cost of a single sync.
+ *
+ * The journal is split into segment files. A new segment is started whenever the container flushes,
+ * and older segments are deleted once the flush has finished.
+ *
+ * @see StorageSettings#setJournal(File)
+ */
+public class Journal {
+
+    private static final byte SET = 1;
+    private static final byte REMOVE = 2;
+    private static final byte DISCARD = 3;
+
+    private static final String EXTENSION = ".wal";
+
+    private final File directory;
+    private final IStorageAPI api;
+    private final JournalCodec codec;
+
+    private final Object lock = new Object();
+
+    //Guarded by the lock. Records are appended to the last batch, and the first batch is the next to be committed.
+    private final Deque<Batch> batches = new ArrayDeque<>();
+    private long segment;
+    private boolean committing;
+    private boolean closed;
+
+    //Only used by the committing task.
+    private FileChannel channel;
+
+    /**
+     * @param directory The directory that the journal's segments are written to.
+     * @param api The IStorageAPI instance, used for running the syncs asynchronously and decomposing objects.
+     * @throws IOException If the directory couldn't be created.
+     */
+    public Journal(File directory, IStorageAPI api) throws IOException {
+        this.directory = directory;
+        this.api = api;
+        this.codec = new JournalCodec(api);
+
+        if(!this.getDirectory().isDirectory() && !this.getDirectory().mkdirs()) {
+            throw new IOException("Unable to create journal directory " + this.getDirectory().getPath());
+        }
+
+        //Never append to an existing segment, since it may end with a partially written record.
+        File[] segments = this.getSegments();
+        this.segment = segments.length == 0 ? 0 : getIndex(segments[segments.length - 1]) + 1;
+        this.batches.add(new Batch(this.segment));
+    }
+
+    /**
+     * Replays every record in the existing segments into a {@link WriteBuffer}.
+     * This should be called before anything is appended to the journal.
+     *
+     * Reading a segment stops at the first incomplete or corrupted record, which is expected if the crash happened mid-write.
+     *
+     * @param buffer The WriteBuffer to replay the records into.
+     * @return The amount of records that were replayed.
+     * @throws IOException If a segment couldn't be read.
+     */
+    public int replay(WriteBuffer buffer) throws IOException {
+        int replayed = 0;
+
+        for(File file : this.getSegments()) {
+            if(getIndex(file) >= this.segment) continue;
+
+            try(DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+                while(true) {
+                    int length = in.readInt();
+                    if(length <= 0 || length > file.length()) break;
+
+                    byte[] body = new byte[length];
+                    in.readFully(body);
+                    if(in.readInt() != checksum(body)) break;
+
+                    this.apply(buffer, body);
+                    replayed++;
+                }
+            } catch (EOFException ignored) {
+                //The segment ended with a partially written record.
+            }
+        }
+
+        return replayed;
+    }
+
+    /**
+     * Appends a set record.
+     *
+     * @param path The path that was set.
+     * @param data The data that was set.
+     * @return False if the data couldn't be encoded, in which case nothing was appended.
+     */
+    public boolean set(String path, Object data) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(SET);
+            JournalCodec.writeString(out, path);
+            this.codec.write(out, data);
+
+            this.append(bytes.toByteArray());
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        } catch (IOException e) {
+            //Can't happen, since it's written to memory.
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Appends a remove record.
+     *
+     * @param path The path that was removed.
+     */
+    public void remove(String path) {
+        this.append(REMOVE, path);
+    }
+
+    /**
+     * Appends a record that discards anything pending for a path, since it has been stored or deleted directly.
+     *
+     * @param path The path to discard.
+     */
+    public void discard(String path) {
+        this.append(DISCARD, path);
+    }
+
+    /**
+     * Returns a future that is completed once everything that has been appended so far is synced to disk.
+     *
+     * @return The future.
+     */
+    public CompletableFuture<Void> sync() {
+        synchronized (this.lock) {
+            Batch batch = this.batches.getLast();
+            batch.awaited = true;
+            this.commitLater();
+            return batch.future;
+        }
+    }
+
+    /**
+     * Starts a new segment, so that the current segments can be deleted once the data they hold has been flushed.
+     * This must be called before the {@link WriteBuffer} is drained.
+     *
+     * @return The Checkpoint to release once the flush has finished.
+     */
+    public Checkpoint checkpoint() {
+        synchronized (this.lock) {
+            Batch last = this.batches.getLast();
+            last.last = true;
+            last.awaited = true;
+
+            this.segment++;
+            this.batches.addLast(new Batch(this.segment));
+            this.commitLater();
+
+            return new Checkpoint(this.segment, last.future);
+        }
+    }
+
+    /**
+     * Syncs everything that has been appended, and closes the journal.
+     * Nothing can be appended afterwards.
+     */
+    public void close() {
+        this.sync().join();
+
+        synchronized (this.lock) {
+            this.closed = true;
+            if(!this.committing) {
+                this.closeChannel();
+            }
+        }
+    }
+
+    /**
+     * @return The directory that the journal's segments are written to.
+     */
+    public File getDirectory() {
+        return directory;
+    }
+
+    private void append(byte type, String path) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(type);
+            JournalCodec.writeString(out, path);
+
+            this.append(bytes.toByteArray());
+        } catch (IOException e) {
+            //Can't happen, since it's written to memory.
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void append(byte[] body) {
+        int checksum = checksum(body);
+
+        synchronized (this.lock) {
+            if(this.closed) return;
+
+            DataOutputStream out = this.batches.getLast().out;
+            try {
+                out.writeInt(body.length);
+                out.write(body);
+                out.writeInt(checksum);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+
+            this.commitLater();
+        }
+    }
+
+    //Must be called while holding the lock.
+    private void commitLater() {
+        //The first writer to find no commit in progress starts one, everyone else's records are picked up by it.
+        if(!this.committing) {
+            this.committing = true;
+            this.api.getTaskHandler().runTaskAsync(this::commit);
+        }
+    }
+
+    private void commit() {
+        while(true) {
+            Batch batch;
+
+            synchronized (this.lock) {
+                batch = this.batches.getFirst();
+
+                if(this.batches.size() == 1) {
+                    if(batch.isEmpty()) {
+                        this.committing = false;
+                        if(this.closed) {
+                            this.closeChannel();
+                        }
+                        return;
+                    }
+
+                    //Keep appending to the same segment while this batch is written.
+                    this.batches.addLast(new Batch(batch.segment));
+                }
+
+                this.batches.removeFirst();
+            }
+
+            try {
+                this.write(batch);
+                batch.future.complete(null);
+            } catch (IOException e) {
+                e.printStackTrace();
+                batch.future.completeExceptionally(e);
+            }
+        }
+    }
+
+    private void write(Batch batch) throws IOException {
+        try {
+            if(batch.bytes.size() > 0) {
+                if(this.channel == null) {
+                    File file = new File(this.getDirectory(), getName(batch.segment));
+                    this.channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+                }
+
+                ByteBuffer buffer = ByteBuffer.wrap(batch.bytes.toByteArray());
+                while(buffer.hasRemaining()) {
+                    this.channel.write(buffer);
+                }
+                this.channel.force(false);
+            }
+        } finally {
+            //Nothing else will be written to the segment, even if this write failed.
+            if(batch.last) {
+                this.closeChannel();
+            }
+        }
+    }
+
+    private void closeChannel() {
+        if(this.channel == null) return;
+
+        try {
+            this.channel.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        this.channel = null;
+    }
+
+    private void apply(WriteBuffer buffer, byte[] body) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(body));
+        byte type = in.readByte();
+        String path = JournalCodec.readString(in);
+
+        switch (type) {
+            case SET -> {
+                Object data = this.codec.read(in);
+                if(data != null) {
+                    buffer.set(path, data);
+                }
+            }
+            case REMOVE -> buffer.remove(path);
+            case DISCARD -> buffer.discard(path);
+            default -> throw new IOException("Unknown journal record type " + type);
+        }
+    }
+
+    private File[] getSegments() {
+        File[] segments = this.getDirectory().listFiles((dir, name) -> name.endsWith(EXTENSION) && isIndex(name));
+        if(segments == null) return new File[0];
+
+        Arrays.sort(segments, Comparator.comparingLong(Journal::getIndex));
+        return segments;
+    }
+
+    private static boolean isIndex(String name) {
+        String index = name.substring(0, name.length() - EXTENSION.length());
+        return !index.isEmpty() && index.chars().allMatch(Character::isDigit);
+    }
+
+    private static long getIndex(File file) {
+        String name = file.getName();
+        return Long.parseLong(name.substring(0, name.length() - EXTENSION.length()));
+    }
+
+    private static String getName(long index) {
+        return String.format("%016d", index) + EXTENSION;
+    }
+
+    private static int checksum(byte[] body) {
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Marks the point where a flush started.
+     * Once the flush has finished, releasing the checkpoint deletes every segment that only holds flushed data.
+     */
+    public class Checkpoint {
+        private final long segment;
+        private final CompletableFuture<Void> committed;
+
+        private Checkpoint(long segment, CompletableFuture<Void> committed) {
+            this.segment = segment;
+            this.committed = committed;
+        }
+
+        /**
+         * Deletes the segments that were started before this checkpoint.
+         * Flushes must release their checkpoints in the order they were created.
+         *
+         * If the last records before the checkpoint couldn't be synced, the segments are kept,
+         * since they may be the only copy of data that a later flush still needs.
+         */
+        public void release() {
+            this.committed.whenComplete((result, throwable) -> {
+                if(throwable != null) return;
+
+                for(File file : Journal.this.getSegments()) {
+                    if(getIndex(file) < this.segment && !file.delete()) {
+                        new IOException("Unable to delete journal segment " + file.getPath()).printStackTrace();
+                    }
+                }
+            });
+        }
+    }
+
+    private static class Batch {
+        private final long segment;
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final DataOutputStream out = new DataOutputStream(this.bytes);
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        //If someone is waiting for this batch, so it's committed even if it's empty.
+        private boolean awaited;
+
+        //If this is the last batch of its segment.
+        private boolean last;
+
+        private Batch(long segment) {
+            this.segment = segment;
+        }
+
+        private boolean isEmpty() {
+            return this.bytes.size() == 0 && !this.awaited;
+        }
+    }
+}
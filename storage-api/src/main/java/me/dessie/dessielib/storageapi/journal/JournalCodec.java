@@ -0,0 +1,167 @@
+package me.dessie.dessielib.storageapi.journal;
+
+import me.dessie.dessielib.storageapi.api.IStorageAPI;
+import me.dessie.dessielib.storageapi.decomposition.DecomposedObject;
+import me.dessie.dessielib.storageapi.decomposition.StorageDecomposer;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Encodes the values of {@link Journal} records.
+ *
+ * Strings, primitive wrappers, Collections and Arrays of those, and objects with a {@link StorageDecomposer} can be encoded.
+ * Numbers are encoded by their wrapper type, so other Number implementations can't be.
+ * Decomposed objects are decoded as a {@link DecomposedObject}, since they can't be recomposed without a container.
+ */
+class JournalCodec {
+
+    private static final byte NULL = 0;
+    private static final byte STRING = 1;
+    private static final byte BOOLEAN = 2;
+    private static final byte BYTE = 3;
+    private static final byte SHORT = 4;
+    private static final byte CHAR = 5;
+    private static final byte INT = 6;
+    private static final byte LONG = 7;
+    private static final byte FLOAT = 8;
+    private static final byte DOUBLE = 9;
+    private static final byte LIST = 10;
+    private static final byte DECOMPOSED = 11;
+
+    private final IStorageAPI api;
+
+    JournalCodec(IStorageAPI api) {
+        this.api = api;
+    }
+
+    /**
+     * Writes a value.
+     * Lists of decomposed objects can't be written, since they're stored in a container specific format.
+     *
+     * @param out The output to write to.
+     * @param value The value to write.
+     * @throws IOException If the output couldn't be written to.
+     * @throws IllegalArgumentException If the value can't be encoded.
+     */
+    void write(DataOutput out, Object value) throws IOException {
+        this.write(out, value, false);
+    }
+
+    private void write(DataOutput out, Object value, boolean inList) throws IOException {
+        if(value == null) {
+            out.writeByte(NULL);
+        } else if(value instanceof String string) {
+            out.writeByte(STRING);
+            writeString(out, string);
+        } else if(value instanceof Boolean bool) {
+            out.writeByte(BOOLEAN);
+            out.writeBoolean(bool);
+        } else if(value instanceof Byte b) {
+            out.writeByte(BYTE);
+            out.writeByte(b);
+        } else if(value instanceof Short s) {
+            out.writeByte(SHORT);
+            out.writeShort(s);
+        } else if(value instanceof Character c) {
+            out.writeByte(CHAR);
+            out.writeChar(c);
+        } else if(value instanceof Integer i) {
+            out.writeByte(INT);
+            out.writeInt(i);
+        } else if(value instanceof Long l) {
+            out.writeByte(LONG);
+            out.writeLong(l);
+        } else if(value instanceof Float f) {
+            out.writeByte(FLOAT);
+            out.writeFloat(f);
+        } else if(value instanceof Double d) {
+            out.writeByte(DOUBLE);
+            out.writeDouble(d);
+        } else if(value instanceof Collection<?> collection) {
+            out.writeByte(LIST);
+            out.writeInt(collection.size());
+            for(Object element : collection) {
+                this.write(out, element, true);
+            }
+        } else if(value.getClass().isArray()) {
+            int length = Array.getLength(value);
+            out.writeByte(LIST);
+            out.writeInt(length);
+            for(int i = 0; i < length; i++) {
+                this.write(out, Array.get(value, i), true);
+            }
+        } else {
+            DecomposedObject decomposed = inList ? null : this.decompose(value);
+            if(decomposed == null) {
+                throw new IllegalArgumentException(value.getClass() + " cannot be written to the journal!");
+            }
+
+            out.writeByte(DECOMPOSED);
+            out.writeInt(decomposed.getDecomposedMap().size());
+            for(Map.Entry<String, Object> entry : decomposed.getDecomposedMap().entrySet()) {
+                writeString(out, entry.getKey());
+                this.write(out, entry.getValue(), false);
+            }
+        }
+    }
+
+    Object read(DataInput in) throws IOException {
+        byte tag = in.readByte();
+        switch (tag) {
+            case NULL: return null;
+            case STRING: return readString(in);
+            case BOOLEAN: return in.readBoolean();
+            case BYTE: return in.readByte();
+            case SHORT: return in.readShort();
+            case CHAR: return in.readChar();
+            case INT: return in.readInt();
+            case LONG: return in.readLong();
+            case FLOAT: return in.readFloat();
+            case DOUBLE: return in.readDouble();
+            case LIST: {
+                int size = in.readInt();
+                List<Object> list = new ArrayList<>(size);
+                for(int i = 0; i < size; i++) {
+                    list.add(this.read(in));
+                }
+                return list;
+            }
+            case DECOMPOSED: {
+                int size = in.readInt();
+                DecomposedObject object = new DecomposedObject();
+                for(int i = 0; i < size; i++) {
+                    object.addDecomposedKey(readString(in), this.read(in));
+                }
+                return object;
+            }
+            default: throw new IOException("Unknown journal value type " + tag);
+        }
+    }
+
+    static void writeString(DataOutput out, String string) throws IOException {
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(DataInput in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private DecomposedObject decompose(Object value) {
+        if(value instanceof DecomposedObject object) return object;
+
+        StorageDecomposer<?> decomposer = this.api.resolveDecomposer(value.getClass());
+        return decomposer == null ? null : decomposer.applyDecompose(value);
+    }
+}
@@ -0,0 +1,189 @@
+package me.dessie.dessielib.storageapi.metrics;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records how long operations take, in nanoseconds, without any locking.
+ *
+ * Values are counted in buckets, like an HDR histogram. Every power of two is split into 8 buckets,
+ * so a percentile is never more than 12.5% larger than the value that was recorded.
+ * Every bucket is a {@link LongAdder}, which is only created once a value is recorded into it,
+ * so many Threads can record at once without contending on a single counter.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = SUB_BUCKETS + (63 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicReferenceArray<LongAdder> buckets = new AtomicReferenceArray<>(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder total = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Records a value.
+     *
+     * @param nanos How long the operation took, in nanoseconds. Negative values are recorded as 0.
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+
+        this.getBucket(index(value)).increment();
+        this.count.increment();
+        this.total.add(value);
+        this.max.accumulate(value);
+    }
+
+    /**
+     * Records how long it has been since an operation started.
+     *
+     * @param startNanos When the operation started, from {@link System#nanoTime()}.
+     */
+    public void recordSince(long startNanos) {
+        this.record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Returns the values that have been recorded.
+     * Values that are recorded while the snapshot is being taken may or may not be included.
+     *
+     * @return A snapshot of the histogram.
+     */
+    public Snapshot snapshot() {
+        long[] counts = new long[BUCKETS];
+        for(int i = 0; i < BUCKETS; i++) {
+            LongAdder bucket = this.buckets.get(i);
+            if(bucket != null) {
+                counts[i] = bucket.sum();
+            }
+        }
+
+        return new Snapshot(counts, this.count.sum(), this.total.sum(), this.max.get());
+    }
+
+    /**
+     * Forgets every value that has been recorded.
+     * Values that are recorded while the histogram is being reset may or may not be kept.
+     */
+    public void reset() {
+        for(int i = 0; i < BUCKETS; i++) {
+            LongAdder bucket = this.buckets.get(i);
+            if(bucket != null) {
+                bucket.reset();
+            }
+        }
+
+        this.count.reset();
+        this.total.reset();
+        this.max.reset();
+    }
+
+    private LongAdder getBucket(int index) {
+        LongAdder bucket = this.buckets.get(index);
+        if(bucket == null) {
+            this.buckets.compareAndSet(index, null, new LongAdder());
+            bucket = this.buckets.get(index);
+        }
+        return bucket;
+    }
+
+    static int index(long value) {
+        if(value < SUB_BUCKETS) return (int) value;
+
+        //The bits after the highest bit choose the sub-bucket within the power of two.
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+        return SUB_BUCKETS + shift * SUB_BUCKETS + subBucket;
+    }
+
+    static long highestValue(int index) {
+        if(index < SUB_BUCKETS) return index;
+
+        int shift = (index - SUB_BUCKETS) / SUB_BUCKETS;
+        int subBucket = (index - SUB_BUCKETS) % SUB_BUCKETS;
+        return ((long) (SUB_BUCKETS + subBucket) << shift) + (1L << shift) - 1;
+    }
+
+    /**
+     * The values in a {@link LatencyHistogram} at the time it was taken.
+     * Every value is in nanoseconds.
+     */
+    public static class Snapshot {
+        private final long[] counts;
+        private final long count;
+        private final long total;
+        private final long max;
+
+        private Snapshot(long[] counts, long count, long total, long max) {
+            this.counts = counts;
+            this.count = count;
+            this.total = total;
+            this.max = max;
+        }
+
+        /**
+         * Returns the value that a percentage of the recorded values are less than or equal to.
+         *
+         * @param percentile The percentile, between 0 and 100.
+         * @return The value at the percentile, or 0 if nothing has been recorded.
+         */
+        public long getPercentile(double percentile) {
+            if(percentile < 0 || percentile > 100) {
+                throw new IllegalArgumentException("Percentile must be between 0 and 100!");
+            }
+
+            long recorded = 0;
+            for(long bucket : this.counts) {
+                recorded += bucket;
+            }
+            if(recorded == 0) return 0;
+
+            long target = Math.max(1, (long) Math.ceil(percentile / 100 * recorded));
+            long seen = 0;
+            for(int i = 0; i < this.counts.length; i++) {
+                seen += this.counts[i];
+                if(seen >= target) {
+                    return Math.min(highestValue(i), this.getMax());
+                }
+            }
+            return this.getMax();
+        }
+
+        /**
+         * @return The average recorded value, or 0 if nothing has been recorded.
+         */
+        public double getMean() {
+            return this.getCount() == 0 ? 0 : (double) this.getTotal() / this.getCount();
+        }
+
+        /**
+         * @return How many values have been recorded.
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * @return The sum of every recorded value.
+         */
+        public long getTotal() {
+            return total;
+        }
+
+        /**
+         * @return The largest recorded value.
+         */
+        public long getMax() {
+            return max;
+        }
+
+        @Override
+        public String toString() {
+            return "count=" + this.getCount() + ", mean=" + Math.round(this.getMean()) + "ns, p50=" + this.getPercentile(50)
+                    + "ns, p99=" + this.getPercentile(99) + "ns, max=" + this.getMax() + "ns";
+        }
+    }
+}
@@ -0,0 +1,325 @@
+package me.dessie.dessielib.storageapi.metrics;
+
+import me.dessie.dessielib.storageapi.cache.StorageCache;
+import me.dessie.dessielib.storageapi.container.StorageContainer;
+import me.dessie.dessielib.storageapi.settings.StorageSettings;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.InstanceNotFoundException;
+import javax.management.MBeanRegistrationException;
+import javax.management.MalformedObjectNameException;
+import javax.management.NotCompliantMBeanException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts what a {@link StorageContainer} and its {@link StorageCache} are doing, so that settings such as
+ * {@link StorageSettings#setCacheDuration(int)} and {@link StorageSettings#setFlushRate(int)} can be tuned.
+ *
+ * Every counter is a {@link LongAdder}, and every latency is recorded into a {@link LatencyHistogram},
+ * so recording never blocks the Thread that is using the container.
+ *
+ * @see StorageContainer#getStatistics()
+ * @see StorageSettings#setRegisterMBean(boolean)
+ */
+public class StorageMetrics implements StorageMetricsMBean {
+
+    private static final String DOMAIN = "me.dessie.dessielib.storageapi";
+    private static final AtomicInteger IDS = new AtomicInteger();
+
+    private final StorageContainer container;
+
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+    private final LongAdder cacheEvictions = new LongAdder();
+    private final LongAdder cacheExpirations = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder flushFailures = new LongAdder();
+    private final LongAdder flushedWrites = new LongAdder();
+
+    private final LatencyHistogram flushLatency = new LatencyHistogram();
+    private final LatencyHistogram storeLatency = new LatencyHistogram();
+    private final LatencyHistogram retrieveLatency = new LatencyHistogram();
+    private final LatencyHistogram deleteLatency = new LatencyHistogram();
+    private final LatencyHistogram completeLatency = new LatencyHistogram();
+
+    private ObjectName objectName;
+
+    /**
+     * @param container The StorageContainer to record metrics for.
+     */
+    public StorageMetrics(StorageContainer container) {
+        this.container = container;
+    }
+
+    /**
+     * Records a retrieve that was answered by the cache, or by a write that hasn't been flushed.
+     */
+    public void recordHit() {
+        this.cacheHits.increment();
+    }
+
+    /**
+     * Records paths that had to be retrieved from the data structure with the RetrieveHook.
+     *
+     * @param startNanos When the retrieve started, from {@link System#nanoTime()}.
+     * @param paths How many paths were retrieved.
+     */
+    public void recordRetrieve(long startNanos, int paths) {
+        this.retrieveLatency.recordSince(startNanos);
+        this.cacheMisses.add(paths);
+    }
+
+    /**
+     * Records a path that was stored with the StoreHook.
+     *
+     * @param startNanos When the store started, from {@link System#nanoTime()}.
+     */
+    public void recordStore(long startNanos) {
+        this.storeLatency.recordSince(startNanos);
+    }
+
+    /**
+     * Records a path that was deleted with the DeleteHook.
+     *
+     * @param startNanos When the delete started, from {@link System#nanoTime()}.
+     */
+    public void recordDelete(long startNanos) {
+        this.deleteLatency.recordSince(startNanos);
+    }
+
+    /**
+     * Records a completion of the CompleteHook.
+     *
+     * @param startNanos When the completion started, from {@link System#nanoTime()}.
+     */
+    public void recordComplete(long startNanos) {
+        this.completeLatency.recordSince(startNanos);
+    }
+
+    /**
+     * Records a flush that had anything to write.
+     *
+     * @param startNanos When the flush started, from {@link System#nanoTime()}.
+     * @param writes How many sets and removes were flushed.
+     * @param failed If the flush failed, and the writes were kept for the next flush.
+     */
+    public void recordFlush(long startNanos, int writes, boolean failed) {
+        this.flushLatency.recordSince(startNanos);
+        this.flushes.increment();
+
+        if(failed) {
+            this.flushFailures.increment();
+        } else this.flushedWrites.add(writes);
+    }
+
+    /**
+     * Records an object that was evicted from the cache.
+     */
+    public void recordEviction() {
+        this.cacheEvictions.increment();
+    }
+
+    /**
+     * Records an object that expired from the cache.
+     */
+    public void recordExpiration() {
+        this.cacheExpirations.increment();
+    }
+
+    /**
+     * Takes a snapshot of every counter and histogram.
+     *
+     * @return The StorageStatistics.
+     */
+    public StorageStatistics snapshot() {
+        return new StorageStatistics(this);
+    }
+
+    /**
+     * Registers these metrics with the platform's MBeanServer, so they can be read with JMX.
+     * The MBean is named after the container's class, and a number that is unique to this JVM.
+     */
+    public void register() {
+        if(this.objectName != null) return;
+
+        try {
+            ObjectName name = new ObjectName(DOMAIN + ":type=" + this.getContainer().getClass().getSimpleName()
+                    + ",id=" + IDS.incrementAndGet());
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, name);
+            this.objectName = name;
+        } catch (MalformedObjectNameException | InstanceAlreadyExistsException | MBeanRegistrationException | NotCompliantMBeanException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Unregisters these metrics from the platform's MBeanServer, if they were registered.
+     */
+    public void unregister() {
+        if(this.objectName == null) return;
+
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(this.objectName);
+        } catch (InstanceNotFoundException | MBeanRegistrationException e) {
+            e.printStackTrace();
+        }
+        this.objectName = null;
+    }
+
+    /**
+     * @return The name these metrics are registered with, or null if they aren't registered.
+     */
+    public ObjectName getObjectName() {
+        return objectName;
+    }
+
+    /**
+     * @return The StorageContainer these metrics are recorded for.
+     */
+    public StorageContainer getContainer() {
+        return container;
+    }
+
+    @Override
+    public long getCacheHits() {
+        return this.cacheHits.sum();
+    }
+
+    @Override
+    public long getCacheMisses() {
+        return this.cacheMisses.sum();
+    }
+
+    @Override
+    public double getCacheHitRatio() {
+        long hits = this.getCacheHits();
+        long total = hits + this.getCacheMisses();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    @Override
+    public long getCacheEvictions() {
+        return this.cacheEvictions.sum();
+    }
+
+    @Override
+    public long getCacheExpirations() {
+        return this.cacheExpirations.sum();
+    }
+
+    @Override
+    public long getCacheSize() {
+        return this.getContainer().getCache().getCache().size();
+    }
+
+    @Override
+    public long getCacheWeightedSize() {
+        return this.getContainer().getCache().getWeightedSize();
+    }
+
+    @Override
+    public long getPendingWrites() {
+        return this.getContainer().getCache().getWriteBuffer().size();
+    }
+
+    @Override
+    public long getFlushCount() {
+        return this.flushes.sum();
+    }
+
+    @Override
+    public long getFlushFailures() {
+        return this.flushFailures.sum();
+    }
+
+    @Override
+    public long getFlushedWrites() {
+        return this.flushedWrites.sum();
+    }
+
+    @Override
+    public double getFlushMeanMillis() {
+        return this.getFlushLatency().snapshot().getMean() / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    @Override
+    public double getFlush99thPercentileMillis() {
+        return (double) this.getFlushLatency().snapshot().getPercentile(99) / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    @Override
+    public double getStore99thPercentileMicros() {
+        return (double) this.getStoreLatency().snapshot().getPercentile(99) / TimeUnit.MICROSECONDS.toNanos(1);
+    }
+
+    @Override
+    public double getRetrieve99thPercentileMicros() {
+        return (double) this.getRetrieveLatency().snapshot().getPercentile(99) / TimeUnit.MICROSECONDS.toNanos(1);
+    }
+
+    @Override
+    public double getDelete99thPercentileMicros() {
+        return (double) this.getDeleteLatency().snapshot().getPercentile(99) / TimeUnit.MICROSECONDS.toNanos(1);
+    }
+
+    @Override
+    public double getComplete99thPercentileMillis() {
+        return (double) this.getCompleteLatency().snapshot().getPercentile(99) / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    @Override
+    public void reset() {
+        this.cacheHits.reset();
+        this.cacheMisses.reset();
+        this.cacheEvictions.reset();
+        this.cacheExpirations.reset();
+        this.flushes.reset();
+        this.flushFailures.reset();
+        this.flushedWrites.reset();
+
+        this.flushLatency.reset();
+        this.storeLatency.reset();
+        this.retrieveLatency.reset();
+        this.deleteLatency.reset();
+        this.completeLatency.reset();
+    }
+
+    /**
+     * @return How long flushes took, from draining the writes until the container was completed.
+     */
+    public LatencyHistogram getFlushLatency() {
+        return flushLatency;
+    }
+
+    /**
+     * @return How long the StoreHook took for each path.
+     */
+    public LatencyHistogram getStoreLatency() {
+        return storeLatency;
+    }
+
+    /**
+     * @return How long the RetrieveHook took for each retrieve.
+     */
+    public LatencyHistogram getRetrieveLatency() {
+        return retrieveLatency;
+    }
+
+    /**
+     * @return How long the DeleteHook took for each path.
+     */
+    public LatencyHistogram getDeleteLatency() {
+        return deleteLatency;
+    }
+
+    /**
+     * @return How long the CompleteHook took for each completion.
+     */
+    public LatencyHistogram getCompleteLatency() {
+        return completeLatency;
+    }
+}
@@ -0,0 +1,36 @@
+package me.dessie.dessielib.storageapi.metrics;
+
+import me.dessie.dessielib.storageapi.settings.StorageSettings;
+
+/**
+ * The JMX management interface of {@link StorageMetrics}.
+ *
+ * @see StorageSettings#setRegisterMBean(boolean)
+ */
+public interface StorageMetricsMBean {
+
+    long getCacheHits();
+    long getCacheMisses();
+    double getCacheHitRatio();
+    long getCacheEvictions();
+    long getCacheExpirations();
+    long getCacheSize();
+    long getCacheWeightedSize();
+    long getPendingWrites();
+
+    long getFlushCount();
+    long getFlushFailures();
+    long getFlushedWrites();
+    double getFlushMeanMillis();
+    double getFlush99thPercentileMillis();
+
+    double getStore99thPercentileMicros();
+    double getRetrieve99thPercentileMicros();
+    double getDelete99thPercentileMicros();
+    double getComplete99thPercentileMillis();
+
+    /**
+     * Resets every counter and histogram.
+     */
+    void reset();
+}
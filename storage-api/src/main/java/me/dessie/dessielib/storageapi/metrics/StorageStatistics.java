@@ -0,0 +1,180 @@
+package me.dessie.dessielib.storageapi.metrics;
+
+import me.dessie.dessielib.storageapi.container.StorageContainer;
+
+/**
+ * The statistics of a {@link StorageContainer} at the time they were taken.
+ *
+ * @see StorageContainer#getStatistics()
+ */
+public class StorageStatistics {
+
+    private final long cacheHits;
+    private final long cacheMisses;
+    private final long cacheEvictions;
+    private final long cacheExpirations;
+    private final long cacheSize;
+    private final long cacheWeightedSize;
+    private final long pendingWrites;
+    private final long flushes;
+    private final long flushFailures;
+    private final long flushedWrites;
+
+    private final LatencyHistogram.Snapshot flushLatency;
+    private final LatencyHistogram.Snapshot storeLatency;
+    private final LatencyHistogram.Snapshot retrieveLatency;
+    private final LatencyHistogram.Snapshot deleteLatency;
+    private final LatencyHistogram.Snapshot completeLatency;
+
+    StorageStatistics(StorageMetrics metrics) {
+        this.cacheHits = metrics.getCacheHits();
+        this.cacheMisses = metrics.getCacheMisses();
+        this.cacheEvictions = metrics.getCacheEvictions();
+        this.cacheExpirations = metrics.getCacheExpirations();
+        this.cacheSize = metrics.getCacheSize();
+        this.cacheWeightedSize = metrics.getCacheWeightedSize();
+        this.pendingWrites = metrics.getPendingWrites();
+        this.flushes = metrics.getFlushCount();
+        this.flushFailures = metrics.getFlushFailures();
+        this.flushedWrites = metrics.getFlushedWrites();
+
+        this.flushLatency = metrics.getFlushLatency().snapshot();
+        this.storeLatency = metrics.getStoreLatency().snapshot();
+        this.retrieveLatency = metrics.getRetrieveLatency().snapshot();
+        this.deleteLatency = metrics.getDeleteLatency().snapshot();
+        this.completeLatency = metrics.getCompleteLatency().snapshot();
+    }
+
+    /**
+     * @return How many retrieves were answered by the cache, or by writes that haven't been flushed.
+     */
+    public long getCacheHits() {
+        return cacheHits;
+    }
+
+    /**
+     * @return How many paths had to be retrieved from the data structure.
+     */
+    public long getCacheMisses() {
+        return cacheMisses;
+    }
+
+    /**
+     * @return The ratio of retrieves that were answered by the cache, or 0 if nothing has been retrieved.
+     */
+    public double getCacheHitRatio() {
+        long total = this.getCacheHits() + this.getCacheMisses();
+        return total == 0 ? 0 : (double) this.getCacheHits() / total;
+    }
+
+    /**
+     * @return How many objects were evicted, because the cache was over its size, weight, or budget.
+     */
+    public long getCacheEvictions() {
+        return cacheEvictions;
+    }
+
+    /**
+     * @return How many objects expired, because they weren't used for the cache duration.
+     */
+    public long getCacheExpirations() {
+        return cacheExpirations;
+    }
+
+    /**
+     * @return How many objects were cached.
+     */
+    public long getCacheSize() {
+        return cacheSize;
+    }
+
+    /**
+     * @return The weighted size of the cache, which is always 0 if the cache is unbounded.
+     */
+    public long getCacheWeightedSize() {
+        return cacheWeightedSize;
+    }
+
+    /**
+     * @return How many paths were set or removed, and waiting to be flushed.
+     */
+    public long getPendingWrites() {
+        return pendingWrites;
+    }
+
+    /**
+     * @return How many flushes had anything to write.
+     */
+    public long getFlushes() {
+        return flushes;
+    }
+
+    /**
+     * @return How many flushes failed, and were kept to be attempted again.
+     */
+    public long getFlushFailures() {
+        return flushFailures;
+    }
+
+    /**
+     * @return How many sets and removes have been flushed.
+     */
+    public long getFlushedWrites() {
+        return flushedWrites;
+    }
+
+    /**
+     * @return How long flushes took, from draining the writes until the container was completed.
+     */
+    public LatencyHistogram.Snapshot getFlushLatency() {
+        return flushLatency;
+    }
+
+    /**
+     * @return How long the container's StoreHook took for each path.
+     */
+    public LatencyHistogram.Snapshot getStoreLatency() {
+        return storeLatency;
+    }
+
+    /**
+     * @return How long the container's RetrieveHook took for each retrieve.
+     */
+    public LatencyHistogram.Snapshot getRetrieveLatency() {
+        return retrieveLatency;
+    }
+
+    /**
+     * @return How long the container's DeleteHook took for each path.
+     */
+    public LatencyHistogram.Snapshot getDeleteLatency() {
+        return deleteLatency;
+    }
+
+    /**
+     * @return How long the container's CompleteHook took for each completion.
+     */
+    public LatencyHistogram.Snapshot getCompleteLatency() {
+        return completeLatency;
+    }
+
+    @Override
+    public String toString() {
+        return "StorageStatistics{" +
+                "cacheHits=" + cacheHits +
+                ", cacheMisses=" + cacheMisses +
+                ", cacheEvictions=" + cacheEvictions +
+                ", cacheExpirations=" + cacheExpirations +
+                ", cacheSize=" + cacheSize +
+                ", pendingWrites=" + pendingWrites +
+                ", flushes=" + flushes +
+                ", flushFailures=" + flushFailures +
+                ", flushedWrites=" + flushedWrites +
+                ", flushLatency={" + flushLatency + "}" +
+                ", storeLatency={" + storeLatency + "}" +
+                ", retrieveLatency={" + retrieveLatency + "}" +
+                ", deleteLatency={" + deleteLatency + "}" +
+                ", completeLatency={" + completeLatency + "}" +
+                '}';
+    }
+}
@@ -1,7 +1,18 @@
 package me.dessie.dessielib.storageapi.settings;
 
+import me.dessie.dessielib.storageapi.cache.PathIndex;
 import me.dessie.dessielib.storageapi.cache.StorageCache;
+import me.dessie.dessielib.storageapi.cache.eviction.EvictionPolicy;
+import me.dessie.dessielib.storageapi.cache.eviction.LRUPolicy;
+import me.dessie.dessielib.storageapi.cache.eviction.TinyLFUPolicy;
+import me.dessie.dessielib.storageapi.cache.eviction.Weigher;
 import me.dessie.dessielib.storageapi.container.StorageContainer;
+import me.dessie.dessielib.storageapi.journal.Journal;
+import me.dessie.dessielib.storageapi.metrics.StorageMetrics;
+
+import java.io.File;
+import java.util.Objects;
+import java.util.function.Supplier;
 
 /**
  * Defines the settings for a {@link StorageContainer}
@@ -12,6 +23,15 @@ import me.dessie.dessielib.storageapi.container.StorageContainer;
  *   - Cache on Store: true
  *   - Cache Duration: 1 minute
  *   - Flush Rate: 5 minutes
+ *   - Max Entries: Unbounded
+ *   - Max Weight: Unbounded
+ *   - Weigher: {@link Weigher#estimating()}
+ *   - Eviction Policy: {@link TinyLFUPolicy}
+ *   - Journal: Disabled
+ *   - Complete Debounce: 0 milliseconds
+ *   - Complete Max Latency: 1 second
+ *   - Path Index: false
+ *   - Register MBean: false
  *
  * Some containers will change these default settings.
  *
@@ -25,6 +45,20 @@ public class StorageSettings {
     private boolean cacheOnStore;
     private boolean cacheOnRetrieve;
 
+    private long maxEntries;
+    private long maxWeight;
+    private Weigher weigher;
+    private Supplier<EvictionPolicy> evictionPolicy;
+
+    private File journal;
+
+    private long completeDebounce;
+    private long completeMaxLatency;
+
+    private boolean pathIndex;
+
+    private boolean registerMBean;
+
     /**
      * Creates a settings instance for a {@link StorageContainer} with default settings.
      *
@@ -36,6 +70,18 @@ public class StorageSettings {
 
         this.cacheDuration = 60;
         this.flushRate = 300;
+
+        this.maxEntries = -1;
+        this.maxWeight = -1;
+        this.weigher = Weigher.estimating();
+        this.evictionPolicy = TinyLFUPolicy::new;
+
+        this.completeDebounce = 0;
+        this.completeMaxLatency = 1000;
+
+        this.pathIndex = false;
+
+        this.registerMBean = false;
     }
 
     /**
@@ -118,6 +164,153 @@ public class StorageSettings {
         return this;
     }
 
+    /**
+     * Sets the maximum amount of objects that the {@link StorageCache} will hold.
+     * Once this is exceeded, objects are evicted using the {@link EvictionPolicy}.
+     * Set to -1 to not limit the amount of objects.
+     *
+     * Note that updating this value after creating the Container will have no effect.
+     *
+     * @param maxEntries The maximum amount of cached objects.
+     * @return The StorageSettings instance.
+     */
+    public StorageSettings setMaxEntries(long maxEntries) {
+        this.maxEntries = maxEntries;
+        return this;
+    }
+
+    /**
+     * Sets the maximum combined weight of the objects that the {@link StorageCache} will hold, as measured by the {@link Weigher}.
+     * Once this is exceeded, objects are evicted using the {@link EvictionPolicy}.
+     * Set to -1 to not limit the weight of the cache.
+     *
+     * Note that updating this value after creating the Container will have no effect.
+     *
+     * @see StorageSettings#setWeigher(Weigher)
+     *
+     * @param maxWeight The maximum weight of the cache.
+     * @return The StorageSettings instance.
+     */
+    public StorageSettings setMaxWeight(long maxWeight) {
+        this.maxWeight = maxWeight;
+        return this;
+    }
+
+    /**
+     * Sets the {@link Weigher} used to measure cached objects for the max weight and the API's cache budget.
+     *
+     * Note that updating this value after creating the Container will have no effect.
+     *
+     * @param weigher The Weigher to use.
+     * @return The StorageSettings instance.
+     */
+    public StorageSettings setWeigher(Weigher weigher) {
+        this.weigher = Objects.requireNonNull(weigher, "Weigher cannot be null!");
+        return this;
+    }
+
+    /**
+     * Sets how a bounded {@link StorageCache} chooses which objects to evict.
+     * A new policy is created for every Container that uses these settings,
+     * for example <code>new StorageSettings().setMaxEntries(1000).setEvictionPolicy(LRUPolicy::new)</code>
+     *
+     * Note that updating this value after creating the Container will have no effect.
+     *
+     * @see LRUPolicy
+     * @see TinyLFUPolicy
+     *
+     * @param evictionPolicy A supplier that creates the EvictionPolicy.
+     * @return The StorageSettings instance.
+     */
+    public StorageSettings setEvictionPolicy(Supplier<EvictionPolicy> evictionPolicy) {
+        this.evictionPolicy = Objects.requireNonNull(evictionPolicy, "Eviction policy cannot be null!");
+        return this;
+    }
+
+    /**
+     * Sets the directory of the {@link Journal} that every set and remove is appended to before it's flushed.
+     * Anything in the journal is replayed when the Container is created, so data that was set but not flushed
+     * is not lost in the case of a hard crash. This allows long flush rates without risking data.
+     *
+     * Every Container must use its own journal directory.
+     * Set to null to disable the journal.
+     *
+     * Note that updating this value after creating the Container will have no effect.
+     *
+     * @param journal The journal directory.
+     * @return The StorageSettings instance.
+     */
+    public StorageSettings setJournal(File journal) {
+        this.journal = journal;
+        return this;
+    }
+
+    /**
+     * Sets how long, in milliseconds, the Container waits for more stores and deletes before completing them.
+     * For example, this will write a file once for an entire bulk import, instead of after every store.
+     *
+     * Stores and deletes that happen while the Container is completing always share the next completion, even if this is 0.
+     *
+     * Note that updating this value after creating the Container will have no effect.
+     *
+     * @see StorageSettings#setCompleteMaxLatency(long)
+     *
+     * @param completeDebounce The debounce in milliseconds.
+     * @return The StorageSettings instance.
+     */
+    public StorageSettings setCompleteDebounce(long completeDebounce) {
+        this.completeDebounce = completeDebounce;
+        return this;
+    }
+
+    /**
+     * Sets the longest time, in milliseconds, that the complete debounce can delay a store or delete from completing.
+     * This prevents a constant stream of stores from never being completed.
+     *
+     * Note that updating this value after creating the Container will have no effect.
+     *
+     * @param completeMaxLatency The max latency in milliseconds.
+     * @return The StorageSettings instance.
+     */
+    public StorageSettings setCompleteMaxLatency(long completeMaxLatency) {
+        this.completeMaxLatency = completeMaxLatency;
+        return this;
+    }
+
+    /**
+     * Sets if the {@link StorageCache} should track its paths in a {@link PathIndex}.
+     *
+     * This allows finding and invalidating everything cached under a path without scanning the whole cache,
+     * and lets {@link StorageContainer#getKeys(String)} answer from memory after a path's keys have been retrieved once.
+     * It costs some memory for every cached path.
+     *
+     * If {@link StorageSettings#isUseCache()} is false, this setting is ignored.
+     * Note that updating this value after creating the Container will have no effect.
+     *
+     * @param pathIndex If the path index should be used.
+     * @return The StorageSettings instance.
+     */
+    public StorageSettings setPathIndex(boolean pathIndex) {
+        this.pathIndex = pathIndex;
+        return this;
+    }
+
+    /**
+     * Sets if the container's {@link StorageMetrics} should be registered as a JMX MBean,
+     * so the cache and flush statistics can be watched with tools such as JConsole.
+     * The MBean is unregistered once the container is closed.
+     *
+     * The statistics are always recorded, and can be read with {@link StorageContainer#getStatistics()} either way.
+     * Note that updating this value after creating the Container will have no effect.
+     *
+     * @param registerMBean If the metrics should be registered as an MBean.
+     * @return The StorageSettings instance.
+     */
+    public StorageSettings setRegisterMBean(boolean registerMBean) {
+        this.registerMBean = registerMBean;
+        return this;
+    }
+
     /**
      * Returns how long, in seconds, a {@link me.dessie.dessielib.storageapi.cache.CachedObject} will be cached within
      * a {@link StorageContainer}'s {@link StorageCache}.
@@ -137,7 +330,7 @@ public class StorageSettings {
      * Once this timer expires, the set cache is pushed and is cleared.
      *
      * @see StorageContainer#store(String, Object) how items are stored into the data structure.
-     * @see StorageCache#getSetCache() to get the items that will be stored.
+     * @see StorageCache#getWriteBuffer() to get the items that will be stored.
      *
      * @return The update time.
      */
@@ -172,4 +365,85 @@ public class StorageSettings {
         return cacheOnStore;
     }
 
+    /**
+     * Returns the maximum amount of objects that the {@link StorageCache} will hold, or -1 if unbounded.
+     *
+     * @return The max entries.
+     */
+    public long getMaxEntries() {
+        return maxEntries;
+    }
+
+    /**
+     * Returns the maximum combined weight of the {@link StorageCache}, or -1 if unbounded.
+     *
+     * @return The max weight.
+     */
+    public long getMaxWeight() {
+        return maxWeight;
+    }
+
+    /**
+     * Returns the {@link Weigher} that measures cached objects.
+     *
+     * @return The Weigher.
+     */
+    public Weigher getWeigher() {
+        return weigher;
+    }
+
+    /**
+     * Returns the supplier that creates the {@link EvictionPolicy} for a bounded {@link StorageCache}.
+     *
+     * @return The EvictionPolicy supplier.
+     */
+    public Supplier<EvictionPolicy> getEvictionPolicy() {
+        return evictionPolicy;
+    }
+
+    /**
+     * Returns the directory of the {@link Journal}, or null if the journal is disabled.
+     *
+     * @return The journal directory.
+     */
+    public File getJournal() {
+        return journal;
+    }
+
+    /**
+     * Returns how long, in milliseconds, the Container waits for more stores and deletes before completing them.
+     *
+     * @return The complete debounce.
+     */
+    public long getCompleteDebounce() {
+        return completeDebounce;
+    }
+
+    /**
+     * Returns the longest time, in milliseconds, that the complete debounce can delay a store or delete.
+     *
+     * @return The complete max latency.
+     */
+    public long getCompleteMaxLatency() {
+        return completeMaxLatency;
+    }
+
+    /**
+     * Returns if the {@link StorageCache} tracks its paths in a {@link PathIndex}.
+     *
+     * @return If the path index is used.
+     */
+    public boolean isPathIndex() {
+        return pathIndex;
+    }
+
+    /**
+     * Returns if the container's {@link StorageMetrics} are registered as a JMX MBean.
+     *
+     * @return If the metrics are registered as an MBean.
+     */
+    public boolean isRegisterMBean() {
+        return registerMBean;
+    }
+
 }
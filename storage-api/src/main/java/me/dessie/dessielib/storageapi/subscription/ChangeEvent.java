@@ -0,0 +1,86 @@
+package me.dessie.dessielib.storageapi.subscription;
+
+import me.dessie.dessielib.storageapi.container.StorageContainer;
+
+/**
+ * A change to a path in a {@link StorageContainer}, which is delivered to subscribers of the path.
+ *
+ * @see StorageContainer#subscribe(String)
+ */
+public class ChangeEvent {
+
+    private final Type type;
+    private final String path;
+    private final Object value;
+
+    /**
+     * @param type How the path was changed.
+     * @param path The path that was changed.
+     * @param value The new value of the path, or null if it was removed.
+     */
+    public ChangeEvent(Type type, String path, Object value) {
+        this.type = type;
+        this.path = path;
+        this.value = value;
+    }
+
+    /**
+     * @return How the path was changed.
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * @return The path that was changed.
+     */
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * The value is the same object that was set or stored, so it shouldn't be modified.
+     *
+     * @return The new value of the path, or null if it was removed.
+     */
+    public Object getValue() {
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return "ChangeEvent{type=" + type + ", path='" + path + "', value=" + value + "}";
+    }
+
+    /**
+     * How a path was changed.
+     */
+    public enum Type {
+        /**
+         * The path was set with {@link StorageContainer#set(String, Object)}, and will be written by the next flush.
+         */
+        SET,
+
+        /**
+         * The path was removed with {@link StorageContainer#remove(String)}, and will be written by the next flush.
+         */
+        REMOVE,
+
+        /**
+         * The path was stored directly with {@link StorageContainer#store(String, Object)}.
+         */
+        STORE,
+
+        /**
+         * The path was deleted directly with {@link StorageContainer#delete(String)}.
+         */
+        DELETE;
+
+        /**
+         * @return If the path no longer exists after this change.
+         */
+        public boolean isRemoval() {
+            return this == REMOVE || this == DELETE;
+        }
+    }
+}
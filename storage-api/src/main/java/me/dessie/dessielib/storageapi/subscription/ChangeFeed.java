@@ -0,0 +1,197 @@
+package me.dessie.dessielib.storageapi.subscription;
+
+import me.dessie.dessielib.storageapi.api.ITaskHandler;
+import me.dessie.dessielib.storageapi.container.StorageContainer;
+import me.dessie.dessielib.storageapi.util.StoragePath;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Publishes the changes made to a {@link StorageContainer} to everything that subscribed to a path prefix.
+ *
+ * Subscriptions are kept in a tree of paths split on each ".", so publishing a change only visits
+ * the subscriptions on the path, its parents and the paths nested within it, instead of testing every subscription.
+ * Publishing is free while there are no subscriptions.
+ *
+ * Changes are delivered asynchronously using the {@link ITaskHandler}, and every subscriber has its own bounded buffer.
+ *
+ * @see StorageContainer#subscribe(String)
+ */
+public class ChangeFeed {
+
+    /**
+     * The buffer size that is used if a subscription doesn't provide one.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 256;
+
+    private final ITaskHandler taskHandler;
+    private final Node root = new Node(null, "");
+    private final AtomicInteger subscriptions = new AtomicInteger();
+    private boolean closed;
+
+    /**
+     * @param taskHandler The ITaskHandler that changes are delivered with.
+     */
+    public ChangeFeed(ITaskHandler taskHandler) {
+        this.taskHandler = Objects.requireNonNull(taskHandler, "Task handler cannot be null!");
+    }
+
+    /**
+     * Creates a publisher of every change to the prefix, and every path that is nested within it.
+     * Each subscriber of the publisher gets its own subscription and buffer.
+     *
+     * @param prefix The path prefix. An empty String receives every change.
+     * @param bufferSize How many changes can be buffered for each subscriber before the overflow policy is used.
+     * @param policy What happens when a subscriber's buffer is full.
+     * @return The publisher.
+     */
+    public Flow.Publisher<ChangeEvent> publisher(String prefix, int bufferSize, OverflowPolicy policy) {
+        Objects.requireNonNull(policy, "Overflow policy cannot be null!");
+        if(bufferSize <= 0) {
+            throw new IllegalArgumentException("Buffer size must be positive!");
+        }
+
+        StoragePath path = StoragePath.of(prefix);
+        return subscriber -> {
+            Objects.requireNonNull(subscriber, "Subscriber cannot be null!");
+
+            ChangeSubscription subscription = new ChangeSubscription(this, path, subscriber, bufferSize, policy);
+            subscriber.onSubscribe(subscription);
+            this.add(subscription);
+        };
+    }
+
+    /**
+     * Publishes a change to every subscription on the path, or on one of its parents.
+     * Changing a path also changes every path that is nested within it, such as when it's removed or replaced,
+     * so the change is published to the subscriptions on those paths as well.
+     *
+     * @param type How the path was changed.
+     * @param path The path that was changed.
+     * @param value The new value of the path, or null if it was removed.
+     */
+    public void publish(ChangeEvent.Type type, String path, Object value) {
+        if(!this.hasSubscribers()) return;
+
+        StoragePath storagePath = StoragePath.of(path);
+        ChangeEvent event = new ChangeEvent(type, path, value);
+
+        Node node = this.root;
+        for(int i = 0; node != null; i++) {
+            for(ChangeSubscription subscription : node.subscriptions) {
+                subscription.offer(event);
+            }
+
+            if(i == storagePath.size()) {
+                List<ChangeSubscription> nested = new ArrayList<>();
+                node.children.values().forEach(child -> collect(child, nested));
+                nested.forEach(subscription -> subscription.offer(event));
+                return;
+            }
+            node = node.children.get(storagePath.getSegment(i));
+        }
+    }
+
+    /**
+     * @return If anything is subscribed.
+     */
+    public boolean hasSubscribers() {
+        return this.subscriptions.get() != 0;
+    }
+
+    /**
+     * @return How many subscriptions haven't been cancelled or completed.
+     */
+    public int getSubscriptions() {
+        return this.subscriptions.get();
+    }
+
+    /**
+     * Completes every subscription once the changes that are already buffered have been delivered.
+     * Subscribing afterwards completes immediately.
+     */
+    public void close() {
+        List<ChangeSubscription> subscriptions = new ArrayList<>();
+        synchronized (this) {
+            this.closed = true;
+            collect(this.root, subscriptions);
+        }
+
+        subscriptions.forEach(ChangeSubscription::complete);
+    }
+
+    /**
+     * @return The ITaskHandler that changes are delivered with.
+     */
+    public ITaskHandler getTaskHandler() {
+        return taskHandler;
+    }
+
+    void add(ChangeSubscription subscription) {
+        synchronized (this) {
+            //A subscriber may have already cancelled while it was being subscribed.
+            if(subscription.isTerminated()) return;
+
+            if(!this.closed) {
+                Node node = this.root;
+                for(int i = 0; i < subscription.getPrefix().size(); i++) {
+                    Node parent = node;
+                    node = node.children.computeIfAbsent(subscription.getPrefix().getSegment(i), key -> new Node(parent, key));
+                }
+
+                node.subscriptions.add(subscription);
+                this.subscriptions.incrementAndGet();
+                return;
+            }
+        }
+
+        subscription.complete();
+    }
+
+    synchronized void remove(ChangeSubscription subscription) {
+        Node node = this.root;
+        for(int i = 0; i < subscription.getPrefix().size() && node != null; i++) {
+            node = node.children.get(subscription.getPrefix().getSegment(i));
+        }
+
+        if(node == null || !node.subscriptions.remove(subscription)) return;
+        this.subscriptions.decrementAndGet();
+
+        //Removes nodes that no longer hold anything, starting at the node and working up.
+        while(node.parent != null && node.isEmpty()) {
+            node.parent.children.remove(node.segment);
+            node = node.parent;
+        }
+    }
+
+    private static void collect(Node node, List<ChangeSubscription> subscriptions) {
+        subscriptions.addAll(node.subscriptions);
+        for(Node child : node.children.values()) {
+            collect(child, subscriptions);
+        }
+    }
+
+    //Children and subscriptions can be read without holding the lock, so publishing never waits for subscribing.
+    private static class Node {
+        private final Node parent;
+        private final String segment;
+        private final Map<String, Node> children = new ConcurrentHashMap<>();
+        private final List<ChangeSubscription> subscriptions = new CopyOnWriteArrayList<>();
+
+        private Node(Node parent, String segment) {
+            this.parent = parent;
+            this.segment = segment;
+        }
+
+        private boolean isEmpty() {
+            return this.children.isEmpty() && this.subscriptions.isEmpty();
+        }
+    }
+}
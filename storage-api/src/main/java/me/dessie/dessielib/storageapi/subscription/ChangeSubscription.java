@@ -0,0 +1,183 @@
+package me.dessie.dessielib.storageapi.subscription;
+
+import me.dessie.dessielib.storageapi.util.StoragePath;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A subscriber's subscription to a {@link ChangeFeed}.
+ *
+ * Changes are buffered until the subscriber requests them, and are delivered by a single task at a time,
+ * so the subscriber is never called from more than one Thread at once.
+ */
+class ChangeSubscription implements Flow.Subscription {
+
+    private final ChangeFeed feed;
+    private final StoragePath prefix;
+    private final Flow.Subscriber<? super ChangeEvent> subscriber;
+    private final int bufferSize;
+    private final OverflowPolicy policy;
+
+    //Everything below is guarded by this subscription.
+    private final ArrayDeque<ChangeEvent> buffer = new ArrayDeque<>();
+    private long requested;
+    private Throwable error;
+    private boolean completed;
+    private boolean terminated;
+
+    //How many times delivery has been requested, delivery is only scheduled when this goes up from 0.
+    private final AtomicInteger pending = new AtomicInteger();
+
+    ChangeSubscription(ChangeFeed feed, StoragePath prefix, Flow.Subscriber<? super ChangeEvent> subscriber, int bufferSize, OverflowPolicy policy) {
+        this.feed = feed;
+        this.prefix = prefix;
+        this.subscriber = subscriber;
+        this.bufferSize = bufferSize;
+        this.policy = policy;
+    }
+
+    @Override
+    public void request(long n) {
+        synchronized (this) {
+            if(this.terminated) return;
+
+            if(n <= 0) {
+                this.error = new IllegalArgumentException("Subscribers must request a positive amount of changes!");
+            } else {
+                //Requests are added without overflowing, at which point everything is requested.
+                this.requested = this.requested + n < 0 ? Long.MAX_VALUE : this.requested + n;
+            }
+        }
+
+        this.schedule();
+    }
+
+    @Override
+    public void cancel() {
+        synchronized (this) {
+            this.terminated = true;
+            this.buffer.clear();
+        }
+
+        this.feed.remove(this);
+    }
+
+    /**
+     * Buffers a change, and delivers it once it's requested.
+     * If the buffer is full, the {@link OverflowPolicy} decides what happens.
+     *
+     * @param event The change.
+     */
+    void offer(ChangeEvent event) {
+        synchronized (this) {
+            if(this.terminated || this.completed || this.error != null) return;
+
+            if(this.buffer.size() >= this.bufferSize) {
+                switch (this.policy) {
+                    case DROP_OLDEST -> this.buffer.poll();
+                    case DROP_NEWEST -> {
+                        return;
+                    }
+                    case ERROR -> this.error = new IllegalStateException("Subscription to '" + this.prefix + "' buffered more than " + this.bufferSize + " changes!");
+                }
+            }
+
+            if(this.error == null) {
+                this.buffer.add(event);
+            }
+        }
+
+        this.schedule();
+    }
+
+    /**
+     * Completes the subscription once the buffered changes have been delivered.
+     */
+    void complete() {
+        synchronized (this) {
+            this.completed = true;
+        }
+
+        this.schedule();
+    }
+
+    /**
+     * @return If the subscription was cancelled, or its error or completion has been delivered.
+     */
+    synchronized boolean isTerminated() {
+        return terminated;
+    }
+
+    /**
+     * @return The path prefix that was subscribed to.
+     */
+    StoragePath getPrefix() {
+        return prefix;
+    }
+
+    private void schedule() {
+        if(this.pending.getAndIncrement() == 0) {
+            this.feed.getTaskHandler().runTaskAsync(this::deliver);
+        }
+    }
+
+    private void deliver() {
+        int missed = 1;
+        do {
+            while(this.deliverNext()) {}
+            missed = this.pending.addAndGet(-missed);
+        } while(missed != 0);
+    }
+
+    /**
+     * Delivers the next signal to the subscriber.
+     *
+     * @return If something was delivered, and there may be more to deliver.
+     */
+    private boolean deliverNext() {
+        ChangeEvent event = null;
+        Throwable error;
+
+        synchronized (this) {
+            if(this.terminated) return false;
+
+            error = this.error;
+            if(error == null) {
+                if(this.requested > 0 && !this.buffer.isEmpty()) {
+                    event = this.buffer.poll();
+                    if(this.requested != Long.MAX_VALUE) {
+                        this.requested--;
+                    }
+                } else if(!this.completed || !this.buffer.isEmpty()) {
+                    return false;
+                }
+            }
+
+            //Errors and completion end the subscription, and are the last thing delivered.
+            if(event == null) {
+                this.terminated = true;
+                this.buffer.clear();
+            }
+        }
+
+        if(event == null) {
+            this.feed.remove(this);
+            if(error != null) {
+                this.subscriber.onError(error);
+            } else this.subscriber.onComplete();
+            return false;
+        }
+
+        try {
+            this.subscriber.onNext(event);
+        } catch (Throwable throwable) {
+            //A subscriber that throws can't be delivered to anymore.
+            throwable.printStackTrace();
+            this.cancel();
+            return false;
+        }
+        return true;
+    }
+}
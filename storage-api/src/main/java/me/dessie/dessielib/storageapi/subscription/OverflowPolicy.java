@@ -0,0 +1,26 @@
+package me.dessie.dessielib.storageapi.subscription;
+
+import java.util.concurrent.Flow;
+
+/**
+ * What happens when a subscriber's buffer is full, because changes are made faster than the subscriber requests them.
+ *
+ * @see me.dessie.dessielib.storageapi.container.StorageContainer#subscribe(String, int, OverflowPolicy)
+ */
+public enum OverflowPolicy {
+    /**
+     * The oldest buffered change is dropped to make room for the new change.
+     */
+    DROP_OLDEST,
+
+    /**
+     * The new change is dropped, and the buffered changes are kept.
+     */
+    DROP_NEWEST,
+
+    /**
+     * The subscription is cancelled, and the subscriber receives {@link Flow.Subscriber#onError(Throwable)}
+     * with an {@link IllegalStateException}, so it knows that it has to retrieve the current state again.
+     */
+    ERROR
+}
@@ -0,0 +1,220 @@
+package me.dessie.dessielib.storageapi.util;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A compact, self-describing binary encoding for the values that binary containers store.
+ *
+ * Every value starts with a single tag byte. Strings, primitive wrappers, Collections and Arrays, and Maps with String keys can be encoded.
+ * Numbers keep their exact wrapper type, so an Integer is always read back as an Integer and a Long as a Long.
+ * Integers, Longs and every length are written as variable length integers, so small values only take a byte or two.
+ *
+ * Lists are read back as an {@link ArrayList}, and Maps as a {@link LinkedHashMap} in the order they were written.
+ */
+public class BinaryCodec {
+
+    private static final byte NULL = 0;
+    private static final byte STRING = 1;
+    private static final byte TRUE = 2;
+    private static final byte FALSE = 3;
+    private static final byte BYTE = 4;
+    private static final byte SHORT = 5;
+    private static final byte CHAR = 6;
+    private static final byte INT = 7;
+    private static final byte LONG = 8;
+    private static final byte FLOAT = 9;
+    private static final byte DOUBLE = 10;
+    private static final byte LIST = 11;
+    private static final byte MAP = 12;
+
+    /**
+     * Writes a value.
+     *
+     * @param out The output to write to.
+     * @param value The value to write.
+     * @throws IOException If the output couldn't be written to.
+     * @throws IllegalArgumentException If the value can't be encoded.
+     */
+    public void write(DataOutput out, Object value) throws IOException {
+        if(value == null) {
+            out.writeByte(NULL);
+        } else if(value instanceof String string) {
+            out.writeByte(STRING);
+            writeString(out, string);
+        } else if(value instanceof Boolean bool) {
+            out.writeByte(bool ? TRUE : FALSE);
+        } else if(value instanceof Integer i) {
+            out.writeByte(INT);
+            writeVarLong(out, zigZag(i));
+        } else if(value instanceof Double d) {
+            out.writeByte(DOUBLE);
+            out.writeDouble(d);
+        } else if(value instanceof Long l) {
+            out.writeByte(LONG);
+            writeVarLong(out, zigZag(l));
+        } else if(value instanceof Float f) {
+            out.writeByte(FLOAT);
+            out.writeFloat(f);
+        } else if(value instanceof Byte b) {
+            out.writeByte(BYTE);
+            out.writeByte(b);
+        } else if(value instanceof Short s) {
+            out.writeByte(SHORT);
+            out.writeShort(s);
+        } else if(value instanceof Character c) {
+            out.writeByte(CHAR);
+            out.writeChar(c);
+        } else if(value instanceof Collection<?> collection) {
+            out.writeByte(LIST);
+            writeVarInt(out, collection.size());
+            for(Object element : collection) {
+                this.write(out, element);
+            }
+        } else if(value instanceof Map<?, ?> map) {
+            out.writeByte(MAP);
+            writeVarInt(out, map.size());
+            for(Map.Entry<?, ?> entry : map.entrySet()) {
+                if(!(entry.getKey() instanceof String key)) {
+                    throw new IllegalArgumentException("Only Maps with String keys can be encoded!");
+                }
+
+                writeString(out, key);
+                this.write(out, entry.getValue());
+            }
+        } else if(value.getClass().isArray()) {
+            int length = Array.getLength(value);
+            out.writeByte(LIST);
+            writeVarInt(out, length);
+            for(int i = 0; i < length; i++) {
+                this.write(out, Array.get(value, i));
+            }
+        } else {
+            throw new IllegalArgumentException(value.getClass() + " cannot be encoded!");
+        }
+    }
+
+    /**
+     * Reads a value.
+     *
+     * @param in The input to read from.
+     * @return The value that was read.
+     * @throws IOException If the input couldn't be read from, or doesn't contain a valid value.
+     */
+    public Object read(DataInput in) throws IOException {
+        byte tag = in.readByte();
+        switch (tag) {
+            case NULL: return null;
+            case STRING: return readString(in);
+            case TRUE: return true;
+            case FALSE: return false;
+            case BYTE: return in.readByte();
+            case SHORT: return in.readShort();
+            case CHAR: return in.readChar();
+            case INT: return (int) unZigZag(readVarLong(in));
+            case LONG: return unZigZag(readVarLong(in));
+            case FLOAT: return in.readFloat();
+            case DOUBLE: return in.readDouble();
+            case LIST: {
+                int size = readVarInt(in);
+                List<Object> list = new ArrayList<>(Math.min(size, 1024));
+                for(int i = 0; i < size; i++) {
+                    list.add(this.read(in));
+                }
+                return list;
+            }
+            case MAP: {
+                int size = readVarInt(in);
+                Map<String, Object> map = new LinkedHashMap<>();
+                for(int i = 0; i < size; i++) {
+                    map.put(readString(in), this.read(in));
+                }
+                return map;
+            }
+            default: throw new IOException("Unknown value type " + tag);
+        }
+    }
+
+    /**
+     * Writes a String as its UTF-8 length followed by its UTF-8 bytes.
+     *
+     * @param out The output to write to.
+     * @param string The String to write.
+     * @throws IOException If the output couldn't be written to.
+     */
+    public static void writeString(DataOutput out, String string) throws IOException {
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * @param in The input to read from.
+     * @return The String that was written by {@link BinaryCodec#writeString(DataOutput, String)}.
+     * @throws IOException If the input couldn't be read from.
+     */
+    public static String readString(DataInput in) throws IOException {
+        byte[] bytes = new byte[readVarInt(in)];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes a non-negative int using 1 to 5 bytes.
+     *
+     * @param out The output to write to.
+     * @param value The value to write.
+     * @throws IOException If the output couldn't be written to.
+     */
+    public static void writeVarInt(DataOutput out, int value) throws IOException {
+        writeVarLong(out, value & 0xFFFFFFFFL);
+    }
+
+    /**
+     * @param in The input to read from.
+     * @return The int that was written by {@link BinaryCodec#writeVarInt(DataOutput, int)}.
+     * @throws IOException If the input couldn't be read from, or the int is too long.
+     */
+    public static int readVarInt(DataInput in) throws IOException {
+        long value = readVarLong(in);
+        if(value > Integer.MAX_VALUE) {
+            throw new IOException("Variable length int is too long!");
+        }
+        return (int) value;
+    }
+
+    private static void writeVarLong(DataOutput out, long value) throws IOException {
+        while((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInput in) throws IOException {
+        long value = 0;
+        for(int shift = 0; shift < 64; shift += 7) {
+            byte b = in.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if((b & 0x80) == 0) return value;
+        }
+        throw new IOException("Variable length long is too long!");
+    }
+
+    //Moves the sign to the lowest bit, so small negative numbers are also small.
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
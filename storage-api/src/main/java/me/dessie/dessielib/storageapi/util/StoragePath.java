@@ -0,0 +1,223 @@
+package me.dessie.dessielib.storageapi.util;
+
+import me.dessie.dessielib.storageapi.container.StorageContainer;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * An immutable path within a {@link StorageContainer}, such as "homes.cool_home.x".
+ *
+ * The path is split into its segments once, and every segment is interned,
+ * so paths can be compared, hashed and walked without splitting the String again.
+ * Paths that are parsed often are also cached, so {@link StoragePath#of(String)} usually doesn't allocate.
+ *
+ * The empty path is the root of the container.
+ */
+public final class StoragePath {
+
+    private static final String SEPARATOR = ".";
+
+    /**
+     * The root path, which has no segments.
+     */
+    public static final StoragePath ROOT = new StoragePath(new String[0], "");
+
+    //A small direct-mapped cache of parsed paths. Collisions simply replace the previous path.
+    private static final int CACHE_SIZE = 1024;
+    private static final StoragePath[] CACHE = new StoragePath[CACHE_SIZE];
+
+    private final String[] segments;
+    private final String path;
+    private final int hash;
+
+    private StoragePath(String[] segments, String path) {
+        this.segments = segments;
+        this.path = path;
+        this.hash = path.hashCode();
+    }
+
+    /**
+     * Parses a path, splitting it on every ".".
+     *
+     * @param path The path to parse.
+     * @return The StoragePath.
+     */
+    public static StoragePath of(String path) {
+        Objects.requireNonNull(path, "Path cannot be null!");
+        if(path.isEmpty()) return ROOT;
+
+        int index = path.hashCode() & (CACHE_SIZE - 1);
+        StoragePath cached = CACHE[index];
+        if(cached != null && cached.path.equals(path)) return cached;
+
+        StoragePath parsed = new StoragePath(split(path), path);
+        CACHE[index] = parsed;
+        return parsed;
+    }
+
+    /**
+     * Creates a path from its segments.
+     *
+     * @param segments The segments of the path, which can't contain a ".".
+     * @return The StoragePath.
+     */
+    public static StoragePath of(String... segments) {
+        Objects.requireNonNull(segments, "Segments cannot be null!");
+        if(segments.length == 0) return ROOT;
+
+        String[] interned = new String[segments.length];
+        for(int i = 0; i < segments.length; i++) {
+            interned[i] = checkSegment(segments[i]);
+        }
+
+        return new StoragePath(interned, String.join(SEPARATOR, interned));
+    }
+
+    /**
+     * Returns a path that is nested within this path.
+     *
+     * @param child The path to append, which may contain multiple segments.
+     * @return The child StoragePath.
+     */
+    public StoragePath child(String child) {
+        Objects.requireNonNull(child, "Child cannot be null!");
+        if(child.isEmpty()) return this;
+
+        //Single segments are by far the most common, so don't bother parsing.
+        if(child.indexOf('.') == -1) {
+            String[] segments = Arrays.copyOf(this.segments, this.segments.length + 1);
+            segments[this.segments.length] = child.intern();
+            return new StoragePath(segments, this.isRoot() ? segments[this.segments.length] : this.path + SEPARATOR + child);
+        }
+
+        return this.child(StoragePath.of(child));
+    }
+
+    /**
+     * Returns a path that is nested within this path.
+     *
+     * @param child The path to append.
+     * @return The child StoragePath.
+     */
+    public StoragePath child(StoragePath child) {
+        Objects.requireNonNull(child, "Child cannot be null!");
+        if(child.isRoot()) return this;
+        if(this.isRoot()) return child;
+
+        String[] segments = Arrays.copyOf(this.segments, this.segments.length + child.segments.length);
+        System.arraycopy(child.segments, 0, segments, this.segments.length, child.segments.length);
+        return new StoragePath(segments, this.path + SEPARATOR + child.path);
+    }
+
+    /**
+     * @return The path that this path is nested within, or null if this is the root.
+     */
+    public StoragePath parent() {
+        if(this.isRoot()) return null;
+        if(this.segments.length == 1) return ROOT;
+
+        String[] segments = Arrays.copyOf(this.segments, this.segments.length - 1);
+        return new StoragePath(segments, this.path.substring(0, this.path.lastIndexOf('.')));
+    }
+
+    /**
+     * Returns if this path is, or is nested within, another path.
+     *
+     * @param prefix The path to check.
+     * @return If this path starts with every segment of the prefix.
+     */
+    public boolean startsWith(StoragePath prefix) {
+        if(prefix.segments.length > this.segments.length) return false;
+
+        for(int i = 0; i < prefix.segments.length; i++) {
+            //Segments are interned, so they can be compared by reference.
+            if(prefix.segments[i] != this.segments[i]) return false;
+        }
+        return true;
+    }
+
+    /**
+     * @param index The index of the segment.
+     * @return The segment at the index.
+     */
+    public String getSegment(int index) {
+        return this.segments[index];
+    }
+
+    /**
+     * @return An unmodifiable list of the path's segments.
+     */
+    public List<String> getSegments() {
+        return Collections.unmodifiableList(Arrays.asList(this.segments));
+    }
+
+    /**
+     * @return The last segment of the path, or an empty String if this is the root.
+     */
+    public String getName() {
+        return this.isRoot() ? "" : this.segments[this.segments.length - 1];
+    }
+
+    /**
+     * @return The amount of segments in the path.
+     */
+    public int size() {
+        return this.segments.length;
+    }
+
+    /**
+     * @return If this is the root path.
+     */
+    public boolean isRoot() {
+        return this.segments.length == 0;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if(this == o) return true;
+        if(!(o instanceof StoragePath other)) return false;
+        return this.hash == other.hash && this.path.equals(other.path);
+    }
+
+    @Override
+    public int hashCode() {
+        return this.hash;
+    }
+
+    /**
+     * @return The path, with each segment separated by a ".".
+     */
+    @Override
+    public String toString() {
+        return this.path;
+    }
+
+    private static String[] split(String path) {
+        int count = 1;
+        for(int i = 0; i < path.length(); i++) {
+            if(path.charAt(i) == '.') count++;
+        }
+
+        String[] segments = new String[count];
+        int start = 0;
+        for(int i = 0; i < count; i++) {
+            int end = path.indexOf('.', start);
+            if(end == -1) end = path.length();
+
+            segments[i] = path.substring(start, end).intern();
+            start = end + 1;
+        }
+        return segments;
+    }
+
+    private static String checkSegment(String segment) {
+        Objects.requireNonNull(segment, "Segment cannot be null!");
+        if(segment.contains(SEPARATOR)) {
+            throw new IllegalArgumentException("Segment " + segment + " cannot contain a " + SEPARATOR);
+        }
+        return segment.intern();
+    }
+}
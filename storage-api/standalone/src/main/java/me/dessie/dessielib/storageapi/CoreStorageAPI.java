@@ -2,17 +2,20 @@ package me.dessie.dessielib.storageapi;
 
 import me.dessie.dessielib.storageapi.api.ITaskHandler;
 import me.dessie.dessielib.storageapi.api.StorageAPI;
+import me.dessie.dessielib.storageapi.cache.ScheduledTaskHandler;
 import me.dessie.dessielib.storageapi.cache.TaskHandler;
 
+import java.util.Objects;
+
 /**
  * Main class for registering StorageAPI.
  */
 public class CoreStorageAPI extends StorageAPI {
 
-    private final TaskHandler taskHandler;
+    private final ITaskHandler taskHandler;
 
-    private CoreStorageAPI() {
-        this.taskHandler = new TaskHandler();
+    private CoreStorageAPI(ITaskHandler taskHandler) {
+        this.taskHandler = taskHandler;
     }
 
     /**
@@ -21,7 +24,20 @@ public class CoreStorageAPI extends StorageAPI {
      * @return The StorageAPI instance.
      */
     public static CoreStorageAPI register() {
-        return new CoreStorageAPI();
+        return new CoreStorageAPI(new TaskHandler());
+    }
+
+    /**
+     * Registers the StorageAPI for use, with a specific {@link ITaskHandler}.
+     *
+     * @see ScheduledTaskHandler for a task handler that scales to many containers and cached objects.
+     *
+     * @param taskHandler The ITaskHandler that runs async tasks and task timers.
+     * @return The StorageAPI instance.
+     */
+    public static CoreStorageAPI register(ITaskHandler taskHandler) {
+        Objects.requireNonNull(taskHandler, "Task handler cannot be null!");
+        return new CoreStorageAPI(taskHandler);
     }
 
     @Override
@@ -0,0 +1,218 @@
+package me.dessie.dessielib.storageapi.cache;
+
+import me.dessie.dessielib.storageapi.api.ITaskHandler;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An {@link ITaskHandler} for a standalone version of StorageAPI that can handle a large amount of containers and cached objects.
+ *
+ * Every delayed and repeating task is scheduled on one shared scheduler Thread, instead of a Timer Thread per task,
+ * and delays are as precise as the {@link TimeUnit} they're provided in.
+ * The scheduler only hands tasks off, they're run on virtual threads when the JVM supports them,
+ * and on a cached pool of daemon threads otherwise. This way, blocking file I/O never delays other scheduled tasks.
+ *
+ * A repeating task is skipped if its previous run hasn't finished yet, so slow tasks never run concurrently with themselves.
+ *
+ * @see me.dessie.dessielib.storageapi.CoreStorageAPI#register(ITaskHandler)
+ */
+public class ScheduledTaskHandler implements ITaskHandler, AutoCloseable {
+
+    private static final AtomicInteger HANDLER_ID = new AtomicInteger();
+
+    private final ScheduledThreadPoolExecutor scheduler;
+    private final ExecutorService workers;
+    private final Map<Runnable, Set<Future<?>>> tasks = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a ScheduledTaskHandler with its own scheduler and workers.
+     */
+    public ScheduledTaskHandler() {
+        this(true);
+    }
+
+    /**
+     * @param virtualThreads If the workers should be virtual threads when the JVM supports them.
+     */
+    ScheduledTaskHandler(boolean virtualThreads) {
+        int id = HANDLER_ID.incrementAndGet();
+
+        this.scheduler = new ScheduledThreadPoolExecutor(1, daemonFactory("DessieLib-Scheduler-" + id + "-"));
+        this.scheduler.setRemoveOnCancelPolicy(true);
+        this.scheduler.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        this.scheduler.setContinueExistingPeriodicTasksAfterShutdownPolicy(false);
+
+        this.workers = virtualThreads ? createWorkers("DessieLib-Worker-" + id + "-")
+                : Executors.newCachedThreadPool(daemonFactory("DessieLib-Worker-" + id + "-"));
+    }
+
+    @Override
+    public void runTaskAsync(Runnable runnable) {
+        Objects.requireNonNull(runnable, "Cannot run null task!");
+        this.submit(runnable);
+    }
+
+    @Override
+    public void runTaskLater(Runnable runnable, long delay) {
+        this.runTaskLater(runnable, delay, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void runTaskLater(Runnable runnable, long delay, TimeUnit unit) {
+        Objects.requireNonNull(runnable, "Cannot run null task!");
+
+        //The future is only known once scheduled, so the task finds it through this holder to untrack itself.
+        Future<?>[] holder = new Future<?>[1];
+        synchronized (holder) {
+            holder[0] = this.scheduler.schedule(() -> {
+                synchronized (holder) {
+                    this.untrack(runnable, holder[0]);
+                }
+                this.submit(runnable);
+            }, Math.max(0, delay), unit);
+
+            this.track(runnable, holder[0]);
+        }
+    }
+
+    @Override
+    public void runTaskTimer(Runnable runnable, long delay, long period) {
+        Objects.requireNonNull(runnable, "Cannot run null task!");
+        if(period <= 0) {
+            throw new IllegalArgumentException("Task timer period must be greater than 0!");
+        }
+
+        AtomicBoolean running = new AtomicBoolean();
+        ScheduledFuture<?> future = this.scheduler.scheduleAtFixedRate(() -> {
+            //Skip this run if the last one is still going.
+            if(!running.compareAndSet(false, true)) return;
+
+            try {
+                this.workers.execute(() -> {
+                    try {
+                        runnable.run();
+                    } finally {
+                        running.set(false);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                running.set(false);
+            }
+        }, TimeUnit.SECONDS.toMillis(Math.max(0, delay)), TimeUnit.SECONDS.toMillis(period), TimeUnit.MILLISECONDS);
+
+        this.track(runnable, future);
+    }
+
+    @Override
+    public void cancel(Runnable runnable) {
+        Set<Future<?>> futures = this.tasks.remove(runnable);
+        if(futures == null) return;
+
+        futures.forEach(future -> future.cancel(false));
+    }
+
+    /**
+     * @return The amount of delayed and repeating tasks that are currently scheduled.
+     */
+    public int getScheduledCount() {
+        return this.scheduler.getQueue().size();
+    }
+
+    /**
+     * Cancels every scheduled task and stops accepting new ones.
+     * Tasks that are already running are allowed to finish.
+     */
+    public void shutdown() {
+        this.scheduler.shutdown();
+        this.workers.shutdown();
+        this.tasks.clear();
+    }
+
+    /**
+     * Shuts down and waits for running tasks to finish.
+     *
+     * @param timeout The maximum time to wait.
+     * @param unit The unit of the timeout.
+     * @return If every task finished before the timeout.
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        this.shutdown();
+
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        return this.scheduler.awaitTermination(timeout, unit)
+                && this.workers.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @return If this handler has been shut down.
+     */
+    public boolean isShutdown() {
+        return this.scheduler.isShutdown();
+    }
+
+    /**
+     * @see ScheduledTaskHandler#shutdown()
+     */
+    @Override
+    public void close() {
+        this.shutdown();
+    }
+
+    private void submit(Runnable runnable) {
+        try {
+            this.workers.execute(runnable);
+        } catch (RejectedExecutionException e) {
+            //Shutting down, the task is dropped like any other scheduled task.
+        }
+    }
+
+    private void track(Runnable runnable, Future<?> future) {
+        if(future.isDone()) return;
+        this.tasks.computeIfAbsent(runnable, key -> ConcurrentHashMap.newKeySet()).add(future);
+    }
+
+    private void untrack(Runnable runnable, Future<?> future) {
+        this.tasks.computeIfPresent(runnable, (key, futures) -> {
+            futures.remove(future);
+            return futures.isEmpty() ? null : futures;
+        });
+    }
+
+    //Virtual threads only exist on Java 21+, so they're found reflectively while still compiling for Java 17.
+    private static ExecutorService createWorkers(String prefix) {
+        try {
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, prefix, 1L);
+
+            ThreadFactory factory = (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+            return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class).invoke(null, factory);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return Executors.newCachedThreadPool(daemonFactory(prefix));
+        }
+    }
+
+    private static ThreadFactory daemonFactory(String prefix) {
+        AtomicInteger threadId = new AtomicInteger();
+
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + threadId.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
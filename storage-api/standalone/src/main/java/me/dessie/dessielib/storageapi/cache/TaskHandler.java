@@ -7,6 +7,7 @@ import java.util.Map;
 import java.util.Timer;
 import java.util.TimerTask;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 /**
  * TaskHandler implementation for a standalone version of StorageAPI.
@@ -22,6 +23,11 @@ public class TaskHandler implements ITaskHandler {
 
     @Override
     public void runTaskLater(Runnable runnable, long delay) {
+        this.runTaskLater(runnable, delay, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void runTaskLater(Runnable runnable, long delay, TimeUnit unit) {
         TimerTask task = new TimerTask() {
             @Override
             public void run() {
@@ -31,7 +37,7 @@ public class TaskHandler implements ITaskHandler {
         };
 
         getTasks().put(runnable, task);
-        new Timer().schedule(task, delay * 1000);
+        new Timer().schedule(task, unit.toMillis(delay));
     }
 
     @Override
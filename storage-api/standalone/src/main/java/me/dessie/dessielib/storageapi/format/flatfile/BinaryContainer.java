@@ -0,0 +1,309 @@
+package me.dessie.dessielib.storageapi.format.flatfile;
+
+import me.dessie.dessielib.storageapi.api.IStorageAPI;
+import me.dessie.dessielib.storageapi.container.RetrieveArrayContainer;
+import me.dessie.dessielib.storageapi.container.StorageContainer;
+import me.dessie.dessielib.storageapi.container.hooks.CompleteHook;
+import me.dessie.dessielib.storageapi.container.hooks.DeleteHook;
+import me.dessie.dessielib.storageapi.container.hooks.ListHook;
+import me.dessie.dessielib.storageapi.container.hooks.RetrieveHook;
+import me.dessie.dessielib.storageapi.container.hooks.StoreHook;
+import me.dessie.dessielib.storageapi.settings.StorageSettings;
+import me.dessie.dessielib.storageapi.util.BinaryCodec;
+import me.dessie.dessielib.storageapi.util.Pair;
+import me.dessie.dessielib.storageapi.util.StoragePath;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * A {@link StorageContainer} that stores a document in a compact binary format, using {@link BinaryCodec}.
+ *
+ * This can be used in place of a {@link JSONContainer}. The document has the same structure,
+ * but numbers are retrieved with the exact type they were stored with, and Lists are stored and retrieved as a {@link List}.
+ * The file is streamed when it's loaded and saved, without any text to parse or format.
+ *
+ * The file is always replaced atomically, so a crash while writing can never leave a truncated file.
+ */
+public class BinaryContainer extends RetrieveArrayContainer<List<Object>, Map<String, Object>> {
+
+    private final BinaryCodec codec = new BinaryCodec();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final File file;
+    private Map<String, Object> document = new LinkedHashMap<>();
+
+    /**
+     * Creates a BinaryContainer that can be stored and retrieved from using the provided file.
+     * This will use the default settings in {@link StorageSettings}.
+     *
+     * @param api The IStorageAPI instance.
+     * @param file The {@link File} that will be used for this Container.
+     */
+    public BinaryContainer(IStorageAPI api, File file) {
+        this(api, file, new StorageSettings());
+    }
+
+    /**
+     * Creates a BinaryContainer that can be stored and retrieved from using the provided file.
+     * This will use the provided settings from {@link StorageSettings}.
+     *
+     * @param api The IStorageAPI instance.
+     * @param file The {@link File} that will be used for this Container.
+     * @param settings The StorageSettings for this Container.
+     */
+    public BinaryContainer(IStorageAPI api, File file, StorageSettings settings) {
+        super(api, settings);
+        this.file = file;
+
+        try {
+            if(this.getFile().getParentFile() != null) {
+                this.getFile().getParentFile().mkdirs();
+            }
+
+            //An empty or missing file is an empty document, which is written on the first completion.
+            if(this.getFile().exists() && this.getFile().length() > 0) {
+                this.read();
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * @return The {@link File} that is being used for the container.
+     */
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * Modifying this document directly is not thread safe.
+     *
+     * @return The document that is stored in the file.
+     */
+    public Map<String, Object> getDocument() {
+        return document;
+    }
+
+    @Override
+    protected StoreHook storeHook() {
+        return new StoreHook((path, data) -> {
+            this.lock.writeLock().lock();
+            try {
+                BinaryDocuments.handleNestedPath(this.getDocument(), path, data);
+            } finally {
+                this.lock.writeLock().unlock();
+            }
+        });
+    }
+
+    @Override
+    protected RetrieveHook retrieveHook() {
+        return new RetrieveHook(path -> {
+            this.lock.readLock().lock();
+            try {
+                return BinaryDocuments.copyList(this.getElement(StoragePath.of(path)));
+            } finally {
+                this.lock.readLock().unlock();
+            }
+        });
+    }
+
+    @Override
+    protected DeleteHook deleteHook() {
+        return new DeleteHook(path -> {
+            this.lock.writeLock().lock();
+            try {
+                StoragePath storagePath = StoragePath.of(path);
+                if(storagePath.isRoot()) {
+                    this.getDocument().clear();
+                    return;
+                }
+
+                if(this.getElement(storagePath.parent()) instanceof Map<?, ?> parent) {
+                    parent.remove(storagePath.getName());
+                }
+            } finally {
+                this.lock.writeLock().unlock();
+            }
+        });
+    }
+
+    @Override
+    protected ListHook<List<Object>> listHook() {
+        return BinaryDocuments.documentListHook(new BinaryDocuments.ListAccess() {
+            @Override
+            public <T> T read(String path, Function<Map<String, Object>, T> function) {
+                lock.readLock().lock();
+                try {
+                    return function.apply(getDocument());
+                } finally {
+                    lock.readLock().unlock();
+                }
+            }
+
+            @Override
+            public <T> T write(String path, Function<Map<String, Object>, T> function) {
+                lock.writeLock().lock();
+                try {
+                    return function.apply(getDocument());
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+        });
+    }
+
+    @Override
+    protected CompleteHook completeHook() {
+        return new CompleteHook().onComplete(() -> {
+            this.write();
+            return CompletableFuture.completedFuture(null);
+        });
+    }
+
+    @Override
+    protected Set<String> retrieveKeys(String path) {
+        this.lock.readLock().lock();
+        try {
+            if(this.getElement(StoragePath.of(path)) instanceof Map<?, ?> map) {
+                Set<String> keys = new HashSet<>();
+                map.keySet().forEach(key -> keys.add((String) key));
+                return keys;
+            } else return new HashSet<>();
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    protected BiConsumer<List<Object>, Map<String, Object>> add() {
+        return List::add;
+    }
+
+    @Override
+    protected Stream<Object> getHandlerStream(List<Object> handler) {
+        return handler.stream();
+    }
+
+    @Override
+    protected Stream<String> getNestedKeys(Map<String, Object> nested) {
+        return nested.keySet().stream();
+    }
+
+    @Override
+    protected boolean isHandler(Object object) {
+        return object instanceof List<?>;
+    }
+
+    @Override
+    protected boolean isNested(Object object) {
+        return object instanceof Map<?, ?>;
+    }
+
+    @Override
+    protected Object getObjectFromNested(Map<String, Object> nested, String key) {
+        return nested.get(key);
+    }
+
+    @Override
+    protected Object getPrimitive(Object object) {
+        //Values are already decoded with their exact type.
+        return object;
+    }
+
+    @Override
+    protected BiConsumer<List<Object>, List<Pair<String, Object>>> handleListObject() {
+        return ((list, pairs) -> {
+            Map<String, Object> object = new LinkedHashMap<>();
+
+            for(Pair<String, Object> pair : pairs) {
+                //If the path is null, then it's not a decomposer, so we just add that to the list directly.
+                if(pair.getKey() == null) {
+                    list.add(pair.getValue());
+                    continue;
+                }
+
+                BinaryDocuments.handleNestedPath(object, pair.getKey(), pair.getValue());
+            }
+
+            if(!object.isEmpty()) {
+                list.add(object);
+            }
+        });
+    }
+
+    @Override
+    protected List<Object> getStoreListHandler() {
+        return new ArrayList<>();
+    }
+
+    @Override
+    protected List<Object> getRetrieveListHandler(String path) {
+        this.lock.readLock().lock();
+        try {
+            //Lists are changed in place, so the List is copied before it's streamed without the lock.
+            if(this.getElement(StoragePath.of(path)) instanceof List<?> list) {
+                return new ArrayList<>(list);
+            }
+            return new ArrayList<>();
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Every primitive wrapper is supported, since they're stored with their exact type.
+     */
+    @Override
+    public boolean isSupported(Class<?> clazz) {
+        return super.isSupported(clazz) || this.getAPI().getWrappers().containsValue(clazz);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isListSupported(Class<?> clazz) {
+        return super.isListSupported(clazz) || this.getAPI().getWrappers().containsValue(clazz) || this.getAPI().resolveDecomposer(clazz) != null;
+    }
+
+    private Object getElement(StoragePath path) {
+        return BinaryDocuments.getElement(this.getDocument(), path);
+    }
+
+    private void read() throws IOException {
+        this.document = BinaryDocuments.readDocument(this.codec, this.getFile());
+    }
+
+    /**
+     * Streams the document to a temporary file, and moves it over the file.
+     */
+    private void write() {
+        File temp = new File(this.getFile().getPath() + ".tmp");
+
+        this.lock.readLock().lock();
+        try {
+            BinaryDocuments.writeDocument(this.codec, temp, this.getDocument());
+        } catch (IOException e) {
+            e.printStackTrace();
+            return;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+
+        try {
+            BinaryDocuments.replace(temp, this.getFile());
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
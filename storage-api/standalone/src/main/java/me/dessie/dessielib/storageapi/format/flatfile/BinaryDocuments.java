@@ -0,0 +1,204 @@
+package me.dessie.dessielib.storageapi.format.flatfile;
+
+import me.dessie.dessielib.storageapi.container.hooks.ListHook;
+import me.dessie.dessielib.storageapi.util.BinaryCodec;
+import me.dessie.dessielib.storageapi.util.StoragePath;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * The document structure and file format that {@link BinaryContainer} and {@link ShardedContainer} share.
+ * A document is a tree of Maps, with values that are decoded with their exact type by {@link BinaryCodec}.
+ */
+final class BinaryDocuments {
+
+    private static final int MAGIC = 0x444C4244;
+    private static final int VERSION = 1;
+
+    private BinaryDocuments() {}
+
+    @SuppressWarnings("unchecked")
+    static void handleNestedPath(Map<String, Object> object, String path, Object value) {
+        StoragePath storagePath = StoragePath.of(path);
+
+        //Traverse down the tree, replacing anything that isn't a sub-object.
+        Map<String, Object> current = object;
+        for(int i = 0; i < storagePath.size() - 1; i++) {
+            Object element = current.get(storagePath.getSegment(i));
+            if(!(element instanceof Map<?, ?>)) {
+                element = new LinkedHashMap<String, Object>();
+                current.put(storagePath.getSegment(i), element);
+            }
+            current = (Map<String, Object>) element;
+        }
+
+        //Add the final value, since it's the last part of the tree
+        current.put(storagePath.getName(), value);
+    }
+
+    /**
+     * Creates a {@link ListHook} that changes Lists in documents, for containers that use the same document structure.
+     * Lists are changed in place while holding the document's write lock, so only the changed elements are touched.
+     *
+     * @param access Provides the document that a path is in, while holding the document's lock.
+     * @return The ListHook.
+     */
+    static ListHook<List<Object>> documentListHook(ListAccess access) {
+        return new ListHook<>(new ListHook.Operations<>() {
+            @Override
+            public void append(String path, List<Object> elements) {
+                access.write(path, document -> getList(document, path, true).addAll(elements));
+            }
+
+            @Override
+            public int remove(String path, List<Object> elements) {
+                return access.write(path, document -> {
+                    List<Object> list = getList(document, path, false);
+                    if(list == null) return 0;
+
+                    int size = list.size();
+                    list.removeAll(elements);
+                    return size - list.size();
+                });
+            }
+
+            @Override
+            public boolean removeAt(String path, int index) {
+                return access.write(path, document -> {
+                    List<Object> list = getList(document, path, false);
+                    if(list == null || index < 0 || index >= list.size()) return false;
+
+                    list.remove(index);
+                    return true;
+                });
+            }
+
+            @Override
+            public boolean contains(String path, List<Object> element) {
+                return access.read(path, document -> getElement(document, StoragePath.of(path)) instanceof List<?> list && list.contains(element.get(0)));
+            }
+        });
+    }
+
+    /**
+     * Returns the List on a path, so it can be changed in place.
+     * This must be called while holding the document's write lock.
+     *
+     * @param document The document that contains the List.
+     * @param path The path to the List.
+     * @param create If a List should be created if the path isn't a List.
+     * @return The List, or null if the path isn't a List and one wasn't created.
+     */
+    @SuppressWarnings("unchecked")
+    static List<Object> getList(Map<String, Object> document, String path, boolean create) {
+        Object element = getElement(document, StoragePath.of(path));
+        if(element instanceof ArrayList<?> list) return (List<Object>) list;
+        if(!(element instanceof List<?>) && !create) return null;
+
+        //Lists that were read or stored as something else may not be changeable, so they're replaced once.
+        List<Object> list = element instanceof List<?> existing ? new ArrayList<>(existing) : new ArrayList<>();
+        handleNestedPath(document, path, list);
+        return list;
+    }
+
+    /**
+     * Copies an element if it's a List, since Lists are changed in place by the {@link ListHook}.
+     *
+     * @param element The element that is being retrieved.
+     * @return A copy of the List, or the element if it isn't a List.
+     */
+    static Object copyList(Object element) {
+        return element instanceof List<?> list ? new ArrayList<>(list) : element;
+    }
+
+    /**
+     * Reads a binary document from a file.
+     *
+     * @param codec The BinaryCodec to decode with.
+     * @param file The file to read.
+     * @return The document that was stored in the file.
+     * @throws IOException If the file couldn't be read, or isn't a binary document.
+     */
+    @SuppressWarnings("unchecked")
+    static Map<String, Object> readDocument(BinaryCodec codec, File file) throws IOException {
+        try(DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 1 << 16))) {
+            if(in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException(file.getName() + " is not a valid binary document!");
+            }
+
+            if(!(codec.read(in) instanceof Map<?, ?> map)) {
+                throw new IOException(file.getName() + " does not contain a document!");
+            }
+            return (Map<String, Object>) map;
+        }
+    }
+
+    /**
+     * Streams a binary document to a file, and forces it to disk.
+     *
+     * @param codec The BinaryCodec to encode with.
+     * @param file The file to write, which is usually a temporary file that is moved with {@link #replace(File, File)}.
+     * @param document The document to write.
+     * @throws IOException If the file couldn't be written.
+     */
+    static void writeDocument(BinaryCodec codec, File file, Map<String, Object> document) throws IOException {
+        try(FileOutputStream stream = new FileOutputStream(file)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream, 1 << 16));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            codec.write(out, document);
+            out.flush();
+            stream.getFD().sync();
+        }
+    }
+
+    /**
+     * Moves a temporary file over a file, atomically if the file system supports it.
+     *
+     * @param temp The file to move.
+     * @param file The file to replace.
+     * @throws IOException If the file couldn't be moved.
+     */
+    static void replace(File temp, File file) throws IOException {
+        try {
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    static Object getElement(Map<String, Object> document, StoragePath path) {
+        Object current = document;
+
+        //Walks down the tree, stopping if an element isn't an object.
+        for(int i = 0; i < path.size(); i++) {
+            if(!(current instanceof Map<?, ?> map)) return null;
+            current = map.get(path.getSegment(i));
+        }
+
+        return current;
+    }
+
+    /**
+     * Provides the document that a path is in, while holding the document's lock.
+     */
+    interface ListAccess {
+        <T> T read(String path, Function<Map<String, Object>, T> function);
+        <T> T write(String path, Function<Map<String, Object>, T> function);
+    }
+}
@@ -1,36 +1,84 @@
 package me.dessie.dessielib.storageapi.format.flatfile;
 
 import com.google.gson.*;
-import com.google.gson.internal.LinkedTreeMap;
+import com.google.gson.stream.JsonWriter;
 import me.dessie.dessielib.storageapi.api.IStorageAPI;
 import me.dessie.dessielib.storageapi.container.RetrieveArrayContainer;
 import me.dessie.dessielib.storageapi.container.StorageContainer;
 import me.dessie.dessielib.storageapi.container.hooks.CompleteHook;
 import me.dessie.dessielib.storageapi.container.hooks.DeleteHook;
+import me.dessie.dessielib.storageapi.container.hooks.ListHook;
 import me.dessie.dessielib.storageapi.container.hooks.RetrieveHook;
 import me.dessie.dessielib.storageapi.container.hooks.StoreHook;
+import me.dessie.dessielib.storageapi.container.hooks.TypedRetrieveHook;
+import me.dessie.dessielib.storageapi.settings.JSONSettings;
 import me.dessie.dessielib.storageapi.settings.StorageSettings;
 import me.dessie.dessielib.storageapi.util.JsonObjectBuilder;
 import me.dessie.dessielib.storageapi.util.Pair;
+import me.dessie.dessielib.storageapi.util.StoragePath;
 
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileReader;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.FileWriter;
+import java.io.FilterOutputStream;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.BiConsumer;
+import java.util.function.ToIntFunction;
 import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
 
 /**
  * A {@link StorageContainer} that stores using JSON format using {@link Gson}.
+ *
+ * The JSON file is always replaced atomically, so a crash while writing can never leave a truncated file.
+ * If {@link JSONSettings#setDeltaWrites(boolean)} is enabled, only the top-level keys that changed are written,
+ * by appending them to a delta file that is periodically compacted into the JSON file.
+ *
+ * If {@link JSONSettings#setLazyLoad(boolean)} is enabled, the JSON file is only scanned when the Container is created,
+ * and each top-level key is parsed the first time it's used.
+ *
+ * The JSON file is streamed when it's read and written, so the whole file is never held in memory as a String.
+ * The {@link JsonObject} from {@link #getObject()} is the only in-memory copy of the document.
+ * It's read straight from a {@link com.google.gson.stream.JsonReader} with numbers already decoded, and written straight to a {@link JsonWriter}.
+ * Stored primitives are added as they are, and only other objects are converted through {@link Gson#toJsonTree(Object)}.
+ * The file is written compactly, unless {@link JSONSettings#setPrettyPrint(boolean)} is enabled.
  */
 public class JSONContainer extends RetrieveArrayContainer<JsonArray, JsonObject> {
 
-    private final Gson gson = new Gson().newBuilder().setPrettyPrinting().create();
+    private final Gson gson;
+    private final Gson deltaGson = new Gson();
     private final File json;
+    private final File delta;
+    private final boolean deltaWrites;
+    private final double compactionRatio;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
     private JsonObject object;
 
+    //Where the top-level keys that haven't been parsed yet are in the JSON file, only used if lazy loading is enabled.
+    private volatile Map<String, JsonOffsets.Member> members;
+
+    //The top-level keys that have changed since the last write, only tracked if delta writes are enabled.
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+
+    //Checksum of the JSON file's contents, which the delta file must have been started from to be applied.
+    private long checksum;
+
     /**
      * Creates a JSONContainer that can be stored and retrieved from using the provided file.
      * This will use the default settings in {@link StorageSettings}.
@@ -48,11 +96,17 @@ public class JSONContainer extends RetrieveArrayContainer<JsonArray, JsonObject>
      *
      * @param api The IStorageAPI instance.
      * @param jsonFile The JSON {@link File} that will be used for this Container.
-     * @param settings The StorageSettings for this Container.
+     * @param settings The StorageSettings for this Container. Provide {@link JSONSettings} to use JSON specific settings.
      */
     public JSONContainer(IStorageAPI api, File jsonFile, StorageSettings settings) {
         super(api, settings);
         this.json = jsonFile;
+        this.delta = new File(jsonFile.getPath() + ".delta");
+
+        JSONSettings jsonSettings = settings instanceof JSONSettings temp ? temp : new JSONSettings();
+        this.deltaWrites = jsonSettings.isDeltaWrites();
+        this.compactionRatio = jsonSettings.getCompactionRatio();
+        this.gson = jsonSettings.isPrettyPrint() ? new GsonBuilder().setPrettyPrinting().create() : this.deltaGson;
 
         try {
             //Create the file.
@@ -70,7 +124,26 @@ public class JSONContainer extends RetrieveArrayContainer<JsonArray, JsonObject>
                 throw new IOException("Unable to find file " + this.getJson().getName());
             }
 
-            this.object = JsonParser.parseReader(new FileReader(this.getJson())).getAsJsonObject();
+            if(jsonSettings.isLazyLoad()) {
+                CRC32 crc = new CRC32();
+                this.members = JsonOffsets.scan(this.getJson(), crc);
+                this.checksum = crc.getValue();
+                this.object = new JsonObject();
+            } else {
+                CRC32 crc = new CRC32();
+                try(CheckedInputStream in = new CheckedInputStream(new FileInputStream(this.getJson()), crc);
+                    Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+                    this.object = JsonStreams.read(reader).getAsJsonObject();
+
+                    //The checksum has to include anything after the object that the reader didn't need.
+                    in.transferTo(OutputStream.nullOutputStream());
+                }
+                this.checksum = crc.getValue();
+            }
+
+            if(this.getDelta().exists()) {
+                this.applyDelta();
+            }
         } catch (IOException e) {
             e.printStackTrace();
         }
@@ -84,6 +157,16 @@ public class JSONContainer extends RetrieveArrayContainer<JsonArray, JsonObject>
     }
 
     /**
+     * @return The delta {@link File} that changed keys are appended to, if delta writes are enabled.
+     */
+    public File getDelta() {
+        return delta;
+    }
+
+    /**
+     * Modifying this object directly will not mark anything as changed for delta writes, and is not thread safe.
+     * If lazy loading is enabled, this only contains the top-level keys that have been used.
+     *
      * @return The {@link JsonObject} that Gson is using to parse JSON.
      */
     public JsonObject getObject() {
@@ -100,13 +183,22 @@ public class JSONContainer extends RetrieveArrayContainer<JsonArray, JsonObject>
     @Override
     protected StoreHook storeHook() {
         return new StoreHook((path, data) -> {
-            if(path.contains(".")) {
-                this.handleNestedPath(this.getObject(), path, this.getGson().toJsonTree(data));
-            } else {
-                //Remove it before attempting to add, even though JsonObject is using a Set for it's keys
-                //There seems to be a rare issue where duplicate keys can be added. This should prevent that from ever happening.
-                this.getObject().remove(path);
-                this.getObject().add(path, this.getGson().toJsonTree(data));
+            this.lock.writeLock().lock();
+            try {
+                this.markDirty(path);
+
+                if(path.contains(".")) {
+                    this.loadMembers(StoragePath.of(path));
+                    this.handleNestedPath(this.getObject(), path, this.toJsonTree(data));
+                } else {
+                    //Remove it before attempting to add, even though JsonObject is using a Set for it's keys
+                    //There seems to be a rare issue where duplicate keys can be added. This should prevent that from ever happening.
+                    this.forget(path);
+                    this.getObject().remove(path);
+                    this.getObject().add(path, this.toJsonTree(data));
+                }
+            } finally {
+                this.lock.writeLock().unlock();
             }
         });
     }
@@ -114,24 +206,125 @@ public class JSONContainer extends RetrieveArrayContainer<JsonArray, JsonObject>
     @Override
     protected RetrieveHook retrieveHook() {
         return new RetrieveHook(path -> {
-            String[] tree = path.split("\\.");
-            JsonObject retrieved = this.getRetrieveElement(path);
-
-            return retrieveCorrectly(retrieved, tree[tree.length - 1]);
+            StoragePath storagePath = StoragePath.of(path);
+            this.load(storagePath);
+
+            this.lock.readLock().lock();
+            try {
+                return toValue(storagePath.isRoot() ? this.getObject().get(storagePath.getName()) : this.getElement(storagePath));
+            } finally {
+                this.lock.readLock().unlock();
+            }
         });
     }
 
     @Override
     protected DeleteHook deleteHook() {
         return new DeleteHook(path -> {
-            String[] tree = path.split("\\.");
+            this.lock.writeLock().lock();
+            try {
+                this.markDirty(path);
+                StoragePath storagePath = StoragePath.of(path);
+                if(storagePath.size() == 1) {
+                    this.forget(path);
+                } else this.loadMembers(storagePath);
+
+                //Nothing needs to be removed if a parent doesn't exist.
+                JsonObject temp = this.getObject();
+                for(int i = 0; i < storagePath.size() - 1; i++) {
+                    if(!(temp.get(storagePath.getSegment(i)) instanceof JsonObject next)) return;
+                    temp = next;
+                }
+
+                temp.remove(storagePath.getName());
+            } finally {
+                this.lock.writeLock().unlock();
+            }
+        });
+    }
+
+    @Override
+    protected TypedRetrieveHook typedRetrieveHook() {
+        return new TypedRetrieveHook(new TypedRetrieveHook.Retriever() {
+            @Override
+            public int retrieveInt(String path, int orElse) {
+                JsonPrimitive primitive = getPrimitiveElement(path);
+                return primitive != null && primitive.isNumber() ? primitive.getAsInt() : orElse;
+            }
+
+            @Override
+            public long retrieveLong(String path, long orElse) {
+                JsonPrimitive primitive = getPrimitiveElement(path);
+                return primitive != null && primitive.isNumber() ? primitive.getAsLong() : orElse;
+            }
+
+            @Override
+            public double retrieveDouble(String path, double orElse) {
+                JsonPrimitive primitive = getPrimitiveElement(path);
+                return primitive != null && primitive.isNumber() ? primitive.getAsDouble() : orElse;
+            }
+
+            @Override
+            public boolean retrieveBoolean(String path, boolean orElse) {
+                JsonPrimitive primitive = getPrimitiveElement(path);
+                return primitive != null && primitive.isBoolean() ? primitive.getAsBoolean() : orElse;
+            }
+
+            @Override
+            public String retrieveString(String path, String orElse) {
+                JsonPrimitive primitive = getPrimitiveElement(path);
+                return primitive != null && primitive.isString() ? primitive.getAsString() : orElse;
+            }
+        });
+    }
+
+    @Override
+    protected ListHook<JsonArray> listHook() {
+        return new ListHook<>(new ListHook.Operations<>() {
+            @Override
+            public void append(String path, JsonArray elements) {
+                changeArray(path, true, array -> {
+                    array.addAll(elements);
+                    return elements.size();
+                });
+            }
 
-            JsonObject temp = this.getObject();
-            for(int i = 0; i < tree.length - 1; i++) {
-                temp = temp.get(tree[i]).getAsJsonObject();
+            @Override
+            public int remove(String path, JsonArray elements) {
+                return changeArray(path, false, array -> {
+                    int removed = 0;
+                    for(Iterator<JsonElement> iterator = array.iterator(); iterator.hasNext();) {
+                        if(elements.contains(iterator.next())) {
+                            iterator.remove();
+                            removed++;
+                        }
+                    }
+                    return removed;
+                });
             }
 
-            temp.remove(tree[tree.length - 1]);
+            @Override
+            public boolean removeAt(String path, int index) {
+                return changeArray(path, false, array -> {
+                    if(index < 0 || index >= array.size()) return 0;
+
+                    array.remove(index);
+                    return 1;
+                }) != 0;
+            }
+
+            @Override
+            public boolean contains(String path, JsonArray element) {
+                StoragePath storagePath = StoragePath.of(path);
+                load(storagePath);
+
+                lock.readLock().lock();
+                try {
+                    return getElement(storagePath) instanceof JsonArray array && array.contains(element.get(0));
+                } finally {
+                    lock.readLock().unlock();
+                }
+            }
         });
     }
 
@@ -144,10 +337,29 @@ public class JSONContainer extends RetrieveArrayContainer<JsonArray, JsonObject>
     }
 
     @Override
-    public Set<String> getKeys(String path) {
-        if(this.getElement(path) instanceof JsonObject object) {
-            return object.keySet();
-        } else return new HashSet<>();
+    protected Set<String> retrieveKeys(String path) {
+        StoragePath storagePath = StoragePath.of(path);
+
+        //The top-level keys are known without parsing them.
+        if(!storagePath.isRoot()) {
+            this.load(storagePath);
+        }
+
+        this.lock.readLock().lock();
+        try {
+            Set<String> keys = new LinkedHashSet<>();
+            if(this.getElement(storagePath) instanceof JsonObject object) {
+                keys.addAll(object.keySet());
+            }
+
+            Map<String, JsonOffsets.Member> members = this.members;
+            if(storagePath.isRoot() && members != null) {
+                keys.addAll(members.keySet());
+            }
+            return keys;
+        } finally {
+            this.lock.readLock().unlock();
+        }
     }
 
     @Override
@@ -179,15 +391,17 @@ public class JSONContainer extends RetrieveArrayContainer<JsonArray, JsonObject>
 
     @Override
     protected Object getObjectFromNested(JsonObject nested, String key) {
-        return retrieveCorrectly(nested, key);
+        return toValue(nested.get(key));
     }
 
     @Override
     protected Object getPrimitive(Object object) {
-        Object obj = this.getGson().fromJson((JsonElement) object, Object.class);
-        if(obj instanceof Double && !object.toString().contains(".")) {
-            return Integer.valueOf(object.toString());
-        } else return obj;
+        //Lists that are nested in a list are still converted into Objects.
+        if(!(object instanceof JsonPrimitive primitive)) {
+            return this.getGson().fromJson((JsonElement) object, Object.class);
+        }
+
+        return toValue(primitive);
     }
 
     @Override
@@ -198,15 +412,15 @@ public class JSONContainer extends RetrieveArrayContainer<JsonArray, JsonObject>
             for(Pair<String, Object> pair : list) {
                 //If the path is null, then it's not a decomposer, so we just add that to the array directly.
                 if(pair.getKey() == null) {
-                    array.add(this.getGson().toJsonTree(pair.getValue()));
+                    array.add(this.toJsonTree(pair.getValue()));
                     continue;
                 }
 
                 //Handle nested paths.
                 if(pair.getKey().contains(".")) {
-                    this.handleNestedPath(object, pair.getKey(), pair.getValue());
+                    this.handleNestedPath(object, pair.getKey(), this.toJsonTree(pair.getValue()));
                 } else {
-                    object.add(pair.getKey(), this.getGson().toJsonTree(pair.getValue()));
+                    object.add(pair.getKey(), this.toJsonTree(pair.getValue()));
                 }
             }
 
@@ -223,91 +437,418 @@ public class JSONContainer extends RetrieveArrayContainer<JsonArray, JsonObject>
 
     @Override
     protected JsonArray getRetrieveListHandler(String path) {
-        if(this.getElement(path) instanceof JsonArray array) {
-            return array;
+        StoragePath storagePath = StoragePath.of(path);
+        this.load(storagePath);
+
+        this.lock.readLock().lock();
+        try {
+            //JsonArrays are changed in place, so the JsonArray is copied before it's streamed without the lock.
+            if(this.getElement(storagePath) instanceof JsonArray array) {
+                JsonArray copy = new JsonArray(array.size());
+                copy.addAll(array);
+                return copy;
+            }
+            return new JsonArray();
+        } finally {
+            this.lock.readLock().unlock();
         }
-        return new JsonArray();
     }
 
-    private JsonObject handleNestedPath(JsonObject object, String path, Object value) {
-        String[] tree = path.split("\\.");
+    private void handleNestedPath(JsonObject object, String path, JsonElement value) {
+        StoragePath storagePath = StoragePath.of(path);
 
-        //Add the final value if it's the last part of the tree
-        if (tree.length == 1) {
-            object.add(tree[0], this.getGson().toJsonTree(value));
-            return object;
+        //Traverse down the tree
+        JsonObject current = object;
+        for(int i = 0; i < storagePath.size() - 1; i++) {
+            String segment = storagePath.getSegment(i);
+
+            //Get an existing sub-object, or create it if the path doesn't exist.
+            JsonElement element = current.get(segment);
+            JsonObject subObject = (element instanceof JsonObject temp) ? temp : new JsonObject();
+            if(subObject != element) {
+                current.add(segment, subObject);
+            }
+            current = subObject;
         }
 
-        //Get an existing sub-object, or create it if the path doesn't exist.
-        JsonElement element = object.get(tree[0]);
-        JsonObject subObject = (element instanceof JsonObject temp) ? temp : new JsonObject();
+        //Add the final value, since it's the last part of the tree
+        current.add(storagePath.getName(), value);
+    }
 
-        //Traverse down the tree
-        String subPath = path.substring(path.indexOf(".") + 1);
+    /**
+     * Converts a value into a JsonElement.
+     * Primitives are wrapped directly, and JsonElements are copied directly instead of being written through Gson again.
+     * They're still copied so the same JsonElement can be stored on multiple paths.
+     *
+     * @param value The value to convert.
+     * @return The JsonElement.
+     */
+    private JsonElement toJsonTree(Object value) {
+        if(value instanceof JsonElement element) return element.deepCopy();
+        if(value instanceof String string) return new JsonPrimitive(string);
+        if(value instanceof Boolean bool) return new JsonPrimitive(bool);
+        if(value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            return new JsonPrimitive((Number) value);
+        }
 
-        //Recursively set the objects
-        object.add(tree[0], this.handleNestedPath(subObject, subPath, value));
+        //NaN and infinite numbers are left to Gson, which rejects them.
+        if(value instanceof Double number && Double.isFinite(number)) return new JsonPrimitive(number);
+        return this.getGson().toJsonTree(value);
+    }
 
-        return object;
+    /**
+     * Changes the JsonArray on a path in place, while holding the write lock.
+     * Only the top-level key that contains the JsonArray is marked as changed, and only if the JsonArray was changed.
+     *
+     * @param path The path to the JsonArray.
+     * @param create If a JsonArray should be created if the path isn't a JsonArray.
+     * @param change Changes the JsonArray, and returns how many elements were added or removed.
+     * @return How many elements were added or removed.
+     */
+    private int changeArray(String path, boolean create, ToIntFunction<JsonArray> change) {
+        StoragePath storagePath = StoragePath.of(path);
+
+        this.lock.writeLock().lock();
+        try {
+            this.loadMembers(storagePath);
+
+            JsonElement element = this.getElement(storagePath);
+            if(!(element instanceof JsonArray) && !create) return 0;
+
+            JsonArray array;
+            if(element instanceof JsonArray existing) {
+                array = existing;
+            } else {
+                array = new JsonArray();
+                this.handleNestedPath(this.getObject(), path, array);
+            }
+
+            int changed = change.applyAsInt(array);
+            if(changed != 0 || array != element) {
+                this.markDirty(path);
+            }
+            return changed;
+        } finally {
+            this.lock.writeLock().unlock();
+        }
     }
 
-    private Object retrieveCorrectly(JsonObject object, String key) {
-        Object retrieve = this.getGson().fromJson(object.get(key), Object.class);
-        if(retrieve != null && retrieve.getClass() == Double.class && !object.get(key).getAsString().contains(".")) {
-            return object.get(key).getAsInt();
-        } else if(retrieve instanceof LinkedTreeMap<?,?> || retrieve instanceof ArrayList) {
-            return object.get(key);
-        } else {
-            return retrieve;
+    /**
+     * Converts a JsonElement into the Object that is retrieved.
+     * Primitives are read directly from the JsonPrimitive, and objects and arrays are returned as they are.
+     *
+     * @param element The JsonElement, which may be null.
+     * @return The retrieved Object.
+     */
+    private static Object toValue(JsonElement element) {
+        if(!(element instanceof JsonPrimitive primitive)) {
+            return element instanceof JsonNull ? null : element;
         }
+
+        if(primitive.isBoolean()) return primitive.getAsBoolean();
+        if(primitive.isString()) return primitive.getAsString();
+
+        //Numbers that were read or stored as an Integer or Double are retrieved as they are, without parsing them again.
+        Number number = primitive.getAsNumber();
+        if(number instanceof Integer || number instanceof Double) return number;
+
+        //Whole numbers are retrieved as Integers, and everything else as Doubles.
+        if(primitive.getAsString().contains(".")) {
+            return primitive.getAsDouble();
+        } else return primitive.getAsInt();
     }
 
-    private Map<String, JsonElement> getTree(String path) {
-        Map<String, JsonElement> tree = new LinkedHashMap<>();
+    private JsonElement getElement(StoragePath path) {
         JsonElement current = this.getObject();
-        String[] branches = path.split("\\.");
 
-        for (String branch : branches) {
-            if (!(current instanceof JsonObject object)) continue;
+        //Walks down the tree, the path doesn't exist if a parent isn't an object.
+        for(int i = 0; i < path.size(); i++) {
+            if (!(current instanceof JsonObject object)) return null;
+            current = object.get(path.getSegment(i));
+        }
+
+        return current;
+    }
+
+    private JsonPrimitive getPrimitiveElement(String path) {
+        StoragePath storagePath = StoragePath.of(path);
+        this.load(storagePath);
+
+        this.lock.readLock().lock();
+        try {
+            return this.getElement(storagePath) instanceof JsonPrimitive primitive ? primitive : null;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    private void write() {
+        this.lock.readLock().lock();
+        try {
+            if(this.deltaWrites && this.getDelta().length() <= this.getJson().length() * this.compactionRatio) {
+                this.writeDelta();
+            } else {
+                this.writeFull();
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Writes the entire object to a temporary file, and moves it over the JSON file.
+     * Anything in the delta file is included, so the delta file is deleted afterwards.
+     */
+    private void writeFull() throws IOException {
+        this.dirty.clear();
+
+        File temp = new File(this.getJson().getPath() + ".tmp");
+        CRC32 crc = new CRC32();
+        Map<String, JsonOffsets.Member> moved = null;
 
-            object.has(branch);
-            tree.put(branch, current);
-            current = object.get(branch);
+        try(FileOutputStream out = new FileOutputStream(temp)) {
+            moved = this.writeObject(out, crc);
+            out.getFD().sync();
+        }
+
+        try {
+            Files.move(temp.toPath(), this.getJson().toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp.toPath(), this.getJson().toPath(), StandardCopyOption.REPLACE_EXISTING);
         }
 
-        //Add the last branch.
-        tree.put(branches[branches.length - 1], current);
-        return tree;
+        //If a crash happens before the delta is deleted, the checksum won't match anymore so it won't be applied.
+        this.checksum = crc.getValue();
+        if(moved != null) {
+            this.members = moved;
+        }
+        Files.deleteIfExists(this.getDelta().toPath());
     }
 
-    private JsonElement getElement(String path) {
-        if(path.equals("")) return this.getObject();
+    /**
+     * Streams the object to a {@link JsonWriter}, so the file is never built as a String.
+     * If lazy loading is enabled, the top-level keys that haven't been parsed are copied directly from the JSON file.
+     *
+     * @param out The stream to write to.
+     * @param crc Updated with every byte that is written.
+     * @return Where the copied top-level keys are in the new file, or null if lazy loading isn't enabled.
+     */
+    private Map<String, JsonOffsets.Member> writeObject(OutputStream out, CRC32 crc) throws IOException {
+        BufferedOutputStream buffered = new BufferedOutputStream(out, 1 << 16);
+        CountingOutputStream counting = new CountingOutputStream(buffered, crc);
+        JsonWriter writer = this.getGson().newJsonWriter(new OutputStreamWriter(counting, StandardCharsets.UTF_8));
+
+        if(this.members == null) {
+            this.getGson().toJson(this.getObject(), writer);
+            writer.flush();
+            buffered.flush();
+            return null;
+        }
+
+        Map<String, JsonOffsets.Member> moved = new LinkedHashMap<>();
+        writer.beginObject();
+
+        for(Map.Entry<String, JsonElement> entry : this.getObject().entrySet()) {
+            writer.name(entry.getKey());
+            this.getGson().toJson(entry.getValue(), writer);
+        }
+
+        for(Map.Entry<String, JsonOffsets.Member> entry : this.members.entrySet()) {
+            if(this.getObject().has(entry.getKey())) continue;
+
+            byte[] value = JsonOffsets.readBytes(this.getJson(), entry.getValue());
+            writer.name(entry.getKey()).jsonValue(new String(value, StandardCharsets.UTF_8));
 
-        Map<String, JsonElement> tree = this.getTree(path);
-        List<String> keys = new ArrayList<>(tree.keySet());
+            //The value is copied as it is, so it starts its length before where the writer ends.
+            writer.flush();
+            moved.put(entry.getKey(), new JsonOffsets.Member(counting.getCount() - value.length, value.length));
+        }
 
-        return tree.get(keys.get(keys.size() - 1));
+        writer.endObject();
+        writer.flush();
+        buffered.flush();
+        return moved;
     }
 
-    //Always returns a JsonObject instead of a JsonElement
-    private JsonObject getRetrieveElement(String path) {
-        if(path.equals("")) return this.getObject();
+    /**
+     * Appends the current value of every changed top-level key to the delta file.
+     * A new delta file starts with the checksum of the JSON file it applies to.
+     */
+    private void writeDelta() throws IOException {
+        StringBuilder lines = new StringBuilder();
+        if(this.getDelta().length() == 0) {
+            this.deltaGson.toJson(new JsonObjectBuilder().add("checksum", this.checksum).build(), lines);
+            lines.append('\n');
+        }
+
+        for(Iterator<String> iterator = this.dirty.iterator(); iterator.hasNext();) {
+            String key = iterator.next();
+            iterator.remove();
+
+            JsonObject record = new JsonObject();
+            record.addProperty("key", key);
 
-        Map<String, JsonElement> tree = this.getTree(path);
-        List<String> keys = new ArrayList<>(tree.keySet());
+            JsonElement value = this.getObject().get(key);
+            if(value == null) {
+                record.addProperty("removed", true);
+            } else record.add("value", value);
 
-        //We always want a JsonObject to be returned, and the value will be retrieved from that.
-        //We can just use the last value from the keys and tree, since that's the element we're trying to obtain.
-        return new JsonObjectBuilder().add(keys.get(keys.size() - 1), tree.get(keys.get(keys.size() - 1))).build();
+            this.deltaGson.toJson(record, lines);
+            lines.append('\n');
+        }
+
+        try(FileOutputStream out = new FileOutputStream(this.getDelta(), true)) {
+            out.write(lines.toString().getBytes(StandardCharsets.UTF_8));
+            out.getFD().sync();
+        }
     }
 
-    private void write() {
+    /**
+     * Applies the delta file to the loaded object.
+     * The delta file is discarded if it was started from a different JSON file, since the JSON file has been compacted since.
+     */
+    private void applyDelta() throws IOException {
+        boolean stale;
+        try(BufferedReader reader = Files.newBufferedReader(this.getDelta().toPath(), StandardCharsets.UTF_8)) {
+            String header = reader.readLine();
+            stale = header == null || !this.isDeltaHeader(header);
+
+            String line;
+            while(!stale && (line = reader.readLine()) != null) {
+                JsonObject record;
+                try {
+                    record = JsonStreams.read(line).getAsJsonObject();
+                } catch (JsonParseException | IllegalStateException e) {
+                    //The last record was only partially written.
+                    break;
+                }
+
+                String key = record.get("key").getAsString();
+                this.forget(key);
+                if(record.has("removed")) {
+                    this.getObject().remove(key);
+                } else {
+                    this.getObject().remove(key);
+                    this.getObject().add(key, record.get("value"));
+                }
+            }
+        }
+
+        //The delta file can only be deleted once it's been closed.
+        if(stale) {
+            Files.deleteIfExists(this.getDelta().toPath());
+        }
+    }
+
+    private boolean isDeltaHeader(String header) {
         try {
-            FileWriter writer = new FileWriter(this.getJson());
-            this.getGson().toJson(this.getObject(), writer);
-            writer.close();
-        } catch (IOException e) {
-            e.printStackTrace();
+            JsonObject object = JsonParser.parseString(header).getAsJsonObject();
+            return object.has("checksum") && object.get("checksum").getAsLong() == this.checksum;
+        } catch (JsonParseException | IllegalStateException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Parses the top-level keys that a path needs, if lazy loading is enabled.
+     * The root path needs every top-level key.
+     *
+     * @param path The path that will be used.
+     */
+    private void load(StoragePath path) {
+        if(this.members == null) return;
+
+        this.lock.readLock().lock();
+        try {
+            if(path.isRoot() ? this.members.isEmpty() : !this.members.containsKey(path.getSegment(0))) return;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+
+        this.lock.writeLock().lock();
+        try {
+            this.loadMembers(path);
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Parses the top-level keys that a path needs from the JSON file.
+     * This must be called while holding the write lock.
+     *
+     * @param path The path that will be used.
+     */
+    private void loadMembers(StoragePath path) {
+        if(this.members == null || this.members.isEmpty()) return;
+
+        List<String> keys = path.isRoot() ? new ArrayList<>(this.members.keySet()) : List.of(path.getSegment(0));
+        for(String key : keys) {
+            JsonOffsets.Member member = this.members.get(key);
+            if(member == null) continue;
+
+            try {
+                this.getObject().add(key, JsonOffsets.read(this.getJson(), member));
+                this.members.remove(key);
+            } catch (IOException | JsonParseException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Forgets where a top-level key is in the JSON file, since it's being replaced or removed.
+     *
+     * @param key The top-level key.
+     */
+    private void forget(String key) {
+        if(this.members != null) {
+            this.members.remove(key);
+        }
+    }
+
+    private void markDirty(String path) {
+        if(!this.deltaWrites) return;
+
+        int index = path.indexOf('.');
+        this.dirty.add(index == -1 ? path : path.substring(0, index));
+    }
+
+    /**
+     * Counts the bytes that are written, and updates a checksum with them.
+     * Flushing doesn't flush the stream underneath, so the count can be checked without writing to the file.
+     */
+    private static class CountingOutputStream extends FilterOutputStream {
+
+        private final CRC32 crc;
+        private long count;
+
+        private CountingOutputStream(OutputStream out, CRC32 crc) {
+            super(out);
+            this.crc = crc;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            this.crc.update(b);
+            this.out.write(b);
+            this.count++;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            this.crc.update(bytes, offset, length);
+            this.out.write(bytes, offset, length);
+            this.count += length;
+        }
+
+        @Override
+        public void flush() {}
+
+        public long getCount() {
+            return count;
         }
     }
 
@@ -316,6 +857,6 @@ public class JSONContainer extends RetrieveArrayContainer<JsonArray, JsonObject>
      */
     @Override
     public boolean isListSupported(Class<?> clazz) {
-        return super.isListSupported(clazz) || this.getAPI().getDecomposer(clazz) != null;
+        return super.isListSupported(clazz) || this.getAPI().resolveDecomposer(clazz) != null;
     }
 }
@@ -0,0 +1,186 @@
+package me.dessie.dessielib.storageapi.format.flatfile;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Finds where each top-level member of a JSON object is in a file, so members can be parsed one at a time.
+ *
+ * {@link JsonReader} doesn't expose its position in the file, so the file is scanned byte by byte instead.
+ * The scanner only keeps track of strings and nesting, and doesn't validate the JSON.
+ * Members are validated when they're parsed with {@link #read(File, Member)}.
+ */
+final class JsonOffsets {
+
+    private JsonOffsets() {}
+
+    /**
+     * The location of a top-level member's value in a file.
+     *
+     * @param offset The byte offset of the value.
+     * @param length The length of the value in bytes.
+     */
+    record Member(long offset, int length) {}
+
+    /**
+     * Scans a file containing a JSON object, and finds the value of every top-level member.
+     *
+     * @param file The file to scan.
+     * @param crc Updated with every byte of the file.
+     * @return The top-level members, in the order they're in the file.
+     * @throws IOException If the file couldn't be read, or doesn't contain a JSON object.
+     */
+    static Map<String, Member> scan(File file, CRC32 crc) throws IOException {
+        Map<String, Member> members = new LinkedHashMap<>();
+        ByteArrayOutputStream key = new ByteArrayOutputStream();
+
+        int depth = 0;
+        boolean inString = false, escaped = false, inKey = false, expectKey = false;
+        String name = null;
+        long start = -1, end = -1;
+
+        try(InputStream in = new FileInputStream(file)) {
+            byte[] buffer = new byte[1 << 16];
+            long position = 0;
+
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                crc.update(buffer, 0, read);
+
+                for(int i = 0; i < read; i++, position++) {
+                    byte b = buffer[i];
+
+                    if(inString) {
+                        if(escaped) {
+                            escaped = false;
+                        } else if(b == '\\') {
+                            escaped = true;
+                        } else if(b == '"') {
+                            inString = false;
+                        }
+
+                        if(inKey) {
+                            if(inString) {
+                                key.write(b);
+                            } else {
+                                inKey = false;
+                                name = decodeKey(key);
+                            }
+                        } else end = position;
+                        continue;
+                    }
+
+                    if(b == ' ' || b == '\n' || b == '\r' || b == '\t') continue;
+
+                    if(depth == 0) {
+                        if(b != '{') {
+                            throw new IOException(file.getName() + " does not contain a JSON object!");
+                        }
+
+                        depth++;
+                        expectKey = true;
+                        continue;
+                    }
+
+                    if(depth == 1) {
+                        if(b == ',' || b == '}') {
+                            if(name != null && start != -1) {
+                                members.put(name, new Member(start, (int) (end + 1 - start)));
+                            }
+                            start = -1;
+                            expectKey = true;
+
+                            if(b == '}') {
+                                return members;
+                            }
+                            continue;
+                        }
+
+                        if(b == ':') continue;
+
+                        if(expectKey) {
+                            if(b != '"') {
+                                throw new IOException(file.getName() + " has an invalid key at byte " + position + "!");
+                            }
+
+                            key.reset();
+                            inString = true;
+                            inKey = true;
+                            expectKey = false;
+                            continue;
+                        }
+
+                        if(start == -1) {
+                            start = position;
+                        }
+                    }
+
+                    if(b == '"') {
+                        inString = true;
+                    } else if(b == '{' || b == '[') {
+                        depth++;
+                    } else if(b == '}' || b == ']') {
+                        depth--;
+                    }
+                    end = position;
+                }
+            }
+        }
+
+        throw new IOException(file.getName() + " ended before the JSON object was closed!");
+    }
+
+    /**
+     * Parses the value of a member from a file.
+     *
+     * @param file The file that was scanned.
+     * @param member The member to parse.
+     * @return The parsed value.
+     * @throws IOException If the file couldn't be read.
+     */
+    static JsonElement read(File file, Member member) throws IOException {
+        byte[] bytes = readBytes(file, member);
+        try(InputStreamReader reader = new InputStreamReader(new ByteArrayInputStream(bytes), StandardCharsets.UTF_8)) {
+            return JsonStreams.read(reader);
+        }
+    }
+
+    /**
+     * Reads the raw bytes of a member's value from a file.
+     *
+     * @param file The file that was scanned.
+     * @param member The member to read.
+     * @return The bytes of the value.
+     * @throws IOException If the file couldn't be read.
+     */
+    static byte[] readBytes(File file, Member member) throws IOException {
+        byte[] bytes = new byte[member.length()];
+        try(RandomAccessFile access = new RandomAccessFile(file, "r")) {
+            access.seek(member.offset());
+            access.readFully(bytes);
+        }
+        return bytes;
+    }
+
+    private static String decodeKey(ByteArrayOutputStream key) {
+        String raw = key.toString(StandardCharsets.UTF_8);
+        if(raw.indexOf('\\') == -1) return raw;
+
+        //Let Gson handle the escape sequences.
+        return JsonParser.parseString('"' + raw + '"').getAsString();
+    }
+}
@@ -0,0 +1,128 @@
+package me.dessie.dessielib.storageapi.format.flatfile;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * Reads JSON straight from a {@link JsonReader} into the nodes that a {@link JSONContainer} stores.
+ *
+ * Unlike {@link com.google.gson.JsonParser}, numbers are decoded once while they're read,
+ * into the smallest of Integer, Long or Double that holds them. Retrieving a number then returns it as it is,
+ * instead of parsing its text again every time it's retrieved.
+ */
+final class JsonStreams {
+
+    private JsonStreams() {}
+
+    /**
+     * Reads a single JSON value from a Reader, and fails if anything other than whitespace follows it.
+     * The Reader is read leniently, the same as {@link com.google.gson.JsonParser#parseReader(Reader)}.
+     *
+     * @param in The Reader to read from.
+     * @return The value.
+     * @throws IOException If the Reader couldn't be read.
+     * @throws JsonSyntaxException If the Reader doesn't contain a single JSON value.
+     */
+    static JsonElement read(Reader in) throws IOException {
+        JsonReader reader = new JsonReader(in);
+        reader.setLenient(true);
+
+        JsonElement element = read(reader);
+        if(reader.peek() != JsonToken.END_DOCUMENT) {
+            throw new JsonSyntaxException("Did not consume the entire document.");
+        }
+        return element;
+    }
+
+    /**
+     * Reads a single JSON value from a String.
+     *
+     * @param json The JSON.
+     * @return The value.
+     * @throws JsonSyntaxException If the String doesn't contain a single JSON value.
+     */
+    static JsonElement read(String json) {
+        try {
+            return read(new StringReader(json));
+        } catch (IOException e) {
+            throw new JsonSyntaxException(e);
+        }
+    }
+
+    /**
+     * Reads the next value from a JsonReader.
+     *
+     * @param reader The JsonReader.
+     * @return The value.
+     * @throws IOException If the value couldn't be read.
+     */
+    static JsonElement read(JsonReader reader) throws IOException {
+        switch (reader.peek()) {
+            case BEGIN_OBJECT -> {
+                JsonObject object = new JsonObject();
+                reader.beginObject();
+                while(reader.hasNext()) {
+                    object.add(reader.nextName(), read(reader));
+                }
+                reader.endObject();
+                return object;
+            }
+            case BEGIN_ARRAY -> {
+                JsonArray array = new JsonArray();
+                reader.beginArray();
+                while(reader.hasNext()) {
+                    array.add(read(reader));
+                }
+                reader.endArray();
+                return array;
+            }
+            case STRING -> {
+                return new JsonPrimitive(reader.nextString());
+            }
+            case NUMBER -> {
+                return new JsonPrimitive(toNumber(reader.nextString()));
+            }
+            case BOOLEAN -> {
+                return new JsonPrimitive(reader.nextBoolean());
+            }
+            case NULL -> {
+                reader.nextNull();
+                return JsonNull.INSTANCE;
+            }
+            default -> throw new JsonSyntaxException("Expected a JSON value but was " + reader.peek() + " at " + reader.getPath());
+        }
+    }
+
+    /**
+     * Decodes a number, without losing any of its value.
+     *
+     * @param number The number as it was written.
+     * @return An Integer or Long for whole numbers, or a Double for decimals.
+     *         Numbers that don't fit in them are returned as a BigInteger or BigDecimal.
+     */
+    static Number toNumber(String number) {
+        if(number.indexOf('.') == -1 && number.indexOf('e') == -1 && number.indexOf('E') == -1) {
+            try {
+                long value = Long.parseLong(number);
+                return (int) value == value ? (Number) (int) value : (Number) value;
+            } catch (NumberFormatException e) {
+                return new BigInteger(number);
+            }
+        }
+
+        double value = Double.parseDouble(number);
+        return Double.isInfinite(value) ? new BigDecimal(number) : value;
+    }
+}
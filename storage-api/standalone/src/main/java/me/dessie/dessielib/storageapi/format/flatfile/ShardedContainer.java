@@ -0,0 +1,535 @@
+package me.dessie.dessielib.storageapi.format.flatfile;
+
+import me.dessie.dessielib.storageapi.api.IStorageAPI;
+import me.dessie.dessielib.storageapi.container.RetrieveArrayContainer;
+import me.dessie.dessielib.storageapi.container.StorageContainer;
+import me.dessie.dessielib.storageapi.container.hooks.CompleteHook;
+import me.dessie.dessielib.storageapi.container.hooks.DeleteHook;
+import me.dessie.dessielib.storageapi.container.hooks.ListHook;
+import me.dessie.dessielib.storageapi.container.hooks.RetrieveHook;
+import me.dessie.dessielib.storageapi.container.hooks.StoreHook;
+import me.dessie.dessielib.storageapi.settings.ShardSettings;
+import me.dessie.dessielib.storageapi.settings.StorageSettings;
+import me.dessie.dessielib.storageapi.util.BinaryCodec;
+import me.dessie.dessielib.storageapi.util.Pair;
+import me.dessie.dessielib.storageapi.util.StoragePath;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * A {@link StorageContainer} that splits its document into shard files inside a directory,
+ * using the same format as a {@link BinaryContainer} for every shard.
+ *
+ * Every top-level key is stored in its own shard, or hashed into a fixed amount of shards, see {@link ShardSettings#setShardCount(int)}.
+ * Shards are only loaded the first time they're accessed, and are unloaded again once they've been idle for a while.
+ * When a store or delete is completed, only the shards that changed are written, several at a time.
+ * This keeps the memory and the cost of a flush proportional to the keys that are being used, instead of every key in the Container.
+ *
+ * Every shard is replaced atomically, and a failed write can only affect the shard that was being written.
+ */
+public class ShardedContainer extends RetrieveArrayContainer<List<Object>, Map<String, Object>> {
+
+    private static final String EXTENSION = ".bin";
+
+    private final BinaryCodec codec = new BinaryCodec();
+    private final Map<String, Shard> shards = new ConcurrentHashMap<>();
+    private final File directory;
+    private final int shardCount;
+    private final long idleTimeout;
+    private final int ioConcurrency;
+    private final Runnable unloadTask;
+
+    /**
+     * Creates a ShardedContainer that stores its shards in the provided directory.
+     * This will use the default settings in {@link ShardSettings}.
+     *
+     * @param api The IStorageAPI instance.
+     * @param directory The directory that the shard files are stored in.
+     */
+    public ShardedContainer(IStorageAPI api, File directory) {
+        this(api, directory, new ShardSettings());
+    }
+
+    /**
+     * Creates a ShardedContainer that stores its shards in the provided directory.
+     * This will use the provided settings from {@link StorageSettings}.
+     *
+     * @param api The IStorageAPI instance.
+     * @param directory The directory that the shard files are stored in.
+     * @param settings The StorageSettings for this Container. Provide {@link ShardSettings} to use shard specific settings.
+     */
+    public ShardedContainer(IStorageAPI api, File directory, StorageSettings settings) {
+        super(api, settings);
+        Objects.requireNonNull(directory, "Directory cannot be null!");
+        this.directory = directory;
+
+        ShardSettings shardSettings = settings instanceof ShardSettings temp ? temp : new ShardSettings();
+        this.shardCount = shardSettings.getShardCount();
+        this.idleTimeout = shardSettings.getIdleTimeout() * 1000L;
+        this.ioConcurrency = shardSettings.getIoConcurrency();
+        this.unloadTask = this::unloadIdleShards;
+
+        this.getDirectory().mkdirs();
+
+        if(this.idleTimeout > 0) {
+            long period = Math.max(1, shardSettings.getIdleTimeout() / 2);
+            this.getAPI().getTaskHandler().runTaskTimer(this.unloadTask, period, period);
+        }
+    }
+
+    /**
+     * @return The directory that the shard files are stored in.
+     */
+    public File getDirectory() {
+        return directory;
+    }
+
+    /**
+     * @return The amount of shards that are currently loaded in memory.
+     */
+    public int getLoadedShardCount() {
+        return this.shards.size();
+    }
+
+    /**
+     * Unloads every shard that hasn't been accessed within the idle timeout, and has no changes that haven't been written.
+     * This is called automatically, see {@link ShardSettings#setIdleTimeout(int)}.
+     */
+    public void unloadIdleShards() {
+        long now = System.currentTimeMillis();
+
+        for(Shard shard : this.shards.values()) {
+            if(shard.dirty || now - shard.lastAccess < this.idleTimeout) continue;
+
+            //Shards that are being used right now are skipped, and will be unloaded by a later call.
+            if(!shard.lock.writeLock().tryLock()) continue;
+            try {
+                if(shard.dirty || now - shard.lastAccess < this.idleTimeout) continue;
+
+                shard.unloaded = true;
+                this.shards.remove(shard.name, shard);
+            } finally {
+                shard.lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Writes every shard that has changed, stops unloading idle shards, and unloads every shard.
+     * Anything that is waiting to be flushed is flushed first.
+     */
+    @Override
+    public void close() {
+        super.close();
+        this.getAPI().getTaskHandler().cancel(this.unloadTask);
+
+        this.writeShards().join();
+        this.shards.clear();
+    }
+
+    @Override
+    protected StoreHook storeHook() {
+        return new StoreHook((path, data) -> {
+            this.withShard(this.getShardName(path), true, document -> {
+                BinaryDocuments.handleNestedPath(document, path, data);
+                return null;
+            });
+        });
+    }
+
+    @Override
+    protected RetrieveHook retrieveHook() {
+        return new RetrieveHook(path -> {
+            StoragePath storagePath = StoragePath.of(path);
+            if(storagePath.isRoot()) return null;
+
+            return this.withShard(this.getShardName(path), false, document -> BinaryDocuments.copyList(BinaryDocuments.getElement(document, storagePath)));
+        });
+    }
+
+    @Override
+    protected DeleteHook deleteHook() {
+        return new DeleteHook(path -> {
+            StoragePath storagePath = StoragePath.of(path);
+            if(storagePath.isRoot()) {
+                for(String name : this.getShardNames()) {
+                    this.withShard(name, true, document -> {
+                        document.clear();
+                        return null;
+                    });
+                }
+                return;
+            }
+
+            this.withShard(this.getShardName(path), true, document -> {
+                if(BinaryDocuments.getElement(document, storagePath.parent()) instanceof Map<?, ?> parent) {
+                    parent.remove(storagePath.getName());
+                }
+                return null;
+            });
+        });
+    }
+
+    @Override
+    protected ListHook<List<Object>> listHook() {
+        //A List is never on the root path, so every List is in a single shard.
+        return BinaryDocuments.documentListHook(new BinaryDocuments.ListAccess() {
+            @Override
+            public <T> T read(String path, Function<Map<String, Object>, T> function) {
+                return withShard(getShardName(path), false, function);
+            }
+
+            @Override
+            public <T> T write(String path, Function<Map<String, Object>, T> function) {
+                return withShard(getShardName(path), true, function);
+            }
+        });
+    }
+
+    @Override
+    protected CompleteHook completeHook() {
+        return new CompleteHook().onComplete(this::writeShards);
+    }
+
+    @Override
+    protected Set<String> retrieveKeys(String path) {
+        StoragePath storagePath = StoragePath.of(path);
+        Set<String> keys = new HashSet<>();
+
+        if(!storagePath.isRoot()) {
+            this.withShard(this.getShardName(path), false, document -> {
+                if(BinaryDocuments.getElement(document, storagePath) instanceof Map<?, ?> map) {
+                    map.keySet().forEach(key -> keys.add((String) key));
+                }
+                return null;
+            });
+            return keys;
+        }
+
+        for(String name : this.getShardNames()) {
+            //With a shard per key, the top-level keys are the file names, so the shard doesn't need to be loaded.
+            if(this.shardCount == 0 && !this.shards.containsKey(name)) {
+                keys.add(decode(name));
+                continue;
+            }
+
+            this.withShard(name, false, document -> keys.addAll(document.keySet()));
+        }
+        return keys;
+    }
+
+    @Override
+    protected BiConsumer<List<Object>, Map<String, Object>> add() {
+        return List::add;
+    }
+
+    @Override
+    protected Stream<Object> getHandlerStream(List<Object> handler) {
+        return handler.stream();
+    }
+
+    @Override
+    protected Stream<String> getNestedKeys(Map<String, Object> nested) {
+        return nested.keySet().stream();
+    }
+
+    @Override
+    protected boolean isHandler(Object object) {
+        return object instanceof List<?>;
+    }
+
+    @Override
+    protected boolean isNested(Object object) {
+        return object instanceof Map<?, ?>;
+    }
+
+    @Override
+    protected Object getObjectFromNested(Map<String, Object> nested, String key) {
+        return nested.get(key);
+    }
+
+    @Override
+    protected Object getPrimitive(Object object) {
+        //Values are already decoded with their exact type.
+        return object;
+    }
+
+    @Override
+    protected BiConsumer<List<Object>, List<Pair<String, Object>>> handleListObject() {
+        return ((list, pairs) -> {
+            Map<String, Object> object = new LinkedHashMap<>();
+
+            for(Pair<String, Object> pair : pairs) {
+                //If the path is null, then it's not a decomposer, so we just add that to the list directly.
+                if(pair.getKey() == null) {
+                    list.add(pair.getValue());
+                    continue;
+                }
+
+                BinaryDocuments.handleNestedPath(object, pair.getKey(), pair.getValue());
+            }
+
+            if(!object.isEmpty()) {
+                list.add(object);
+            }
+        });
+    }
+
+    @Override
+    protected List<Object> getStoreListHandler() {
+        return new ArrayList<>();
+    }
+
+    @Override
+    protected List<Object> getRetrieveListHandler(String path) {
+        StoragePath storagePath = StoragePath.of(path);
+        if(storagePath.isRoot()) return new ArrayList<>();
+
+        //Lists are changed in place, so the List is copied before it's streamed without the lock.
+        return this.withShard(this.getShardName(path), false, document ->
+                BinaryDocuments.getElement(document, storagePath) instanceof List<?> list ? new ArrayList<>(list) : new ArrayList<>());
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Every primitive wrapper is supported, since they're stored with their exact type.
+     */
+    @Override
+    public boolean isSupported(Class<?> clazz) {
+        return super.isSupported(clazz) || this.getAPI().getWrappers().containsValue(clazz);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isListSupported(Class<?> clazz) {
+        return super.isListSupported(clazz) || this.getAPI().getWrappers().containsValue(clazz) || this.getAPI().resolveDecomposer(clazz) != null;
+    }
+
+    /**
+     * Runs a function on the document of a shard, loading the shard if it isn't loaded.
+     * If the shard is unloaded before its lock is acquired, it's loaded again.
+     *
+     * @param name The name of the shard.
+     * @param write If the function modifies the document, which marks the shard as changed.
+     * @param function The function to run on the document.
+     * @return The result of the function.
+     */
+    private <T> T withShard(String name, boolean write, Function<Map<String, Object>, T> function) {
+        while (true) {
+            Shard shard = this.shards.computeIfAbsent(name, Shard::new);
+            if(!write && shard.document == null) {
+                shard.lock.writeLock().lock();
+                try {
+                    shard.load();
+                } finally {
+                    shard.lock.writeLock().unlock();
+                }
+            }
+
+            Lock lock = write ? shard.lock.writeLock() : shard.lock.readLock();
+            lock.lock();
+            try {
+                if(shard.unloaded) continue;
+
+                if(write) {
+                    shard.load();
+                    shard.dirty = true;
+                }
+
+                shard.lastAccess = System.currentTimeMillis();
+                return function.apply(shard.document);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Writes every shard that has changed.
+     * The shards are shared between several tasks, so at most {@link ShardSettings#getIoConcurrency()} shards are written at the same time.
+     *
+     * @return A future that is completed once every shard has been written.
+     */
+    private CompletableFuture<Void> writeShards() {
+        Queue<Shard> queue = new ConcurrentLinkedQueue<>();
+        this.shards.values().stream().filter(shard -> shard.dirty).forEach(queue::add);
+        if(queue.isEmpty()) return CompletableFuture.completedFuture(null);
+
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for(int i = 0; i < Math.min(this.ioConcurrency, queue.size()); i++) {
+            CompletableFuture<Void> future = new CompletableFuture<>();
+            futures.add(future);
+
+            this.getAPI().getTaskHandler().runTaskAsync(() -> {
+                Shard shard;
+                while ((shard = queue.poll()) != null) {
+                    shard.write();
+                }
+                future.complete(null);
+            });
+        }
+
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]));
+    }
+
+    /**
+     * Returns the name of every shard, from the files in the directory and the shards that are loaded.
+     *
+     * @return The shard names.
+     */
+    private Set<String> getShardNames() {
+        Set<String> names = new HashSet<>(this.shards.keySet());
+
+        String[] files = this.getDirectory().list((dir, file) -> file.endsWith(EXTENSION));
+        if(files != null) {
+            for(String file : files) {
+                names.add(file.substring(0, file.length() - EXTENSION.length()));
+            }
+        }
+
+        return names;
+    }
+
+    /**
+     * Returns the name of the shard that a path is stored in, which is based on the top-level key of the path.
+     *
+     * @param path The path.
+     * @return The shard name.
+     */
+    private String getShardName(String path) {
+        String key = StoragePath.of(path).getSegment(0);
+        if(this.shardCount > 0) {
+            return "shard-" + Math.floorMod(key.hashCode(), this.shardCount);
+        } else return encode(key);
+    }
+
+    /**
+     * Encodes a top-level key into a file name, that is the same on case-insensitive file systems.
+     * Lowercase letters, digits, '-' and '_' are kept, and every other byte is escaped as %XX.
+     *
+     * @param key The top-level key.
+     * @return The file name, without the extension.
+     */
+    private static String encode(String key) {
+        StringBuilder builder = new StringBuilder();
+        for(byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            if((b >= 'a' && b <= 'z') || (b >= '0' && b <= '9') || b == '-' || b == '_') {
+                builder.append((char) b);
+            } else builder.append('%').append(String.format("%02X", b & 0xFF));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Decodes a file name back into the top-level key.
+     *
+     * @param name The file name, without the extension.
+     * @return The top-level key.
+     */
+    private static String decode(String name) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for(int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if(c == '%' && i + 2 < name.length()) {
+                out.write(Integer.parseInt(name.substring(i + 1, i + 3), 16));
+                i += 2;
+            } else out.write(c);
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * A shard file, and its document once it has been loaded.
+     */
+    private final class Shard {
+        private final String name;
+        private final File file;
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+        private Map<String, Object> document;
+        private volatile boolean dirty;
+        private volatile long lastAccess = System.currentTimeMillis();
+
+        //Set once the shard has been removed from the loaded shards, so it can't be modified anymore.
+        private boolean unloaded;
+
+        private Shard(String name) {
+            this.name = name;
+            this.file = new File(getDirectory(), name + EXTENSION);
+        }
+
+        /**
+         * Loads the document from the file, if it hasn't been loaded already.
+         * This must be called while holding the write lock.
+         */
+        private void load() {
+            if(this.document != null) return;
+
+            if(!this.file.exists() || this.file.length() == 0) {
+                this.document = new LinkedHashMap<>();
+                return;
+            }
+
+            try {
+                this.document = BinaryDocuments.readDocument(codec, this.file);
+            } catch (IOException e) {
+                e.printStackTrace();
+
+                //Keep the unreadable file, instead of replacing it the next time the shard is written.
+                try {
+                    Files.move(this.file.toPath(), new File(this.file.getPath() + ".corrupt").toPath(), StandardCopyOption.REPLACE_EXISTING);
+                } catch (IOException ex) {
+                    ex.printStackTrace();
+                }
+                this.document = new LinkedHashMap<>();
+            }
+        }
+
+        /**
+         * Writes the document to a temporary file, and moves it over the shard file.
+         * An empty document deletes the shard file instead.
+         *
+         * The file is replaced while holding the read lock, so the shard can't be unloaded and loaded again
+         * from the old file before the new file has been moved into place.
+         */
+        private synchronized void write() {
+            File temp = new File(this.file.getPath() + ".tmp");
+
+            this.lock.readLock().lock();
+            try {
+                if(!this.dirty) return;
+                this.dirty = false;
+
+                if(this.document.isEmpty()) {
+                    Files.deleteIfExists(this.file.toPath());
+                    return;
+                }
+
+                BinaryDocuments.writeDocument(codec, temp, this.document);
+                BinaryDocuments.replace(temp, this.file);
+            } catch (IOException e) {
+                this.dirty = true;
+                e.printStackTrace();
+            } finally {
+                this.lock.readLock().unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,806 @@
+package me.dessie.dessielib.storageapi.format.log;
+
+import me.dessie.dessielib.storageapi.api.IStorageAPI;
+import me.dessie.dessielib.storageapi.container.RetrieveArrayContainer;
+import me.dessie.dessielib.storageapi.container.StorageContainer;
+import me.dessie.dessielib.storageapi.container.hooks.CompleteHook;
+import me.dessie.dessielib.storageapi.container.hooks.DeleteHook;
+import me.dessie.dessielib.storageapi.container.hooks.RetrieveHook;
+import me.dessie.dessielib.storageapi.container.hooks.StoreHook;
+import me.dessie.dessielib.storageapi.settings.LogSettings;
+import me.dessie.dessielib.storageapi.settings.StorageSettings;
+import me.dessie.dessielib.storageapi.util.BinaryCodec;
+import me.dessie.dessielib.storageapi.util.Pair;
+import me.dessie.dessielib.storageapi.util.StoragePath;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+
+/**
+ * A {@link StorageContainer} that stores every path as a record that is appended to a log of segment files.
+ *
+ * Stores and deletes never rewrite existing data, they only append a record to the newest segment,
+ * and a memory-mapped index keeps track of where the newest record of every path is.
+ * This means writes only cost as much as the data that changed, no matter how large the Container is.
+ *
+ * Overwritten and deleted records are left behind in older segments, which are compacted in the background
+ * once enough of them is no longer used. Compaction copies the records that are still used into the newest segment,
+ * and deletes the old segment.
+ *
+ * Values are encoded with {@link BinaryCodec}, so numbers are retrieved with the exact type they were stored with,
+ * and Lists are stored and retrieved as a {@link List}.
+ *
+ * The Container should be closed with {@link LogContainer#close()}, otherwise the index is rebuilt from the segments
+ * the next time it's opened.
+ */
+public class LogContainer extends RetrieveArrayContainer<List<Object>, Map<String, Object>> {
+
+    //Compaction only holds the lock for this many records at a time, so stores and retrieves aren't blocked for long.
+    private static final int COMPACTION_BATCH = 256;
+
+    private final BinaryCodec codec = new BinaryCodec();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReentrantLock compactionLock = new ReentrantLock();
+    private final TreeMap<Integer, LogSegment> segments = new TreeMap<>();
+
+    private final File directory;
+    private final long segmentSize;
+    private final double compactionThreshold;
+    private final boolean syncOnComplete;
+
+    private LogSegment active;
+    private LogIndex index;
+    private boolean closed;
+
+    /**
+     * Creates a LogContainer that stores its segments and index in the provided directory.
+     * This will use the default settings in {@link LogSettings}.
+     *
+     * @param api The IStorageAPI instance.
+     * @param directory The directory that will be used for this Container.
+     */
+    public LogContainer(IStorageAPI api, File directory) {
+        this(api, directory, new LogSettings());
+    }
+
+    /**
+     * Creates a LogContainer that stores its segments and index in the provided directory.
+     * This will use the provided settings from {@link StorageSettings}.
+     *
+     * @param api The IStorageAPI instance.
+     * @param directory The directory that will be used for this Container.
+     * @param settings The StorageSettings for this Container. Provide {@link LogSettings} to use log specific settings.
+     */
+    public LogContainer(IStorageAPI api, File directory, StorageSettings settings) {
+        super(api, settings);
+        this.directory = directory;
+
+        LogSettings logSettings = settings instanceof LogSettings temp ? temp : new LogSettings();
+        this.segmentSize = logSettings.getSegmentSize();
+        this.compactionThreshold = logSettings.getCompactionThreshold();
+        this.syncOnComplete = logSettings.isSyncOnComplete();
+
+        try {
+            this.open();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * @return The directory that the segments and index are stored in.
+     */
+    public File getDirectory() {
+        return directory;
+    }
+
+    /**
+     * @return The amount of segment files.
+     */
+    public int getSegmentCount() {
+        this.lock.readLock().lock();
+        try {
+            return this.segments.size();
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return The amount of paths that are stored, including the paths that only contain other paths.
+     */
+    public long getKeyCount() {
+        this.lock.readLock().lock();
+        try {
+            return this.index == null ? 0 : this.index.getSize();
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    protected StoreHook storeHook() {
+        return new StoreHook((path, data) -> {
+            this.lock.writeLock().lock();
+            try {
+                this.ensureOpen();
+                long hash = LogIndex.hash(path);
+
+                //Anything that was under the path is replaced by the value.
+                int slot = this.find(path, hash);
+                if(slot != -1 && this.index.getType(slot) == LogSegment.DIRECTORY) {
+                    this.deleteChildren(path);
+                }
+
+                this.ensureParents(path);
+                this.append(LogSegment.VALUE, path, hash, this.encode(data));
+            } catch (IOException e) {
+                e.printStackTrace();
+            } finally {
+                this.lock.writeLock().unlock();
+            }
+        });
+    }
+
+    @Override
+    protected RetrieveHook retrieveHook() {
+        return new RetrieveHook(path -> {
+            this.lock.readLock().lock();
+            try {
+                this.ensureOpen();
+                return this.read(path);
+            } catch (IOException e) {
+                e.printStackTrace();
+                return null;
+            } finally {
+                this.lock.readLock().unlock();
+            }
+        }, paths -> {
+            //Retrieves every path with a single lock.
+            Map<String, Object> retrieved = new HashMap<>();
+
+            this.lock.readLock().lock();
+            try {
+                this.ensureOpen();
+                for(String path : paths) {
+                    retrieved.put(path, this.read(path));
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
+            } finally {
+                this.lock.readLock().unlock();
+            }
+
+            return retrieved;
+        });
+    }
+
+    @Override
+    protected DeleteHook deleteHook() {
+        return new DeleteHook(path -> {
+            this.lock.writeLock().lock();
+            try {
+                this.ensureOpen();
+                if(path.isEmpty()) {
+                    this.deleteChildren(path);
+                    return;
+                }
+
+                long hash = LogIndex.hash(path);
+                int slot = this.find(path, hash);
+                if(slot == -1) return;
+
+                if(this.index.getType(slot) == LogSegment.DIRECTORY) {
+                    this.deleteChildren(path);
+                }
+                this.append(LogSegment.DELETE, path, hash, null);
+            } catch (IOException e) {
+                e.printStackTrace();
+            } finally {
+                this.lock.writeLock().unlock();
+            }
+        });
+    }
+
+    @Override
+    protected CompleteHook completeHook() {
+        return new CompleteHook().onComplete(() -> {
+            boolean compact = false;
+
+            this.lock.readLock().lock();
+            try {
+                if(!this.closed) {
+                    if(this.syncOnComplete) {
+                        this.active.force();
+                    }
+                    compact = !this.findCompactable().isEmpty();
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
+            } finally {
+                this.lock.readLock().unlock();
+            }
+
+            //Skipped if a compaction is already running, since it will pick up the segment as well.
+            if(compact && !this.compactionLock.isLocked()) {
+                this.getAPI().getTaskHandler().runTaskAsync(() -> {
+                    if(!this.compactionLock.tryLock()) return;
+                    try {
+                        this.compactSegments();
+                    } finally {
+                        this.compactionLock.unlock();
+                    }
+                });
+            }
+
+            return CompletableFuture.completedFuture(null);
+        });
+    }
+
+    @Override
+    protected Set<String> retrieveKeys(String path) {
+        this.lock.readLock().lock();
+        try {
+            this.ensureOpen();
+
+            Set<String> keys = new HashSet<>();
+            for(String child : this.findChildren(Collections.singleton(path))) {
+                keys.add(StoragePath.of(child).getName());
+            }
+            return keys;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return new HashSet<>();
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Compacts every full segment that has more unused records than the compaction threshold.
+     * This is called automatically in the background after stores and deletes are completed,
+     * but can be called to compact immediately. Compaction will block the Thread until it's finished.
+     *
+     * If the Container is already being compacted, this waits for it to finish first.
+     *
+     * @see LogSettings#setCompactionThreshold(double)
+     */
+    public void compact() {
+        this.compactionLock.lock();
+        try {
+            this.compactSegments();
+        } finally {
+            this.compactionLock.unlock();
+        }
+    }
+
+    /**
+     * Compacts every full segment that has more unused records than the compaction threshold.
+     * The compaction lock must be held.
+     */
+    private void compactSegments() {
+        try {
+            List<LogSegment> compactable;
+            this.lock.readLock().lock();
+            try {
+                if(this.closed) return;
+                compactable = this.findCompactable();
+            } finally {
+                this.lock.readLock().unlock();
+            }
+
+            for(LogSegment segment : compactable) {
+                this.compact(segment);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Forces every write to disk, and closes the segments and the index.
+     * Anything that is waiting to be flushed is flushed first.
+     *
+     * Once closed, the Container can no longer be stored to or retrieved from.
+     */
+    @Override
+    public void close() {
+        super.close();
+
+        this.lock.writeLock().lock();
+        try {
+            if(this.closed) return;
+            this.closed = true;
+
+            if(this.index != null) {
+                this.active.force();
+                this.index.close(this.active.getId(), this.active.getSize());
+            }
+            for(LogSegment segment : this.segments.values()) {
+                segment.close();
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    protected BiConsumer<List<Object>, Map<String, Object>> add() {
+        return List::add;
+    }
+
+    @Override
+    protected Stream<Object> getHandlerStream(List<Object> handler) {
+        return handler.stream();
+    }
+
+    @Override
+    protected Stream<String> getNestedKeys(Map<String, Object> nested) {
+        return nested.keySet().stream();
+    }
+
+    @Override
+    protected boolean isHandler(Object object) {
+        return object instanceof List<?>;
+    }
+
+    @Override
+    protected boolean isNested(Object object) {
+        return object instanceof Map<?, ?>;
+    }
+
+    @Override
+    protected Object getObjectFromNested(Map<String, Object> nested, String key) {
+        return nested.get(key);
+    }
+
+    @Override
+    protected Object getPrimitive(Object object) {
+        //Values are already decoded with their exact type.
+        return object;
+    }
+
+    @Override
+    protected BiConsumer<List<Object>, List<Pair<String, Object>>> handleListObject() {
+        return ((list, pairs) -> {
+            Map<String, Object> object = new LinkedHashMap<>();
+
+            for(Pair<String, Object> pair : pairs) {
+                //If the path is null, then it's not a decomposer, so we just add that to the list directly.
+                if(pair.getKey() == null) {
+                    list.add(pair.getValue());
+                    continue;
+                }
+
+                //Handle nested paths.
+                if(pair.getKey().contains(".")) {
+                    this.handleNestedPath(object, pair.getKey(), pair.getValue());
+                } else {
+                    object.put(pair.getKey(), pair.getValue());
+                }
+            }
+
+            if(!object.isEmpty()) {
+                list.add(object);
+            }
+        });
+    }
+
+    @Override
+    protected List<Object> getStoreListHandler() {
+        return new ArrayList<>();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    protected List<Object> getRetrieveListHandler(String path) {
+        this.lock.readLock().lock();
+        try {
+            this.ensureOpen();
+            if(this.read(path) instanceof List<?> list) {
+                return (List<Object>) list;
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        } finally {
+            this.lock.readLock().unlock();
+        }
+
+        return new ArrayList<>();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Every primitive wrapper is supported, since they're stored with their exact type.
+     */
+    @Override
+    public boolean isSupported(Class<?> clazz) {
+        return super.isSupported(clazz) || this.getAPI().getWrappers().containsValue(clazz);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isListSupported(Class<?> clazz) {
+        return super.isListSupported(clazz) || this.getAPI().getWrappers().containsValue(clazz) || this.getAPI().resolveDecomposer(clazz) != null;
+    }
+
+    /**
+     * Opens the segments and the index.
+     * The index is rebuilt from the segments if it wasn't closed cleanly at the end of the newest segment.
+     */
+    private void open() throws IOException {
+        this.getDirectory().mkdirs();
+
+        File[] files = this.getDirectory().listFiles();
+        for(File file : files == null ? new File[0] : files) {
+            if(LogSegment.getId(file) == null) continue;
+
+            //A crash while a segment was being created can leave it without a header.
+            if(file.length() < LogSegment.HEADER) {
+                Files.deleteIfExists(file.toPath());
+                continue;
+            }
+
+            LogSegment segment = LogSegment.open(file);
+            this.segments.put(segment.getId(), segment);
+        }
+
+        if(this.segments.isEmpty()) {
+            LogSegment segment = LogSegment.create(this.getDirectory(), 1);
+            this.segments.put(segment.getId(), segment);
+        }
+        this.active = this.segments.lastEntry().getValue();
+
+        LogIndex index = LogIndex.open(this.getDirectory());
+        if(index != null && index.isClean(this.active.getId(), this.active.getSize())) {
+            this.index = index;
+        } else {
+            if(index != null) {
+                index.delete();
+            }
+            this.rebuild();
+        }
+
+        this.index.markDirty();
+
+        //Work out how much of each segment is still used.
+        for(int slot = 0; slot < this.index.getCapacity(); slot++) {
+            if(!this.index.isLive(slot)) continue;
+
+            LogSegment segment = this.segments.get(this.index.getSegment(slot));
+            if(segment != null) {
+                segment.addLive(this.index.getLength(slot));
+            }
+        }
+    }
+
+    /**
+     * Rebuilds the index by replaying every segment in order.
+     * Anything after the last valid record of a segment is cut off, since it was only partially written.
+     */
+    private void rebuild() throws IOException {
+        this.index = LogIndex.create(this.getDirectory(), 0, 1024);
+
+        for(LogSegment segment : this.segments.values()) {
+            long end = segment.scan(entry -> {
+                long hash = LogIndex.hash(entry.key());
+                int slot = this.find(entry.key(), hash);
+
+                if(entry.type() == LogSegment.DELETE) {
+                    if(slot != -1) {
+                        this.index.remove(slot);
+                    }
+                } else {
+                    this.put(slot, entry.key(), hash, segment.getId(), entry.offset(), entry.length(), entry.type());
+                }
+            });
+
+            segment.truncate(end);
+        }
+    }
+
+    /**
+     * Appends a record to the active segment, and points the index to it.
+     *
+     * @param type The type of the record.
+     * @param path The path of the record.
+     * @param hash The hash of the path.
+     * @param value The encoded value, or null if the record has none.
+     */
+    private void append(byte type, String path, long hash, byte[] value) throws IOException {
+        byte[] record = LogSegment.encode(type, path, value);
+        int slot = this.find(path, hash);
+
+        LogSegment segment = this.active;
+        long offset = segment.append(record);
+
+        if(slot != -1) {
+            this.release(slot);
+        }
+
+        if(type == LogSegment.DELETE) {
+            if(slot != -1) {
+                this.index.remove(slot);
+            }
+        } else {
+            this.put(slot, path, hash, segment.getId(), offset, record.length, type);
+            segment.addLive(record.length);
+        }
+
+        if(segment.getSize() >= this.segmentSize) {
+            this.roll();
+        }
+    }
+
+    /**
+     * Writes a path to the index, growing the index if it's full.
+     *
+     * @param slot The existing slot of the path, or -1 if the path isn't in the index.
+     */
+    private void put(int slot, String path, long hash, int segment, long offset, int length, byte type) throws IOException {
+        if(slot == -1) {
+            if(this.index.isFull()) {
+                this.index = this.index.grow(this.getDirectory());
+            }
+            slot = this.index.findFree(hash);
+        }
+
+        this.index.put(slot, hash, LogIndex.hash(parentOf(path)), segment, offset, length, type);
+    }
+
+    /**
+     * Starts a new active segment, once the current one is full.
+     */
+    private void roll() throws IOException {
+        this.active.force();
+        this.active = LogSegment.create(this.getDirectory(), this.active.getId() + 1);
+        this.segments.put(this.active.getId(), this.active);
+    }
+
+    /**
+     * Makes sure every parent of a path is a directory, replacing any values that are in the way.
+     */
+    private void ensureParents(String path) throws IOException {
+        List<String> missing = new ArrayList<>();
+
+        for(int dot = path.lastIndexOf('.'); dot > 0; dot = path.lastIndexOf('.', dot - 1)) {
+            String parent = path.substring(0, dot);
+            int slot = this.find(parent, LogIndex.hash(parent));
+
+            //Once a parent is a directory, all of its parents are as well.
+            if(slot != -1 && this.index.getType(slot) == LogSegment.DIRECTORY) break;
+            missing.add(parent);
+        }
+
+        for(int i = missing.size() - 1; i >= 0; i--) {
+            String parent = missing.get(i);
+            this.append(LogSegment.DIRECTORY, parent, LogIndex.hash(parent), null);
+        }
+    }
+
+    /**
+     * Deletes every path under a path, but not the path itself.
+     */
+    private void deleteChildren(String path) throws IOException {
+        Set<String> parents = Collections.singleton(path);
+        List<String> children = new ArrayList<>();
+
+        //Collect one level at a time, so the index is only scanned once per level.
+        while(!parents.isEmpty()) {
+            Set<String> next = new HashSet<>();
+            for(String child : this.findChildren(parents)) {
+                children.add(child);
+                next.add(child);
+            }
+            parents = next;
+        }
+
+        for(String child : children) {
+            this.append(LogSegment.DELETE, child, LogIndex.hash(child), null);
+        }
+    }
+
+    /**
+     * Finds the paths that are one level below any of the provided paths, by scanning the index for their parent hash.
+     *
+     * @param parents The paths to find the children of.
+     * @return The full paths of the children.
+     */
+    private List<String> findChildren(Set<String> parents) throws IOException {
+        Set<Long> hashes = new HashSet<>();
+        for(String parent : parents) {
+            hashes.add(LogIndex.hash(parent));
+        }
+
+        List<String> children = new ArrayList<>();
+        for(int slot = 0; slot < this.index.getCapacity(); slot++) {
+            if(!this.index.isLive(slot) || !hashes.contains(this.index.getParentHash(slot))) continue;
+
+            //A different parent can have the same hash, so the actual parent is checked as well.
+            String key = this.readEntry(slot).key();
+            if(parents.contains(parentOf(key))) {
+                children.add(key);
+            }
+        }
+
+        return children;
+    }
+
+    /**
+     * Reads the value at a path.
+     *
+     * @return The decoded value, or null if the path doesn't exist or only contains other paths.
+     */
+    private Object read(String path) throws IOException {
+        int slot = this.find(path, LogIndex.hash(path));
+        if(slot == -1 || this.index.getType(slot) != LogSegment.VALUE) return null;
+
+        return this.codec.read(this.readEntry(slot).value());
+    }
+
+    /**
+     * Finds the slot of a path, checking the path of the record in case another path has the same hash.
+     *
+     * @return The slot, or -1 if the path doesn't exist.
+     */
+    private int find(String path, long hash) throws IOException {
+        return this.index.find(hash, slot -> path.equals(this.readEntry(slot).key()));
+    }
+
+    private LogSegment.Entry readEntry(int slot) throws IOException {
+        LogSegment segment = this.segments.get(this.index.getSegment(slot));
+        if(segment == null) {
+            throw new IOException("Segment " + this.index.getSegment(slot) + " is missing from " + this.getDirectory().getName() + "!");
+        }
+
+        return segment.read(this.index.getOffset(slot), this.index.getLength(slot));
+    }
+
+    /**
+     * Marks the record of a slot as no longer used, since it's being replaced.
+     */
+    private void release(int slot) {
+        LogSegment segment = this.segments.get(this.index.getSegment(slot));
+        if(segment != null) {
+            segment.addLive(-this.index.getLength(slot));
+        }
+    }
+
+    /**
+     * @return Every full segment that has more unused records than the compaction threshold.
+     */
+    private List<LogSegment> findCompactable() {
+        List<LogSegment> compactable = new ArrayList<>();
+        for(LogSegment segment : this.segments.values()) {
+            if(segment != this.active && segment.getStaleRatio() >= this.compactionThreshold) {
+                compactable.add(segment);
+            }
+        }
+        return compactable;
+    }
+
+    /**
+     * Copies the records of a full segment that are still used into the active segment, and deletes the segment.
+     * The segment is read without holding the lock, since full segments are never written to.
+     */
+    private void compact(LogSegment segment) throws IOException {
+        List<LogSegment.Entry> batch = new ArrayList<>();
+
+        segment.scan(entry -> {
+            batch.add(entry);
+            if(batch.size() >= COMPACTION_BATCH) {
+                this.relocate(segment, batch);
+                batch.clear();
+            }
+        });
+        this.relocate(segment, batch);
+
+        this.lock.writeLock().lock();
+        try {
+            //Anything that couldn't be copied is kept.
+            if(this.closed || segment.getLive() > 0) return;
+
+            //The copies have to be on disk before the originals are deleted.
+            this.active.force();
+            this.segments.remove(segment.getId());
+            segment.delete();
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Copies the records that are still used into the active segment.
+     */
+    private void relocate(LogSegment segment, List<LogSegment.Entry> entries) throws IOException {
+        this.lock.writeLock().lock();
+        try {
+            if(this.closed) return;
+
+            for(LogSegment.Entry entry : entries) {
+                long hash = LogIndex.hash(entry.key());
+
+                if(entry.type() == LogSegment.DELETE) {
+                    //A delete is only needed while an older segment could still have a value for the path.
+                    if(this.segments.firstKey() < segment.getId() && this.find(entry.key(), hash) == -1) {
+                        this.active.append(entry.record());
+                        this.rollIfFull();
+                    }
+                    continue;
+                }
+
+                //The record is only still used if the index points to this exact record.
+                int slot = this.index.find(hash, s -> this.index.getSegment(s) == segment.getId() && this.index.getOffset(s) == entry.offset());
+                if(slot == -1) continue;
+
+                LogSegment active = this.active;
+                long offset = active.append(entry.record());
+                this.index.move(slot, active.getId(), offset);
+                active.addLive(entry.length());
+                segment.addLive(-entry.length());
+                this.rollIfFull();
+            }
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    private void rollIfFull() throws IOException {
+        if(this.active.getSize() >= this.segmentSize) {
+            this.roll();
+        }
+    }
+
+    private byte[] encode(Object data) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        this.codec.write(new DataOutputStream(bytes), data);
+        return bytes.toByteArray();
+    }
+
+    private void ensureOpen() throws IOException {
+        if(this.closed) {
+            throw new IOException("LogContainer " + this.getDirectory().getName() + " has been closed!");
+        }
+        if(this.index == null) {
+            throw new IOException("LogContainer " + this.getDirectory().getName() + " could not be opened!");
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void handleNestedPath(Map<String, Object> object, String path, Object value) {
+        StoragePath storagePath = StoragePath.of(path);
+
+        //Traverse down the tree
+        Map<String, Object> current = object;
+        for(int i = 0; i < storagePath.size() - 1; i++) {
+            Object element = current.get(storagePath.getSegment(i));
+            if(!(element instanceof Map<?, ?>)) {
+                element = new LinkedHashMap<String, Object>();
+                current.put(storagePath.getSegment(i), element);
+            }
+            current = (Map<String, Object>) element;
+        }
+
+        //Add the final value, since it's the last part of the tree
+        current.put(storagePath.getName(), value);
+    }
+
+    private static String parentOf(String path) {
+        int dot = path.lastIndexOf('.');
+        return dot == -1 ? "" : path.substring(0, dot);
+    }
+}
@@ -0,0 +1,333 @@
+package me.dessie.dessielib.storageapi.format.log;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A memory-mapped, open addressing hash table from the hash of a path to the record that holds it, for a {@link LogContainer}.
+ *
+ * Each slot holds the hash of the path, the hash of its parent path, and the segment, offset and length of its record.
+ * Paths themselves aren't stored, so two paths with the same hash are told apart by reading their records.
+ * The parent hash lets the keys under a path be found by scanning the slots, without reading any records that aren't under it.
+ *
+ * The index is only written to disk by the operating system, so it's only trusted when it was closed cleanly
+ * at the same point the segments end. Otherwise, it's rebuilt from the segments.
+ */
+class LogIndex {
+
+    private static final int MAGIC = 0x444C4958;
+    private static final int VERSION = 1;
+    private static final int HEADER = 64;
+    private static final int SLOT = 32;
+    private static final double LOAD_FACTOR = 0.7;
+
+    //A single mapping can't be larger than 2GB.
+    private static final int MAX_CAPACITY = Integer.highestOneBit((Integer.MAX_VALUE - HEADER) / SLOT);
+    private static final Pattern NAME = Pattern.compile("index-(\\d+)\\.idx");
+
+    private static final long EMPTY = 0;
+    private static final long TOMBSTONE = 1;
+
+    private final File file;
+    private final int generation;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private long size;
+    private long tombstones;
+
+    private LogIndex(File file, int generation, FileChannel channel, int capacity) throws IOException {
+        this.file = file;
+        this.generation = generation;
+        this.channel = channel;
+        this.capacity = capacity;
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER + (long) capacity * SLOT);
+    }
+
+    /**
+     * Creates a new, empty index, replacing any index of the same generation.
+     *
+     * @param capacity The amount of slots, which is rounded up to a power of 2.
+     */
+    static LogIndex create(File directory, int generation, int capacity) throws IOException {
+        capacity = Math.max(16, Integer.highestOneBit(Math.max(1, capacity - 1)) << 1);
+        if(capacity > MAX_CAPACITY) {
+            throw new IllegalStateException("LogContainer index cannot hold more than " + (long) (MAX_CAPACITY * LOAD_FACTOR) + " paths!");
+        }
+
+        File file = new File(directory, String.format("index-%08d.idx", generation));
+        Files.deleteIfExists(file.toPath());
+
+        FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        LogIndex index = new LogIndex(file, generation, channel, capacity);
+        index.buffer.putInt(0, MAGIC);
+        index.buffer.putInt(4, VERSION);
+        index.buffer.putInt(8, capacity);
+        index.writeCounts();
+        return index;
+    }
+
+    /**
+     * Opens the newest index in a directory, and deletes any older ones.
+     * An index that isn't valid is deleted as well.
+     *
+     * @return The index, or null if there isn't a valid one.
+     */
+    static LogIndex open(File directory) throws IOException {
+        File newest = null;
+        int generation = -1;
+
+        File[] files = directory.listFiles();
+        if(files == null) return null;
+
+        for(File file : files) {
+            Matcher matcher = NAME.matcher(file.getName());
+            if(!matcher.matches()) continue;
+
+            int fileGeneration = Integer.parseInt(matcher.group(1));
+            if(fileGeneration > generation) {
+                if(newest != null) Files.deleteIfExists(newest.toPath());
+                newest = file;
+                generation = fileGeneration;
+            } else {
+                Files.deleteIfExists(file.toPath());
+            }
+        }
+
+        if(newest == null) return null;
+
+        FileChannel channel = FileChannel.open(newest.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if(channel.size() < HEADER) {
+                channel.close();
+                Files.deleteIfExists(newest.toPath());
+                return null;
+            }
+
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER);
+            int capacity = header.getInt(8);
+            if(header.getInt(0) != MAGIC || header.getInt(4) != VERSION || capacity <= 0 || Integer.bitCount(capacity) != 1
+                    || capacity > MAX_CAPACITY || channel.size() != HEADER + (long) capacity * SLOT) {
+                channel.close();
+                Files.deleteIfExists(newest.toPath());
+                return null;
+            }
+
+            LogIndex index = new LogIndex(newest, generation, channel, capacity);
+            index.size = index.buffer.getLong(16);
+            index.tombstones = index.buffer.getLong(24);
+            return index;
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Hashes a path. The hash is never {@link LogIndex#EMPTY} or {@link LogIndex#TOMBSTONE}.
+     */
+    static long hash(String path) {
+        long hash = 0xcbf29ce484222325L;
+        for(int i = 0; i < path.length(); i++) {
+            hash ^= path.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+
+        //Spread the bits, since the low bits pick the slot.
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+
+        return hash == EMPTY || hash == TOMBSTONE ? hash + 2 : hash;
+    }
+
+    /**
+     * Finds the slot of a path.
+     *
+     * @param hash The hash of the path.
+     * @param matcher Tests if a slot with the same hash is actually the path.
+     * @return The slot, or -1 if the path isn't in the index.
+     */
+    int find(long hash, SlotMatcher matcher) throws IOException {
+        int mask = this.capacity - 1;
+        for(int i = 0, slot = (int) hash & mask; i < this.capacity; i++, slot = (slot + 1) & mask) {
+            long slotHash = this.getHash(slot);
+            if(slotHash == EMPTY) return -1;
+            if(slotHash == hash && matcher.matches(slot)) return slot;
+        }
+        return -1;
+    }
+
+    /**
+     * Finds a free slot for a path that isn't in the index.
+     * {@link LogIndex#isFull()} must be checked first.
+     */
+    int findFree(long hash) {
+        int mask = this.capacity - 1;
+        int slot = (int) hash & mask;
+        while(this.isLive(slot)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Writes a slot.
+     */
+    void put(int slot, long hash, long parentHash, int segment, long offset, int length, byte type) {
+        long previous = this.getHash(slot);
+        if(previous == EMPTY || previous == TOMBSTONE) {
+            this.size++;
+            if(previous == TOMBSTONE) this.tombstones--;
+        }
+
+        int position = HEADER + slot * SLOT;
+        this.buffer.putLong(position, hash);
+        this.buffer.putLong(position + 8, parentHash);
+        this.buffer.putInt(position + 16, segment);
+        this.buffer.putInt(position + 20, length);
+        this.buffer.putLong(position + 24, offset | ((long) type << 56));
+    }
+
+    /**
+     * Moves a slot to another record, keeping its path.
+     */
+    void move(int slot, int segment, long offset) {
+        int position = HEADER + slot * SLOT;
+        this.buffer.putInt(position + 16, segment);
+        this.buffer.putLong(position + 24, offset | ((long) this.getType(slot) << 56));
+    }
+
+    /**
+     * Removes a slot.
+     */
+    void remove(int slot) {
+        if(!this.isLive(slot)) return;
+
+        this.buffer.putLong(HEADER + slot * SLOT, TOMBSTONE);
+        this.size--;
+        this.tombstones++;
+    }
+
+    /**
+     * @return If another path can't be added without growing the index.
+     */
+    boolean isFull() {
+        return this.size + this.tombstones + 1 > this.capacity * LOAD_FACTOR;
+    }
+
+    /**
+     * Copies every path into a new index of the next generation, which is large enough to keep growing.
+     * This index is deleted afterwards.
+     */
+    LogIndex grow(File directory) throws IOException {
+        //If most of the index is tombstones, the same capacity is enough.
+        int capacity = this.size * 2 > this.capacity * LOAD_FACTOR ? this.capacity * 2 : this.capacity;
+        LogIndex index = create(directory, this.generation + 1, capacity);
+
+        for(int slot = 0; slot < this.capacity; slot++) {
+            if(!this.isLive(slot)) continue;
+
+            long hash = this.getHash(slot);
+            index.put(index.findFree(hash), hash, this.getParentHash(slot), this.getSegment(slot), this.getOffset(slot), this.getLength(slot), this.getType(slot));
+        }
+
+        index.writeCounts();
+        this.delete();
+        return index;
+    }
+
+    boolean isLive(int slot) {
+        long hash = this.getHash(slot);
+        return hash != EMPTY && hash != TOMBSTONE;
+    }
+
+    long getHash(int slot) {
+        return this.buffer.getLong(HEADER + slot * SLOT);
+    }
+
+    long getParentHash(int slot) {
+        return this.buffer.getLong(HEADER + slot * SLOT + 8);
+    }
+
+    int getSegment(int slot) {
+        return this.buffer.getInt(HEADER + slot * SLOT + 16);
+    }
+
+    int getLength(int slot) {
+        return this.buffer.getInt(HEADER + slot * SLOT + 20);
+    }
+
+    long getOffset(int slot) {
+        return this.buffer.getLong(HEADER + slot * SLOT + 24) & 0x00FFFFFFFFFFFFFFL;
+    }
+
+    byte getType(int slot) {
+        return (byte) (this.buffer.getLong(HEADER + slot * SLOT + 24) >>> 56);
+    }
+
+    int getCapacity() {
+        return this.capacity;
+    }
+
+    long getSize() {
+        return this.size;
+    }
+
+    /**
+     * @return If the index was closed cleanly at the checkpoint.
+     */
+    boolean isClean(int segment, long offset) {
+        return this.buffer.get(32) == 1 && this.buffer.getInt(36) == segment && this.buffer.getLong(40) == offset;
+    }
+
+    /**
+     * Marks the index as in use, so it's rebuilt if it isn't closed cleanly.
+     */
+    void markDirty() {
+        this.buffer.put(32, (byte) 0);
+        this.buffer.force();
+    }
+
+    /**
+     * Writes the index to disk, and marks it as clean at the point the segments end.
+     */
+    void close(int segment, long offset) throws IOException {
+        this.writeCounts();
+        this.buffer.putInt(36, segment);
+        this.buffer.putLong(40, offset);
+        this.buffer.force();
+
+        //The clean marker is only written once everything else is on disk.
+        this.buffer.put(32, (byte) 1);
+        this.buffer.force();
+        this.channel.close();
+    }
+
+    /**
+     * Closes and deletes the index.
+     */
+    void delete() throws IOException {
+        this.channel.close();
+        Files.deleteIfExists(this.file.toPath());
+    }
+
+    int getGeneration() {
+        return this.generation;
+    }
+
+    private void writeCounts() {
+        this.buffer.putLong(16, this.size);
+        this.buffer.putLong(24, this.tombstones);
+    }
+
+    interface SlotMatcher {
+        boolean matches(int slot) throws IOException;
+    }
+}
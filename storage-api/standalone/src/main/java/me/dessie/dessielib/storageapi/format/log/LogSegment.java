@@ -0,0 +1,319 @@
+package me.dessie.dessielib.storageapi.format.log;
+
+import me.dessie.dessielib.storageapi.util.BinaryCodec;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only file of records for a {@link LogContainer}.
+ *
+ * Every record is a checksum, the length of the body, and the body itself.
+ * The body is the record type, the path, and for values, the value encoded with {@link BinaryCodec}.
+ * A record that was only partially written, or is corrupt, ends the segment when it's scanned.
+ */
+class LogSegment {
+
+    static final byte VALUE = 1;
+    static final byte DIRECTORY = 2;
+    static final byte DELETE = 3;
+
+    private static final int MAGIC = 0x444C4F47;
+    private static final int VERSION = 1;
+    static final int HEADER = 8;
+    private static final int RECORD_HEADER = 8;
+    private static final Pattern NAME = Pattern.compile("segment-(\\d+)\\.log");
+
+    private final int id;
+    private final File file;
+    private final FileChannel channel;
+    private long size;
+
+    //The bytes of records that are still referenced by the index.
+    private long live;
+
+    private LogSegment(int id, File file, FileChannel channel, long size) {
+        this.id = id;
+        this.file = file;
+        this.channel = channel;
+        this.size = size;
+    }
+
+    /**
+     * Creates a new, empty segment.
+     */
+    static LogSegment create(File directory, int id) throws IOException {
+        File file = new File(directory, String.format("segment-%08d.log", id));
+        FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER).putInt(MAGIC).putInt(VERSION).flip();
+        while(header.hasRemaining()) {
+            channel.write(header, HEADER - header.remaining());
+        }
+
+        return new LogSegment(id, file, channel, HEADER);
+    }
+
+    /**
+     * Opens an existing segment.
+     *
+     * @throws IOException If the file isn't a segment.
+     */
+    static LogSegment open(File file) throws IOException {
+        Integer id = getId(file);
+        if(id == null) {
+            throw new IOException(file.getName() + " is not a segment file!");
+        }
+
+        FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+        ByteBuffer header = ByteBuffer.allocate(HEADER);
+        while(header.hasRemaining() && channel.read(header, header.position()) >= 0);
+
+        if(header.hasRemaining() || header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+            channel.close();
+            throw new IOException(file.getName() + " is not a valid segment file!");
+        }
+
+        return new LogSegment(id, file, channel, channel.size());
+    }
+
+    /**
+     * @return The id of a segment file, or null if the file isn't a segment.
+     */
+    static Integer getId(File file) {
+        Matcher matcher = NAME.matcher(file.getName());
+        return matcher.matches() ? Integer.parseInt(matcher.group(1)) : null;
+    }
+
+    /**
+     * Encodes a record.
+     *
+     * @param type The type of the record.
+     * @param key The path of the record.
+     * @param value The encoded value, or null if the record has none.
+     * @return The entire record, including its checksum.
+     */
+    static byte[] encode(byte type, String key, byte[] value) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(RECORD_HEADER + key.length() + 8 + (value == null ? 0 : value.length));
+        DataOutputStream out = new DataOutputStream(bytes);
+
+        //Placeholder for the header, which is filled once the body is known.
+        out.writeLong(0);
+        out.writeByte(type);
+        BinaryCodec.writeString(out, key);
+        if(value != null) {
+            out.write(value);
+        }
+
+        byte[] record = bytes.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(record, RECORD_HEADER, record.length - RECORD_HEADER);
+
+        ByteBuffer.wrap(record).putInt((int) crc.getValue()).putInt(record.length - RECORD_HEADER);
+        return record;
+    }
+
+    /**
+     * Appends a record to the end of the segment.
+     *
+     * @return The offset the record was written to.
+     */
+    long append(byte[] record) throws IOException {
+        long offset = this.size;
+
+        ByteBuffer buffer = ByteBuffer.wrap(record);
+        while(buffer.hasRemaining()) {
+            this.channel.write(buffer, offset + buffer.position());
+        }
+
+        this.size += record.length;
+        return offset;
+    }
+
+    /**
+     * Reads the record at an offset.
+     *
+     * @param offset The offset of the record.
+     * @param length The length of the entire record.
+     * @return The record.
+     * @throws IOException If the record couldn't be read, or is corrupt.
+     */
+    Entry read(long offset, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while(buffer.hasRemaining()) {
+            if(this.channel.read(buffer, offset + buffer.position()) < 0) {
+                throw new EOFException("Record at " + offset + " in " + this.file.getName() + " is truncated!");
+            }
+        }
+
+        Entry entry = parse(offset, buffer.array());
+        if(entry == null) {
+            throw new IOException("Record at " + offset + " in " + this.file.getName() + " is corrupt!");
+        }
+        return entry;
+    }
+
+    /**
+     * Reads every record in the segment in order, stopping at the first record that is incomplete or corrupt.
+     *
+     * @param consumer Accepts each record.
+     * @return The offset after the last valid record.
+     */
+    long scan(EntryConsumer consumer) throws IOException {
+        long offset = HEADER;
+
+        //A separate stream, so reads and appends through the channel aren't affected.
+        try(InputStream stream = new BufferedInputStream(new FileInputStream(this.file), 1 << 16)) {
+            DataInputStream in = new DataInputStream(stream);
+            in.skipBytes(HEADER);
+            byte[] header = new byte[RECORD_HEADER];
+
+            while(true) {
+                if(!readFully(in, header)) break;
+
+                int bodyLength = ByteBuffer.wrap(header).getInt(4);
+                if(bodyLength <= 0 || offset + RECORD_HEADER + bodyLength > this.size) break;
+
+                byte[] record = new byte[RECORD_HEADER + bodyLength];
+                System.arraycopy(header, 0, record, 0, RECORD_HEADER);
+                if(!readFully(in, record, RECORD_HEADER, bodyLength)) break;
+
+                Entry entry = parse(offset, record);
+                if(entry == null) break;
+
+                consumer.accept(entry);
+                offset += record.length;
+            }
+        }
+
+        return offset;
+    }
+
+    /**
+     * Cuts off everything after an offset, such as a partially written record.
+     */
+    void truncate(long offset) throws IOException {
+        if(offset >= this.size) return;
+
+        this.channel.truncate(offset);
+        this.size = offset;
+    }
+
+    void force() throws IOException {
+        this.channel.force(false);
+    }
+
+    void close() throws IOException {
+        this.channel.close();
+    }
+
+    void delete() throws IOException {
+        this.close();
+        Files.deleteIfExists(this.file.toPath());
+    }
+
+    int getId() {
+        return this.id;
+    }
+
+    long getSize() {
+        return this.size;
+    }
+
+    long getLive() {
+        return this.live;
+    }
+
+    void addLive(long bytes) {
+        this.live += bytes;
+    }
+
+    /**
+     * @return How much of the segment is no longer referenced, from 0 to 1.
+     */
+    double getStaleRatio() {
+        long records = this.size - HEADER;
+        return records <= 0 ? 0 : 1 - (double) this.live / records;
+    }
+
+    private static Entry parse(long offset, byte[] record) {
+        if(record.length <= RECORD_HEADER) return null;
+
+        ByteBuffer buffer = ByteBuffer.wrap(record);
+        int checksum = buffer.getInt();
+        int bodyLength = buffer.getInt();
+        if(bodyLength != record.length - RECORD_HEADER) return null;
+
+        CRC32 crc = new CRC32();
+        crc.update(record, RECORD_HEADER, bodyLength);
+        if((int) crc.getValue() != checksum) return null;
+
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(record, RECORD_HEADER, bodyLength));
+            byte type = in.readByte();
+            String key = BinaryCodec.readString(in);
+
+            int valueStart = record.length - in.available();
+            return new Entry(offset, type, key, record, valueStart);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static boolean readFully(DataInputStream in, byte[] bytes) throws IOException {
+        return readFully(in, bytes, 0, bytes.length);
+    }
+
+    private static boolean readFully(DataInputStream in, byte[] bytes, int offset, int length) throws IOException {
+        try {
+            in.readFully(bytes, offset, length);
+            return true;
+        } catch (EOFException e) {
+            return false;
+        }
+    }
+
+    /**
+     * A record that was read from a segment.
+     *
+     * @param offset The offset of the record in its segment.
+     * @param type The type of the record.
+     * @param key The path of the record.
+     * @param record The entire record, including its checksum.
+     * @param valueStart Where the value starts in the record.
+     */
+    record Entry(long offset, byte type, String key, byte[] record, int valueStart) {
+
+        int length() {
+            return this.record.length;
+        }
+
+        DataInputStream value() {
+            return new DataInputStream(new ByteArrayInputStream(this.record, this.valueStart, this.record.length - this.valueStart));
+        }
+
+        @Override
+        public String toString() {
+            return "Entry[" + this.key + "@" + this.offset + "]";
+        }
+    }
+
+    interface EntryConsumer {
+        void accept(Entry entry) throws IOException;
+    }
+}
@@ -0,0 +1,518 @@
+package me.dessie.dessielib.storageapi.format.sql;
+
+import me.dessie.dessielib.storageapi.api.IStorageAPI;
+import me.dessie.dessielib.storageapi.container.RetrieveArrayContainer;
+import me.dessie.dessielib.storageapi.container.StorageContainer;
+import me.dessie.dessielib.storageapi.container.hooks.CompleteHook;
+import me.dessie.dessielib.storageapi.container.hooks.DeleteHook;
+import me.dessie.dessielib.storageapi.container.hooks.RetrieveHook;
+import me.dessie.dessielib.storageapi.container.hooks.StoreHook;
+import me.dessie.dessielib.storageapi.settings.SQLSettings;
+import me.dessie.dessielib.storageapi.settings.StorageSettings;
+import me.dessie.dessielib.storageapi.util.BinaryCodec;
+import me.dessie.dessielib.storageapi.util.Pair;
+import me.dessie.dessielib.storageapi.util.StoragePath;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+
+/**
+ * A {@link StorageContainer} that stores every path as a row in a table of an embedded, file-local database using JDBC,
+ * such as H2 (<code>jdbc:h2:file:./data/storage</code>) or SQLite (<code>jdbc:sqlite:data/storage.db</code>).
+ * The JDBC driver for the database must be on the classpath.
+ *
+ * Only the paths that hold a value have a row, and the value is encoded with {@link BinaryCodec},
+ * so numbers are retrieved with the exact type they were stored with.
+ * Paths that only contain other paths are found with a range query on the primary key, so they don't need a row.
+ *
+ * Stores and deletes are only queued by their hooks. Once completed, everything that was queued is written
+ * with batched prepared statements in a single transaction, so a flush either writes everything or nothing.
+ * If the transaction fails, the queued writes are kept and attempted again by the next completion.
+ */
+public class SQLContainer extends RetrieveArrayContainer<List<Object>, Map<String, Object>> {
+
+    //Most databases limit how many parameters a single statement can have.
+    private static final int MAX_PARAMETERS = 500;
+
+    private final BinaryCodec codec = new BinaryCodec();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final String url;
+    private final String table;
+    private final int batchSize;
+    private Connection connection;
+
+    //The stores and deletes that haven't been written yet, in the order they happened.
+    private final Object pendingLock = new Object();
+    private List<Operation> pending = new ArrayList<>();
+
+    /**
+     * Creates an SQLContainer that stores in the database at the provided JDBC url.
+     * This will use the default settings in {@link SQLSettings}.
+     *
+     * @param api The IStorageAPI instance.
+     * @param url The JDBC url of the database, such as <code>jdbc:h2:file:./data/storage</code>.
+     */
+    public SQLContainer(IStorageAPI api, String url) {
+        this(api, url, new SQLSettings());
+    }
+
+    /**
+     * Creates an SQLContainer that stores in the database at the provided JDBC url.
+     * This will use the provided settings from {@link StorageSettings}.
+     *
+     * @param api The IStorageAPI instance.
+     * @param url The JDBC url of the database, such as <code>jdbc:h2:file:./data/storage</code>.
+     * @param settings The StorageSettings for this Container. Provide {@link SQLSettings} to use SQL specific settings.
+     */
+    public SQLContainer(IStorageAPI api, String url, StorageSettings settings) {
+        super(api, settings);
+        Objects.requireNonNull(url, "JDBC url cannot be null!");
+        this.url = url;
+
+        SQLSettings sqlSettings = settings instanceof SQLSettings temp ? temp : new SQLSettings();
+        this.table = sqlSettings.getTable();
+        this.batchSize = sqlSettings.getBatchSize();
+
+        try {
+            this.connection = DriverManager.getConnection(this.getUrl());
+            this.connection.setAutoCommit(false);
+
+            try(Statement statement = this.getConnection().createStatement()) {
+                statement.executeUpdate("CREATE TABLE IF NOT EXISTS " + this.getTable() + " (path VARCHAR(1024) NOT NULL PRIMARY KEY, data BLOB)");
+            }
+            this.connection.commit();
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * @return The JDBC url of the database.
+     */
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * @return The name of the table that the paths are stored in.
+     */
+    public String getTable() {
+        return table;
+    }
+
+    @Override
+    protected StoreHook storeHook() {
+        return new StoreHook((path, data) -> {
+            try {
+                this.queue(new Operation(path, this.encode(data)));
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        });
+    }
+
+    @Override
+    protected RetrieveHook retrieveHook() {
+        return new RetrieveHook(path -> this.retrieveRows(Collections.singleton(path)).get(path), this::retrieveRows);
+    }
+
+    @Override
+    protected DeleteHook deleteHook() {
+        return new DeleteHook(path -> this.queue(new Operation(path, null)));
+    }
+
+    @Override
+    protected CompleteHook completeHook() {
+        return new CompleteHook().onComplete(() -> {
+            try {
+                this.writePending();
+                return CompletableFuture.completedFuture(null);
+            } catch (SQLException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        });
+    }
+
+    @Override
+    protected Set<String> retrieveKeys(String path) {
+        Set<String> keys = new HashSet<>();
+        String prefix = path.isEmpty() ? "" : path + ".";
+
+        this.lock.lock();
+        try(PreparedStatement statement = this.prepareDescendants("SELECT path FROM " + this.getTable(), path)) {
+            try(ResultSet result = statement.executeQuery()) {
+                while(result.next()) {
+                    String child = result.getString(1).substring(prefix.length());
+                    int dot = child.indexOf('.');
+                    keys.add(dot == -1 ? child : child.substring(0, dot));
+                }
+            }
+            this.getConnection().commit();
+        } catch (SQLException e) {
+            e.printStackTrace();
+        } finally {
+            this.lock.unlock();
+        }
+
+        return keys;
+    }
+
+    /**
+     * Writes anything that is queued, and closes the connection to the database.
+     * Once closed, the Container can no longer be stored to or retrieved from.
+     */
+    @Override
+    public void close() {
+        super.close();
+
+        this.lock.lock();
+        try {
+            this.writePending();
+            if(this.connection != null) {
+                this.connection.close();
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    @Override
+    protected BiConsumer<List<Object>, Map<String, Object>> add() {
+        return List::add;
+    }
+
+    @Override
+    protected Stream<Object> getHandlerStream(List<Object> handler) {
+        return handler.stream();
+    }
+
+    @Override
+    protected Stream<String> getNestedKeys(Map<String, Object> nested) {
+        return nested.keySet().stream();
+    }
+
+    @Override
+    protected boolean isHandler(Object object) {
+        return object instanceof List<?>;
+    }
+
+    @Override
+    protected boolean isNested(Object object) {
+        return object instanceof Map<?, ?>;
+    }
+
+    @Override
+    protected Object getObjectFromNested(Map<String, Object> nested, String key) {
+        return nested.get(key);
+    }
+
+    @Override
+    protected Object getPrimitive(Object object) {
+        //Values are already decoded with their exact type.
+        return object;
+    }
+
+    @Override
+    protected BiConsumer<List<Object>, List<Pair<String, Object>>> handleListObject() {
+        return ((list, pairs) -> {
+            Map<String, Object> object = new LinkedHashMap<>();
+
+            for(Pair<String, Object> pair : pairs) {
+                //If the path is null, then it's not a decomposer, so we just add that to the list directly.
+                if(pair.getKey() == null) {
+                    list.add(pair.getValue());
+                    continue;
+                }
+
+                this.handleNestedPath(object, pair.getKey(), pair.getValue());
+            }
+
+            if(!object.isEmpty()) {
+                list.add(object);
+            }
+        });
+    }
+
+    @Override
+    protected List<Object> getStoreListHandler() {
+        return new ArrayList<>();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    protected List<Object> getRetrieveListHandler(String path) {
+        if(this.retrieveRows(Collections.singleton(path)).get(path) instanceof List<?> list) {
+            return (List<Object>) list;
+        }
+        return new ArrayList<>();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Every primitive wrapper is supported, since they're stored with their exact type.
+     */
+    @Override
+    public boolean isSupported(Class<?> clazz) {
+        return super.isSupported(clazz) || this.getAPI().getWrappers().containsValue(clazz);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isListSupported(Class<?> clazz) {
+        return super.isListSupported(clazz) || this.getAPI().getWrappers().containsValue(clazz) || this.getAPI().resolveDecomposer(clazz) != null;
+    }
+
+    /**
+     * Writes every queued operation. If writing fails, the operations are queued again.
+     */
+    private void writePending() throws SQLException {
+        List<Operation> operations;
+        synchronized (this.pendingLock) {
+            operations = this.pending;
+            this.pending = new ArrayList<>();
+        }
+
+        if(operations.isEmpty()) return;
+
+        try {
+            this.write(operations);
+        } catch (SQLException e) {
+            //Keep the operations, before anything that was queued since.
+            synchronized (this.pendingLock) {
+                operations.addAll(this.pending);
+                this.pending = operations;
+            }
+            throw e;
+        }
+    }
+
+    private void queue(Operation operation) {
+        synchronized (this.pendingLock) {
+            this.pending.add(operation);
+        }
+    }
+
+    /**
+     * Retrieves the values of many paths, with one query for every {@link SQLContainer#MAX_PARAMETERS} paths.
+     *
+     * @return The value of every path that has one.
+     */
+    private Map<String, Object> retrieveRows(Collection<String> paths) {
+        Map<String, Object> retrieved = new HashMap<>();
+        List<String> list = new ArrayList<>(paths);
+
+        this.lock.lock();
+        try {
+            for(int start = 0; start < list.size(); start += MAX_PARAMETERS) {
+                List<String> chunk = list.subList(start, Math.min(list.size(), start + MAX_PARAMETERS));
+
+                String parameters = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+                try(PreparedStatement statement = this.getConnection().prepareStatement("SELECT path, data FROM " + this.getTable() + " WHERE path IN (" + parameters + ")")) {
+                    for(int i = 0; i < chunk.size(); i++) {
+                        statement.setString(i + 1, chunk.get(i));
+                    }
+
+                    try(ResultSet result = statement.executeQuery()) {
+                        while(result.next()) {
+                            retrieved.put(result.getString(1), this.decode(result.getBytes(2)));
+                        }
+                    }
+                }
+            }
+
+            //Reads are also in a transaction, which shouldn't be left open.
+            this.getConnection().commit();
+        } catch (SQLException | IOException e) {
+            e.printStackTrace();
+        } finally {
+            this.lock.unlock();
+        }
+
+        return retrieved;
+    }
+
+    /**
+     * Writes every operation in a single transaction.
+     * The operations are combined first, so each kind of statement can be sent as one batch.
+     */
+    private void write(List<Operation> operations) throws SQLException {
+        Changes changes = new Changes();
+        operations.forEach(changes::apply);
+
+        this.lock.lock();
+        try {
+            if(changes.clear) {
+                try(Statement statement = this.getConnection().createStatement()) {
+                    statement.executeUpdate("DELETE FROM " + this.getTable());
+                }
+            }
+
+            try(PreparedStatement statement = this.getConnection().prepareStatement("DELETE FROM " + this.getTable() + " WHERE path > ? AND path < ?")) {
+                int batched = 0;
+                for(String path : changes.subtrees) {
+                    statement.setString(1, path + ".");
+                    statement.setString(2, path + "/");
+                    statement.addBatch();
+
+                    if(++batched % this.batchSize == 0) statement.executeBatch();
+                }
+                if(batched % this.batchSize != 0) statement.executeBatch();
+            }
+
+            //Rows that are about to be inserted are deleted as well, since not every database supports an upsert.
+            try(PreparedStatement statement = this.getConnection().prepareStatement("DELETE FROM " + this.getTable() + " WHERE path = ?")) {
+                int batched = 0;
+                for(String path : changes.deletes) {
+                    statement.setString(1, path);
+                    statement.addBatch();
+
+                    if(++batched % this.batchSize == 0) statement.executeBatch();
+                }
+                if(batched % this.batchSize != 0) statement.executeBatch();
+            }
+
+            try(PreparedStatement statement = this.getConnection().prepareStatement("INSERT INTO " + this.getTable() + " (path, data) VALUES (?, ?)")) {
+                int batched = 0;
+                for(Map.Entry<String, byte[]> entry : changes.inserts.entrySet()) {
+                    statement.setString(1, entry.getKey());
+                    statement.setBytes(2, entry.getValue());
+                    statement.addBatch();
+
+                    if(++batched % this.batchSize == 0) statement.executeBatch();
+                }
+                if(batched % this.batchSize != 0) statement.executeBatch();
+            }
+
+            this.getConnection().commit();
+        } catch (SQLException e) {
+            try {
+                if(this.connection != null) this.connection.rollback();
+            } catch (SQLException rollback) {
+                e.addSuppressed(rollback);
+            }
+            throw e;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Prepares a query for every row under a path, using a range on the primary key.
+     * Every path that starts with "path." sorts after "path." and before "path/".
+     */
+    private PreparedStatement prepareDescendants(String query, String path) throws SQLException {
+        if(path.isEmpty()) {
+            return this.getConnection().prepareStatement(query);
+        }
+
+        PreparedStatement statement = this.getConnection().prepareStatement(query + " WHERE path > ? AND path < ?");
+        statement.setString(1, path + ".");
+        statement.setString(2, path + "/");
+        return statement;
+    }
+
+    private Connection getConnection() throws SQLException {
+        if(this.connection == null || this.connection.isClosed()) {
+            throw new SQLException("SQLContainer connection to " + this.getUrl() + " is not open!");
+        }
+        return this.connection;
+    }
+
+    private byte[] encode(Object data) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        this.codec.write(new DataOutputStream(bytes), data);
+        return bytes.toByteArray();
+    }
+
+    private Object decode(byte[] bytes) throws IOException {
+        if(bytes == null) return null;
+        return this.codec.read(new DataInputStream(new ByteArrayInputStream(bytes)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void handleNestedPath(Map<String, Object> object, String path, Object value) {
+        StoragePath storagePath = StoragePath.of(path);
+
+        //Traverse down the tree
+        Map<String, Object> current = object;
+        for(int i = 0; i < storagePath.size() - 1; i++) {
+            Object element = current.get(storagePath.getSegment(i));
+            if(!(element instanceof Map<?, ?>)) {
+                element = new LinkedHashMap<String, Object>();
+                current.put(storagePath.getSegment(i), element);
+            }
+            current = (Map<String, Object>) element;
+        }
+
+        //Add the final value, since it's the last part of the tree
+        current.put(storagePath.getName(), value);
+    }
+
+    /**
+     * A queued store, or a delete if the data is null.
+     */
+    private record Operation(String path, byte[] data) {}
+
+    /**
+     * The combined result of many operations, which can be written as deletes followed by inserts.
+     *
+     * Storing a path replaces everything under it, and any values at its parents, like a document would.
+     * Anything that is deleted after being stored is no longer inserted, so running every delete first is the same
+     * as running every operation in order.
+     */
+    private static class Changes {
+        private boolean clear;
+        private final Set<String> subtrees = new HashSet<>();
+        private final Set<String> deletes = new HashSet<>();
+        private final TreeMap<String, byte[]> inserts = new TreeMap<>();
+
+        private void apply(Operation operation) {
+            String path = operation.path();
+
+            if(path.isEmpty()) {
+                //Deleting the root deletes everything.
+                this.clear = true;
+                this.subtrees.clear();
+                this.deletes.clear();
+                this.inserts.clear();
+                return;
+            }
+
+            //Anything under the path is replaced or deleted.
+            this.subtrees.add(path);
+            this.inserts.subMap(path + ".", path + "/").clear();
+            this.deletes.add(path);
+            this.inserts.remove(path);
+
+            if(operation.data() == null) return;
+
+            //A value at any parent is replaced by the path.
+            for(int dot = path.lastIndexOf('.'); dot > 0; dot = path.lastIndexOf('.', dot - 1)) {
+                String parent = path.substring(0, dot);
+                this.deletes.add(parent);
+                this.inserts.remove(parent);
+            }
+
+            this.inserts.put(path, operation.data());
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package me.dessie.dessielib.storageapi.settings;
+
+import me.dessie.dessielib.storageapi.cache.eviction.EvictionPolicy;
+import me.dessie.dessielib.storageapi.cache.eviction.Weigher;
+import me.dessie.dessielib.storageapi.format.flatfile.JSONContainer;
+
+import java.io.File;
+import java.util.function.Supplier;
+
+/**
+ * Defines the settings for a {@link JSONContainer}
+ *
+ * Along with the defaults of {@link StorageSettings}, the following are default settings:
+ *   - Delta Writes: false
+ *   - Compaction Ratio: 1.0
+ *   - Lazy Load: false
+ *
+ */
+public class JSONSettings extends StorageSettings {
+
+    private boolean deltaWrites;
+    private double compactionRatio;
+    private boolean lazyLoad;
+    private boolean prettyPrint;
+
+    /**
+     * Creates a settings instance for a {@link JSONContainer} with default settings.
+     */
+    public JSONSettings() {
+        this.deltaWrites = false;
+        this.compactionRatio = 1.0;
+        this.lazyLoad = false;
+        this.prettyPrint = false;
+    }
+
+    /**
+     * Sets if the {@link JSONContainer} should only write the top-level keys that changed.
+     *
+     * When enabled, changed keys are appended to a delta file next to the JSON file, instead of rewriting the whole file.
+     * The delta file is applied when the Container is created, and is compacted back into the JSON file
+     * once it grows larger than the JSON file times the compaction ratio.
+     *
+     * This means the JSON file itself may be behind until it's compacted, so this should only be enabled
+     * if nothing else reads the file.
+     *
+     * Note that updating this value after creating the Container will have no effect.
+     *
+     * @see JSONSettings#setCompactionRatio(double)
+     *
+     * @param deltaWrites If delta writes should be used.
+     * @return The JSONSettings instance.
+     */
+    public JSONSettings setDeltaWrites(boolean deltaWrites) {
+        this.deltaWrites = deltaWrites;
+        return this;
+    }
+
+    /**
+     * Sets how large the delta file can grow, relative to the JSON file, before it's compacted into the JSON file.
+     * For example, a ratio of 0.5 will compact once the delta file is half the size of the JSON file.
+     *
+     * Note that updating this value after creating the Container will have no effect.
+     *
+     * @param compactionRatio The compaction ratio.
+     * @return The JSONSettings instance.
+     */
+    public JSONSettings setCompactionRatio(double compactionRatio) {
+        if(compactionRatio <= 0) {
+            throw new IllegalArgumentException("Compaction ratio must be positive!");
+        }
+
+        this.compactionRatio = compactionRatio;
+        return this;
+    }
+
+    /**
+     * Sets if the {@link JSONContainer} should only parse top-level keys once they're used.
+     *
+     * When enabled, the JSON file is only scanned when the Container is created, to find where each top-level key is in the file.
+     * A top-level key is parsed from the file the first time a path under it is retrieved, stored, or deleted.
+     * This makes creating the Container faster, and only the top-level keys that are used are kept in memory.
+     *
+     * Note that updating this value after creating the Container will have no effect.
+     *
+     * @param lazyLoad If top-level keys should be parsed once they're used.
+     * @return The JSONSettings instance.
+     */
+    public JSONSettings setLazyLoad(boolean lazyLoad) {
+        this.lazyLoad = lazyLoad;
+        return this;
+    }
+
+    /**
+     * Sets if the {@link JSONContainer} should indent the JSON file when it's written.
+     *
+     * By default, the JSON file is written compactly, since indenting makes large files much larger and slower to write.
+     * This should be enabled if the file is meant to be read or edited by hand.
+     *
+     * Note that updating this value after creating the Container will have no effect.
+     *
+     * @param prettyPrint If the JSON file should be indented.
+     * @return The JSONSettings instance.
+     */
+    public JSONSettings setPrettyPrint(boolean prettyPrint) {
+        this.prettyPrint = prettyPrint;
+        return this;
+    }
+
+    /**
+     * Returns if the {@link JSONContainer} only writes the top-level keys that changed.
+     *
+     * @return If delta writes are used.
+     */
+    public boolean isDeltaWrites() {
+        return deltaWrites;
+    }
+
+    /**
+     * Returns how large the delta file can grow, relative to the JSON file, before it's compacted.
+     *
+     * @return The compaction ratio.
+     */
+    public double getCompactionRatio() {
+        return compactionRatio;
+    }
+
+    /**
+     * Returns if the {@link JSONContainer} only parses top-level keys once they're used.
+     *
+     * @return If lazy loading is used.
+     */
+    public boolean isLazyLoad() {
+        return lazyLoad;
+    }
+
+    /**
+     * Returns if the {@link JSONContainer} indents the JSON file when it's written.
+     *
+     * @return If pretty printing is used.
+     */
+    public boolean isPrettyPrint() {
+        return prettyPrint;
+    }
+
+    @Override
+    public JSONSettings setCacheDuration(int cacheDuration) {
+        super.setCacheDuration(cacheDuration);
+        return this;
+    }
+
+    @Override
+    public JSONSettings setFlushRate(int flushRate) {
+        super.setFlushRate(flushRate);
+        return this;
+    }
+
+    @Override
+    public JSONSettings setUsesCache(boolean usesCache) {
+        super.setUsesCache(usesCache);
+        return this;
+    }
+
+    @Override
+    public JSONSettings setCacheOnStore(boolean cacheOnStore) {
+        super.setCacheOnStore(cacheOnStore);
+        return this;
+    }
+
+    @Override
+    public JSONSettings setCacheOnRetrieve(boolean cacheOnRetrieve) {
+        super.setCacheOnRetrieve(cacheOnRetrieve);
+        return this;
+    }
+
+    @Override
+    public JSONSettings setMaxEntries(long maxEntries) {
+        super.setMaxEntries(maxEntries);
+        return this;
+    }
+
+    @Override
+    public JSONSettings setMaxWeight(long maxWeight) {
+        super.setMaxWeight(maxWeight);
+        return this;
+    }
+
+    @Override
+    public JSONSettings setWeigher(Weigher weigher) {
+        super.setWeigher(weigher);
+        return this;
+    }
+
+    @Override
+    public JSONSettings setEvictionPolicy(Supplier<EvictionPolicy> evictionPolicy) {
+        super.setEvictionPolicy(evictionPolicy);
+        return this;
+    }
+
+    @Override
+    public JSONSettings setJournal(File journal) {
+        super.setJournal(journal);
+        return this;
+    }
+
+    @Override
+    public JSONSettings setCompleteDebounce(long completeDebounce) {
+        super.setCompleteDebounce(completeDebounce);
+        return this;
+    }
+
+    @Override
+    public JSONSettings setCompleteMaxLatency(long completeMaxLatency) {
+        super.setCompleteMaxLatency(completeMaxLatency);
+        return this;
+    }
+
+    @Override
+    public JSONSettings setPathIndex(boolean pathIndex) {
+        super.setPathIndex(pathIndex);
+        return this;
+    }
+
+    @Override
+    public JSONSettings setRegisterMBean(boolean registerMBean) {
+        super.setRegisterMBean(registerMBean);
+        return this;
+    }
+}
@@ -0,0 +1,195 @@
+package me.dessie.dessielib.storageapi.settings;
+
+import me.dessie.dessielib.storageapi.cache.eviction.EvictionPolicy;
+import me.dessie.dessielib.storageapi.cache.eviction.Weigher;
+import me.dessie.dessielib.storageapi.format.log.LogContainer;
+
+import java.io.File;
+import java.util.function.Supplier;
+
+/**
+ * Defines the settings for a {@link LogContainer}
+ *
+ * Along with the defaults of {@link StorageSettings}, the following are default settings:
+ *   - Segment Size: 64 MiB
+ *   - Compaction Threshold: 0.5
+ *   - Sync On Complete: true
+ *
+ */
+public class LogSettings extends StorageSettings {
+
+    private long segmentSize;
+    private double compactionThreshold;
+    private boolean syncOnComplete;
+
+    /**
+     * Creates a settings instance for a {@link LogContainer} with default settings.
+     */
+    public LogSettings() {
+        this.segmentSize = 64L * 1024 * 1024;
+        this.compactionThreshold = 0.5;
+        this.syncOnComplete = true;
+    }
+
+    /**
+     * Sets how large a segment file can grow, in bytes, before a new segment is started.
+     * Only full segments are compacted, so smaller segments are compacted sooner, but create more files.
+     *
+     * Note that updating this value after creating the Container will have no effect.
+     *
+     * @param segmentSize The segment size in bytes.
+     * @return The LogSettings instance.
+     */
+    public LogSettings setSegmentSize(long segmentSize) {
+        if(segmentSize <= 0) {
+            throw new IllegalArgumentException("Segment size must be positive!");
+        }
+
+        this.segmentSize = segmentSize;
+        return this;
+    }
+
+    /**
+     * Sets how much of a full segment has to be overwritten or deleted before it's compacted.
+     * For example, a threshold of 0.5 will compact a segment once half of it is no longer used.
+     *
+     * Note that updating this value after creating the Container will have no effect.
+     *
+     * @param compactionThreshold The compaction threshold, greater than 0 and at most 1.
+     * @return The LogSettings instance.
+     */
+    public LogSettings setCompactionThreshold(double compactionThreshold) {
+        if(compactionThreshold <= 0 || compactionThreshold > 1) {
+            throw new IllegalArgumentException("Compaction threshold must be greater than 0 and at most 1!");
+        }
+
+        this.compactionThreshold = compactionThreshold;
+        return this;
+    }
+
+    /**
+     * Sets if the {@link LogContainer} should force its writes to disk every time a store or delete is completed.
+     * When disabled, writes are only forced to disk when a segment is full or the Container is closed,
+     * so a crash of the operating system may lose the most recent writes.
+     *
+     * Note that updating this value after creating the Container will have no effect.
+     *
+     * @param syncOnComplete If writes should be forced to disk when completed.
+     * @return The LogSettings instance.
+     */
+    public LogSettings setSyncOnComplete(boolean syncOnComplete) {
+        this.syncOnComplete = syncOnComplete;
+        return this;
+    }
+
+    /**
+     * Returns how large a segment file can grow, in bytes, before a new segment is started.
+     *
+     * @return The segment size in bytes.
+     */
+    public long getSegmentSize() {
+        return segmentSize;
+    }
+
+    /**
+     * Returns how much of a full segment has to be overwritten or deleted before it's compacted.
+     *
+     * @return The compaction threshold.
+     */
+    public double getCompactionThreshold() {
+        return compactionThreshold;
+    }
+
+    /**
+     * Returns if writes are forced to disk every time a store or delete is completed.
+     *
+     * @return If writes are forced to disk when completed.
+     */
+    public boolean isSyncOnComplete() {
+        return syncOnComplete;
+    }
+
+    @Override
+    public LogSettings setCacheDuration(int cacheDuration) {
+        super.setCacheDuration(cacheDuration);
+        return this;
+    }
+
+    @Override
+    public LogSettings setFlushRate(int flushRate) {
+        super.setFlushRate(flushRate);
+        return this;
+    }
+
+    @Override
+    public LogSettings setUsesCache(boolean usesCache) {
+        super.setUsesCache(usesCache);
+        return this;
+    }
+
+    @Override
+    public LogSettings setCacheOnStore(boolean cacheOnStore) {
+        super.setCacheOnStore(cacheOnStore);
+        return this;
+    }
+
+    @Override
+    public LogSettings setCacheOnRetrieve(boolean cacheOnRetrieve) {
+        super.setCacheOnRetrieve(cacheOnRetrieve);
+        return this;
+    }
+
+    @Override
+    public LogSettings setMaxEntries(long maxEntries) {
+        super.setMaxEntries(maxEntries);
+        return this;
+    }
+
+    @Override
+    public LogSettings setMaxWeight(long maxWeight) {
+        super.setMaxWeight(maxWeight);
+        return this;
+    }
+
+    @Override
+    public LogSettings setWeigher(Weigher weigher) {
+        super.setWeigher(weigher);
+        return this;
+    }
+
+    @Override
+    public LogSettings setEvictionPolicy(Supplier<EvictionPolicy> evictionPolicy) {
+        super.setEvictionPolicy(evictionPolicy);
+        return this;
+    }
+
+    @Override
+    public LogSettings setJournal(File journal) {
+        super.setJournal(journal);
+        return this;
+    }
+
+    @Override
+    public LogSettings setCompleteDebounce(long completeDebounce) {
+        super.setCompleteDebounce(completeDebounce);
+        return this;
+    }
+
+    @Override
+    public LogSettings setCompleteMaxLatency(long completeMaxLatency) {
+        super.setCompleteMaxLatency(completeMaxLatency);
+        return this;
+    }
+
+    @Override
+    public LogSettings setPathIndex(boolean pathIndex) {
+        super.setPathIndex(pathIndex);
+        return this;
+    }
+
+    @Override
+    public LogSettings setRegisterMBean(boolean registerMBean) {
+        super.setRegisterMBean(registerMBean);
+        return this;
+    }
+}
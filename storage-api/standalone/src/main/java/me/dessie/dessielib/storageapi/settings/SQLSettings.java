@@ -0,0 +1,170 @@
+package me.dessie.dessielib.storageapi.settings;
+
+import me.dessie.dessielib.storageapi.cache.eviction.EvictionPolicy;
+import me.dessie.dessielib.storageapi.cache.eviction.Weigher;
+import me.dessie.dessielib.storageapi.format.sql.SQLContainer;
+
+import java.io.File;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Defines the settings for a {@link SQLContainer}
+ *
+ * Along with the defaults of {@link StorageSettings}, the following are default settings:
+ *   - Table: storage
+ *   - Batch Size: 1000
+ *
+ */
+public class SQLSettings extends StorageSettings {
+
+    private static final Pattern TABLE = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
+
+    private String table;
+    private int batchSize;
+
+    /**
+     * Creates a settings instance for a {@link SQLContainer} with default settings.
+     */
+    public SQLSettings() {
+        this.table = "storage";
+        this.batchSize = 1000;
+    }
+
+    /**
+     * Sets the name of the table that the {@link SQLContainer} stores its paths in.
+     * The table is created if it doesn't exist. Multiple Containers can share a database by using different tables.
+     *
+     * Note that updating this value after creating the Container will have no effect.
+     *
+     * @param table The name of the table. Only letters, digits and underscores are allowed.
+     * @return The SQLSettings instance.
+     */
+    public SQLSettings setTable(String table) {
+        if(table == null || !TABLE.matcher(table).matches()) {
+            throw new IllegalArgumentException("Table name must only contain letters, digits and underscores!");
+        }
+
+        this.table = table;
+        return this;
+    }
+
+    /**
+     * Sets how many rows are sent to the database in a single batch when writing.
+     *
+     * Note that updating this value after creating the Container will have no effect.
+     *
+     * @param batchSize The batch size.
+     * @return The SQLSettings instance.
+     */
+    public SQLSettings setBatchSize(int batchSize) {
+        if(batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1!");
+        }
+
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    /**
+     * Returns the name of the table that the {@link SQLContainer} stores its paths in.
+     *
+     * @return The name of the table.
+     */
+    public String getTable() {
+        return table;
+    }
+
+    /**
+     * Returns how many rows are sent to the database in a single batch when writing.
+     *
+     * @return The batch size.
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    @Override
+    public SQLSettings setCacheDuration(int cacheDuration) {
+        super.setCacheDuration(cacheDuration);
+        return this;
+    }
+
+    @Override
+    public SQLSettings setFlushRate(int flushRate) {
+        super.setFlushRate(flushRate);
+        return this;
+    }
+
+    @Override
+    public SQLSettings setUsesCache(boolean usesCache) {
+        super.setUsesCache(usesCache);
+        return this;
+    }
+
+    @Override
+    public SQLSettings setCacheOnStore(boolean cacheOnStore) {
+        super.setCacheOnStore(cacheOnStore);
+        return this;
+    }
+
+    @Override
+    public SQLSettings setCacheOnRetrieve(boolean cacheOnRetrieve) {
+        super.setCacheOnRetrieve(cacheOnRetrieve);
+        return this;
+    }
+
+    @Override
+    public SQLSettings setMaxEntries(long maxEntries) {
+        super.setMaxEntries(maxEntries);
+        return this;
+    }
+
+    @Override
+    public SQLSettings setMaxWeight(long maxWeight) {
+        super.setMaxWeight(maxWeight);
+        return this;
+    }
+
+    @Override
+    public SQLSettings setWeigher(Weigher weigher) {
+        super.setWeigher(weigher);
+        return this;
+    }
+
+    @Override
+    public SQLSettings setEvictionPolicy(Supplier<EvictionPolicy> evictionPolicy) {
+        super.setEvictionPolicy(evictionPolicy);
+        return this;
+    }
+
+    @Override
+    public SQLSettings setJournal(File journal) {
+        super.setJournal(journal);
+        return this;
+    }
+
+    @Override
+    public SQLSettings setCompleteDebounce(long completeDebounce) {
+        super.setCompleteDebounce(completeDebounce);
+        return this;
+    }
+
+    @Override
+    public SQLSettings setCompleteMaxLatency(long completeMaxLatency) {
+        super.setCompleteMaxLatency(completeMaxLatency);
+        return this;
+    }
+
+    @Override
+    public SQLSettings setPathIndex(boolean pathIndex) {
+        super.setPathIndex(pathIndex);
+        return this;
+    }
+
+    @Override
+    public SQLSettings setRegisterMBean(boolean registerMBean) {
+        super.setRegisterMBean(registerMBean);
+        return this;
+    }
+}
@@ -0,0 +1,199 @@
+package me.dessie.dessielib.storageapi.settings;
+
+import me.dessie.dessielib.storageapi.cache.eviction.EvictionPolicy;
+import me.dessie.dessielib.storageapi.cache.eviction.Weigher;
+import me.dessie.dessielib.storageapi.format.flatfile.ShardedContainer;
+
+import java.io.File;
+import java.util.function.Supplier;
+
+/**
+ * Defines the settings for a {@link ShardedContainer}
+ *
+ * Along with the defaults of {@link StorageSettings}, the following are default settings:
+ *   - Shard Count: 0 (One shard for every top-level key)
+ *   - Idle Timeout: 300 seconds
+ *   - IO Concurrency: 4
+ *
+ */
+public class ShardSettings extends StorageSettings {
+
+    private int shardCount;
+    private int idleTimeout;
+    private int ioConcurrency;
+
+    /**
+     * Creates a settings instance for a {@link ShardedContainer} with default settings.
+     */
+    public ShardSettings() {
+        this.shardCount = 0;
+        this.idleTimeout = 300;
+        this.ioConcurrency = 4;
+    }
+
+    /**
+     * Sets how many shard files the top-level keys are hashed into.
+     * Set to 0 to give every top-level key its own shard file, which works best when the top-level keys are IDs, such as player UUIDs.
+     *
+     * Note that updating this value after creating the Container will have no effect,
+     * and a directory should always be opened with the same shard count.
+     *
+     * @param shardCount The amount of shards, or 0 for a shard per top-level key.
+     * @return The ShardSettings instance.
+     */
+    public ShardSettings setShardCount(int shardCount) {
+        if(shardCount < 0) {
+            throw new IllegalArgumentException("Shard count cannot be negative!");
+        }
+
+        this.shardCount = shardCount;
+        return this;
+    }
+
+    /**
+     * Sets how long, in seconds, a shard has to go without being accessed before it's unloaded from memory.
+     * Shards with changes that haven't been written yet are never unloaded.
+     * Set to 0 to never unload shards.
+     *
+     * Note that updating this value after creating the Container will have no effect.
+     *
+     * @param idleTimeout The idle timeout in seconds.
+     * @return The ShardSettings instance.
+     */
+    public ShardSettings setIdleTimeout(int idleTimeout) {
+        if(idleTimeout < 0) {
+            throw new IllegalArgumentException("Idle timeout cannot be negative!");
+        }
+
+        this.idleTimeout = idleTimeout;
+        return this;
+    }
+
+    /**
+     * Sets how many shard files can be written at the same time when a store or delete is completed.
+     *
+     * Note that updating this value after creating the Container will have no effect.
+     *
+     * @param ioConcurrency The maximum amount of shards written at once.
+     * @return The ShardSettings instance.
+     */
+    public ShardSettings setIoConcurrency(int ioConcurrency) {
+        if(ioConcurrency < 1) {
+            throw new IllegalArgumentException("IO concurrency must be at least 1!");
+        }
+
+        this.ioConcurrency = ioConcurrency;
+        return this;
+    }
+
+    /**
+     * Returns how many shard files the top-level keys are hashed into.
+     *
+     * @return The amount of shards, or 0 for a shard per top-level key.
+     */
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    /**
+     * Returns how long, in seconds, a shard has to go without being accessed before it's unloaded from memory.
+     *
+     * @return The idle timeout in seconds, or 0 if shards are never unloaded.
+     */
+    public int getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    /**
+     * Returns how many shard files can be written at the same time.
+     *
+     * @return The maximum amount of shards written at once.
+     */
+    public int getIoConcurrency() {
+        return ioConcurrency;
+    }
+
+    @Override
+    public ShardSettings setCacheDuration(int cacheDuration) {
+        super.setCacheDuration(cacheDuration);
+        return this;
+    }
+
+    @Override
+    public ShardSettings setFlushRate(int flushRate) {
+        super.setFlushRate(flushRate);
+        return this;
+    }
+
+    @Override
+    public ShardSettings setUsesCache(boolean usesCache) {
+        super.setUsesCache(usesCache);
+        return this;
+    }
+
+    @Override
+    public ShardSettings setCacheOnStore(boolean cacheOnStore) {
+        super.setCacheOnStore(cacheOnStore);
+        return this;
+    }
+
+    @Override
+    public ShardSettings setCacheOnRetrieve(boolean cacheOnRetrieve) {
+        super.setCacheOnRetrieve(cacheOnRetrieve);
+        return this;
+    }
+
+    @Override
+    public ShardSettings setMaxEntries(long maxEntries) {
+        super.setMaxEntries(maxEntries);
+        return this;
+    }
+
+    @Override
+    public ShardSettings setMaxWeight(long maxWeight) {
+        super.setMaxWeight(maxWeight);
+        return this;
+    }
+
+    @Override
+    public ShardSettings setWeigher(Weigher weigher) {
+        super.setWeigher(weigher);
+        return this;
+    }
+
+    @Override
+    public ShardSettings setEvictionPolicy(Supplier<EvictionPolicy> evictionPolicy) {
+        super.setEvictionPolicy(evictionPolicy);
+        return this;
+    }
+
+    @Override
+    public ShardSettings setJournal(File journal) {
+        super.setJournal(journal);
+        return this;
+    }
+
+    @Override
+    public ShardSettings setCompleteDebounce(long completeDebounce) {
+        super.setCompleteDebounce(completeDebounce);
+        return this;
+    }
+
+    @Override
+    public ShardSettings setCompleteMaxLatency(long completeMaxLatency) {
+        super.setCompleteMaxLatency(completeMaxLatency);
+        return this;
+    }
+
+    @Override
+    public ShardSettings setPathIndex(boolean pathIndex) {
+        super.setPathIndex(pathIndex);
+        return this;
+    }
+
+    @Override
+    public ShardSettings setRegisterMBean(boolean registerMBean) {
+        super.setRegisterMBean(registerMBean);
+        return this;
+    }
+}
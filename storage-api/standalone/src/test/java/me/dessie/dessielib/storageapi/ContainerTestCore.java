@@ -10,6 +10,10 @@ public abstract class ContainerTestCore<T extends StorageContainer> extends Cont
         super(type, testFileName, correctFileName);
     }
 
+    public ContainerTestCore(ContainerType type, String testFileName) {
+        super(type, testFileName);
+    }
+
     @Override
     public IStorageAPI provide() {
         return CoreStorageAPI.register();
@@ -0,0 +1,114 @@
+package me.dessie.dessielib.storageapi;
+
+import me.dessie.dessielib.storageapi.api.IStorageAPI;
+import me.dessie.dessielib.storageapi.container.StorageContainer;
+import me.dessie.dessielib.storageapi.container.hooks.CompleteHook;
+import me.dessie.dessielib.storageapi.container.hooks.DeleteHook;
+import me.dessie.dessielib.storageapi.container.hooks.RetrieveHook;
+import me.dessie.dessielib.storageapi.container.hooks.StoreHook;
+import me.dessie.dessielib.storageapi.settings.StorageSettings;
+import me.dessie.dessielib.storageapi.util.StoragePath;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A container that keeps every path in a Map, and counts how often its data structure is read.
+ * Used to test the behavior of StorageContainer itself, without any file format.
+ */
+public class MemoryContainer extends StorageContainer {
+
+    private final Map<String, Object> data = new ConcurrentHashMap<>();
+    private final AtomicInteger retrieves = new AtomicInteger();
+    private final AtomicInteger batches = new AtomicInteger();
+    private final AtomicInteger keyRetrieves = new AtomicInteger();
+
+    public MemoryContainer(IStorageAPI api, StorageSettings settings) {
+        super(api, settings);
+    }
+
+    @Override
+    protected StoreHook storeHook() {
+        //Hooks are created by the super constructor, so the fields can only be used lazily.
+        return new StoreHook((path, value) -> this.data.put(path, value));
+    }
+
+    @Override
+    protected DeleteHook deleteHook() {
+        return new DeleteHook(path -> {
+            StoragePath deleted = StoragePath.of(path);
+            this.data.keySet().removeIf(key -> StoragePath.of(key).startsWith(deleted));
+        });
+    }
+
+    @Override
+    protected RetrieveHook retrieveHook() {
+        return new RetrieveHook(path -> {
+            this.retrieves.incrementAndGet();
+            return this.data.get(path);
+        }, paths -> this.retrieveBatch(paths));
+    }
+
+    @Override
+    protected CompleteHook completeHook() {
+        return new CompleteHook();
+    }
+
+    @Override
+    protected Set<String> retrieveKeys(String path) {
+        this.keyRetrieves.incrementAndGet();
+
+        StoragePath parent = StoragePath.of(path);
+        Set<String> keys = new HashSet<>();
+        for(String key : this.data.keySet()) {
+            StoragePath stored = StoragePath.of(key);
+            if(stored.size() > parent.size() && stored.startsWith(parent)) {
+                keys.add(stored.getSegment(parent.size()));
+            }
+        }
+        return keys;
+    }
+
+    private Map<String, Object> retrieveBatch(Collection<String> paths) {
+        this.batches.incrementAndGet();
+
+        Map<String, Object> retrieved = new HashMap<>();
+        for(String path : paths) {
+            retrieved.put(path, this.data.get(path));
+        }
+        return retrieved;
+    }
+
+    /**
+     * @return The paths and values that are in the data structure.
+     */
+    public Map<String, Object> getData() {
+        return data;
+    }
+
+    /**
+     * @return How many single paths have been retrieved from the data structure.
+     */
+    public int getRetrieves() {
+        return retrieves.get();
+    }
+
+    /**
+     * @return How many batches of paths have been retrieved from the data structure.
+     */
+    public int getBatches() {
+        return batches.get();
+    }
+
+    /**
+     * @return How many times keys have been retrieved from the data structure.
+     */
+    public int getKeyRetrieves() {
+        return keyRetrieves.get();
+    }
+}
@@ -0,0 +1,94 @@
+package me.dessie.dessielib.storageapi.api;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+public class StorageExecutorTest {
+
+    @Test
+    public void testBound() throws InterruptedException {
+        StorageExecutor executor = new StorageExecutor(2, 3);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try {
+            //Both threads are busy, so the next 3 tasks have to wait in the queue.
+            for(int i = 0; i < 5; i++) {
+                executor.execute(() -> await(release));
+            }
+
+            Assertions.assertEquals(2, executor.getPoolSize());
+            Assertions.assertEquals(3, executor.getQueueDepth());
+            Assertions.assertEquals(0, executor.getRejectedCount());
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testCallerRuns() {
+        StorageExecutor executor = new StorageExecutor(1, 1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try {
+            executor.execute(() -> await(release));
+            executor.execute(() -> await(release));
+
+            //The queue is full, so the task runs on the Thread that submitted it instead of being lost.
+            Thread caller = Thread.currentThread();
+            CompletableFuture<Thread> ran = executor.supply(Thread::currentThread);
+            Assertions.assertTrue(ran.isDone());
+            Assertions.assertSame(caller, ran.join());
+            Assertions.assertEquals(1, executor.getRejectedCount());
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+
+        //Once shut down, tasks are rejected instead of running on the caller.
+        Assertions.assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> {}));
+    }
+
+    @Test
+    public void testInline() {
+        StorageExecutor executor = new StorageExecutor(1, 1);
+
+        try {
+            Assertions.assertFalse(StorageExecutor.isStorageThread());
+
+            //The only storage Thread supplies a nested value, which would never run if it was queued behind the Thread itself.
+            String nested = executor.supply(() -> {
+                Thread storage = Thread.currentThread();
+                CompletableFuture<Thread> inner = executor.supply(Thread::currentThread);
+
+                Assertions.assertTrue(StorageExecutor.isStorageThread());
+                Assertions.assertTrue(inner.isDone());
+                Assertions.assertSame(storage, inner.join());
+                return storage.getName();
+            }).orTimeout(5, TimeUnit.SECONDS).join();
+
+            Assertions.assertTrue(nested.startsWith("DessieLib-Storage-"));
+
+            //Failures are returned in the future, rather than thrown at the storage Thread.
+            CompletableFuture<Object> failed = executor.supply(() -> executor.supply(() -> {
+                throw new IllegalStateException();
+            })).thenCompose(future -> future);
+            Assertions.assertTrue(failed.handle((value, throwable) -> throwable != null).join());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
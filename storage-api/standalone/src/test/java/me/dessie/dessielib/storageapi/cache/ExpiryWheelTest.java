@@ -0,0 +1,178 @@
+package me.dessie.dessielib.storageapi.cache;
+
+import me.dessie.dessielib.storageapi.CoreStorageAPI;
+import me.dessie.dessielib.storageapi.MemoryContainer;
+import me.dessie.dessielib.storageapi.api.ITaskHandler;
+import me.dessie.dessielib.storageapi.api.StorageExecutor;
+import me.dessie.dessielib.storageapi.settings.StorageSettings;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ExpiryWheelTest {
+
+    @Test
+    public void testSchedule() {
+        TimerTaskHandler handler = new TimerTaskHandler();
+        ExpiryWheel wheel = new ExpiryWheel(handler, 8);
+        AtomicInteger runs = new AtomicInteger();
+
+        //Nothing is advancing the wheel until something is scheduled.
+        Assertions.assertFalse(wheel.isRunning());
+        ExpiryWheel.Timeout timeout = wheel.schedule(runs::incrementAndGet, 3);
+        Assertions.assertTrue(handler.getTimers().contains(wheel));
+        Assertions.assertEquals(3, timeout.getDeadline());
+
+        tick(wheel, 2);
+        Assertions.assertEquals(0, runs.get());
+        tick(wheel, 1);
+        Assertions.assertEquals(1, runs.get());
+        Assertions.assertTrue(timeout.isExpired());
+        Assertions.assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void testScheduleAfterRevolution() {
+        ExpiryWheel wheel = new ExpiryWheel(new TimerTaskHandler(), 8);
+        AtomicInteger runs = new AtomicInteger();
+
+        //The bucket is visited twice before the deadline, and only expires on the third visit.
+        wheel.schedule(runs::incrementAndGet, 20);
+        tick(wheel, 19);
+        Assertions.assertEquals(0, runs.get());
+        tick(wheel, 1);
+        Assertions.assertEquals(1, runs.get());
+    }
+
+    @Test
+    public void testReschedule() {
+        ExpiryWheel wheel = new ExpiryWheel(new TimerTaskHandler(), 8);
+        AtomicInteger runs = new AtomicInteger();
+
+        ExpiryWheel.Timeout timeout = wheel.schedule(runs::incrementAndGet, 2);
+        tick(wheel, 1);
+        wheel.reschedule(timeout, 3);
+        Assertions.assertEquals(4, timeout.getDeadline());
+        Assertions.assertEquals(1, wheel.size());
+
+        tick(wheel, 2);
+        Assertions.assertEquals(0, runs.get());
+        tick(wheel, 1);
+        Assertions.assertEquals(1, runs.get());
+
+        //An expired Timeout can be scheduled again.
+        wheel.reschedule(timeout, 1);
+        tick(wheel, 1);
+        Assertions.assertEquals(2, runs.get());
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new ExpiryWheel(new TimerTaskHandler()).reschedule(timeout, 1));
+    }
+
+    @Test
+    public void testCancel() {
+        ExpiryWheel wheel = new ExpiryWheel(new TimerTaskHandler(), 8);
+        AtomicInteger runs = new AtomicInteger();
+
+        ExpiryWheel.Timeout timeout = wheel.schedule(runs::incrementAndGet, 1);
+        Assertions.assertTrue(timeout.cancel());
+        Assertions.assertFalse(timeout.cancel());
+        Assertions.assertTrue(timeout.isCancelled());
+        Assertions.assertEquals(0, wheel.size());
+
+        tick(wheel, 8);
+        Assertions.assertEquals(0, runs.get());
+    }
+
+    @Test
+    public void testTouch() {
+        TimerTaskHandler handler = new TimerTaskHandler();
+        CoreStorageAPI api = CoreStorageAPI.register(handler);
+        MemoryContainer container = new MemoryContainer(api, new StorageSettings().setCacheDuration(3));
+        ExpiryWheel wheel = api.getExpiryWheel();
+
+        container.getCache().cache("path", 1);
+        CachedObject object = container.getCache().getCache().get("path");
+
+        //Touching only records the tick, so the Timeout isn't moved until it's due.
+        tick(wheel, 1);
+        container.getCache().get("path");
+        Assertions.assertEquals(3, object.getTimeout().getDeadline());
+
+        //Once due, the object was only idle for 2 of its 3 seconds, so it waits for the one that's left.
+        tick(wheel, 2);
+        Assertions.assertTrue(container.getCache().getCache().containsKey("path"));
+        Assertions.assertEquals(4, object.getTimeout().getDeadline());
+
+        tick(wheel, 1);
+        Assertions.assertFalse(container.getCache().getCache().containsKey("path"));
+        container.close();
+    }
+
+    @Test
+    public void testStop() {
+        TimerTaskHandler handler = new TimerTaskHandler();
+        CoreStorageAPI api = CoreStorageAPI.register(handler);
+        MemoryContainer first = new MemoryContainer(api, new StorageSettings().setCacheDuration(5));
+        MemoryContainer second = new MemoryContainer(api, new StorageSettings().setCacheDuration(5));
+        ExpiryWheel wheel = api.getExpiryWheel();
+
+        first.getCache().cache("path", 1);
+        second.getCache().cache("path", 1);
+
+        //The wheel still has to expire the objects of the second container.
+        first.close();
+        Assertions.assertTrue(wheel.isRunning());
+
+        second.close();
+        Assertions.assertFalse(wheel.isRunning());
+        Assertions.assertFalse(handler.getTimers().contains(wheel));
+
+        //The API stops the wheel even if objects are still pending.
+        MemoryContainer third = new MemoryContainer(api, new StorageSettings().setCacheDuration(5));
+        third.getCache().cache("path", 1);
+        Assertions.assertTrue(wheel.isRunning());
+        StorageExecutor executor = api.getExecutor();
+        api.shutdown();
+        Assertions.assertFalse(wheel.isRunning());
+        Assertions.assertTrue(executor.isShutdown());
+    }
+
+    private static void tick(ExpiryWheel wheel, int ticks) {
+        for(int i = 0; i < ticks; i++) {
+            wheel.run();
+        }
+    }
+
+    /**
+     * Runs asynchronous tasks inline, and only keeps track of timers so that the test can advance them itself.
+     */
+    private static class TimerTaskHandler implements ITaskHandler {
+
+        private final Set<Runnable> timers = new HashSet<>();
+
+        @Override
+        public void runTaskAsync(Runnable runnable) {
+            runnable.run();
+        }
+
+        @Override
+        public void runTaskLater(Runnable runnable, long delay) {}
+
+        @Override
+        public void runTaskTimer(Runnable runnable, long delay, long period) {
+            this.timers.add(runnable);
+        }
+
+        @Override
+        public void cancel(Runnable runnable) {
+            this.timers.remove(runnable);
+        }
+
+        public Set<Runnable> getTimers() {
+            return timers;
+        }
+    }
+}
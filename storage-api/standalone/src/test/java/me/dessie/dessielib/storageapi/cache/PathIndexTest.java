@@ -0,0 +1,93 @@
+package me.dessie.dessielib.storageapi.cache;
+
+import me.dessie.dessielib.storageapi.CoreStorageAPI;
+import me.dessie.dessielib.storageapi.MemoryContainer;
+import me.dessie.dessielib.storageapi.settings.StorageSettings;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class PathIndexTest {
+
+    @Test
+    public void testPaths() {
+        PathIndex index = new PathIndex();
+        index.add("homes.a");
+        index.add("homes.b.x");
+        index.add("homesick");
+
+        //Only whole segments are matched, so "homesick" isn't under "homes".
+        Assertions.assertEquals(Set.of("homes.a", "homes.b.x"), new HashSet<>(index.getPaths("homes")));
+        Assertions.assertEquals(List.of("homes.b.x"), index.getPaths("homes.b"));
+        Assertions.assertEquals(3, index.getPaths("").size());
+
+        index.remove("homes.b.x");
+        Assertions.assertEquals(List.of("homes.a"), index.getPaths("homes"));
+        Assertions.assertTrue(index.getPaths("homes.b").isEmpty());
+
+        index.clear();
+        Assertions.assertTrue(index.getPaths("").isEmpty());
+    }
+
+    @Test
+    public void testKeys() {
+        PathIndex index = new PathIndex();
+        Assertions.assertNull(index.getKeys("homes"));
+
+        index.setKeys("homes", Set.of("a"), index.getModifications());
+        index.setKeys("homes.a", Set.of("x", "y"), index.getModifications());
+
+        //Storing a path adds it to the keys of its parent, and replaces anything that was known under it.
+        index.stored("homes.b");
+        index.stored("homes.a");
+        Assertions.assertEquals(Set.of("a", "b"), index.getKeys("homes"));
+        Assertions.assertNull(index.getKeys("homes.a"));
+
+        index.deleted("homes.b");
+        Assertions.assertEquals(Set.of("a"), index.getKeys("homes"));
+
+        index.invalidateKeys("homes");
+        Assertions.assertNull(index.getKeys("homes"));
+    }
+
+    @Test
+    public void testStaleKeys() {
+        PathIndex index = new PathIndex();
+
+        //Keys that were being retrieved while a path was stored may already be out of date, so they aren't remembered.
+        long modifications = index.getModifications();
+        index.stored("homes.a");
+        index.setKeys("homes", Set.of(), modifications);
+        Assertions.assertNull(index.getKeys("homes"));
+    }
+
+    @Test
+    public void testContainerKeys() {
+        MemoryContainer container = new MemoryContainer(CoreStorageAPI.register(), new StorageSettings().setPathIndex(true));
+        container.getData().put("homes.a.x", 1);
+
+        Assertions.assertEquals(Set.of("a"), container.getKeys("homes"));
+        Assertions.assertEquals(1, container.getKeyRetrieves());
+
+        //The keys are kept up to date as paths are stored and removed, so the data structure is never asked again.
+        container.store("homes.b.x", 2).join();
+        Assertions.assertEquals(Set.of("a", "b"), container.getKeys("homes"));
+
+        container.remove("homes.a");
+        container.flush().join();
+        Assertions.assertEquals(Set.of("b"), container.getKeys("homes"));
+        Assertions.assertEquals(1, container.getKeyRetrieves());
+
+        //Without the index, every call reads the data structure.
+        MemoryContainer unindexed = new MemoryContainer(CoreStorageAPI.register(), new StorageSettings());
+        unindexed.getKeys("homes");
+        unindexed.getKeys("homes");
+        Assertions.assertEquals(2, unindexed.getKeyRetrieves());
+
+        container.close();
+        unindexed.close();
+    }
+}
@@ -0,0 +1,85 @@
+package me.dessie.dessielib.storageapi.cache;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ScheduledTaskHandlerTest {
+
+    @Test
+    public void testDelay() {
+        ScheduledTaskHandler handler = new ScheduledTaskHandler();
+        CompletableFuture<Long> ran = new CompletableFuture<>();
+
+        //Delays are as precise as their unit, instead of being rounded up to a second.
+        long start = System.nanoTime();
+        handler.runTaskLater(() -> ran.complete(System.nanoTime()), 100, TimeUnit.MILLISECONDS);
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(ran.orTimeout(5, TimeUnit.SECONDS).join() - start);
+
+        Assertions.assertTrue(elapsed >= 100, "Ran after " + elapsed + "ms");
+        Assertions.assertTrue(elapsed < 1000, "Ran after " + elapsed + "ms");
+        Assertions.assertEquals(0, handler.getScheduledCount());
+        handler.shutdown();
+    }
+
+    @Test
+    public void testCancel() throws InterruptedException {
+        ScheduledTaskHandler handler = new ScheduledTaskHandler();
+        AtomicInteger runs = new AtomicInteger();
+        Runnable task = runs::incrementAndGet;
+
+        handler.runTaskLater(task, 100, TimeUnit.MILLISECONDS);
+        handler.runTaskTimer(task, 1, 1);
+        Assertions.assertEquals(2, handler.getScheduledCount());
+
+        //Every delayed and repeating run of the task is cancelled together.
+        handler.cancel(task);
+        Assertions.assertEquals(0, handler.getScheduledCount());
+
+        Thread.sleep(300);
+        Assertions.assertEquals(0, runs.get());
+        handler.shutdown();
+    }
+
+    @Test
+    public void testShutdown() throws InterruptedException {
+        ScheduledTaskHandler handler = new ScheduledTaskHandler();
+        AtomicInteger runs = new AtomicInteger();
+
+        handler.runTaskLater(runs::incrementAndGet, 100, TimeUnit.MILLISECONDS);
+        Assertions.assertTrue(handler.awaitTermination(5, TimeUnit.SECONDS));
+        Assertions.assertTrue(handler.isShutdown());
+
+        //Scheduled tasks are dropped, and new tasks are ignored instead of throwing.
+        Assertions.assertDoesNotThrow(() -> handler.runTaskAsync(runs::incrementAndGet));
+        Thread.sleep(200);
+        Assertions.assertEquals(0, runs.get());
+    }
+
+    @Test
+    public void testPlatformWorkers() {
+        //Without virtual threads, tasks run on a pool of daemon platform threads.
+        ScheduledTaskHandler handler = new ScheduledTaskHandler(false);
+        Thread worker = this.runAsync(handler);
+        Assertions.assertEquals(Thread.class, worker.getClass());
+        Assertions.assertTrue(worker.isDaemon());
+        Assertions.assertTrue(worker.getName().startsWith("DessieLib-Worker-"));
+        handler.shutdown();
+
+        //Virtual threads are used when the JVM has them, and the same platform threads otherwise.
+        ScheduledTaskHandler fallback = new ScheduledTaskHandler();
+        Thread defaultWorker = this.runAsync(fallback);
+        Assertions.assertEquals(Runtime.version().feature() < 21, defaultWorker.getClass() == Thread.class);
+        Assertions.assertTrue(defaultWorker.getName().startsWith("DessieLib-Worker-"));
+        fallback.shutdown();
+    }
+
+    private Thread runAsync(ScheduledTaskHandler handler) {
+        CompletableFuture<Thread> thread = new CompletableFuture<>();
+        handler.runTaskAsync(() -> thread.complete(Thread.currentThread()));
+        return thread.orTimeout(5, TimeUnit.SECONDS).join();
+    }
+}
@@ -0,0 +1,107 @@
+package me.dessie.dessielib.storageapi.cache;
+
+import me.dessie.dessielib.storageapi.CoreStorageAPI;
+import me.dessie.dessielib.storageapi.MemoryContainer;
+import me.dessie.dessielib.storageapi.cache.eviction.LRUPolicy;
+import me.dessie.dessielib.storageapi.cache.eviction.Weigher;
+import me.dessie.dessielib.storageapi.settings.StorageSettings;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class StorageCacheTest {
+
+    @Test
+    public void testMaxEntries() {
+        MemoryContainer container = new MemoryContainer(CoreStorageAPI.register(), new StorageSettings()
+                .setMaxEntries(3).setEvictionPolicy(LRUPolicy::new));
+        StorageCache cache = container.getCache();
+
+        cache.cache("a", 1);
+        cache.cache("b", 2);
+        cache.cache("c", 3);
+        cache.get("a");
+        cache.cache("d", 4);
+
+        //The least recently used path is evicted once there are more than 3.
+        Assertions.assertTrue(cache.isBounded());
+        Assertions.assertEquals(3, cache.getCache().size());
+        Assertions.assertFalse(cache.isCached("b"));
+        Assertions.assertTrue(cache.isCached("a"));
+        Assertions.assertEquals(1, container.getStatistics().getCacheEvictions());
+        container.close();
+    }
+
+    @Test
+    public void testMaxWeight() {
+        MemoryContainer container = new MemoryContainer(CoreStorageAPI.register(), new StorageSettings()
+                .setMaxWeight(10).setWeigher((path, value) -> (Integer) value).setEvictionPolicy(LRUPolicy::new));
+        StorageCache cache = container.getCache();
+
+        cache.cache("a", 4);
+        cache.cache("b", 4);
+        Assertions.assertEquals(8, cache.getWeightedSize());
+
+        //Caching a path again only charges the difference.
+        cache.cache("a", 5);
+        Assertions.assertEquals(9, cache.getWeightedSize());
+
+        //Heavy objects evict as many paths as it takes to get back within the weight.
+        cache.cache("c", 7);
+        Assertions.assertEquals(List.of("c"), cache.getCachedPaths(""));
+        Assertions.assertEquals(7, cache.getWeightedSize());
+
+        cache.remove("c");
+        Assertions.assertEquals(0, cache.getWeightedSize());
+        container.close();
+    }
+
+    @Test
+    public void testWeigher() {
+        Assertions.assertEquals(1, Weigher.singleton().weigh("path", List.of(1, 2, 3)));
+
+        //The estimate grows with the path, the value and every element of a collection.
+        Weigher weigher = Weigher.estimating();
+        Assertions.assertTrue(weigher.weigh("path", "a longer String") > weigher.weigh("path", "short"));
+        Assertions.assertTrue(weigher.weigh("a.longer.path", 1) > weigher.weigh("path", 1));
+        Assertions.assertTrue(weigher.weigh("path", List.of("a", "b")) > weigher.weigh("path", List.of("a")));
+        Assertions.assertTrue(weigher.weigh("path", new int[100]) > weigher.weigh("path", new int[1]));
+        Assertions.assertTrue(weigher.weigh("path", null) > 0);
+    }
+
+    @Test
+    public void testBudget() {
+        CoreStorageAPI api = CoreStorageAPI.register();
+        api.setCacheBudget(100);
+
+        StorageSettings settings = new StorageSettings().setWeigher((path, value) -> 10);
+        MemoryContainer heavy = new MemoryContainer(api, settings);
+        MemoryContainer light = new MemoryContainer(api, settings);
+        for(int i = 0; i < 8; i++) {
+            heavy.getCache().cache("path" + i, i);
+        }
+        for(int i = 0; i < 4; i++) {
+            light.getCache().cache("path" + i, i);
+        }
+
+        //The budget is reclaimed from whichever cache is heaviest, even though the light cache went over it.
+        CacheBudget budget = api.getCacheBudget();
+        Assertions.assertEquals(100, budget.getWeight());
+        Assertions.assertEquals(60, heavy.getCache().getWeightedSize());
+        Assertions.assertEquals(40, light.getCache().getWeightedSize());
+
+        //Closing a container gives its weight back, and it's no longer evicted from.
+        heavy.close();
+        Assertions.assertEquals(40, budget.getWeight());
+        Assertions.assertTrue(heavy.getCache().getCache().isEmpty());
+
+        for(int i = 4; i < 12; i++) {
+            light.getCache().cache("path" + i, i);
+        }
+        Assertions.assertEquals(100, budget.getWeight());
+        Assertions.assertEquals(100, light.getCache().getWeightedSize());
+        light.close();
+        Assertions.assertEquals(0, budget.getWeight());
+    }
+}
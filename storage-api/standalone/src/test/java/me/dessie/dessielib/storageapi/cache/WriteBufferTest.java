@@ -0,0 +1,197 @@
+package me.dessie.dessielib.storageapi.cache;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class WriteBufferTest {
+
+    @Test
+    public void testDiscardDraining() {
+        WriteBuffer buffer = new WriteBuffer();
+        buffer.set("stored", 1);
+        buffer.set("kept", 2);
+
+        WriteBuffer.Drain drain = buffer.drain();
+        Assertions.assertTrue(buffer.isSet("stored"));
+
+        //A direct store while flushing discards the drained write, so the flush can't overwrite it.
+        buffer.discard("stored");
+        Assertions.assertFalse(buffer.isPending("stored"));
+        Assertions.assertFalse(drain.write("stored", () -> Assertions.fail("A discarded write was run!")));
+
+        List<String> written = new ArrayList<>();
+        Assertions.assertTrue(drain.write("kept", () -> written.add("kept")));
+        Assertions.assertEquals(List.of("kept"), written);
+
+        //Discarded writes aren't put back by a failed flush either.
+        drain.restore();
+        Assertions.assertFalse(buffer.isPending("stored"));
+        Assertions.assertEquals(2, buffer.get("kept"));
+    }
+
+    @Test
+    public void testDiscardWaitsForWrite() throws Exception {
+        WriteBuffer buffer = new WriteBuffer();
+        buffer.set("path", 1);
+        WriteBuffer.Drain drain = buffer.drain();
+
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Boolean> write = CompletableFuture.supplyAsync(() -> drain.write("path", () -> {
+            writing.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        Assertions.assertTrue(writing.await(5, TimeUnit.SECONDS));
+
+        //The discard can't finish until the drained write has, so anything stored afterwards replaces it.
+        CompletableFuture<Void> discard = CompletableFuture.runAsync(() -> buffer.discard("path"));
+        Thread.sleep(50);
+        Assertions.assertFalse(discard.isDone());
+
+        release.countDown();
+        discard.get(5, TimeUnit.SECONDS);
+        Assertions.assertTrue(write.get(5, TimeUnit.SECONDS));
+        Assertions.assertFalse(buffer.isPending("path"));
+    }
+
+    @Test
+    public void testWriteDoesNotBlockOtherPaths() throws Exception {
+        WriteBuffer buffer = new WriteBuffer();
+        for(int i = 0; i < 64; i++) {
+            buffer.set("path" + i, i);
+        }
+        WriteBuffer.Drain drain = buffer.drain();
+
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Boolean> write = CompletableFuture.supplyAsync(() -> drain.write("path0", () -> {
+            writing.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        Assertions.assertTrue(writing.await(5, TimeUnit.SECONDS));
+
+        //Only the path that is being written waits, no matter which other paths are discarded.
+        CompletableFuture.runAsync(() -> {
+            for(int i = 1; i < 64; i++) {
+                buffer.discard("path" + i);
+            }
+        }).get(5, TimeUnit.SECONDS);
+
+        release.countDown();
+        Assertions.assertTrue(write.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testWriteBack() {
+        WriteBuffer buffer = new WriteBuffer();
+        buffer.set("path", 1);
+        buffer.set("other", 2);
+        WriteBuffer.Drain drain = buffer.drain();
+
+        //A write may store to the same buffer, which discards the path it's writing.
+        Assertions.assertTrue(drain.write("path", () -> {
+            buffer.discard("path");
+            buffer.discard("other");
+            buffer.set("path", 3);
+        }));
+        Assertions.assertFalse(drain.write("other", () -> Assertions.fail("A discarded write was run!")));
+
+        drain.release();
+        Assertions.assertEquals(3, buffer.get("path"));
+        Assertions.assertFalse(buffer.isPending("other"));
+    }
+
+    @Test
+    public void testDraining() {
+        WriteBuffer buffer = new WriteBuffer();
+        buffer.set("drained", 1);
+        buffer.remove("removed");
+        WriteBuffer.Drain drain = buffer.drain();
+
+        //Writes that are being flushed are still pending, so the buffer isn't empty until they're released.
+        Assertions.assertFalse(buffer.isEmpty());
+        Assertions.assertEquals(2, buffer.size());
+
+        buffer.set("drained", 2);
+        Assertions.assertEquals(3, buffer.size());
+
+        drain.release();
+        Assertions.assertFalse(buffer.isEmpty());
+        Assertions.assertEquals(1, buffer.size());
+
+        buffer.drain().release();
+        Assertions.assertTrue(buffer.isEmpty());
+        Assertions.assertEquals(0, buffer.size());
+    }
+
+    @Test
+    public void testClear() {
+        WriteBuffer buffer = new WriteBuffer();
+        buffer.set("drained", 1);
+        WriteBuffer.Drain drain = buffer.drain();
+        buffer.set("pending", 2);
+
+        //Clearing also clears what is being flushed, so the flush skips it.
+        buffer.clear();
+        Assertions.assertTrue(buffer.isEmpty());
+        Assertions.assertFalse(buffer.isPending("drained"));
+        Assertions.assertFalse(buffer.isPending("pending"));
+        Assertions.assertFalse(drain.write("drained", () -> Assertions.fail("A cleared write was run!")));
+
+        drain.restore();
+        Assertions.assertTrue(buffer.isEmpty());
+    }
+
+    @Test
+    public void testDrainRace() throws Exception {
+        WriteBuffer buffer = new WriteBuffer();
+        int writers = 4;
+        int writes = 5000;
+
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for(int i = 0; i < writers; i++) {
+            int writer = i;
+            futures.add(CompletableFuture.runAsync(() -> {
+                for(int j = 0; j < writes; j++) {
+                    buffer.set(writer + "." + j, j);
+                }
+            }));
+        }
+
+        //Every write ends up in exactly one drain, no matter when the buffer is swapped.
+        Set<String> drained = new HashSet<>();
+        int total = 0;
+        while(!CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).isDone()) {
+            WriteBuffer.Drain drain = buffer.drain();
+            drained.addAll(drain.getSets().keySet());
+            total += drain.getSets().size();
+            drain.release();
+        }
+
+        WriteBuffer.Drain drain = buffer.drain();
+        drained.addAll(drain.getSets().keySet());
+        total += drain.getSets().size();
+        drain.release();
+
+        Assertions.assertEquals(writers * writes, drained.size());
+        Assertions.assertEquals(writers * writes, total);
+        Assertions.assertTrue(buffer.isEmpty());
+        Assertions.assertFalse(buffer.isPending("0.0"));
+    }
+}
@@ -0,0 +1,89 @@
+package me.dessie.dessielib.storageapi.cache.eviction;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+public class EvictionPolicyTest {
+
+    @Test
+    public void testLRUVictim() {
+        LRUPolicy policy = new LRUPolicy();
+        policy.onInsert("a");
+        policy.onInsert("b");
+        policy.onInsert("c");
+
+        //Accessing a path makes it the most recently used, and removed paths are never chosen.
+        policy.onAccess("a");
+        Assertions.assertEquals("b", policy.victim());
+
+        policy.onRemove("c");
+        Assertions.assertEquals("a", policy.victim());
+        Assertions.assertNull(policy.victim());
+    }
+
+    @Test
+    public void testTinyLFUKeepsFrequentPaths() {
+        //A path that is used often survives a burst of paths that are only used once.
+        Assertions.assertTrue(this.simulate(new TinyLFUPolicy(), 10).contains("hot"));
+
+        //LRU only knows that the burst is more recent, so it evicts the path.
+        Assertions.assertFalse(this.simulate(new LRUPolicy(), 10).contains("hot"));
+    }
+
+    @Test
+    public void testTinyLFUVictims() {
+        TinyLFUPolicy policy = new TinyLFUPolicy();
+        for(int i = 0; i < 100; i++) {
+            policy.onInsert("path" + i);
+        }
+        policy.onRemove("path50");
+
+        //Every path that is still tracked is chosen exactly once, wherever it is in the policy.
+        Set<String> victims = new LinkedHashSet<>();
+        for(String victim = policy.victim(); victim != null; victim = policy.victim()) {
+            Assertions.assertTrue(victims.add(victim));
+        }
+        Assertions.assertEquals(99, victims.size());
+        Assertions.assertFalse(victims.contains("path50"));
+    }
+
+    @Test
+    public void testClear() {
+        TinyLFUPolicy policy = new TinyLFUPolicy();
+        policy.onInsert("a");
+        policy.onAccess("a");
+        policy.clear();
+
+        Assertions.assertNull(policy.victim());
+    }
+
+    /**
+     * Inserts a path that is accessed often, and then a burst of one-off paths, into a cache of the provided size.
+     *
+     * @return The paths that are still cached afterwards.
+     */
+    private Set<String> simulate(EvictionPolicy policy, int capacity) {
+        Set<String> cached = new LinkedHashSet<>();
+        this.insert(policy, cached, "hot", capacity);
+        for(int i = 0; i < 5; i++) {
+            policy.onAccess("hot");
+        }
+
+        for(int i = 0; i < 100; i++) {
+            this.insert(policy, cached, "path" + i, capacity);
+        }
+        return cached;
+    }
+
+    private void insert(EvictionPolicy policy, Set<String> cached, String path, int capacity) {
+        cached.add(path);
+        policy.onInsert(path);
+
+        while(cached.size() > capacity) {
+            cached.remove(policy.victim());
+        }
+    }
+}
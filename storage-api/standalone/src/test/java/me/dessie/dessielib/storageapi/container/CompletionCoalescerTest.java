@@ -0,0 +1,142 @@
+package me.dessie.dessielib.storageapi.container;
+
+import me.dessie.dessielib.storageapi.api.ITaskHandler;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+public class CompletionCoalescerTest {
+
+    @Test
+    public void testDebounce() throws InterruptedException {
+        ManualTaskHandler handler = new ManualTaskHandler();
+        List<CompletableFuture<Void>> completions = new ArrayList<>();
+        CompletionCoalescer coalescer = new CompletionCoalescer(() -> complete(completions), handler, 200, 10000);
+
+        CompletableFuture<Void> first = coalescer.request();
+        CompletableFuture<Void> second = coalescer.request();
+
+        //Only one timer is scheduled, however many requests arrive.
+        Assertions.assertSame(first, second);
+        Assertions.assertEquals(1, handler.getDelays().size());
+        Assertions.assertEquals(200, handler.getDelays().peekLast());
+
+        //The timer fires before the debounce has passed, so it waits for the rest of it.
+        handler.runNext();
+        Assertions.assertEquals(0, completions.size());
+        Assertions.assertEquals(1, handler.getDelays().size());
+        Assertions.assertTrue(handler.getDelays().peekLast() <= 200);
+
+        Thread.sleep(250);
+        handler.runNext();
+        Assertions.assertEquals(1, completions.size());
+        Assertions.assertTrue(first.isDone());
+    }
+
+    @Test
+    public void testMaxLatency() throws InterruptedException {
+        ManualTaskHandler handler = new ManualTaskHandler();
+        List<CompletableFuture<Void>> completions = new ArrayList<>();
+        CompletionCoalescer coalescer = new CompletionCoalescer(() -> complete(completions), handler, 200, 300);
+
+        CompletableFuture<Void> future = coalescer.request();
+        Thread.sleep(150);
+        coalescer.request();
+
+        //The last request would debounce for another 200 milliseconds, but the first has already waited for 150 of its 300.
+        handler.runNext();
+        Assertions.assertEquals(0, completions.size());
+        Assertions.assertTrue(handler.getDelays().peekLast() <= 150);
+
+        Thread.sleep(200);
+        handler.runNext();
+        Assertions.assertEquals(1, completions.size());
+        Assertions.assertTrue(future.isDone());
+    }
+
+    @Test
+    public void testCoalesceWhileRunning() {
+        List<CompletableFuture<Void>> completions = new ArrayList<>();
+        CompletionCoalescer coalescer = new CompletionCoalescer(() -> {
+            CompletableFuture<Void> completion = new CompletableFuture<>();
+            completions.add(completion);
+            return completion;
+        }, new ManualTaskHandler(), 0, 0);
+
+        CompletableFuture<Void> first = coalescer.request();
+        Assertions.assertEquals(1, completions.size());
+
+        //Requests made during a completion can't be part of it, so they all share the next one.
+        CompletableFuture<Void> second = coalescer.request();
+        CompletableFuture<Void> third = coalescer.request();
+        Assertions.assertSame(second, third);
+        Assertions.assertNotSame(first, second);
+        Assertions.assertEquals(1, completions.size());
+
+        completions.get(0).complete(null);
+        Assertions.assertTrue(first.isDone());
+        Assertions.assertFalse(second.isDone());
+        Assertions.assertEquals(2, completions.size());
+
+        //A failed completion fails every request that was waiting on it.
+        completions.get(1).completeExceptionally(new IllegalStateException());
+        Assertions.assertTrue(second.isCompletedExceptionally());
+        Assertions.assertEquals(2, completions.size());
+    }
+
+    private static CompletableFuture<Void> complete(List<CompletableFuture<Void>> completions) {
+        CompletableFuture<Void> completion = CompletableFuture.completedFuture(null);
+        completions.add(completion);
+        return completion;
+    }
+
+    /**
+     * Runs asynchronous tasks inline, and holds delayed tasks until they're run by the test.
+     */
+    private static class ManualTaskHandler implements ITaskHandler {
+
+        private final Deque<Runnable> tasks = new ArrayDeque<>();
+        private final Deque<Long> delays = new ArrayDeque<>();
+
+        @Override
+        public void runTaskAsync(Runnable runnable) {
+            runnable.run();
+        }
+
+        @Override
+        public void runTaskLater(Runnable runnable, long delay) {
+            this.runTaskLater(runnable, delay, TimeUnit.SECONDS);
+        }
+
+        @Override
+        public void runTaskLater(Runnable runnable, long delay, TimeUnit unit) {
+            this.tasks.add(runnable);
+            this.delays.add(unit.toMillis(delay));
+        }
+
+        @Override
+        public void runTaskTimer(Runnable runnable, long delay, long period) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void cancel(Runnable runnable) {
+            this.tasks.remove(runnable);
+        }
+
+        public void runNext() {
+            this.delays.poll();
+            this.tasks.poll().run();
+        }
+
+        public Deque<Long> getDelays() {
+            return delays;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package me.dessie.dessielib.storageapi.container;
+
+import me.dessie.dessielib.storageapi.CoreStorageAPI;
+import me.dessie.dessielib.storageapi.MemoryContainer;
+import me.dessie.dessielib.storageapi.decomposition.StorageDecomposer;
+import me.dessie.dessielib.storageapi.settings.StorageSettings;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+public class RetrieveAllTest {
+
+    private record Point(int x, int y) {}
+
+    @Test
+    public void testBatchedMisses() {
+        MemoryContainer container = new MemoryContainer(CoreStorageAPI.register(), new StorageSettings());
+        container.getData().put("a", 1);
+        container.getData().put("b", 2);
+        container.getData().put("c", 3);
+
+        //Every path is retrieved in one batch, in the order it was provided, including the ones that don't exist.
+        Map<String, Integer> retrieved = container.<Integer>retrieveAll(List.of("c", "missing", "a", "b")).join();
+        Assertions.assertEquals(List.of("c", "missing", "a", "b"), List.copyOf(retrieved.keySet()));
+        Assertions.assertEquals(3, retrieved.get("c"));
+        Assertions.assertNull(retrieved.get("missing"));
+        Assertions.assertEquals(1, container.getBatches());
+        Assertions.assertEquals(0, container.getRetrieves());
+
+        //The retrieved paths are cached, so they aren't retrieved again.
+        Assertions.assertEquals(1, container.<Integer>retrieveAll(List.of("a", "b")).join().get("a"));
+        Assertions.assertEquals(1, container.getBatches());
+        container.close();
+    }
+
+    @Test
+    public void testCacheHits() {
+        MemoryContainer container = new MemoryContainer(CoreStorageAPI.register(), new StorageSettings());
+        container.getData().put("a", 1);
+        container.getData().put("b", 2);
+        container.getCache().cache("a", 100);
+
+        //The cached path is served from the cache, and only the miss is part of the batch.
+        Map<String, Integer> retrieved = container.<Integer>retrieveAll(List.of("a", "b")).join();
+        Assertions.assertEquals(100, retrieved.get("a"));
+        Assertions.assertEquals(2, retrieved.get("b"));
+        Assertions.assertEquals(1, container.getBatches());
+
+        //Without any misses, the RetrieveHook isn't used at all.
+        Assertions.assertTrue(container.<Integer>retrieveAll(List.of("a", "b")).isDone());
+        Assertions.assertEquals(1, container.getBatches());
+        container.close();
+    }
+
+    @Test
+    public void testBatchedRecompose() {
+        CoreStorageAPI api = CoreStorageAPI.register();
+        api.addStorageDecomposer(new StorageDecomposer<>(Point.class, (point, decomposer) -> {
+            decomposer.addDecomposedKey("x", point.x());
+            decomposer.addDecomposedKey("y", point.y());
+            return decomposer;
+        }, (container, recompose) -> {
+            recompose.addRecomposeKey("x", Integer.class, container::retrieveAsync);
+            recompose.addRecomposeKey("y", Integer.class, container::retrieveAsync);
+            return recompose.onComplete(completed -> new Point(completed.getCompletedObject("x"), completed.getCompletedObject("y")));
+        }));
+
+        MemoryContainer container = new MemoryContainer(api, new StorageSettings().setUsesCache(false));
+        container.getData().put("first.x", 1);
+        container.getData().put("first.y", 2);
+        container.getData().put("second.x", 3);
+        container.getData().put("second.y", 4);
+
+        //The keys of both objects are retrieved together, instead of one retrieve per key.
+        Map<String, Point> retrieved = container.retrieveAll(Point.class, List.of("first", "second")).join();
+        Assertions.assertEquals(new Point(1, 2), retrieved.get("first"));
+        Assertions.assertEquals(new Point(3, 4), retrieved.get("second"));
+        Assertions.assertEquals(1, container.getBatches());
+        Assertions.assertEquals(0, container.getRetrieves());
+        container.close();
+    }
+}
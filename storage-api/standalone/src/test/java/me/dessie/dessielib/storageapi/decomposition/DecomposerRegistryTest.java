@@ -0,0 +1,52 @@
+package me.dessie.dessielib.storageapi.decomposition;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class DecomposerRegistryTest {
+
+    @Test
+    public void testListRegisters() {
+        DecomposerRegistry registry = new DecomposerRegistry();
+        StorageDecomposer<Base> decomposer = decomposer(Base.class);
+
+        //The list is a view of the registry, like it was before it was backed by one.
+        registry.getDecomposers().add(decomposer);
+        Assertions.assertEquals(decomposer, registry.get(Base.class));
+        Assertions.assertEquals(1, registry.getDecomposers().size());
+
+        StorageDecomposer<Base> replacement = decomposer(Base.class);
+        registry.getDecomposers().add(replacement);
+        Assertions.assertEquals(1, registry.getDecomposers().size());
+        Assertions.assertEquals(replacement, registry.get(Base.class));
+
+        Assertions.assertTrue(registry.getDecomposers().removeIf(registered -> registered.getType() == Base.class));
+        Assertions.assertNull(registry.get(Base.class));
+        Assertions.assertNull(registry.resolve(Sub.class));
+        Assertions.assertTrue(registry.getDecomposers().isEmpty());
+    }
+
+    @Test
+    public void testResolve() {
+        DecomposerRegistry registry = new DecomposerRegistry();
+        StorageDecomposer<Base> base = decomposer(Base.class);
+        registry.register(base);
+
+        //A subclass is decomposed by the decomposer of its superclass, but that decomposer can't recompose it.
+        Assertions.assertEquals(base, registry.resolve(Sub.class));
+        Assertions.assertNull(registry.get(Sub.class));
+
+        StorageDecomposer<Sub> sub = decomposer(Sub.class);
+        registry.register(sub);
+        Assertions.assertEquals(sub, registry.resolve(Sub.class));
+        Assertions.assertEquals(sub, registry.get(Sub.class));
+    }
+
+    private static <T> StorageDecomposer<T> decomposer(Class<T> type) {
+        return new StorageDecomposer<>(type, (object, decomposed) -> decomposed);
+    }
+
+    private static class Base {}
+
+    private static class Sub extends Base {}
+}
@@ -0,0 +1,123 @@
+package me.dessie.dessielib.storageapi.decomposition;
+
+import me.dessie.dessielib.DessieLibProcessor;
+import me.dessie.dessielib.storageapi.CoreStorageAPI;
+import me.dessie.dessielib.storageapi.api.IStorageAPI;
+import me.dessie.dessielib.storageapi.format.flatfile.JSONContainer;
+import me.dessie.dessielib.storageapi.settings.JSONSettings;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Compiles a class with the annotation processor, and uses the decomposer that it generated.
+ */
+public class GeneratedDecomposerTest {
+
+    private static final String SOURCE = """
+            package generated;
+
+            import me.dessie.dessielib.annotations.storageapi.RecomposeConstructor;
+            import me.dessie.dessielib.annotations.storageapi.Stored;
+
+            public class Sample {
+                @Stored
+                private final int value;
+
+                @Stored
+                final String name;
+
+                @RecomposeConstructor
+                private Sample(int value, String name) {
+                    this.value = value;
+                    this.name = name;
+                }
+
+                public static Sample of(int value, String name) {
+                    return new Sample(value, name);
+                }
+
+                //Doesn't return the field, so the generated decomposer must not use it.
+                public int getValue() {
+                    return this.value * 2;
+                }
+
+                public int value() {
+                    return this.value;
+                }
+
+                public String name() {
+                    return this.name;
+                }
+            }
+            """;
+
+    @Test
+    public void testGenerated() throws Exception {
+        Path directory = Files.createTempDirectory("generated");
+        try {
+            Path source = directory.resolve("generated/Sample.java");
+            Files.createDirectories(source.getParent());
+            Files.writeString(source, SOURCE, StandardCharsets.UTF_8);
+
+            JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+            ByteArrayOutputStream errors = new ByteArrayOutputStream();
+            int result = compiler.run(null, null, errors, "-d", directory.toString(),
+                    "-cp", System.getProperty("java.class.path"),
+                    "-processor", DessieLibProcessor.class.getName(),
+                    source.toString());
+            Assertions.assertEquals(0, result, errors.toString(StandardCharsets.UTF_8));
+
+            //The decomposer is generated and listed in the index.
+            Assertions.assertTrue(Files.exists(directory.resolve("generated/Sample" + GeneratedDecomposer.SUFFIX + ".class")));
+            Assertions.assertEquals("generated.Sample" + GeneratedDecomposer.SUFFIX, Files.readString(directory.resolve(GeneratedDecomposer.INDEX)).trim());
+
+            try(URLClassLoader loader = new URLClassLoader(new URL[] {directory.toUri().toURL()}, this.getClass().getClassLoader())) {
+                this.testDecomposer(loader.loadClass("generated.Sample"), directory.toFile());
+            }
+        } finally {
+            try(Stream<Path> files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+            }
+        }
+    }
+
+    private <T> void testDecomposer(Class<T> type, File directory) throws Exception {
+        StorageDecomposer<T> decomposer = GeneratedDecomposer.load(type);
+        Assertions.assertNotNull(decomposer);
+        Assertions.assertEquals(type.getName() + GeneratedDecomposer.SUFFIX, decomposer.getClass().getName());
+
+        T sample = type.cast(type.getMethod("of", int.class, String.class).invoke(null, 5, "Hello"));
+
+        //Private fields are read directly, the same as reflection would read them, and not through a getter.
+        DecomposedObject decomposed = decomposer.applyDecompose(sample);
+        Assertions.assertEquals(5, decomposed.getDecomposedMap().get("value"));
+        Assertions.assertEquals("Hello", decomposed.getDecomposedMap().get("name"));
+
+        IStorageAPI api = CoreStorageAPI.register();
+        api.addStorageDecomposer(decomposer);
+
+        JSONContainer container = new JSONContainer(api, new File(directory, "sample.json"), new JSONSettings());
+        container.store("sample", sample).join();
+        container.clearCache();
+
+        //Recomposing calls the private constructor.
+        T retrieved = container.retrieve(type, "sample");
+        Assertions.assertNotNull(retrieved);
+        Assertions.assertEquals(5, type.getMethod("value").invoke(retrieved));
+        Assertions.assertEquals("Hello", type.getMethod("name").invoke(retrieved));
+        container.close();
+    }
+}
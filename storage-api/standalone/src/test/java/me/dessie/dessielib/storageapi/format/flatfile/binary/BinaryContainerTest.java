@@ -0,0 +1,104 @@
+package me.dessie.dessielib.storageapi.format.flatfile.binary;
+
+import me.dessie.dessielib.storageapi.ContainerTestCore;
+import me.dessie.dessielib.storageapi.format.flatfile.BinaryContainer;
+import me.dessie.dessielib.storageapi.settings.StorageSettings;
+import org.junit.jupiter.api.*;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class BinaryContainerTest extends ContainerTestCore<BinaryContainer> {
+
+    //Replaced every time the file is reloaded.
+    private BinaryContainer container = this.getContainer();
+
+    public BinaryContainerTest() {
+        super(ContainerType.BINARY, "testbinarycontainer.bin");
+    }
+
+    @Test
+    @Order(1)
+    public void testNumbers() {
+        Map<String, Object> numbers = new LinkedHashMap<>();
+        numbers.put("numbers.byte", (byte) -128);
+        numbers.put("numbers.short", Short.MAX_VALUE);
+        numbers.put("numbers.char", 'D');
+        numbers.put("numbers.int", Integer.MIN_VALUE);
+        numbers.put("numbers.zero", 0);
+        numbers.put("numbers.long", Long.MAX_VALUE);
+        numbers.put("numbers.smalllong", -1L);
+        numbers.put("numbers.float", 0.1f);
+        numbers.put("numbers.nan", Float.NaN);
+        numbers.put("numbers.double", 0.1 + 0.2);
+        numbers.put("numbers.negativezero", -0.0);
+        numbers.put("numbers.infinity", Double.NEGATIVE_INFINITY);
+        numbers.put("numbers.tiny", Double.MIN_VALUE);
+
+        numbers.forEach(this.container::set);
+        this.container.flush().join();
+        this.reload();
+
+        //Every number is read back with the same type and the exact same value, which JSON can't do.
+        numbers.forEach((path, number) -> {
+            Object retrieved = this.container.retrieve(path);
+            Assertions.assertEquals(number.getClass(), retrieved.getClass(), path);
+            Assertions.assertEquals(number, retrieved, path);
+        });
+    }
+
+    @Test
+    @Order(2)
+    public void testBooleans() {
+        this.container.set("booleans.true", true);
+        this.container.set("booleans.false", false);
+        this.container.set("booleans.list", Arrays.asList(true, false, true));
+        this.container.flush().join();
+        this.reload();
+
+        //False is a value of its own, not a missing path.
+        Assertions.assertEquals(Boolean.TRUE, this.container.retrieve("booleans.true"));
+        Assertions.assertEquals(Boolean.FALSE, this.container.retrieve("booleans.false"));
+        Assertions.assertTrue(this.container.getKeys("booleans").contains("false"));
+        Assertions.assertEquals(Arrays.asList(true, false, true), this.container.retrieveList(Boolean.class, "booleans.list"));
+    }
+
+    @Test
+    @Order(3)
+    public void testMixedList() {
+        List<Object> mixed = Arrays.asList((byte) 1, (short) 2, 3, 4L, 5.5f, 6.5, false);
+        this.container.set("mixed", mixed);
+        this.container.flush().join();
+        this.reload();
+
+        //Every element of a List keeps its own type.
+        List<?> retrieved = this.container.retrieve("mixed");
+        Assertions.assertEquals(mixed, retrieved);
+        for(int i = 0; i < mixed.size(); i++) {
+            Assertions.assertEquals(mixed.get(i).getClass(), retrieved.get(i).getClass());
+        }
+
+        //The numbers survive a rewrite of the file that didn't touch them.
+        this.container.remove("booleans");
+        this.container.flush().join();
+        this.reload();
+        Assertions.assertEquals(Long.MAX_VALUE, (Long) this.container.retrieve("numbers.long"));
+        Assertions.assertEquals(mixed, this.container.retrieve("mixed"));
+        Assertions.assertNull(this.container.retrieve("booleans.true"));
+        this.container.close();
+    }
+
+    private void reload() {
+        this.container.close();
+        this.container = this.provideContainer();
+    }
+
+    @Override
+    public BinaryContainer provideContainer() {
+        return new BinaryContainer(this.getAPI(), this.getTestFile(), new StorageSettings().setUsesCache(false));
+    }
+}
@@ -0,0 +1,81 @@
+package me.dessie.dessielib.storageapi.format.flatfile.json;
+
+import me.dessie.dessielib.storageapi.ContainerTestCore;
+import me.dessie.dessielib.storageapi.format.flatfile.JSONContainer;
+import me.dessie.dessielib.storageapi.settings.JSONSettings;
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class JSONContainerAtomicTest extends ContainerTestCore<JSONContainer> {
+
+    //Replaced every time the file is opened again.
+    private JSONContainer container = this.getContainer();
+
+    public JSONContainerAtomicTest() {
+        super(ContainerType.JSON, "testjsonatomic.json");
+    }
+
+    @Test
+    @Order(1)
+    public void testIncrement() {
+        this.container.set("kills", 10);
+        this.container.flush().join();
+        this.reopen();
+
+        //Every increment is kept, even when they race with each other and a flush.
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for(int i = 0; i < 8; i++) {
+            futures.add(CompletableFuture.runAsync(() -> {
+                for(int j = 0; j < 250; j++) {
+                    this.container.increment("kills", 1);
+                    this.container.increment("stats.time", 0.5);
+                }
+            }));
+        }
+        futures.add(this.container.flush());
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+
+        Assertions.assertEquals(2010, this.container.increment("kills", 0));
+        Assertions.assertEquals(2.5, this.container.increment("balance", 2.5));
+        this.container.flush().join();
+
+        JSONContainer reloaded = this.provideContainer();
+        Assertions.assertEquals(2010, (Integer) reloaded.retrieve("kills"));
+        Assertions.assertEquals(1000.0, reloaded.retrieveDouble("stats.time"));
+        reloaded.close();
+    }
+
+    @Test
+    @Order(2)
+    public void testCompute() {
+        Assertions.assertFalse(this.container.compareAndSet("kills", 5, 6));
+        Assertions.assertTrue(this.container.compareAndSet("kills", 2010, 6));
+        Assertions.assertTrue(this.container.compareAndSet("missing", null, "Hello"));
+
+        Assertions.assertEquals("Hello!", this.container.compute("missing", (String value) -> value + "!"));
+        Assertions.assertNull(this.container.compute("kills", (Integer value) -> null));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> this.container.increment("missing", 1));
+        this.container.flush().join();
+
+        JSONContainer reloaded = this.provideContainer();
+        Assertions.assertEquals("Hello!", reloaded.retrieve("missing"));
+        Assertions.assertFalse(reloaded.getKeys("").contains("kills"));
+        reloaded.close();
+        this.container.close();
+    }
+
+    private void reopen() {
+        this.container.close();
+        this.container = this.provideContainer();
+    }
+
+    @Override
+    public JSONContainer provideContainer() {
+        return new JSONContainer(this.getAPI(), this.getTestFile(), new JSONSettings());
+    }
+}
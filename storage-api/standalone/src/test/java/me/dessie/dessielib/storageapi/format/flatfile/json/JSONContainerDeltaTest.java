@@ -0,0 +1,88 @@
+package me.dessie.dessielib.storageapi.format.flatfile.json;
+
+import me.dessie.dessielib.storageapi.ContainerTestCore;
+import me.dessie.dessielib.storageapi.data.BasicObject;
+import me.dessie.dessielib.storageapi.format.flatfile.JSONContainer;
+import me.dessie.dessielib.storageapi.settings.JSONSettings;
+import org.junit.jupiter.api.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class JSONContainerDeltaTest extends ContainerTestCore<JSONContainer> {
+
+    //Fields aren't set yet when the first container is provided, so this defaults to false.
+    private boolean compact;
+
+    //Replaced every time the file is opened again.
+    private JSONContainer container = this.getContainer();
+
+    public JSONContainerDeltaTest() {
+        super(ContainerType.JSON, "testjsondelta");
+    }
+
+    @Test
+    @Order(1)
+    public void testDeltaReplay() {
+        this.container.store("removed", 5).join();
+        this.container.store("string", "Hello").join();
+        this.container.store("object", new BasicObject(1, "World")).join();
+        this.container.delete("removed").join();
+        this.container.store("object.num", 2).join();
+
+        //Only the delta file has been written to, so the JSON file is still empty.
+        Assertions.assertTrue(this.container.getDelta().exists());
+        Assertions.assertEquals(2L, this.container.getJson().length());
+
+        this.reopen();
+        Assertions.assertEquals("Hello", this.container.retrieve("string"));
+        Assertions.assertEquals(new BasicObject(2, "World"), this.container.retrieve(BasicObject.class, "object"));
+        Assertions.assertNull(this.container.retrieve("removed"));
+    }
+
+    @Test
+    @Order(2)
+    public void testPartialRecord() throws IOException {
+        //A crash while appending leaves the last record unfinished, which is skipped.
+        Files.writeString(this.container.getDelta().toPath(), "{\"key\":\"string\",\"val", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        this.reopen();
+        Assertions.assertEquals("Hello", this.container.retrieve("string"));
+        Assertions.assertEquals(new BasicObject(2, "World"), this.container.retrieve(BasicObject.class, "object"));
+    }
+
+    @Test
+    @Order(3)
+    public void testStaleDelta() throws IOException {
+        //Compacting writes everything into the JSON file, and deletes the delta file.
+        this.compact = true;
+        this.reopen();
+        this.container.store("string", "Compacted").join();
+        Assertions.assertFalse(this.container.getDelta().exists());
+
+        //A delta file that was started from a different JSON file is discarded instead of applied.
+        Files.writeString(this.container.getDelta().toPath(), "{\"checksum\":0}\n{\"key\":\"string\",\"value\":\"Stale\"}\n", StandardCharsets.UTF_8);
+
+        this.compact = false;
+        this.reopen();
+        Assertions.assertFalse(this.container.getDelta().exists());
+        Assertions.assertEquals("Compacted", this.container.retrieve("string"));
+        Assertions.assertEquals(new BasicObject(2, "World"), this.container.retrieve(BasicObject.class, "object"));
+        this.container.close();
+    }
+
+    private void reopen() {
+        this.container.close();
+        this.container = this.provideContainer();
+    }
+
+    @Override
+    public JSONContainer provideContainer() {
+        return new JSONContainer(this.getAPI(), new File(this.getTestFile(), "delta.json"), new JSONSettings().setDeltaWrites(true).setCompactionRatio(this.compact ? 0.0001 : 1000));
+    }
+}
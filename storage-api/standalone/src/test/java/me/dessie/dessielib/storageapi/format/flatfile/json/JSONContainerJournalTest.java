@@ -0,0 +1,77 @@
+package me.dessie.dessielib.storageapi.format.flatfile.json;
+
+import me.dessie.dessielib.storageapi.ContainerTestCore;
+import me.dessie.dessielib.storageapi.data.BasicObject;
+import me.dessie.dessielib.storageapi.format.flatfile.JSONContainer;
+import me.dessie.dessielib.storageapi.settings.JSONSettings;
+import org.junit.jupiter.api.*;
+
+import java.io.File;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class JSONContainerJournalTest extends ContainerTestCore<JSONContainer> {
+
+    //Replaced every time the file is opened again.
+    private JSONContainer container = this.getContainer();
+
+    public JSONContainerJournalTest() {
+        super(ContainerType.JSON, "testjsonjournal");
+    }
+
+    @Test
+    @Order(1)
+    public void testCrashReplay() {
+        this.container.set("kept", "Hello");
+        this.container.set("removed", 5);
+        this.container.flush().join();
+
+        this.container.set("integer", 10);
+        this.container.set("object", new BasicObject(3, "World"));
+        this.container.remove("removed");
+        this.container.getJournal().sync().join();
+
+        //The container is abandoned without flushing or closing it, like it would be by a crash.
+        this.abandon();
+
+        Assertions.assertEquals(10, (Integer) this.container.get("integer"));
+        Assertions.assertTrue(this.container.getCache().getWriteBuffer().isRemoved("removed"));
+
+        //Replayed objects are only decomposed, so they can't be read from the cache until they're flushed.
+        Assertions.assertNull(this.container.get("object"));
+        Assertions.assertFalse(this.container.isCached("object"));
+
+        this.container.flush().join();
+        Assertions.assertEquals(new BasicObject(3, "World"), this.container.retrieve(BasicObject.class, "object"));
+    }
+
+    @Test
+    @Order(2)
+    public void testReplayedFlush() {
+        this.reopen();
+
+        //Everything was flushed to the file, so nothing is replayed anymore.
+        Assertions.assertFalse(this.container.getCache().getWriteBuffer().isPending("integer"));
+        Assertions.assertEquals("Hello", this.container.retrieve("kept"));
+        Assertions.assertEquals(10, (Integer) this.container.retrieve("integer"));
+        Assertions.assertNull(this.container.retrieve("removed"));
+        Assertions.assertEquals(new BasicObject(3, "World"), this.container.retrieve(BasicObject.class, "object"));
+        this.container.close();
+    }
+
+    private void reopen() {
+        this.container.close();
+        this.container = this.provideContainer();
+    }
+
+    //Provides a new container without closing the current one, so anything it hasn't written is never written.
+    private void abandon() {
+        this.container = this.provideContainer();
+    }
+
+    @Override
+    public JSONContainer provideContainer() {
+        return new JSONContainer(this.getAPI(), new File(this.getTestFile(), "journal.json"),
+                new JSONSettings().setJournal(new File(this.getTestFile(), "journal")).setFlushRate(0));
+    }
+}
@@ -0,0 +1,137 @@
+package me.dessie.dessielib.storageapi.format.flatfile.json;
+
+import me.dessie.dessielib.storageapi.ContainerTestCore;
+import me.dessie.dessielib.storageapi.data.*;
+import me.dessie.dessielib.storageapi.format.flatfile.JSONContainer;
+import me.dessie.dessielib.storageapi.settings.JSONSettings;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Set;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class JSONContainerLazyLoadTest extends ContainerTestCore<JSONContainer> {
+
+    private boolean prettyPrint;
+
+    //Replaced every time the file is opened again.
+    private JSONContainer container = this.getContainer();
+
+    public JSONContainerLazyLoadTest() {
+        super(ContainerType.JSON, "testjsonlazyload.json");
+    }
+
+    @Test
+    @Order(1)
+    public void testScan() {
+        this.container.set("nestedcomplexobjects", createTestingObject());
+        this.container.set("path.string", "A \"quoted\", {braced} string");
+        this.container.set("path.list", Arrays.asList(1, 2, 3));
+        this.container.set("number", 5);
+        this.container.flush().join();
+
+        this.reopen();
+
+        //Nothing is parsed until it's used, but the top-level keys are still known.
+        Assertions.assertEquals(0, this.container.getObject().size());
+        Assertions.assertEquals(Set.of("nestedcomplexobjects", "path", "number"), this.container.getKeys(""));
+
+        Assertions.assertEquals("A \"quoted\", {braced} string", this.container.retrieve("path.string"));
+        Assertions.assertEquals(Set.of("path"), this.container.getObject().keySet());
+    }
+
+    @Test
+    @Order(2)
+    public void testRetrieve() {
+        NestedComplexArrayObject object = this.container.retrieve(NestedComplexArrayObject.class, "nestedcomplexobjects");
+        Assertions.assertEquals(createTestingObject().toString(), object.toString());
+        Assertions.assertEquals(5, (Integer) this.container.retrieve("number"));
+    }
+
+    @Test
+    @Order(3)
+    public void testWriteUnparsed() {
+        this.reopen();
+
+        //The keys that were never parsed are copied into the rewritten file.
+        this.container.set("path.list", Arrays.asList(4, 5));
+        this.container.remove("number");
+        this.container.flush().join();
+        Assertions.assertEquals(Set.of("path"), this.container.getObject().keySet());
+
+        //A container that parses the whole file reads the same values.
+        JSONContainer container = new JSONContainer(this.getAPI(), this.getTestFile(), new JSONSettings().setUsesCache(false));
+        NestedComplexArrayObject object = container.retrieve(NestedComplexArrayObject.class, "nestedcomplexobjects");
+        Assertions.assertEquals(createTestingObject().toString(), object.toString());
+        Assertions.assertEquals(Arrays.asList(4, 5), container.retrieveList(Integer.class, "path.list"));
+        Assertions.assertEquals("A \"quoted\", {braced} string", container.retrieve("path.string"));
+        Assertions.assertFalse(container.getKeys("").contains("number"));
+        container.close();
+    }
+
+    @Test
+    @Order(4)
+    public void testPrettyPrint() throws IOException {
+        //The file is compact by default.
+        Assertions.assertFalse(Files.readString(this.getTestFile().toPath()).contains("\n"));
+
+        this.prettyPrint = true;
+        this.reopen();
+        this.container.set("number", 6);
+        this.container.flush().join();
+        Assertions.assertTrue(Files.readString(this.getTestFile().toPath()).contains("\n  \"number\": 6"));
+
+        //Unparsed keys that were copied from the indented file can still be found.
+        this.prettyPrint = false;
+        this.reopen();
+        this.container.set("number", 7);
+        this.container.flush().join();
+        Assertions.assertEquals("A \"quoted\", {braced} string", this.container.retrieve("path.string"));
+        NestedComplexArrayObject object = this.container.retrieve(NestedComplexArrayObject.class, "nestedcomplexobjects");
+        Assertions.assertEquals(createTestingObject().toString(), object.toString());
+        Assertions.assertEquals(7, (Integer) this.container.retrieve("number"));
+    }
+
+    @Test
+    @Order(5)
+    public void testNumbers() {
+        this.container.set("numbers.int", 5);
+        this.container.set("numbers.double", 2.0);
+        this.container.set("numbers.list", Arrays.asList(1.5, 2.25));
+        this.container.flush().join();
+
+        //Numbers are decoded once when they're read, and keep their type.
+        this.reopen();
+        Assertions.assertEquals(5, (Integer) this.container.retrieve("numbers.int"));
+        Assertions.assertEquals(2.0, (Double) this.container.retrieve("numbers.double"));
+        Assertions.assertEquals(Arrays.asList(1.5, 2.25), this.container.retrieveList(Double.class, "numbers.list"));
+        this.container.close();
+    }
+
+    private void reopen() {
+        this.container.close();
+        this.container = this.provideContainer();
+    }
+
+    /**
+     * @return A NestedComplexArrayObject with two of each nested object, so every kind of nested value is parsed lazily.
+     */
+    private static NestedComplexArrayObject createTestingObject() {
+        return new NestedComplexArrayObject(
+                Arrays.asList(
+                        new NestedComplexObject(new ComplexObject(new BasicObject(1, "I am basic"), -98.24), new BasicObject(15, "I am more basic."), true),
+                        new NestedComplexObject(new ComplexObject(new BasicObject(-8, "I am basicer"), 23.76), new BasicObject(19, "I am more basicer."), false)),
+
+                Arrays.asList(
+                        new ComplexArrayObject(Arrays.asList(new ComplexObject(new BasicObject(90, "First basic"), 98.3), new ComplexObject(new BasicObject(45, "Second basic"), -9.4)), "Hola!"),
+                        new ComplexArrayObject(Arrays.asList(new ComplexObject(new BasicObject(6, "Third basic"), 32), new ComplexObject(new BasicObject(98, "Fourth basic"), -9.7)), "Hello!")), "247");
+    }
+
+    @Override
+    public JSONContainer provideContainer() {
+        return new JSONContainer(this.getAPI(), this.getTestFile(), new JSONSettings().setLazyLoad(true).setPrettyPrint(this.prettyPrint).setUsesCache(false));
+    }
+}
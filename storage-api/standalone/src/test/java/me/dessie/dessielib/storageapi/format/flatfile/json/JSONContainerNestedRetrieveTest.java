@@ -0,0 +1,80 @@
+package me.dessie.dessielib.storageapi.format.flatfile.json;
+
+import me.dessie.dessielib.storageapi.ContainerTestCore;
+import me.dessie.dessielib.storageapi.api.StorageExecutor;
+import me.dessie.dessielib.storageapi.decomposition.StorageDecomposer;
+import me.dessie.dessielib.storageapi.format.flatfile.JSONContainer;
+import me.dessie.dessielib.storageapi.settings.JSONSettings;
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class JSONContainerNestedRetrieveTest extends ContainerTestCore<JSONContainer> {
+
+    public JSONContainerNestedRetrieveTest() {
+        super(ContainerType.JSON, "testjsonnestedretrieve.json");
+
+        //A single Thread, so a retrieve that waits for another storage Thread would never finish.
+        this.getAPI().setExecutor(new StorageExecutor(1, 16));
+
+        this.getAPI().addStorageDecomposer(new StorageDecomposer<>(Point.class, (point, decomposed) -> {
+            decomposed.addDecomposedKey("x", point.x());
+            decomposed.addDecomposedKey("y", point.y());
+            return decomposed;
+        }, (container, recompose) -> {
+            recompose.addCompletedRecomposeKey("x", container::retrieve);
+            recompose.addCompletedRecomposeKey("y", container::retrieve);
+            return recompose.onComplete(completed -> new Point(completed.getCompletedObject("x"), completed.getCompletedObject("y")));
+        }));
+
+        //Retrieves its points synchronously, which happens on a storage Thread.
+        this.getAPI().addStorageDecomposer(new StorageDecomposer<>(Line.class, (line, decomposed) -> {
+            decomposed.addDecomposedKey("from", line.from());
+            decomposed.addDecomposedKey("to", line.to());
+            return decomposed;
+        }, (container, recompose) -> {
+            recompose.addCompletedRecomposeKey("from", path -> container.retrieve(Point.class, path));
+            recompose.addCompletedRecomposeKey("to", path -> container.retrieve(Point.class, path));
+            return recompose.onComplete(completed -> new Line(completed.getCompletedObject("from"), completed.getCompletedObject("to")));
+        }));
+    }
+
+    @Test
+    @Order(1)
+    public void testNestedRetrieve() {
+        Line line = new Line(new Point(1, 2), new Point(3, 4));
+        for(int i = 0; i < 4; i++) {
+            this.getContainer().store("line" + i, line).join();
+        }
+        this.getContainer().clearCache();
+
+        long start = System.nanoTime();
+        List<CompletableFuture<Line>> futures = new ArrayList<>();
+        for(int i = 0; i < 4; i++) {
+            String path = "line" + i;
+            futures.add(CompletableFuture.supplyAsync(() -> this.getContainer().retrieve(Line.class, path)));
+        }
+
+        for(CompletableFuture<Line> future : futures) {
+            Assertions.assertEquals(line, future.orTimeout(20, TimeUnit.SECONDS).join());
+        }
+
+        //The nested retrieves time out after 5 seconds if they wait for the pool.
+        Assertions.assertTrue(System.nanoTime() - start < 4_000_000_000L);
+        this.getContainer().close();
+    }
+
+    @Override
+    public JSONContainer provideContainer() {
+        return new JSONContainer(this.getAPI(), this.getTestFile(), new JSONSettings());
+    }
+
+    public record Point(int x, int y) {}
+
+    public record Line(Point from, Point to) {}
+}
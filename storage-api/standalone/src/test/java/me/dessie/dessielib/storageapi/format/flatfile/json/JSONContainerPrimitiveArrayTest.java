@@ -88,6 +88,58 @@ public class JSONContainerPrimitiveArrayTest extends ContainerTestCore<JSONConta
         Assertions.assertTrue(future.join());
     }
 
+    @Test
+    @Order(4)
+    public void testListDelta() {
+        this.getContainer().appendToList(Integer.class, "integers", 5, 2).join();
+        this.getContainer().appendToList(String.class, "path.strings", "well", "met").join();
+        List<Integer> retrieved = this.getContainer().retrieveList(Integer.class, "integers");
+        Assertions.assertEquals(Arrays.asList(2, 7, 5, 2), retrieved);
+
+        Assertions.assertEquals(2, this.getContainer().removeAllFromList(Integer.class, "integers", 2).join());
+        Assertions.assertEquals(0, this.getContainer().removeAllFromList(Integer.class, "integers", 100).join());
+
+        //Lists are changed in place in the structure, but a list that was already retrieved isn't changed.
+        Assertions.assertEquals(Arrays.asList(2, 7, 5, 2), retrieved);
+        Assertions.assertEquals(Arrays.asList(7, 5), this.getContainer().retrieveList(Integer.class, "integers"));
+        Assertions.assertTrue(this.getContainer().removeFromListAt(String.class, "path.strings", 0).join());
+        Assertions.assertFalse(this.getContainer().removeFromListAt(String.class, "path.strings", 5).join());
+
+        Assertions.assertTrue(this.getContainer().listContains(Integer.class, "integers", 5).join());
+        Assertions.assertFalse(this.getContainer().listContains(Integer.class, "integers", 2).join());
+        Assertions.assertFalse(this.getContainer().listContains(Integer.class, "missing", 2).join());
+
+        //The changes are written to the file.
+        JSONContainer reloaded = this.provideContainer();
+        Assertions.assertEquals(Arrays.asList(7, 5), reloaded.retrieveList(Integer.class, "integers"));
+        Assertions.assertEquals(List.of("met"), reloaded.retrieveList(String.class, "path.strings"));
+        reloaded.close();
+    }
+
+    @Test
+    @Order(5)
+    public void testCachedListDelta() {
+        JSONContainer container = new JSONContainer(this.getAPI(), this.getTestFile(), new StorageSettings());
+        List<Integer> retrieved = container.retrieveList(Integer.class, "integers");
+        Assertions.assertTrue(container.isCached("integers"));
+
+        //The cached list is replaced by a changed copy, so a list that was already retrieved never changes.
+        container.appendToList(Integer.class, "integers", 9).join();
+        Assertions.assertTrue(container.removeFromListAt(Integer.class, "integers", 0).join());
+        Assertions.assertEquals(Arrays.asList(7, 5), retrieved);
+        Assertions.assertEquals(Arrays.asList(5, 9), container.retrieveList(Integer.class, "integers"));
+
+        //Reading a list only flushes if the list or one of its parents is pending.
+        container.set("unrelated", 1);
+        Assertions.assertTrue(container.listContains(Integer.class, "integers", 9).join());
+        Assertions.assertTrue(container.getCache().getWriteBuffer().isPending("unrelated"));
+
+        container.remove("path");
+        Assertions.assertFalse(container.listContains(String.class, "path.strings", "met").join());
+        Assertions.assertFalse(container.getCache().getWriteBuffer().isPending("unrelated"));
+        container.close();
+    }
+
     @Override
     public JSONContainer provideContainer() {
         return new JSONContainer(this.getAPI(), this.getTestFile(), new StorageSettings().setUsesCache(false));
@@ -66,6 +66,22 @@ public class JSONContainerPrimitiveTest extends ContainerTestCore<JSONContainer>
 
     @Test
     @Order(3)
+    public void testRetrieveTyped() {
+        Assertions.assertEquals(5, this.getContainer().retrieveInt("integer"));
+        Assertions.assertEquals(-8L, this.getContainer().retrieveLong("path.integer"));
+        Assertions.assertTrue(this.getContainer().retrieveBoolean("boolean"));
+        Assertions.assertEquals("how are you", this.getContainer().retrieveString("path.string"));
+        Assertions.assertEquals(-10.2, this.getContainer().retrieveDouble("path.double"));
+
+        //Missing paths, and values of another type, return the provided value instead.
+        Assertions.assertEquals(7, this.getContainer().retrieveInt("missing", 7));
+        Assertions.assertEquals(7, this.getContainer().retrieveInt("string", 7));
+        Assertions.assertEquals(7, this.getContainer().retrieveInt("integer.child", 7));
+        Assertions.assertNull(this.getContainer().retrieveString("double"));
+    }
+
+    @Test
+    @Order(4)
     public void testDeletePrimitive() {
         List<CompletableFuture<Void>> futures = new ArrayList<>();
 
@@ -0,0 +1,60 @@
+package me.dessie.dessielib.storageapi.format.flatfile.json;
+
+import me.dessie.dessielib.storageapi.ContainerTestCore;
+import me.dessie.dessielib.storageapi.format.flatfile.JSONContainer;
+import me.dessie.dessielib.storageapi.metrics.StorageStatistics;
+import me.dessie.dessielib.storageapi.settings.JSONSettings;
+import org.junit.jupiter.api.*;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class JSONContainerStatisticsTest extends ContainerTestCore<JSONContainer> {
+
+    public JSONContainerStatisticsTest() {
+        super(ContainerType.JSON, "testjsonstatistics.json");
+    }
+
+    @Test
+    @Order(1)
+    public void testStatistics() {
+        this.getContainer().set("integer", 5);
+        this.getContainer().set("path.string", "Hello");
+        Assertions.assertEquals(2L, this.getContainer().getStatistics().getPendingWrites());
+
+        this.getContainer().flush().join();
+        this.getContainer().clearCache();
+
+        //The first retrieve misses the cache, the second is answered by it.
+        Assertions.assertEquals(5, (Integer) this.getContainer().retrieve("integer"));
+        Assertions.assertEquals(5, (Integer) this.getContainer().retrieve("integer"));
+
+        StorageStatistics statistics = this.getContainer().getStatistics();
+        Assertions.assertEquals(0L, statistics.getPendingWrites());
+        Assertions.assertEquals(1L, statistics.getFlushes());
+        Assertions.assertEquals(2L, statistics.getFlushedWrites());
+        Assertions.assertEquals(2L, statistics.getStoreLatency().getCount());
+        Assertions.assertEquals(1L, statistics.getCacheHits());
+        Assertions.assertEquals(1L, statistics.getCacheMisses());
+        Assertions.assertEquals(0.5, statistics.getCacheHitRatio());
+        Assertions.assertTrue(statistics.getFlushLatency().getPercentile(99) >= statistics.getFlushLatency().getPercentile(50));
+    }
+
+    @Test
+    @Order(2)
+    public void testMBean() throws Exception {
+        ObjectName name = this.getContainer().getMetrics().getObjectName();
+        Assertions.assertNotNull(name);
+        Assertions.assertEquals(1L, ManagementFactory.getPlatformMBeanServer().getAttribute(name, "CacheHits"));
+
+        this.getContainer().close();
+        Assertions.assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+    }
+
+    @Override
+    public JSONContainer provideContainer() {
+        return new JSONContainer(this.getAPI(), this.getTestFile(), new JSONSettings().setRegisterMBean(true));
+    }
+}
@@ -0,0 +1,150 @@
+package me.dessie.dessielib.storageapi.format.flatfile.json;
+
+import me.dessie.dessielib.storageapi.ContainerTestCore;
+import me.dessie.dessielib.storageapi.format.flatfile.JSONContainer;
+import me.dessie.dessielib.storageapi.settings.JSONSettings;
+import me.dessie.dessielib.storageapi.subscription.ChangeEvent;
+import me.dessie.dessielib.storageapi.subscription.OverflowPolicy;
+import org.junit.jupiter.api.*;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class JSONContainerSubscriptionTest extends ContainerTestCore<JSONContainer> {
+
+    private final CompletableFuture<Void> completed = new CompletableFuture<>();
+
+    public JSONContainerSubscriptionTest() {
+        super(ContainerType.JSON, "testjsonsubscription.json");
+    }
+
+    @Test
+    @Order(1)
+    public void testSubscribe() throws InterruptedException {
+        BlockingQueue<ChangeEvent> events = new LinkedBlockingQueue<>();
+        this.getContainer().subscribe("stats").subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(ChangeEvent item) {
+                events.add(item);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                JSONContainerSubscriptionTest.this.completed.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                JSONContainerSubscriptionTest.this.completed.complete(null);
+            }
+        });
+
+        //Only changes to the prefix, or within it, are delivered.
+        this.getContainer().set("stats.kills", 5);
+        this.getContainer().set("statistics", 1);
+        this.getContainer().increment("stats.kills", 1);
+        this.getContainer().remove("stats.kills");
+        this.getContainer().store("stats", "Hello").join();
+
+        Assertions.assertEquals(5, events.poll(5, TimeUnit.SECONDS).getValue());
+        Assertions.assertEquals(6, events.poll(5, TimeUnit.SECONDS).getValue());
+        Assertions.assertEquals(ChangeEvent.Type.REMOVE, events.poll(5, TimeUnit.SECONDS).getType());
+
+        ChangeEvent store = events.poll(5, TimeUnit.SECONDS);
+        Assertions.assertEquals(ChangeEvent.Type.STORE, store.getType());
+        Assertions.assertEquals("stats", store.getPath());
+        Assertions.assertTrue(events.isEmpty());
+        Assertions.assertEquals(1, this.getContainer().getChangeFeed().getSubscriptions());
+    }
+
+    @Test
+    @Order(2)
+    public void testNested() throws InterruptedException {
+        BlockingQueue<ChangeEvent> events = new LinkedBlockingQueue<>();
+        CompletableFuture<Flow.Subscription> subscribed = new CompletableFuture<>();
+        this.getContainer().subscribe("players.bob").subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+                subscribed.complete(subscription);
+            }
+
+            @Override
+            public void onNext(ChangeEvent item) {
+                events.add(item);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {}
+
+            @Override
+            public void onComplete() {}
+        });
+
+        //Changing a parent of the prefix also changes the prefix.
+        this.getContainer().set("players.bob.kills", 5);
+        this.getContainer().set("players.alice.kills", 3);
+        this.getContainer().remove("players");
+        this.getContainer().set("players", 1);
+        this.getContainer().delete("players").join();
+
+        Assertions.assertEquals("players.bob.kills", events.poll(5, TimeUnit.SECONDS).getPath());
+        Assertions.assertEquals(ChangeEvent.Type.REMOVE, events.poll(5, TimeUnit.SECONDS).getType());
+
+        ChangeEvent set = events.poll(5, TimeUnit.SECONDS);
+        Assertions.assertEquals(ChangeEvent.Type.SET, set.getType());
+        Assertions.assertEquals("players", set.getPath());
+        Assertions.assertEquals(ChangeEvent.Type.DELETE, events.poll(5, TimeUnit.SECONDS).getType());
+        Assertions.assertNull(events.poll(100, TimeUnit.MILLISECONDS));
+
+        subscribed.join().cancel();
+        Assertions.assertEquals(1, this.getContainer().getChangeFeed().getSubscriptions());
+    }
+
+    @Test
+    @Order(3)
+    public void testOverflow() throws Exception {
+        CompletableFuture<Throwable> error = new CompletableFuture<>();
+        this.getContainer().subscribe("", 1, OverflowPolicy.ERROR).subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {}
+
+            @Override
+            public void onNext(ChangeEvent item) {}
+
+            @Override
+            public void onError(Throwable throwable) {
+                error.complete(throwable);
+            }
+
+            @Override
+            public void onComplete() {}
+        });
+
+        //Nothing is requested, so the second change overflows the buffer.
+        this.getContainer().set("first", 1);
+        this.getContainer().set("second", 2);
+        Assertions.assertTrue(error.get(5, TimeUnit.SECONDS) instanceof IllegalStateException);
+        Assertions.assertEquals(1, this.getContainer().getChangeFeed().getSubscriptions());
+
+        //Closing completes the remaining subscriber.
+        this.getContainer().close();
+        this.completed.get(5, TimeUnit.SECONDS);
+        Assertions.assertEquals(0, this.getContainer().getChangeFeed().getSubscriptions());
+    }
+
+    @Override
+    public JSONContainer provideContainer() {
+        return new JSONContainer(this.getAPI(), this.getTestFile(), new JSONSettings());
+    }
+}
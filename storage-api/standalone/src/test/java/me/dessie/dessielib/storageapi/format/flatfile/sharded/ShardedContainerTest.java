@@ -0,0 +1,149 @@
+package me.dessie.dessielib.storageapi.format.flatfile.sharded;
+
+import me.dessie.dessielib.storageapi.ContainerTestCore;
+import me.dessie.dessielib.storageapi.CoreStorageAPI;
+import me.dessie.dessielib.storageapi.cache.TaskHandler;
+import me.dessie.dessielib.storageapi.format.flatfile.ShardedContainer;
+import me.dessie.dessielib.storageapi.settings.ShardSettings;
+import org.junit.jupiter.api.*;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class ShardedContainerTest extends ContainerTestCore<ShardedContainer> {
+
+    //Replaced every time the shards are reloaded from their files.
+    private ShardedContainer container = this.getContainer();
+
+    public ShardedContainerTest() {
+        super(ContainerType.SHARDED, "testshardedcontainer");
+    }
+
+    @Test
+    @Order(1)
+    public void testLazyLoad() {
+        this.container.set("alex.name", "Alex");
+        this.container.set("steve.name", "Steve");
+        this.container.set("steve.coins", 5000000000L);
+        this.container.set("spawn", "world");
+        this.container.flush().join();
+        this.reload();
+
+        //The top-level keys come from the shard files, without loading any of them.
+        Assertions.assertEquals(Set.of("alex", "steve", "spawn"), this.container.getKeys(""));
+        Assertions.assertEquals(0, this.container.getLoadedShardCount());
+
+        //Only the shard of the path that is retrieved is loaded.
+        Assertions.assertEquals("Steve", this.container.retrieve("steve.name"));
+        Assertions.assertEquals(1, this.container.getLoadedShardCount());
+        Assertions.assertEquals(5000000000L, (Long) this.container.retrieve("steve.coins"));
+        Assertions.assertEquals(Set.of("name", "coins"), this.container.getKeys("steve"));
+        Assertions.assertEquals(1, this.container.getLoadedShardCount());
+
+        Assertions.assertEquals("world", this.container.retrieve("spawn"));
+        Assertions.assertEquals(2, this.container.getLoadedShardCount());
+    }
+
+    @Test
+    @Order(2)
+    public void testIdleUnload() throws InterruptedException {
+        Thread.sleep(1500);
+        this.container.unloadIdleShards();
+        Assertions.assertEquals(0, this.container.getLoadedShardCount());
+
+        //An unloaded shard is loaded from its file again, with everything that was written to it.
+        Assertions.assertEquals("Alex", this.container.retrieve("alex.name"));
+        Assertions.assertEquals(1, this.container.getLoadedShardCount());
+
+        //Removing the only key of a shard deletes its file once it's written.
+        this.container.remove("spawn");
+        this.container.flush().join();
+        Assertions.assertFalse(new File(this.getTestFile(), "spawn.bin").exists());
+        this.container.close();
+    }
+
+    @Test
+    @Order(3)
+    public void testParallelFlush() throws InterruptedException {
+        File directory = new File(this.getTestFile().getParentFile(), "testshardedparallel");
+        delete(directory);
+
+        //Both writers wait for each other, so they only get past the barrier if they run at the same time.
+        CyclicBarrier barrier = new CyclicBarrier(2);
+        CountDownLatch started = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger writers = new AtomicInteger();
+
+        CoreStorageAPI api = CoreStorageAPI.register(new TaskHandler() {
+            @Override
+            public void runTaskAsync(Runnable runnable) {
+                if(!runnable.getClass().getName().startsWith(ShardedContainer.class.getName())) {
+                    super.runTaskAsync(runnable);
+                    return;
+                }
+
+                writers.incrementAndGet();
+                new Thread(() -> {
+                    try {
+                        barrier.await(5, TimeUnit.SECONDS);
+                        started.countDown();
+                        release.await();
+                    } catch (Exception e) {
+                        e.printStackTrace();
+                    }
+                    runnable.run();
+                }).start();
+            }
+        });
+
+        ShardedContainer container = new ShardedContainer(api, directory, new ShardSettings().setIdleTimeout(1).setIoConcurrency(2).setUsesCache(false));
+        for(int i = 0; i < 5; i++) {
+            container.set("player" + i + ".coins", i);
+        }
+        CompletableFuture<Void> flushed = container.flush();
+
+        //The 5 dirty shards are shared between as many writers as the IO concurrency allows.
+        Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(2, writers.get());
+
+        //Shards that haven't been written yet are never unloaded, however long they've been idle.
+        Thread.sleep(1500);
+        container.unloadIdleShards();
+        Assertions.assertEquals(5, container.getLoadedShardCount());
+
+        release.countDown();
+        flushed.join();
+        Assertions.assertEquals(5, directory.list((dir, name) -> name.endsWith(".bin")).length);
+
+        container.unloadIdleShards();
+        Assertions.assertEquals(0, container.getLoadedShardCount());
+        Assertions.assertEquals(4, (Integer) container.retrieve("player4.coins"));
+        container.close();
+    }
+
+    private void reload() {
+        this.container.close();
+        this.container = this.provideContainer();
+    }
+
+    private static void delete(File file) {
+        File[] files = file.listFiles();
+        if(files != null) {
+            Arrays.stream(files).forEach(ShardedContainerTest::delete);
+        }
+        file.delete();
+    }
+
+    @Override
+    public ShardedContainer provideContainer() {
+        return new ShardedContainer(this.getAPI(), this.getTestFile(), new ShardSettings().setIdleTimeout(1).setIoConcurrency(2).setUsesCache(false));
+    }
+}
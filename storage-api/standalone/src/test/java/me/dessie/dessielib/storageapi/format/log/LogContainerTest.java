@@ -0,0 +1,113 @@
+package me.dessie.dessielib.storageapi.format.log;
+
+import me.dessie.dessielib.storageapi.ContainerTestCore;
+import me.dessie.dessielib.storageapi.settings.LogSettings;
+import org.junit.jupiter.api.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.Comparator;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class LogContainerTest extends ContainerTestCore<LogContainer> {
+
+    //Replaced every time the segments are opened again.
+    private LogContainer container = this.getContainer();
+
+    public LogContainerTest() {
+        super(ContainerType.LOG, "testlogcontainer");
+    }
+
+    @Test
+    @Order(1)
+    public void testTornTail() throws IOException {
+        this.container.set("first", 1);
+        this.container.flush().join();
+        this.container.set("second", 2);
+        this.container.flush().join();
+        this.container.close();
+
+        //A crash in the middle of appending the last record leaves only part of it behind,
+        //so the index no longer matches the active segment and has to be rebuilt.
+        try(RandomAccessFile file = new RandomAccessFile(this.getSegments()[this.getSegments().length - 1], "rw")) {
+            file.setLength(file.length() - 3);
+        }
+
+        this.container = this.provideContainer();
+        Assertions.assertEquals(1, (Integer) this.container.retrieve("first"));
+        Assertions.assertNull(this.container.retrieve("second"));
+
+        //The partial record is cut off, so new records are appended where it started.
+        this.container.set("second", 3);
+        this.container.flush().join();
+        this.reopen();
+        Assertions.assertEquals(1, (Integer) this.container.retrieve("first"));
+        Assertions.assertEquals(3, (Integer) this.container.retrieve("second"));
+    }
+
+    @Test
+    @Order(2)
+    public void testSegmentRollover() {
+        String value = "x".repeat(100);
+        for(int i = 0; i < 30; i++) {
+            this.container.set("players.player" + i, value + i);
+        }
+        this.container.flush().join();
+
+        //30 records of more than 100 bytes don't fit in a single segment of 1024 bytes.
+        int segments = this.container.getSegmentCount();
+        Assertions.assertTrue(segments > 2);
+        Assertions.assertEquals(segments, this.getSegments().length);
+
+        this.reopen();
+        Assertions.assertEquals(segments, this.container.getSegmentCount());
+        for(int i = 0; i < 30; i++) {
+            Assertions.assertEquals(value + i, this.container.retrieve("players.player" + i));
+        }
+    }
+
+    @Test
+    @Order(3)
+    public void testCompaction() {
+        long keys = this.container.getKeyCount();
+        for(int i = 0; i < 500; i++) {
+            this.container.set("counter", i);
+            this.container.flush().join();
+        }
+
+        //Without compaction, the overwritten counters would fill more than 10 segments.
+        this.container.compact();
+        Assertions.assertTrue(this.container.getSegmentCount() <= 8);
+        Assertions.assertEquals(keys + 1, this.container.getKeyCount());
+        Assertions.assertEquals(499, (Integer) this.container.retrieve("counter"));
+
+        //The records that are still used are copied out of the compacted segments.
+        this.reopen();
+        Assertions.assertEquals(499, (Integer) this.container.retrieve("counter"));
+        Assertions.assertEquals("x".repeat(100) + 29, this.container.retrieve("players.player29"));
+        Assertions.assertEquals(1, (Integer) this.container.retrieve("first"));
+        this.container.close();
+    }
+
+    /**
+     * @return The segment files, from oldest to newest.
+     */
+    private File[] getSegments() {
+        File[] files = this.getTestFile().listFiles((dir, name) -> name.startsWith("segment-"));
+        Arrays.sort(files, Comparator.comparing(File::getName));
+        return files;
+    }
+
+    private void reopen() {
+        this.container.close();
+        this.container = this.provideContainer();
+    }
+
+    @Override
+    public LogContainer provideContainer() {
+        return new LogContainer(this.getAPI(), this.getTestFile(), new LogSettings().setSegmentSize(1024).setUsesCache(false));
+    }
+}
@@ -0,0 +1,83 @@
+package me.dessie.dessielib.storageapi.format.sql;
+
+import me.dessie.dessielib.storageapi.ContainerTestCore;
+import me.dessie.dessielib.storageapi.settings.SQLSettings;
+import org.junit.jupiter.api.*;
+
+import java.util.Set;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class SQLContainerTest extends ContainerTestCore<SQLContainer> {
+
+    //Replaced every time the database is reconnected to.
+    private SQLContainer container = this.getContainer();
+
+    public SQLContainerTest() {
+        super(ContainerType.SQL, "testsqlcontainer.mv.db");
+    }
+
+    @Test
+    @Order(1)
+    public void testBatchedUpserts() {
+        //More rows than fit in one batch, so they're sent as several batches in the same transaction.
+        for(int i = 0; i < 5; i++) {
+            this.container.set("players." + i + ".coins", i);
+        }
+        this.container.flush().join();
+
+        //Every row already exists, so each insert has to replace the row instead of failing on the primary key.
+        for(int i = 0; i < 5; i++) {
+            this.container.set("players." + i + ".coins", i * 10);
+        }
+        this.container.set("players.4.coins", 400);
+        this.container.flush().join();
+
+        //Storing a value over a subtree deletes every row under it.
+        this.container.set("players.0", "replaced");
+        this.container.flush().join();
+
+        this.reconnect();
+        Assertions.assertEquals("replaced", this.container.retrieve("players.0"));
+        Assertions.assertTrue(this.container.getKeys("players.0").isEmpty());
+        for(int i = 1; i < 4; i++) {
+            Assertions.assertEquals(i * 10, (Integer) this.container.retrieve("players." + i + ".coins"));
+        }
+        Assertions.assertEquals(400, (Integer) this.container.retrieve("players.4.coins"));
+    }
+
+    @Test
+    @Order(2)
+    public void testKeysByPrefix() {
+        this.container.set("homes.a.x", 1);
+        this.container.set("homes.ab.x", 2);
+        this.container.set("homes.b", 3);
+        this.container.set("homesick", 4);
+        this.container.set("homes-x.y", 5);
+        this.container.flush().join();
+        this.reconnect();
+
+        //The keys come from a range of the primary key, which only has whole segments under the path.
+        Assertions.assertEquals(Set.of("a", "ab", "b"), this.container.getKeys("homes"));
+        Assertions.assertEquals(Set.of("x"), this.container.getKeys("homes.a"));
+        Assertions.assertTrue(this.container.getKeys("homes.b").isEmpty());
+        Assertions.assertEquals(Set.of("players", "homes", "homesick", "homes-x"), this.container.getKeys(""));
+
+        //Deleting a path removes its whole range, without touching the paths that only share its prefix.
+        this.container.remove("homes.a");
+        this.container.flush().join();
+        Assertions.assertEquals(Set.of("ab", "b"), this.container.getKeys("homes"));
+        Assertions.assertEquals(2, (Integer) this.container.retrieve("homes.ab.x"));
+        this.container.close();
+    }
+
+    private void reconnect() {
+        this.container.close();
+        this.container = this.provideContainer();
+    }
+
+    @Override
+    public SQLContainer provideContainer() {
+        return new SQLContainer(this.getAPI(), "jdbc:h2:file:./tests/sql/testsqlcontainer", new SQLSettings().setBatchSize(2).setUsesCache(false));
+    }
+}
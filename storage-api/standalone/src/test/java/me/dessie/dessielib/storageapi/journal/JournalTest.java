@@ -0,0 +1,113 @@
+package me.dessie.dessielib.storageapi.journal;
+
+import me.dessie.dessielib.storageapi.CoreStorageAPI;
+import me.dessie.dessielib.storageapi.api.IStorageAPI;
+import me.dessie.dessielib.storageapi.cache.WriteBuffer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+
+public class JournalTest {
+
+    private final IStorageAPI api = CoreStorageAPI.register();
+
+    @Test
+    public void testTornTail() throws IOException {
+        File directory = directory("torn");
+        Journal journal = new Journal(directory, this.api);
+        journal.set("first", 1);
+        journal.set("second", 2);
+        journal.close();
+
+        //A crash in the middle of writing the last record leaves only part of it behind.
+        File segment = segment(directory, 0);
+        try(RandomAccessFile file = new RandomAccessFile(segment, "rw")) {
+            file.setLength(file.length() - 3);
+        }
+
+        WriteBuffer buffer = new WriteBuffer();
+        Assertions.assertEquals(1, new Journal(directory, this.api).replay(buffer));
+        Assertions.assertEquals(1, buffer.get("first"));
+        Assertions.assertFalse(buffer.isPending("second"));
+    }
+
+    @Test
+    public void testCorruptTail() throws IOException {
+        File directory = directory("corrupt");
+        Journal journal = new Journal(directory, this.api);
+        journal.set("first", 1);
+        journal.set("second", 2);
+        journal.remove("first");
+        journal.close();
+
+        //A record whose checksum doesn't match ends the segment, so nothing after it is replayed either.
+        File segment = segment(directory, 0);
+        long length = segment.length();
+        try(RandomAccessFile file = new RandomAccessFile(segment, "rw")) {
+            file.seek(length / 2);
+            int value = file.read();
+            file.seek(length / 2);
+            file.write(value ^ 0xFF);
+        }
+
+        WriteBuffer buffer = new WriteBuffer();
+        Assertions.assertEquals(1, new Journal(directory, this.api).replay(buffer));
+        Assertions.assertEquals(1, buffer.get("first"));
+        Assertions.assertFalse(buffer.isPending("second"));
+    }
+
+    @Test
+    public void testFailedSync() throws IOException {
+        File directory = directory("failed");
+        Journal journal = new Journal(directory, this.api);
+        journal.set("flushed", 1);
+        journal.sync().join();
+
+        //The first flush fails, so its segment has to be kept.
+        journal.checkpoint();
+
+        //The next segment can't be written, since a directory is in its way.
+        Assertions.assertTrue(segment(directory, 1).mkdir());
+        journal.set("lost", 2);
+        Journal.Checkpoint checkpoint = journal.checkpoint();
+        Assertions.assertTrue(journal.sync().handle((result, throwable) -> true).join());
+
+        //The sync of the checkpoint failed, so releasing it keeps the only copy of the first segment.
+        checkpoint.release();
+        Assertions.assertTrue(segment(directory, 0).isFile());
+        Assertions.assertTrue(segment(directory, 1).delete());
+
+        WriteBuffer buffer = new WriteBuffer();
+        Assertions.assertEquals(1, new Journal(directory, this.api).replay(buffer));
+        Assertions.assertEquals(1, buffer.get("flushed"));
+
+        //Once a checkpoint is synced, releasing it deletes everything before it.
+        journal.set("synced", 3);
+        journal.checkpoint().release();
+        journal.close();
+        Assertions.assertFalse(segment(directory, 0).exists());
+        Assertions.assertEquals(0, new Journal(directory, this.api).replay(new WriteBuffer()));
+    }
+
+    private static File segment(File directory, long index) {
+        return new File(directory, String.format("%016d", index) + ".wal");
+    }
+
+    private static File directory(String name) {
+        File directory = new File("tests/journal/" + name);
+        delete(directory);
+        return directory;
+    }
+
+    private static void delete(File file) {
+        File[] files = file.listFiles();
+        if(files != null) {
+            Arrays.stream(files).forEach(JournalTest::delete);
+        }
+        file.delete();
+    }
+}
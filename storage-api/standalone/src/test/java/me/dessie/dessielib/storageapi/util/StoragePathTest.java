@@ -0,0 +1,80 @@
+package me.dessie.dessielib.storageapi.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class StoragePathTest {
+
+    @Test
+    public void testParse() {
+        StoragePath path = StoragePath.of("homes.cool_home.x");
+        Assertions.assertEquals(List.of("homes", "cool_home", "x"), path.getSegments());
+        Assertions.assertEquals(3, path.size());
+        Assertions.assertEquals("x", path.getName());
+        Assertions.assertEquals("homes.cool_home.x", path.toString());
+
+        //Empty segments are kept, so the path is still exactly what was parsed.
+        Assertions.assertEquals(List.of("a", "", "b"), StoragePath.of("a..b").getSegments());
+        Assertions.assertSame(StoragePath.ROOT, StoragePath.of(""));
+        Assertions.assertTrue(StoragePath.ROOT.isRoot());
+        Assertions.assertEquals("", StoragePath.ROOT.getName());
+    }
+
+    @Test
+    public void testSegments() {
+        //Segments are joined, not parsed, so a segment can't contain the separator.
+        Assertions.assertEquals(StoragePath.of("homes.cool_home"), StoragePath.of("homes", "cool_home"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> StoragePath.of("homes", "cool.home"));
+        Assertions.assertThrows(NullPointerException.class, () -> StoragePath.of((String) null));
+        Assertions.assertSame(StoragePath.ROOT, StoragePath.of(new String[0]));
+    }
+
+    @Test
+    public void testChild() {
+        StoragePath homes = StoragePath.of("homes");
+        Assertions.assertEquals(StoragePath.of("homes.cool_home"), homes.child("cool_home"));
+        Assertions.assertEquals(StoragePath.of("homes.cool_home.x"), homes.child("cool_home.x"));
+        Assertions.assertEquals(StoragePath.of("homes.cool_home.x"), homes.child(StoragePath.of("cool_home.x")));
+
+        //The root and empty children don't add a separator.
+        Assertions.assertEquals("homes", StoragePath.ROOT.child("homes").toString());
+        Assertions.assertSame(homes, homes.child(""));
+        Assertions.assertSame(homes, homes.child(StoragePath.ROOT));
+    }
+
+    @Test
+    public void testParent() {
+        StoragePath path = StoragePath.of("homes.cool_home.x");
+        Assertions.assertEquals(StoragePath.of("homes.cool_home"), path.parent());
+        Assertions.assertSame(StoragePath.ROOT, StoragePath.of("homes").parent());
+        Assertions.assertNull(StoragePath.ROOT.parent());
+
+        Assertions.assertTrue(path.startsWith(StoragePath.of("homes")));
+        Assertions.assertTrue(path.startsWith(path));
+        Assertions.assertTrue(path.startsWith(StoragePath.ROOT));
+
+        //Only whole segments match, unlike String#startsWith.
+        Assertions.assertFalse(path.startsWith(StoragePath.of("home")));
+        Assertions.assertFalse(StoragePath.of("homes").startsWith(path));
+    }
+
+    @Test
+    public void testEquals() {
+        //However a path was built, it's equal to the same parsed path.
+        StoragePath parsed = StoragePath.of("homes.cool_home.x");
+        List<StoragePath> built = List.of(
+                StoragePath.of("homes", "cool_home", "x"),
+                StoragePath.of("homes").child("cool_home").child("x"),
+                StoragePath.of("homes.cool_home.x.y").parent());
+
+        for(StoragePath path : built) {
+            Assertions.assertEquals(parsed, path);
+            Assertions.assertEquals(parsed.hashCode(), path.hashCode());
+        }
+
+        Assertions.assertNotEquals(parsed, StoragePath.of("homes.cool_home"));
+        Assertions.assertNotEquals(parsed, "homes.cool_home.x");
+    }
+}
@@ -15,6 +15,7 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.PrintWriter;
 import java.net.URISyntaxException;
+import java.util.Arrays;
 
 @ExtendWith(ContainerParameterResolver.class)
 public abstract class ContainerTest<T extends StorageContainer> implements IStorageProvider<T> {
@@ -25,18 +26,7 @@ public abstract class ContainerTest<T extends StorageContainer> implements IStor
     private final T container;
 
     public ContainerTest(ContainerType type, String testFileName, String correctFileName) throws URISyntaxException {
-        this.api = this.provide();
-
-        if (this.getAPI() == null) {
-            throw new IllegalArgumentException("StorageAPI cannot be null. Please override the provide() method.");
-        }
-
-        this.getAPI().registerAnnotatedDecomposer(BasicObject.class);
-        this.getAPI().registerAnnotatedDecomposer(BasicArrayObject.class);
-        this.getAPI().registerAnnotatedDecomposer(ComplexObject.class);
-        this.getAPI().registerAnnotatedDecomposer(ComplexArrayObject.class);
-        this.getAPI().registerAnnotatedDecomposer(NestedComplexObject.class);
-        this.getAPI().registerAnnotatedDecomposer(NestedComplexArrayObject.class);
+        this.api = this.registerAPI();
 
         if(type == null) {
             this.testFileName = null;
@@ -58,11 +48,51 @@ public abstract class ContainerTest<T extends StorageContainer> implements IStor
         }
     }
 
+    /**
+     * Creates a test for a container that doesn't have a correct file to validate against.
+     * Anything that was left behind by a previous run is deleted before the container is provided.
+     *
+     * @param type The type of container, which is the folder the test file is in.
+     * @param testFileName The file, or directory, that the container stores to.
+     */
+    public ContainerTest(ContainerType type, String testFileName) {
+        this.api = this.registerAPI();
+        this.testFileName = new File("tests/" + type.getType() + "/" + testFileName);
+        this.correctFileName = null;
+
+        delete(this.getTestFile());
+        this.container = this.provideContainer();
+    }
+
+    private static void delete(File file) {
+        File[] files = file.listFiles();
+        if(files != null) {
+            Arrays.stream(files).forEach(ContainerTest::delete);
+        }
+        file.delete();
+    }
+
+    private IStorageAPI registerAPI() {
+        IStorageAPI api = this.provide();
+
+        if (api == null) {
+            throw new IllegalArgumentException("StorageAPI cannot be null. Please override the provide() method.");
+        }
+
+        api.registerAnnotatedDecomposer(BasicObject.class);
+        api.registerAnnotatedDecomposer(BasicArrayObject.class);
+        api.registerAnnotatedDecomposer(ComplexObject.class);
+        api.registerAnnotatedDecomposer(ComplexArrayObject.class);
+        api.registerAnnotatedDecomposer(NestedComplexObject.class);
+        api.registerAnnotatedDecomposer(NestedComplexArrayObject.class);
+        return api;
+    }
+
     @Test
     @Order(4)
     @DisabledIf("isSuperClass")
     public void validate() {
-        if(this.getTestFile() == null) {
+        if(this.getTestFile() == null || this.getCorrectFile() == null) {
             Assertions.assertTrue(true);
             return;
         }
@@ -91,7 +121,11 @@ public abstract class ContainerTest<T extends StorageContainer> implements IStor
 
     public enum ContainerType {
         JSON("json"),
-        YAML("yaml");
+        YAML("yaml"),
+        BINARY("binary"),
+        LOG("log"),
+        SHARDED("sharded"),
+        SQL("sql");
 
         private final String type;
         ContainerType(String type) {